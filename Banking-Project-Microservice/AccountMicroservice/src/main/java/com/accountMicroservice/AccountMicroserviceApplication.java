@@ -6,11 +6,13 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.accountMicroservice.proxyService") 
 @EnableJpaRepositories("com.accountMicroservice.dao") //Scans for your NotificationRepository
 @EnableDiscoveryClient // Enables service registration and discovery with Eureka
+@EnableScheduling // Drives background jobs such as the nightly interest accrual
 public class AccountMicroserviceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package com.accountMicroservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Declares the account-notification-events topic so KafkaAdmin creates it with the configured partition count.
+ * Events are keyed by userId, so a user's notifications always map to one partition and keep their order.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${account.events.partitions:3}")
+    private int partitions;
+
+    @Value("${account.events.replicas:1}")
+    private int replicas;
+
+    @Bean
+    public NewTopic accountNotificationEventsTopic() {
+        return TopicBuilder.name("account-notification-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -15,10 +15,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.accountMicroservice.dto.AccountBatchRequest;
 import com.accountMicroservice.dto.AccountCreationRequest;
 import com.accountMicroservice.dto.AccountResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BulkTransferRequest;
+import com.accountMicroservice.dto.BulkTransferResponse;
 import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.TransferRequest;
+import com.accountMicroservice.dto.TransferResponse;
 import com.accountMicroservice.dto.WithdrawRequest;
 import com.accountMicroservice.exception.AccountNotFoundException;
 import com.accountMicroservice.service.AccountService;
@@ -57,6 +62,17 @@ public class AccountController {
         return new ResponseEntity<>(accounts, HttpStatus.OK);
     }
 
+    /**
+     * Handles POST /accounts/batch requests.
+     * Looks up many accounts in one call so callers do not fetch them one at a time; accounts that
+     * are not found are left out rather than failing the whole request.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<AccountResponse>> getAccountsBatch(@Valid @RequestBody AccountBatchRequest request) {
+        List<AccountResponse> accounts = accountService.getAccountsBatch(request);
+        return new ResponseEntity<>(accounts, HttpStatus.OK);
+    }
+
     /**
      * Handles GET /accounts/{accountId} requests.
      */
@@ -116,4 +132,24 @@ public class AccountController {
         AccountResponse updatedAccount = accountService.withdrawFunds(accountId, request);
         return new ResponseEntity<>(updatedAccount, HttpStatus.OK);
     }
+
+    /**
+     * Handles POST /accounts/transfer requests.
+     * Debits the source and credits the target in one local transaction.
+     */
+    @PostMapping("/transfer")
+    public ResponseEntity<TransferResponse> transferFunds(@Valid @RequestBody TransferRequest request) {
+        TransferResponse response = accountService.transferFunds(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Handles POST /accounts/transfer/bulk requests.
+     * Applies up to 500 transfers in one local transaction; each one is applied or rejected on its own.
+     */
+    @PostMapping("/transfer/bulk")
+    public ResponseEntity<BulkTransferResponse> transferFundsBulk(@Valid @RequestBody BulkTransferRequest request) {
+        BulkTransferResponse response = accountService.transferFundsBulk(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
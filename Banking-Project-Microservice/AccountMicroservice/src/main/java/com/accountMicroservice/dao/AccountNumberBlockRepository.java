@@ -0,0 +1,24 @@
+package com.accountMicroservice.dao;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.accountMicroservice.model.AccountNumberBlock;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, String> {
+
+    /**
+     * Loads the counter with a row lock, so two instances never lease the same block.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountNumberBlock b WHERE b.name = :name")
+    Optional<AccountNumberBlock> findByIdForUpdate(@Param("name") String name);
+}
@@ -1,15 +1,22 @@
 package com.accountMicroservice.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.accountMicroservice.model.Account;
 import com.accountMicroservice.model.AccountStatus;
 import com.accountMicroservice.model.AccountType;
 
+import jakarta.persistence.LockModeType;
+
 @Repository // Marks this interface as a Spring Data JPA repository component
 public interface AccountRepository extends JpaRepository<Account, String> {
     // JpaRepository provides standard CRUD operations: save, findById, findAll, delete, etc.
@@ -37,6 +44,15 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     Optional<Account> findByUserIdAndAccountId(String userId, String accountId);
 
+    /**
+     * Batch lookups used by POST /accounts/batch, each served by a single IN query.
+     */
+    List<Account> findByAccountIdIn(Collection<String> accountIds);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    List<Account> findByUserIdIn(Collection<String> userIds);
+
     /**
      * Finds accounts by their status (e.g., ACTIVE, CLOSED).
      * @param status The status of the account.
@@ -49,5 +65,24 @@ public interface AccountRepository extends JpaRepository<Account, String> {
      */
     long countByUserIdAndAccountTypeAndStatusNot(String userId, AccountType accountType, AccountStatus status);
 
+    /**
+     * Loads an account and takes a row lock (SELECT ... FOR UPDATE) held until the transaction ends.
+     * Callers locking several accounts must do so in a fixed order (e.g., by accountId) to avoid deadlocks.
+     * @param accountId The ID of the account.
+     * @return An Optional containing the locked Account if found, or empty otherwise.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") String accountId);
+
+    /**
+     * Changes only the status column, leaving the balance to the row-locked money paths.
+     * The persistence context is cleared afterwards, so a previously loaded Account is re-read.
+     * @return The number of rows updated (0 if the account does not exist).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Account a SET a.status = :status WHERE a.accountId = :accountId")
+    int updateStatus(@Param("accountId") String accountId, @Param("status") AccountStatus status);
+
     // You can add more custom query methods as needed for your business logic.
 }
@@ -0,0 +1,10 @@
+package com.accountMicroservice.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.accountMicroservice.model.AppliedTransaction;
+
+@Repository
+public interface AppliedTransactionRepository extends JpaRepository<AppliedTransaction, String> {
+}
@@ -0,0 +1,45 @@
+package com.accountMicroservice.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.accountMicroservice.model.InterestAccrualCheckpoint;
+
+@Repository
+public interface InterestAccrualCheckpointRepository extends JpaRepository<InterestAccrualCheckpoint, String> {
+
+    /**
+     * Whether any run was started and has partitions left to finish.
+     */
+    boolean existsByCompletedFalse();
+
+    /**
+     * Dates whose run has partitions left to finish, oldest first.
+     */
+    @Query("SELECT DISTINCT c.accrualDate FROM InterestAccrualCheckpoint c WHERE c.completed = false ORDER BY c.accrualDate")
+    List<LocalDate> findIncompleteDates();
+
+    /**
+     * The most recent date a run was started for, or null before the first run.
+     */
+    @Query("SELECT MAX(c.accrualDate) FROM InterestAccrualCheckpoint c")
+    LocalDate findLatestAccrualDate();
+
+    /**
+     * Closes the checkpoints a date left under another partition count once the date has been
+     * finished under the current one.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InterestAccrualCheckpoint c SET c.completed = true, c.updatedAt = :now"
+            + " WHERE c.accrualDate = :accrualDate AND c.partitionCount <> :partitionCount AND c.completed = false")
+    int completeSuperseded(@Param("accrualDate") LocalDate accrualDate,
+                           @Param("partitionCount") int partitionCount,
+                           @Param("now") LocalDateTime now);
+}
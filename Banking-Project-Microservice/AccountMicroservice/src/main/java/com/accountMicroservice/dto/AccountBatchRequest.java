@@ -0,0 +1,27 @@
+package com.accountMicroservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for looking up many accounts in one call (POST /accounts/batch).
+ * Any combination of the lists may be given; accounts matching any of them are returned once each.
+ * Each list is capped below Oracle's 1000-element IN list limit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchRequest {
+    @Size(max = 500, message = "At most 500 account IDs per request")
+    private List<String> accountIds;
+
+    @Size(max = 500, message = "At most 500 account numbers per request")
+    private List<String> accountNumbers;
+
+    @Size(max = 500, message = "At most 500 user IDs per request")
+    private List<String> userIds;
+}
@@ -24,4 +24,7 @@ public class AccountResponse {
     private Double balance;
     private AccountStatus status;
     private LocalDateTime createdAt;
+    // Position and time of the last balance movement; a balance-changing call returns those of its own movement
+    private Long balanceSequence;
+    private LocalDateTime balanceUpdatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.accountMicroservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for applying many two-leg transfers in one call (POST /accounts/transfer/bulk), e.g. one chunk
+ * of a payroll batch. All legs are applied in one local DB transaction.
+ * Note: This DTO structure should match the AccountBulkTransferRequestDto sent by the Transaction Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 500, message = "At most 500 transfers per request")
+    @Valid
+    private List<TransferRequest> transfers;
+}
@@ -0,0 +1,17 @@
+package com.accountMicroservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO returned by a bulk transfer: one result per requested transfer, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferResponse {
+    private List<TransferLegResult> results;
+}
@@ -0,0 +1,26 @@
+package com.accountMicroservice.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one transfer of a bulk request. A rejected transfer moved no money; an applied one
+ * (including one applied by an earlier call with the same transactionId) carries both balances
+ * right after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferLegResult {
+    private String transactionId;
+    private boolean applied;
+    private Double fromBalanceAfter;
+    private Double toBalanceAfter;
+    private Long fromSequence;
+    private Long toSequence;
+    private LocalDateTime appliedAt;
+    private String failureReason; // set when not applied
+}
@@ -0,0 +1,31 @@
+package com.accountMicroservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for receiving two-leg transfer requests from the Transaction Service.
+ * Both legs (debit source, credit target) are applied in one local DB transaction.
+ * Note: This DTO structure should match the AccountTransferRequestDto sent by the Transaction Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+    @NotBlank(message = "Transaction ID cannot be empty")
+    private String transactionId; // Reference to the transaction that initiated this transfer
+
+    @NotBlank(message = "Source account ID cannot be empty")
+    private String fromAccountId;
+
+    @NotBlank(message = "Target account ID cannot be empty")
+    private String toAccountId;
+
+    @NotNull(message = "Amount cannot be null")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+}
@@ -0,0 +1,17 @@
+package com.accountMicroservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO returned by a two-leg transfer: the state of both accounts after the transfer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResponse {
+    private String transactionId;
+    private AccountResponse fromAccount;
+    private AccountResponse toAccount;
+}
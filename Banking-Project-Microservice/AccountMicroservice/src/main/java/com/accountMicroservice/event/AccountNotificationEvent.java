@@ -0,0 +1,26 @@
+package com.accountMicroservice.event;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event published to account-notification-events once the account change it describes has committed.
+ * NotificationService turns it into an email; toEmail overrides the user's address for special flows
+ * (e.g., corporate email verification).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNotificationEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String type;    // "EMAIL" | "SMS"
+    private String content;
+    private String toEmail;
+    private LocalDateTime timestamp;
+}
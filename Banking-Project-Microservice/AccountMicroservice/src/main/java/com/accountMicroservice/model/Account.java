@@ -51,4 +51,13 @@ public class Account {
     @Column(name = "pending_fine_amount", nullable = false)
     private Double pendingFineAmount = 0.0;
 
+    // Incremented under the row lock by every balance movement, so it orders the account's movements as
+    // they were applied. Null on accounts that have not moved since it was introduced.
+    @Column(name = "balance_sequence")
+    private Long balanceSequence = 0L;
+
+    // When the last balance movement was applied
+    @Column(name = "balance_updated_at")
+    private LocalDateTime balanceUpdatedAt;
+
 }
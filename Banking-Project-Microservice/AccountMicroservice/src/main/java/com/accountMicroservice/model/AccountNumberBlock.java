@@ -0,0 +1,30 @@
+package com.accountMicroservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hi-lo counter for account numbers. Each instance leases the next block of sequence values by
+ * row-locking and advancing nextValue, then hands the numbers out from memory.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_number_block")
+public class AccountNumberBlock {
+
+    @Id
+    @Column(name = "name", updatable = false, nullable = false)
+    private String name;
+
+    // First sequence value not yet leased by any instance. Stored as a value rather than a block
+    // index, so changing the block size never hands out a value twice
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
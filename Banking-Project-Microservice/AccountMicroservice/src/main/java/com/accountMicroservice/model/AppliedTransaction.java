@@ -0,0 +1,61 @@
+package com.accountMicroservice.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A balance change already applied for a Transaction Service transactionId.
+ * Written in the same local transaction as the balance update, so the primary key lets each
+ * transactionId move money at most once: a repeated call (Feign retry, client retry, saga re-drive)
+ * is answered from this row instead of being applied again.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "applied_transaction")
+public class AppliedTransaction {
+
+    @Id
+    @Column(name = "transaction_id", updatable = false, nullable = false)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private BalanceOperation operation;
+
+    @Column(name = "from_account_id")
+    private String fromAccountId;
+
+    @Column(name = "to_account_id")
+    private String toAccountId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    // Balances right after the change, returned again to a repeated call
+    @Column(name = "from_balance_after")
+    private Double fromBalanceAfter;
+
+    @Column(name = "to_balance_after")
+    private Double toBalanceAfter;
+
+    // Account balance sequences right after the change (see Account.balanceSequence)
+    @Column(name = "from_sequence")
+    private Long fromSequence;
+
+    @Column(name = "to_sequence")
+    private Long toSequence;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,7 @@
+package com.accountMicroservice.model;
+
+public enum BalanceOperation {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER
+}
@@ -0,0 +1,41 @@
+package com.accountMicroservice.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Interest accrued on a SAVINGS account and not yet credited to its balance. Written only by the
+ * nightly InterestAccrualJob (JDBC MERGE), kept apart from Account so the accrual never contends
+ * with the row-locked balance updates.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "interest_accrual")
+public class InterestAccrual {
+
+    @Id
+    @Column(name = "account_id", updatable = false, nullable = false)
+    private String accountId;
+
+    // Exact decimal, kept at 6 places so small daily amounts are not lost to rounding
+    @Column(name = "accrued_amount", nullable = false, precision = 19, scale = 6)
+    private BigDecimal accruedAmount;
+
+    // Last day accrued; a day is never accrued twice for the same account
+    @Column(name = "last_accrual_date", nullable = false)
+    private LocalDate lastAccrualDate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
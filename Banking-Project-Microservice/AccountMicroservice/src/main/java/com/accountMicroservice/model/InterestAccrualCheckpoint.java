@@ -0,0 +1,51 @@
+package com.accountMicroservice.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one accountId-range partition of an interest accrual run. Created for every partition
+ * before the run starts, then saved in the same DB transaction as each chunk of accruals, so a
+ * restarted run resumes after lastAccountId.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "interest_accrual_checkpoint")
+public class InterestAccrualCheckpoint {
+
+    // <accrualDate>/<partitionCount>/<partitionIndex>; a run with another partition count starts afresh
+    @Id
+    @Column(name = "checkpoint_id", updatable = false, nullable = false)
+    private String checkpointId;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(name = "partition_count", nullable = false)
+    private Integer partitionCount;
+
+    @Column(name = "last_account_id")
+    private String lastAccountId; // null until the first chunk commits
+
+    @Column(name = "accounts_processed", nullable = false)
+    private Long accountsProcessed;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,149 @@
+package com.accountMicroservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.accountMicroservice.dto.FineRequest;
+import com.accountMicroservice.event.AccountNotificationEvent;
+import com.accountMicroservice.proxyService.TransactionServiceClient;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Side effects of account changes (user notifications, FINE transaction records), dispatched after commit.
+ *
+ * Events raised inside a DB transaction are held until it commits and dropped if it rolls back, so a
+ * user is never told about a change that did not happen, and no transaction (or its connection) stays
+ * open across a remote call. Committed events go to a bounded queue drained by one dispatcher thread in
+ * batches: notifications are sent to account-notification-events (the producer batches them by
+ * linger.ms), FINE records go to Transaction Service. Delivery is best effort, as it was when these
+ * calls were made inline: a full queue or a failed send is logged and the event is dropped.
+ */
+@Component
+public class AccountEventPublisher {
+
+    private static final String NOTIFICATION_TOPIC = "account-notification-events";
+
+    private final KafkaTemplate<String, AccountNotificationEvent> kafkaTemplate;
+    private final TransactionServiceClient transactionServiceClient;
+    private final BlockingQueue<Object> queue;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "account-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    @Value("${account.events.batch-size:100}")
+    private int batchSize;
+
+    public AccountEventPublisher(KafkaTemplate<String, AccountNotificationEvent> kafkaTemplate,
+                                 TransactionServiceClient transactionServiceClient,
+                                 @Value("${account.events.queue-capacity:10000}") int queueCapacity) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionServiceClient = transactionServiceClient;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher.submit(this::dispatchLoop);
+    }
+
+    /**
+     * Emails the user once the current transaction (if any) commits.
+     */
+    public void notifyUser(String userId, String content) {
+        notifyUser(userId, "EMAIL", content, null);
+    }
+
+    public void notifyUser(String userId, String type, String content, String toEmail) {
+        afterCommit(new AccountNotificationEvent(userId, type, content, toEmail, LocalDateTime.now()));
+    }
+
+    /**
+     * Records a FINE transaction in Transaction Service once the current transaction (if any) commits.
+     */
+    public void recordFine(String accountId, double amount, String message) {
+        afterCommit(new FineRequest(accountId, amount, message));
+    }
+
+    private void afterCommit(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    private void enqueue(Object event) {
+        if (!queue.offer(event)) {
+            System.err.println("Account events: queue full, dropping " + event);
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Object event : batch) {
+                    dispatch(event);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: keep draining what is already queued
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(Object event) {
+        try {
+            if (event instanceof AccountNotificationEvent notification) {
+                kafkaTemplate.send(NOTIFICATION_TOPIC, notification.getUserId(), notification)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                System.err.println("Account events: notification for user " + notification.getUserId()
+                                        + " not published: " + ex.getMessage());
+                            }
+                        });
+            } else if (event instanceof FineRequest fine) {
+                transactionServiceClient.recordFine(fine);
+            }
+        } catch (Exception e) {
+            System.err.println("Account events: dispatch of " + event + " failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
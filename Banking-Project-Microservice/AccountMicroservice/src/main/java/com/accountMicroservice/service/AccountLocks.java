@@ -0,0 +1,68 @@
+package com.accountMicroservice.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.accountMicroservice.exception.AccountProcessingException;
+
+/**
+ * Per-account striped locks for balance changes on this instance.
+ *
+ * Correctness comes from the row lock (SELECT ... FOR UPDATE) taken inside the DB transaction. These
+ * locks sit in front of it so that concurrent requests for a hot account queue here, without holding a
+ * pooled connection and a DB transaction while they wait for the row. Accounts are mapped to a fixed
+ * number of stripes; two accounts sharing a stripe only serialize each other, they never deadlock,
+ * because multi-account callers take their stripes in index order.
+ */
+@Component
+public class AccountLocks {
+
+    private final ReentrantLock[] stripes;
+
+    @Value("${account.locks.wait-ms:5000}")
+    private long waitMs;
+
+    public AccountLocks(@Value("${account.locks.stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            // Fair, so a steady stream of requests for a hot account cannot starve an older one
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Runs the work while holding the stripes of all given accounts. The work should open (and commit)
+     * its own DB transaction, so the row locks are released before the stripes are.
+     *
+     * @throws AccountProcessingException if a stripe is not free within wait-ms.
+     */
+    public <T> T withLocks(Supplier<T> work, String... accountIds) {
+        int[] indexes = Arrays.stream(accountIds).mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int held = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(waitMs, TimeUnit.MILLISECONDS)) {
+                    throw new AccountProcessingException("Account is busy, please retry: " + String.join(", ", accountIds));
+                }
+                held++;
+            }
+            return work.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountProcessingException("Interrupted while waiting for account: " + String.join(", ", accountIds), e);
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String accountId) {
+        return Math.floorMod(accountId.hashCode(), stripes.length);
+    }
+}
@@ -0,0 +1,159 @@
+package com.accountMicroservice.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.accountMicroservice.dao.AccountNumberBlockRepository;
+import com.accountMicroservice.exception.AccountProcessingException;
+import com.accountMicroservice.model.AccountNumberBlock;
+
+/**
+ * Hands out 10-digit account numbers without touching the database per number.
+ *
+ * Sequence values are leased from the account_number_block hi-lo row in blocks of block-size and
+ * consumed from memory with a single atomic increment; only the thread that finds a block exhausted
+ * goes back to the database. Each value is passed through a keyed permutation of [0, 10^9), so
+ * consecutive accounts get unrelated-looking 9-digit bodies, and a Luhn check digit is appended.
+ * Because the permutation is a bijection, distinct sequence values never give the same number.
+ * The scramble key must therefore never change once numbers have been issued with it.
+ *
+ * Values of a leased block that are not used before shutdown are skipped, never reused.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    private static final String COUNTER = "account_number";
+    private static final long BODY_SPACE = 1_000_000_000L; // 9-digit body
+    private static final int HALF_BITS = 15;               // 2^30 > 10^9, walked back into range
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private record Block(long end, AtomicLong next) {}
+
+    private final AccountNumberBlockRepository blockRepository;
+    // Leases are committed on their own, even when the caller's account creation rolls back
+    private final TransactionTemplate leaseTemplate;
+    private final AtomicReference<Block> current = new AtomicReference<>();
+    private final long[] roundKeys = new long[ROUNDS];
+    private final int blockSize;
+
+    public AccountNumberAllocator(AccountNumberBlockRepository blockRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${account.number.block-size:1000}") int blockSize,
+                                  @Value("${account.number.scramble-key:7046029254386353131}") long scrambleKey) {
+        this.blockRepository = blockRepository;
+        this.leaseTemplate = new TransactionTemplate(transactionManager);
+        this.leaseTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        long k = scrambleKey;
+        for (int i = 0; i < ROUNDS; i++) {
+            k = mix(k + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = k;
+        }
+    }
+
+    /**
+     * The next free account number: 9 scrambled digits followed by a Luhn check digit.
+     *
+     * @throws AccountProcessingException if a new block cannot be leased.
+     */
+    public String next() {
+        while (true) {
+            Block block = current.get();
+            if (block != null) {
+                long value = block.next().getAndIncrement();
+                if (value < block.end()) {
+                    return format(value);
+                }
+            }
+            refill(block);
+        }
+    }
+
+    // Only one thread leases; the others spin back into next() and pick up the new block
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return;
+        }
+        long start = lease();
+        current.set(new Block(start + blockSize, new AtomicLong(start)));
+    }
+
+    private long lease() {
+        try {
+            return leaseOnce();
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter row at the same time; it exists now
+            return leaseOnce();
+        }
+    }
+
+    private long leaseOnce() {
+        Long start = leaseTemplate.execute(status -> {
+            AccountNumberBlock counter = blockRepository.findByIdForUpdate(COUNTER).orElse(null);
+            if (counter == null) {
+                blockRepository.saveAndFlush(new AccountNumberBlock(COUNTER, (long) blockSize));
+                return 0L;
+            }
+            long first = counter.getNextValue();
+            if (first + blockSize > BODY_SPACE) {
+                throw new AccountProcessingException("Account number space is exhausted.");
+            }
+            counter.setNextValue(first + blockSize);
+            return first;
+        });
+        System.out.println("Account number allocator: leased values [" + start + ", " + (start + blockSize) + ")");
+        return start;
+    }
+
+    private String format(long value) {
+        String body = String.format("%09d", scramble(value));
+        return body + luhnDigit(body);
+    }
+
+    // Feistel permutation of 30-bit values, cycle-walked until the result is inside [0, 10^9)
+    private long scramble(long value) {
+        long x = value;
+        do {
+            long left = x >>> HALF_BITS;
+            long right = x & HALF_MASK;
+            for (int i = 0; i < ROUNDS; i++) {
+                long next = left ^ (mix(right ^ roundKeys[i]) & HALF_MASK);
+                left = right;
+                right = next;
+            }
+            x = (left << HALF_BITS) | right;
+        } while (x >= BODY_SPACE);
+        return x;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int luhnDigit(String body) {
+        int sum = 0;
+        boolean doubled = true; // the digit next to the check digit is doubled
+        for (int i = body.length() - 1; i >= 0; i--) {
+            int digit = body.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -3,10 +3,15 @@ package com.accountMicroservice.service;
 import java.util.List;
 import java.util.Optional;
 
+import com.accountMicroservice.dto.AccountBatchRequest;
 import com.accountMicroservice.dto.AccountCreationRequest;
 import com.accountMicroservice.dto.AccountResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BulkTransferRequest;
+import com.accountMicroservice.dto.BulkTransferResponse;
 import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.TransferRequest;
+import com.accountMicroservice.dto.TransferResponse;
 import com.accountMicroservice.dto.WithdrawRequest;
 import com.accountMicroservice.exception.AccountCreationException;
 import com.accountMicroservice.exception.AccountNotFoundException;
@@ -48,6 +53,14 @@ public interface AccountService {
      */
     List<AccountResponse> getAccountsByUserId(String userId);
 
+    /**
+     * Retrieves every account matching any of the given account IDs, account numbers or user IDs.
+     * Unknown identifiers are simply absent from the result.
+     * @param request The AccountBatchRequest DTO.
+     * @return A list of AccountResponse DTOs, each account at most once.
+     */
+    List<AccountResponse> getAccountsBatch(AccountBatchRequest request);
+
     /**
      * Updates the status of an account (e.g., ACTIVE to CLOSED).
      * @param accountId The ID of the account to update.
@@ -79,6 +92,28 @@ public interface AccountService {
      */
     AccountResponse withdrawFunds(String accountId, WithdrawRequest request);
 
+    /**
+     * Moves funds between two accounts in one local transaction: the source is debited and the
+     * target credited, or neither. Both rows are locked in accountId order.
+     * @param request The TransferRequest DTO.
+     * @return The TransferResponse DTO with both updated accounts.
+     * @throws AccountNotFoundException if either account is not found.
+     * @throws InsufficientFundsException if the source has insufficient funds.
+     * @throws AccountProcessingException if the transfer is invalid or fails.
+     */
+    TransferResponse transferFunds(TransferRequest request);
+
+    /**
+     * Applies many transfers in one local transaction. Every account involved is locked once, in accountId
+     * order. A transfer that cannot be applied (insufficient funds, inactive or unknown account) is rejected
+     * on its own and the others still apply; a transactionId that was already applied is answered with the
+     * recorded result.
+     * @param request The BulkTransferRequest DTO.
+     * @return One result per transfer, in request order.
+     * @throws AccountProcessingException if the batch cannot be applied at all.
+     */
+    BulkTransferResponse transferFundsBulk(BulkTransferRequest request);
+
     /**
      * Deletes or closes an account.
      * @param accountId The ID of the account to delete.
@@ -0,0 +1,363 @@
+package com.accountMicroservice.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.accountMicroservice.dao.InterestAccrualCheckpointRepository;
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.InterestAccrualCheckpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Nightly daily-interest accrual for ACTIVE SAVINGS accounts.
+ *
+ * The accountId keyspace is cut into fixed ranges (partitions) that are processed in parallel on a
+ * fork-join pool. Each partition walks its range in accountId order with keyset-paged JDBC reads of
+ * chunk-size rows, computes balance * annual-rate / days-in-year in BigDecimal (6 places, half-even)
+ * and writes the chunk with one JDBC batch MERGE into interest_accrual, together with the partition
+ * checkpoint, in one DB transaction. A restarted run skips completed partitions and resumes the others
+ * after their last committed accountId. The MERGE only touches rows whose last_accrual_date is before
+ * the accrual date, so re-running a day (or two instances racing on it) never accrues twice.
+ *
+ * That guard also means a day can no longer be accrued for an account once a later day has been. Each
+ * run therefore first finishes every owed day, oldest first: days whose run left partitions incomplete
+ * and nights the job did not run at all. It stops at the first day that does not complete, without
+ * touching later days, and reports it on stderr and in account.interest.owed-days.
+ *
+ * Balances are read as they stand when the chunk is read. Crediting the accrued amount to the balance
+ * is left to a separate posting step.
+ */
+@Component
+public class InterestAccrualJob {
+
+    private static final int PREFIX_SPACE = 0x10000; // partitions are cut on the first 4 hex digits
+
+    private static final String MERGE_SQL =
+            "MERGE INTO interest_accrual t"
+            + " USING (SELECT ? AS account_id, ? AS amount, ? AS accrual_date, ? AS updated_at FROM dual) s"
+            + " ON (t.account_id = s.account_id)"
+            + " WHEN MATCHED THEN UPDATE SET t.accrued_amount = t.accrued_amount + s.amount,"
+            + " t.last_accrual_date = s.accrual_date, t.updated_at = s.updated_at"
+            + " WHERE t.last_accrual_date < s.accrual_date"
+            + " WHEN NOT MATCHED THEN INSERT (account_id, accrued_amount, last_accrual_date, updated_at)"
+            + " VALUES (s.account_id, s.amount, s.accrual_date, s.updated_at)";
+
+    private record Partition(int index, String fromId, String toId) {}
+
+    private record Accrual(String accountId, BigDecimal amount) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InterestAccrualCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Counter accruedCounter;
+    private final AtomicLong lastRunRowsPerSecond = new AtomicLong();
+    private final AtomicLong owedDays = new AtomicLong();
+
+    @Value("${account.interest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${account.interest.savings-annual-rate:0.035}")
+    private BigDecimal annualRate;
+
+    @Value("${account.interest.days-in-year:365}")
+    private int daysInYear;
+
+    @Value("${account.interest.partitions:16}")
+    private int partitionCount;
+
+    @Value("${account.interest.parallelism:4}")
+    private int parallelism;
+
+    @Value("${account.interest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${account.interest.max-catch-up-days:31}")
+    private int maxCatchUpDays;
+
+    public InterestAccrualJob(JdbcTemplate jdbcTemplate,
+                              InterestAccrualCheckpointRepository checkpointRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accruedCounter = Counter.builder("account.interest.accrued")
+                .description("SAVINGS accounts that had a day of interest accrued")
+                .register(meterRegistry);
+        Gauge.builder("account.interest.rows-per-second", lastRunRowsPerSecond, AtomicLong::get)
+                .description("Throughput of the last interest accrual run")
+                .register(meterRegistry);
+        Gauge.builder("account.interest.owed-days", owedDays, AtomicLong::get)
+                .description("Days still to accrue after the last run; above 0 needs attention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accrues the day that has just ended, after any earlier day that is still owed.
+     */
+    @Scheduled(cron = "${account.interest.cron:0 15 1 * * *}")
+    public void accrueNightly() {
+        accrueThrough(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Finishes a run that was interrupted by a shutdown or failed part-way, without waiting for the next night.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeAfterRestart() {
+        if (enabled && checkpointRepository.existsByCompletedFalse()) {
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            Thread resume = new Thread(() -> accrueThrough(yesterday), "interest-accrual-resume");
+            resume.setDaemon(true);
+            resume.start();
+        }
+    }
+
+    /**
+     * Accrues every owed day up to and including the given date, oldest first, at most max-catch-up-days
+     * per call. Returns true when nothing is owed through that date any more; false when disabled,
+     * another run is in progress, a day did not complete, or days are left for the next call.
+     */
+    public boolean accrueThrough(LocalDate through) {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            List<LocalDate> owed = owedDates(through);
+            owedDays.set(owed.size());
+            int limit = Math.min(owed.size(), Math.max(1, maxCatchUpDays));
+            for (int i = 0; i < limit; i++) {
+                LocalDate accrualDate = owed.get(i);
+                if (!accrue(accrualDate)) {
+                    System.err.println("ALERT Interest accrual " + accrualDate + " did not complete; it and "
+                            + (owed.size() - i - 1) + " later day(s) stay owed and are retried, oldest first, on the next run");
+                    return false;
+                }
+                owedDays.set(owed.size() - i - 1);
+            }
+            if (limit < owed.size()) {
+                System.err.println("ALERT Interest accrual: " + (owed.size() - limit) + " day(s) still owed through "
+                        + through + " after catching up " + limit + "; the next run continues from " + owed.get(limit));
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("ALERT Interest accrual through " + through + " failed: " + e.getMessage());
+            return false;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Days with incomplete checkpoints plus the days after the latest started run, oldest first. Before
+     * the first run only the given date is owed.
+     */
+    private List<LocalDate> owedDates(LocalDate through) {
+        TreeSet<LocalDate> owed = new TreeSet<>(checkpointRepository.findIncompleteDates());
+        LocalDate latest = checkpointRepository.findLatestAccrualDate();
+        for (LocalDate day = latest == null ? through : latest.plusDays(1); !day.isAfter(through); day = day.plusDays(1)) {
+            owed.add(day);
+        }
+        return new ArrayList<>(owed.headSet(through, true));
+    }
+
+    /**
+     * Accrues one day of interest on every ACTIVE SAVINGS account opened before the end of that day,
+     * resuming from the checkpoints of an earlier attempt for the same date. Returns true once every
+     * partition of the date is complete.
+     */
+    private boolean accrue(LocalDate accrualDate) {
+        List<Partition> partitions = partitions(Math.min(Math.max(1, partitionCount), PREFIX_SPACE));
+        // Every partition gets its checkpoint before any work, so a run that fails early is still found as owed
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Partition partition : partitions) {
+                String checkpointId = checkpointId(accrualDate, partitions.size(), partition);
+                if (!checkpointRepository.existsById(checkpointId)) {
+                    checkpointRepository.save(new InterestAccrualCheckpoint(checkpointId, accrualDate, partition.index(),
+                            partitions.size(), null, 0L, false, LocalDateTime.now()));
+                }
+            }
+        });
+        AtomicLong processed = new AtomicLong();
+        AtomicInteger partitionsDone = new AtomicInteger();
+        long started = System.nanoTime();
+        int failed = 0;
+        boolean interrupted = false;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            List<Callable<Long>> tasks = new ArrayList<>(partitions.size());
+            for (Partition partition : partitions) {
+                tasks.add(() -> {
+                    long rows = accruePartition(accrualDate, partitions.size(), partition, processed, started);
+                    System.out.println("Interest accrual " + accrualDate + ": partition " + partition.index() + " done ("
+                            + rows + " account(s)), " + partitionsDone.incrementAndGet() + "/" + partitions.size()
+                            + " partition(s) complete");
+                    return rows;
+                });
+            }
+            for (Future<Long> result : pool.invokeAll(tasks)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.err.println("Interest accrual " + accrualDate + ": partition failed: " + e.getCause().getMessage());
+                }
+            }
+            if (failed > 0) {
+                System.err.println("Interest accrual " + accrualDate + ": " + failed
+                        + " partition(s) failed; the date stays owed and resumes from their checkpoints");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+            System.err.println("Interest accrual " + accrualDate + ": interrupted after " + processed.get() + " account(s)");
+        } finally {
+            pool.shutdownNow();
+        }
+        long rowsPerSecond = rowsPerSecond(processed.get(), started);
+        lastRunRowsPerSecond.set(rowsPerSecond);
+        System.out.println("Interest accrual " + accrualDate + ": processed " + processed.get() + " account(s) in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms (" + rowsPerSecond + " rows/s)");
+        if (failed > 0 || interrupted) {
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.completeSuperseded(accrualDate, partitions.size(), LocalDateTime.now()));
+        return true;
+    }
+
+    private long accruePartition(LocalDate accrualDate, int count, Partition partition, AtomicLong processed, long started) {
+        String checkpointId = checkpointId(accrualDate, count, partition);
+        InterestAccrualCheckpoint checkpoint = checkpointRepository.findById(checkpointId)
+                .orElseGet(() -> new InterestAccrualCheckpoint(checkpointId, accrualDate, partition.index(), count,
+                        null, 0L, false, LocalDateTime.now()));
+        if (checkpoint.getCompleted()) {
+            return 0;
+        }
+        Timestamp openedBefore = Timestamp.valueOf(accrualDate.plusDays(1).atStartOfDay());
+        long rows = 0;
+        while (true) {
+            List<Accrual> chunk = readChunk(partition, checkpoint.getLastAccountId(), openedBefore);
+            boolean last = chunk.size() < chunkSize;
+            InterestAccrualCheckpoint current = checkpoint;
+            checkpoint = transactionTemplate.execute(status -> writeChunk(accrualDate, chunk, current, last));
+            rows += chunk.size();
+            if (!chunk.isEmpty()) {
+                accruedCounter.increment(chunk.size());
+                long total = processed.addAndGet(chunk.size());
+                // Progress roughly every 100k accounts across all partitions
+                if (total / 100_000 != (total - chunk.size()) / 100_000) {
+                    System.out.println("Interest accrual " + accrualDate + ": " + total + " account(s), "
+                            + rowsPerSecond(total, started) + " rows/s");
+                }
+            }
+            if (last) {
+                return rows;
+            }
+        }
+    }
+
+    private List<Accrual> readChunk(Partition partition, String afterId, Timestamp openedBefore) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT account_id, balance FROM account WHERE account_type = ? AND status = ? AND created_at < ?");
+        List<Object> args = new ArrayList<>(List.of(AccountType.SAVINGS.name(), AccountStatus.ACTIVE.name(), openedBefore));
+        if (afterId != null) {
+            sql.append(" AND account_id > ?");
+            args.add(afterId);
+        } else if (partition.fromId() != null) {
+            sql.append(" AND account_id >= ?");
+            args.add(partition.fromId());
+        }
+        if (partition.toId() != null) {
+            sql.append(" AND account_id < ?");
+            args.add(partition.toId());
+        }
+        sql.append(" ORDER BY account_id FETCH FIRST ? ROWS ONLY");
+        args.add(chunkSize);
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new Accrual(rs.getString("account_id"), dailyInterest(rs.getBigDecimal("balance"))),
+                args.toArray());
+    }
+
+    private InterestAccrualCheckpoint writeChunk(LocalDate accrualDate, List<Accrual> chunk,
+                                                 InterestAccrualCheckpoint checkpoint, boolean last) {
+        Date day = Date.valueOf(accrualDate);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(chunk.size());
+        for (Accrual accrual : chunk) {
+            // Nothing to record for empty or overdrawn accounts, or amounts below the stored precision
+            if (accrual.amount().signum() > 0) {
+                batch.add(new Object[] { accrual.accountId(), accrual.amount(), day, now });
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_SQL, batch);
+        }
+        if (!chunk.isEmpty()) {
+            checkpoint.setLastAccountId(chunk.get(chunk.size() - 1).accountId());
+            checkpoint.setAccountsProcessed(checkpoint.getAccountsProcessed() + chunk.size());
+        }
+        checkpoint.setCompleted(last);
+        checkpoint.setUpdatedAt(now.toLocalDateTime());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private static String checkpointId(LocalDate accrualDate, int count, Partition partition) {
+        return accrualDate + "/" + count + "/" + partition.index();
+    }
+
+    private BigDecimal dailyInterest(BigDecimal balance) {
+        if (balance == null || balance.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(annualRate).divide(BigDecimal.valueOf(daysInYear), 6, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Contiguous accountId ranges covering the whole keyspace: cut points are 4-hex-digit prefixes of
+     * the UUID account IDs, and the first and last ranges are open-ended so no ID can fall outside.
+     */
+    private static List<Partition> partitions(int count) {
+        List<Partition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String from = i == 0 ? null : String.format("%04x", (int) ((long) i * PREFIX_SPACE / count));
+            String to = i == count - 1 ? null : String.format("%04x", (int) ((long) (i + 1) * PREFIX_SPACE / count));
+            partitions.add(new Partition(i, from, to));
+        }
+        return partitions;
+    }
+
+    private static long rowsPerSecond(long rows, long startedNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        return rows * 1000 / elapsedMs;
+    }
+}
@@ -1,22 +1,38 @@
 package com.accountMicroservice.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
 import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedTransactionRepository;
+import com.accountMicroservice.dto.AccountBatchRequest;
 import com.accountMicroservice.dto.AccountCreationRequest;
 import com.accountMicroservice.dto.AccountResponse;
 import com.accountMicroservice.dto.AccountUpdateRequest;
+import com.accountMicroservice.dto.BulkTransferRequest;
+import com.accountMicroservice.dto.BulkTransferResponse;
 import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.TransferRequest;
+import com.accountMicroservice.dto.TransferLegResult;
+import com.accountMicroservice.dto.TransferResponse;
 import com.accountMicroservice.dto.UserDto;
 import com.accountMicroservice.dto.WithdrawRequest;
 import com.accountMicroservice.dto.OtpVerifyRequest;
@@ -29,11 +45,12 @@ import com.accountMicroservice.exception.InsufficientFundsException;
 import com.accountMicroservice.model.Account;
 import com.accountMicroservice.model.AccountStatus;
 import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.AppliedTransaction;
+import com.accountMicroservice.model.BalanceOperation;
 import com.accountMicroservice.proxyService.UserServiceClient;
-import com.accountMicroservice.proxyService.NotificationServiceClient;
-import com.accountMicroservice.proxyService.TransactionServiceClient;
-import com.accountMicroservice.dto.NotificationRequest;
-import com.accountMicroservice.dto.FineRequest;
+import com.accountMicroservice.service.AccountEventPublisher;
+import com.accountMicroservice.service.AccountLocks;
+import com.accountMicroservice.service.AccountNumberAllocator;
 import com.accountMicroservice.service.AccountService;
 
 @Service
@@ -42,27 +59,37 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final UserServiceClient userServiceClient;
     private final OtpServiceClient otpServiceClient;
-    private final NotificationServiceClient notificationServiceClient;
-    private final TransactionServiceClient transactionServiceClient;
+    private final AccountEventPublisher accountEvents;
+    private final AppliedTransactionRepository appliedTransactionRepository;
+    private final AccountLocks accountLocks;
+    private final AccountNumberAllocator accountNumberAllocator;
+    // Balance changes open their transaction inside the account locks, not around them
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public AccountServiceImpl(AccountRepository accountRepository,
                               UserServiceClient userServiceClient,
                               OtpServiceClient otpServiceClient,
-                              NotificationServiceClient notificationServiceClient,
-                              TransactionServiceClient transactionServiceClient) {
+                              AccountEventPublisher accountEvents,
+                              AppliedTransactionRepository appliedTransactionRepository,
+                              AccountLocks accountLocks,
+                              AccountNumberAllocator accountNumberAllocator,
+                              PlatformTransactionManager transactionManager) {
         this.accountRepository = accountRepository;
+        this.appliedTransactionRepository = appliedTransactionRepository;
+        this.accountLocks = accountLocks;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.userServiceClient = userServiceClient;
         this.otpServiceClient = otpServiceClient;
-        this.notificationServiceClient = notificationServiceClient;
-        this.transactionServiceClient = transactionServiceClient;
+        this.accountEvents = accountEvents;
     }
 
     /**
      * Creates a new bank account for a user.
+     * The User and OTP checks run before any DB transaction is opened; only the insert is transactional.
      */
     @Override
-    @Transactional
     public AccountResponse createAccount(AccountCreationRequest request) {
         try {
             UserDto user = userServiceClient.getUserProfileById(request.getUserId());
@@ -100,10 +127,7 @@ public class AccountServiceImpl implements AccountService {
                 throw new AccountCreationException("Salary/Corporate accounts must be requested via application workflow and approved by an administrator.");
             }
 
-            String newAccountNumber = generateUniqueAccountNumber();
-            while (accountRepository.findByAccountNumber(newAccountNumber).isPresent()) {
-                newAccountNumber = generateUniqueAccountNumber();
-            }
+            String newAccountNumber = accountNumberAllocator.next();
 
             Account account = new Account();
             account.setUserId(request.getUserId());
@@ -115,14 +139,8 @@ public class AccountServiceImpl implements AccountService {
 
             account = accountRepository.save(account);
             // Notify user about account creation
-            try {
-                notificationServiceClient.sendEmailNotification(new NotificationRequest(
-                    account.getUserId(),
-                    "EMAIL",
-                    "Your new " + account.getAccountType() + " account " + account.getAccountNumber() + " has been created successfully.",
-                    null
-                ));
-            } catch (Exception ignore) {}
+            accountEvents.notifyUser(account.getUserId(),
+                    "Your new " + account.getAccountType() + " account " + account.getAccountNumber() + " has been created successfully.");
             return mapToAccountResponse(account);
 
         } catch (DataIntegrityViolationException e) {
@@ -138,21 +156,297 @@ public class AccountServiceImpl implements AccountService {
 
     /**
      * Deposits funds into a specified account.
+     * The account row is locked for the read-modify-write, so concurrent changes are never lost.
+     * A transactionId that was already applied is answered with the recorded result instead.
      */
     @Override
-    @Transactional
     public AccountResponse depositFunds(String accountId, DepositRequest request) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+        return accountLocks.withLocks(() -> transactionTemplate.execute(status -> deposit(accountId, request)), accountId);
+    }
 
+    private AccountResponse deposit(String accountId, DepositRequest request) {
+        AppliedTransaction applied = findApplied(request.getTransactionId(), BalanceOperation.DEPOSIT, null, accountId, request.getAmount());
+        if (applied != null) {
+            return replay(accountId, applied.getToBalanceAfter(), applied.getToSequence(), applied.getAppliedAt());
+        }
         if (request.getAmount() <= 0) {
             throw new AccountProcessingException("Deposit amount must be positive.");
         }
+        Account account = lockAccount(accountId);
+        double recovered = applyDeposit(account, request.getAmount());
+
+        try {
+            account = accountRepository.save(account);
+            recordApplied(request.getTransactionId(), BalanceOperation.DEPOSIT, null, account, request.getAmount());
+            System.out.println("Deposit of " + request.getAmount() + " to account " + accountId + " for transaction " + request.getTransactionId() + " successful. Fine recovered: " + recovered);
+            afterFineRecovery(account, recovered);
+            return mapToAccountResponse(account);
+        } catch (Exception e) {
+            throw new AccountProcessingException("Failed to process deposit for account ID: " + accountId, e);
+        }
+    }
+
+    /**
+     * Withdraws funds from a specified account.
+     * The account row is locked for the read-modify-write, so concurrent withdrawals cannot both pass the
+     * balance check.
+     * A transactionId that was already applied is answered with the recorded result instead.
+     */
+    @Override
+    public AccountResponse withdrawFunds(String accountId, WithdrawRequest request) {
+        return accountLocks.withLocks(() -> transactionTemplate.execute(status -> withdraw(accountId, request)), accountId);
+    }
+
+    private AccountResponse withdraw(String accountId, WithdrawRequest request) {
+        AppliedTransaction applied = findApplied(request.getTransactionId(), BalanceOperation.WITHDRAW, accountId, null, request.getAmount());
+        if (applied != null) {
+            return replay(accountId, applied.getFromBalanceAfter(), applied.getFromSequence(), applied.getAppliedAt());
+        }
+        if (request.getAmount() <= 0) {
+            throw new AccountProcessingException("Withdrawal amount must be positive.");
+        }
+        Account account = lockAccount(accountId);
+        applyWithdrawal(account, request.getAmount());
+
+        try {
+            account = accountRepository.save(account);
+            recordApplied(request.getTransactionId(), BalanceOperation.WITHDRAW, account, null, request.getAmount());
+            System.out.println("Withdrawal of " + request.getAmount() + " from account " + accountId + " for transaction " + request.getTransactionId() + " successful.");
+            return mapToAccountResponse(account);
+        } catch (Exception e) {
+            throw new AccountProcessingException("Failed to process withdrawal for account ID: " + accountId, e);
+        }
+    }
+
+    /**
+     * Transfers funds between two accounts in one local transaction.
+     * Both rows are locked in accountId order, so two opposite transfers between the same pair of
+     * accounts queue behind each other instead of deadlocking.
+     * A transactionId that was already applied is answered with the recorded result instead.
+     */
+    @Override
+    public TransferResponse transferFunds(TransferRequest request) {
+        return accountLocks.withLocks(() -> transactionTemplate.execute(status -> transfer(request)),
+                request.getFromAccountId(), request.getToAccountId());
+    }
+
+    private TransferResponse transfer(TransferRequest request) {
+        AppliedTransaction applied = findApplied(request.getTransactionId(), BalanceOperation.TRANSFER,
+                request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+        if (applied != null) {
+            return new TransferResponse(request.getTransactionId(),
+                    replay(request.getFromAccountId(), applied.getFromBalanceAfter(), applied.getFromSequence(), applied.getAppliedAt()),
+                    replay(request.getToAccountId(), applied.getToBalanceAfter(), applied.getToSequence(), applied.getAppliedAt()));
+        }
+        if (request.getAmount() <= 0) {
+            throw new AccountProcessingException("Transfer amount must be positive.");
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new AccountProcessingException("Cannot transfer funds to the same account.");
+        }
+
+        boolean sourceFirst = request.getFromAccountId().compareTo(request.getToAccountId()) < 0;
+        Account first = lockAccount(sourceFirst ? request.getFromAccountId() : request.getToAccountId());
+        Account second = lockAccount(sourceFirst ? request.getToAccountId() : request.getFromAccountId());
+        Account source = sourceFirst ? first : second;
+        Account target = sourceFirst ? second : first;
+
+        applyWithdrawal(source, request.getAmount());
+        double recovered = applyDeposit(target, request.getAmount());
+
+        try {
+            source = accountRepository.save(source);
+            target = accountRepository.save(target);
+            recordApplied(request.getTransactionId(), BalanceOperation.TRANSFER, source, target, request.getAmount());
+            System.out.println("Transfer of " + request.getAmount() + " from account " + source.getAccountId() + " to account " + target.getAccountId()
+                    + " for transaction " + request.getTransactionId() + " successful. Fine recovered: " + recovered);
+            afterFineRecovery(target, recovered);
+            return new TransferResponse(request.getTransactionId(), mapToAccountResponse(source), mapToAccountResponse(target));
+        } catch (Exception e) {
+            throw new AccountProcessingException("Failed to process transfer for transaction: " + request.getTransactionId(), e);
+        }
+    }
+
+    /**
+     * Applies many transfers in one local transaction, e.g. one chunk of a payroll batch.
+     * Every account involved is locked once, in accountId order (stripes, then rows), so concurrent bulk
+     * and single transfers queue behind each other instead of deadlocking. Each transfer is checked before
+     * anything is changed for it: one that cannot be applied is rejected on its own and moves no money.
+     * A transactionId that was already applied is answered with the recorded result instead.
+     */
+    @Override
+    public BulkTransferResponse transferFundsBulk(BulkTransferRequest request) {
+        String[] accountIds = request.getTransfers().stream()
+                .flatMap(t -> Stream.of(t.getFromAccountId(), t.getToAccountId()))
+                .distinct()
+                .toArray(String[]::new);
+        return accountLocks.withLocks(() -> transactionTemplate.execute(status -> transferBulk(request.getTransfers())), accountIds);
+    }
+
+    private BulkTransferResponse transferBulk(List<TransferRequest> transfers) {
+        Map<String, AppliedTransaction> earlier = new HashMap<>();
+        appliedTransactionRepository.findAllById(transfers.stream().map(TransferRequest::getTransactionId).toList())
+                .forEach(applied -> earlier.put(applied.getTransactionId(), applied));
+
+        Map<String, Account> accounts = new TreeMap<>();
+        transfers.forEach(t -> {
+            accounts.put(t.getFromAccountId(), null);
+            accounts.put(t.getToAccountId(), null);
+        });
+        for (String accountId : new ArrayList<>(accounts.keySet())) { // TreeMap: accountId order
+            accounts.put(accountId, accountRepository.findByIdForUpdate(accountId).orElse(null));
+        }
+
+        List<TransferLegResult> results = new ArrayList<>(transfers.size());
+        List<AppliedTransaction> applied = new ArrayList<>(transfers.size());
+        Set<String> seen = new HashSet<>();
+        Map<String, Account> changed = new LinkedHashMap<>();
+        for (TransferRequest transfer : transfers) {
+            AppliedTransaction previous = earlier.get(transfer.getTransactionId());
+            if (previous != null) {
+                results.add(sameMovement(previous, BalanceOperation.TRANSFER, transfer.getFromAccountId(),
+                                transfer.getToAccountId(), transfer.getAmount())
+                        ? new TransferLegResult(transfer.getTransactionId(), true, previous.getFromBalanceAfter(), previous.getToBalanceAfter(),
+                                previous.getFromSequence(), previous.getToSequence(), previous.getAppliedAt(), null)
+                        : rejected(transfer, "Transaction " + transfer.getTransactionId() + " was already applied as a different "
+                                + previous.getOperation() + " operation."));
+                continue;
+            }
+            if (!seen.add(transfer.getTransactionId())) {
+                results.add(rejected(transfer, "Transaction " + transfer.getTransactionId() + " appears more than once in the request."));
+                continue;
+            }
+            Account source = accounts.get(transfer.getFromAccountId());
+            Account target = accounts.get(transfer.getToAccountId());
+            String reason = bulkRejection(transfer, source, target);
+            if (reason != null) {
+                results.add(rejected(transfer, reason));
+                continue;
+            }
+
+            applyWithdrawal(source, transfer.getAmount());
+            double recovered = applyDeposit(target, transfer.getAmount());
+            afterFineRecovery(target, recovered);
+            changed.put(source.getAccountId(), source);
+            changed.put(target.getAccountId(), target);
+            applied.add(appliedRecord(transfer.getTransactionId(), BalanceOperation.TRANSFER, source, target, transfer.getAmount()));
+            results.add(new TransferLegResult(transfer.getTransactionId(), true, source.getBalance(), target.getBalance(),
+                    source.getBalanceSequence(), target.getBalanceSequence(), target.getBalanceUpdatedAt(), null));
+        }
+
+        try {
+            accountRepository.saveAll(changed.values());
+            // A concurrent call with one of these transactionIds fails here on the primary key and rolls back
+            appliedTransactionRepository.saveAllAndFlush(applied);
+        } catch (Exception e) {
+            throw new AccountProcessingException("Failed to process bulk transfer of " + transfers.size() + " transfer(s)", e);
+        }
+        System.out.println("Bulk transfer: " + applied.size() + " of " + transfers.size() + " transfer(s) applied.");
+        return new BulkTransferResponse(results);
+    }
+
+    // Why a transfer of a bulk request cannot be applied, or null; checks everything applyWithdrawal and applyDeposit would
+    private static String bulkRejection(TransferRequest transfer, Account source, Account target) {
+        if (transfer.getAmount() == null || transfer.getAmount() <= 0) {
+            return "Transfer amount must be positive.";
+        }
+        if (transfer.getFromAccountId().equals(transfer.getToAccountId())) {
+            return "Cannot transfer funds to the same account.";
+        }
+        if (source == null) {
+            return "Account not found with ID: " + transfer.getFromAccountId();
+        }
+        if (target == null) {
+            return "Account not found with ID: " + transfer.getToAccountId();
+        }
+        if (source.getBalance() < transfer.getAmount()) {
+            return "Insufficient funds in account ID: " + source.getAccountId();
+        }
+        if (source.getStatus() != AccountStatus.ACTIVE) {
+            return "Withdrawal denied: Account ID " + source.getAccountId() + " is " + source.getStatus() + ".";
+        }
+        if (target.getStatus() != AccountStatus.ACTIVE) {
+            return "Deposit denied: Account ID " + target.getAccountId() + " is " + target.getStatus() + ".";
+        }
+        return null;
+    }
+
+    private static TransferLegResult rejected(TransferRequest transfer, String reason) {
+        return new TransferLegResult(transfer.getTransactionId(), false, null, null, null, null, null, reason);
+    }
+
+    /**
+     * The earlier application of this transactionId, or null if it has not been applied yet.
+     * A repeat must describe the same movement; anything else is a caller bug and is refused.
+     */
+    private AppliedTransaction findApplied(String transactionId, BalanceOperation operation,
+                                           String fromAccountId, String toAccountId, Double amount) {
+        if (transactionId == null) {
+            return null;
+        }
+        AppliedTransaction applied = appliedTransactionRepository.findById(transactionId).orElse(null);
+        if (applied != null && !sameMovement(applied, operation, fromAccountId, toAccountId, amount)) {
+            throw new AccountProcessingException("Transaction " + transactionId + " was already applied as a different "
+                    + applied.getOperation() + " operation.");
+        }
+        if (applied != null) {
+            System.out.println(operation + " for transaction " + transactionId + " already applied; returning the recorded result.");
+        }
+        return applied;
+    }
+
+    private static boolean sameMovement(AppliedTransaction applied, BalanceOperation operation,
+                                        String fromAccountId, String toAccountId, Double amount) {
+        return applied.getOperation() == operation
+                && Objects.equals(applied.getFromAccountId(), fromAccountId)
+                && Objects.equals(applied.getToAccountId(), toAccountId)
+                && Objects.equals(applied.getAmount(), amount);
+    }
+
+    /**
+     * Records the change in the same local transaction as the balance update. A concurrent call with the
+     * same transactionId fails on the primary key and rolls back, so the money moves only once.
+     */
+    private void recordApplied(String transactionId, BalanceOperation operation, Account from, Account to, Double amount) {
+        if (transactionId == null) {
+            return;
+        }
+        appliedTransactionRepository.saveAndFlush(appliedRecord(transactionId, operation, from, to, amount));
+    }
+
+    private static AppliedTransaction appliedRecord(String transactionId, BalanceOperation operation, Account from, Account to, Double amount) {
+        return new AppliedTransaction(transactionId, operation,
+                from != null ? from.getAccountId() : null, to != null ? to.getAccountId() : null, amount,
+                from != null ? from.getBalance() : null, to != null ? to.getBalance() : null,
+                from != null ? from.getBalanceSequence() : null, to != null ? to.getBalanceSequence() : null,
+                (to != null ? to : from).getBalanceUpdatedAt());
+    }
+
+    // Current account details with the balance, sequence and time as they were right after the original call
+    private AccountResponse replay(String accountId, Double balanceAfter, Long sequence, LocalDateTime appliedAt) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+        AccountResponse response = mapToAccountResponse(account);
+        response.setBalance(balanceAfter);
+        response.setBalanceSequence(sequence);
+        response.setBalanceUpdatedAt(appliedAt);
+        return response;
+    }
+
+    private Account lockAccount(String accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+    }
+
+    /**
+     * Credits an account, recovering any pending fine first. Returns the amount of fine recovered.
+     */
+    private double applyDeposit(Account account, double requested) {
         if (account.getStatus() != AccountStatus.ACTIVE) {
-            throw new AccountProcessingException("Deposit denied: Account ID " + accountId + " is " + account.getStatus() + ".");
+            throw new AccountProcessingException("Deposit denied: Account ID " + account.getAccountId() + " is " + account.getStatus() + ".");
         }
 
-        double amount = request.getAmount();
+        double amount = requested;
         double recovered = 0.0;
         Double pending = account.getPendingFineAmount() == null ? 0.0 : account.getPendingFineAmount();
 
@@ -169,57 +463,39 @@ public class AccountServiceImpl implements AccountService {
         if (amount > 0.0) {
             account.setBalance(account.getBalance() + amount);
         }
+        stampMovement(account);
+        return recovered;
+    }
 
-        try {
-            account = accountRepository.save(account);
-            System.out.println("Deposit of " + request.getAmount() + " to account " + accountId + " for transaction " + request.getTransactionId() + " successful. Fine recovered: " + recovered);
-
-            // Notify user about fine recovery if applicable
-            if (recovered > 0.0) {
-                String msg = "Pending fine recovery of INR " + recovered + " has been applied to your account. "
-                        + (pending > 0.0 ? ("Remaining pending fine: INR " + pending + ".") : "Your pending fine is now fully recovered.");
-                try {
-                    notificationServiceClient.sendEmailNotification(new NotificationRequest(
-                        account.getUserId(),
-                        "EMAIL",
-                        msg,
-                        null
-                    ));
-                } catch (Exception ignore) {
-                    // Best-effort notification; do not fail deposit
-                    System.err.println("Failed to send fine recovery notification: " + ignore.getMessage());
-                }
-                // Record fine transaction for the recovered amount
-                try {
-                    transactionServiceClient.recordFine(new FineRequest(
-                        account.getAccountId(),
-                        recovered,
-                        "Pending fine recovery of INR " + recovered + " recorded."
-                    ));
-                } catch (Exception ignore) {
-                    System.err.println("Failed to record fine transaction for recovery: " + ignore.getMessage());
-                }
-            }
+    // Every movement, including one that only recovers a fine, takes the next position in the account's order
+    private static void stampMovement(Account account) {
+        account.setBalanceSequence((account.getBalanceSequence() != null ? account.getBalanceSequence() : 0L) + 1);
+        account.setBalanceUpdatedAt(LocalDateTime.now());
+    }
 
-            return mapToAccountResponse(account);
-        } catch (Exception e) {
-            throw new AccountProcessingException("Failed to process deposit for account ID: " + accountId, e);
+    /**
+     * Notifies the user and records a FINE transaction when a deposit recovered a pending fine.
+     * Both are sent after the deposit commits.
+     */
+    private void afterFineRecovery(Account account, double recovered) {
+        if (recovered <= 0.0) {
+            return;
         }
+        double pending = account.getPendingFineAmount() == null ? 0.0 : account.getPendingFineAmount();
+        String msg = "Pending fine recovery of INR " + recovered + " has been applied to your account. "
+                + (pending > 0.0 ? ("Remaining pending fine: INR " + pending + ".") : "Your pending fine is now fully recovered.");
+        accountEvents.notifyUser(account.getUserId(), msg);
+        // Record fine transaction for the recovered amount
+        accountEvents.recordFine(account.getAccountId(), recovered, "Pending fine recovery of INR " + recovered + " recorded.");
     }
 
     /**
-     * Withdraws funds from a specified account.
+     * Debits an account and applies the SAVINGS minimum-balance fine when the balance drops below 2000.
+     * The FINE record and the notification are sent after the withdrawal commits.
      */
-    @Override
-    @Transactional
-    public AccountResponse withdrawFunds(String accountId, WithdrawRequest request) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
-
-        if (request.getAmount() <= 0) {
-            throw new AccountProcessingException("Withdrawal amount must be positive.");
-        }
-        if (account.getBalance() < request.getAmount()) {
+    private void applyWithdrawal(Account account, double amount) {
+        String accountId = account.getAccountId();
+        if (account.getBalance() < amount) {
             throw new InsufficientFundsException("Insufficient funds in account ID: " + accountId);
         }
         if (account.getStatus() != AccountStatus.ACTIVE) {
@@ -227,7 +503,6 @@ public class AccountServiceImpl implements AccountService {
         }
 
         double preBalance = account.getBalance();
-        double amount = request.getAmount();
         double postBalance = preBalance - amount;
 
         // Set post-withdrawal balance
@@ -246,40 +521,17 @@ public class AccountServiceImpl implements AccountService {
 
             // Record fine transaction for the portion actually deducted now
             if (availableForFine > 0.0) {
-                try {
-                    transactionServiceClient.recordFine(new FineRequest(
-                        account.getAccountId(),
-                        availableForFine,
-                        "Minimum balance fine applied. Deducted now: INR " + availableForFine + ". Pending: INR " + pendingAdd + "."
-                    ));
-                } catch (Exception ignore) {
-                    System.err.println("Failed to record fine transaction: " + ignore.getMessage());
-                }
+                accountEvents.recordFine(account.getAccountId(), availableForFine,
+                        "Minimum balance fine applied. Deducted now: INR " + availableForFine + ". Pending: INR " + pendingAdd + ".");
             }
 
             // Notify user
             String msg = pendingAdd > 0.0
                     ? ("Minimum balance not maintained. Fine of INR 200 applied: INR " + availableForFine + " deducted now; INR " + pendingAdd + " added as pending to be auto-recovered from next deposits.")
                     : "Minimum balance not maintained. Fine of INR 200 has been deducted from your account.";
-            try {
-                notificationServiceClient.sendEmailNotification(new NotificationRequest(
-                    account.getUserId(),
-                    "EMAIL",
-                    msg,
-                    null
-                ));
-            } catch (Exception ignore) {
-                System.err.println("Failed to send min-balance fine notification: " + ignore.getMessage());
-            }
-        }
-
-        try {
-            account = accountRepository.save(account);
-            System.out.println("Withdrawal of " + request.getAmount() + " from account " + accountId + " for transaction " + request.getTransactionId() + " successful.");
-            return mapToAccountResponse(account);
-        } catch (Exception e) {
-            throw new AccountProcessingException("Failed to process withdrawal for account ID: " + accountId, e);
+            accountEvents.notifyUser(account.getUserId(), msg);
         }
+        stampMovement(account);
     }
 
     /**
@@ -311,11 +563,34 @@ public class AccountServiceImpl implements AccountService {
                                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves accounts by IDs, account numbers and/or user IDs with one IN query per given list.
+     */
+    @Override
+    public List<AccountResponse> getAccountsBatch(AccountBatchRequest request) {
+        Map<String, Account> found = new LinkedHashMap<>();
+        if (request.getAccountIds() != null && !request.getAccountIds().isEmpty()) {
+            accountRepository.findByAccountIdIn(new HashSet<>(request.getAccountIds()))
+                    .forEach(account -> found.putIfAbsent(account.getAccountId(), account));
+        }
+        if (request.getAccountNumbers() != null && !request.getAccountNumbers().isEmpty()) {
+            accountRepository.findByAccountNumberIn(new HashSet<>(request.getAccountNumbers()))
+                    .forEach(account -> found.putIfAbsent(account.getAccountId(), account));
+        }
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            accountRepository.findByUserIdIn(new HashSet<>(request.getUserIds()))
+                    .forEach(account -> found.putIfAbsent(account.getAccountId(), account));
+        }
+        return found.values().stream()
+                .map(this::mapToAccountResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Updates the status of an account.
+     * The OTP is verified before the update's DB transaction is opened.
      */
     @Override
-    @Transactional
     public AccountResponse updateAccountStatus(String accountId, AccountUpdateRequest request) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
@@ -327,18 +602,17 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountProcessingException("Account update denied: OTP verification failed" + (otpRes != null && otpRes.getMessage() != null ? " - " + otpRes.getMessage() : ""));
         }
 
-        account.setStatus(request.getStatus());
         try {
-            account = accountRepository.save(account);
+            // Status-only UPDATE: saving the entity read above would write back a balance that a
+            // concurrent deposit or withdrawal may already have changed
+            account = transactionTemplate.execute(status -> {
+                accountRepository.updateStatus(accountId, request.getStatus());
+                return accountRepository.findById(accountId)
+                        .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
+            });
             // Notify user about status change
-            try {
-                notificationServiceClient.sendEmailNotification(new NotificationRequest(
-                    account.getUserId(),
-                    "EMAIL",
-                    "Your account " + account.getAccountNumber() + " status has been updated to " + account.getStatus() + ".",
-                    null
-                ));
-            } catch (Exception ignore) {}
+            accountEvents.notifyUser(account.getUserId(),
+                    "Your account " + account.getAccountNumber() + " status has been updated to " + account.getStatus() + ".");
             return mapToAccountResponse(account);
         } catch (Exception e) {
             throw new AccountProcessingException("Failed to update account status for ID: " + accountId, e);
@@ -347,9 +621,9 @@ public class AccountServiceImpl implements AccountService {
 
     /**
      * Deletes or closes an account.
+     * The OTP is verified before the delete's DB transaction is opened.
      */
     @Override
-    @Transactional
     public void deleteAccount(String accountId, String otpCode) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
@@ -365,14 +639,8 @@ public class AccountServiceImpl implements AccountService {
             accountRepository.delete(account);
             System.out.println("Account with ID: " + accountId + " deleted successfully.");
             // Notify user about account closure
-            try {
-                notificationServiceClient.sendEmailNotification(new NotificationRequest(
-                    account.getUserId(),
-                    "EMAIL",
-                    "Your account " + account.getAccountNumber() + " has been closed/deleted.",
-                    null
-                ));
-            } catch (Exception ignore) {}
+            accountEvents.notifyUser(account.getUserId(),
+                    "Your account " + account.getAccountNumber() + " has been closed/deleted.");
         } catch (Exception e) {
             throw new AccountProcessingException("Failed to delete account with ID: " + accountId, e);
         }
@@ -386,19 +654,9 @@ public class AccountServiceImpl implements AccountService {
                 account.getAccountType(),
                 account.getBalance(),
                 account.getStatus(),
-                account.getCreatedAt()
+                account.getCreatedAt(),
+                account.getBalanceSequence(),
+                account.getBalanceUpdatedAt()
         );
     }
-
-    /**
-     * Helper method to generate a unique 10-digit account number.
-     * Ensures the number is always positive.
-     */
-    private String generateUniqueAccountNumber() {
-        // Get the absolute value of the most significant bits to ensure a positive number
-        // Modulo by 10 billion to get a number within 10 digits
-        long positiveNumber = Math.abs(UUID.randomUUID().getMostSignificantBits() % 10_000_000_000L);
-        // Format to a 10-digit string with leading zeros if necessary
-        return String.format("%010d", positiveNumber);
-    }
 }
@@ -3,7 +3,6 @@ package com.accountMicroservice.service.impl;
 import com.accountMicroservice.dao.AccountRepository;
 import com.accountMicroservice.dao.SalaryAccountApplicationRepository;
 import com.accountMicroservice.dto.CreateSalaryApplicationRequest;
-import com.accountMicroservice.dto.NotificationRequest;
 import com.accountMicroservice.dto.OtpVerifyRequest;
 import com.accountMicroservice.dto.OtpVerifyResponse;
 import com.accountMicroservice.dto.SalaryApplicationResponse;
@@ -13,15 +12,15 @@ import com.accountMicroservice.model.AccountStatus;
 import com.accountMicroservice.model.AccountType;
 import com.accountMicroservice.model.SalaryAccountApplication;
 import com.accountMicroservice.model.SalaryApplicationStatus;
-import com.accountMicroservice.proxyService.NotificationServiceClient;
 import com.accountMicroservice.proxyService.OtpServiceClient;
+import com.accountMicroservice.service.AccountEventPublisher;
+import com.accountMicroservice.service.AccountNumberAllocator;
 import com.accountMicroservice.service.SalaryAccountApplicationService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -44,7 +43,8 @@ public class SalaryAccountApplicationServiceImpl implements SalaryAccountApplica
     private final SalaryAccountApplicationRepository applicationRepository;
     private final AccountRepository accountRepository;
     private final OtpServiceClient otpServiceClient;
-    private final NotificationServiceClient notificationServiceClient;
+    private final AccountEventPublisher accountEvents;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -138,11 +138,7 @@ public class SalaryAccountApplicationServiceImpl implements SalaryAccountApplica
                 // Create the SALARY_CORPORATE account with initial balance 0.0
                 Account account = new Account();
                 account.setUserId(app.getUserId());
-                account.setAccountNumber(generateUniqueAccountNumber());
-                // Ensure uniqueness
-                while (accountRepository.findByAccountNumber(account.getAccountNumber()).isPresent()) {
-                    account.setAccountNumber(generateUniqueAccountNumber());
-                }
+                account.setAccountNumber(accountNumberAllocator.next());
                 account.setAccountType(AccountType.SALARY_CORPORATE);
                 account.setBalance(0.0);
                 account.setStatus(AccountStatus.ACTIVE);
@@ -195,12 +191,9 @@ public class SalaryAccountApplicationServiceImpl implements SalaryAccountApplica
         );
     }
 
+    // Sent after the surrounding transaction commits
     private void notifySafe(String userId, String type, String content, String toEmail) {
-        try {
-            notificationServiceClient.sendEmailNotification(new NotificationRequest(userId, type, content, toEmail));
-        } catch (Exception ignore) {
-            // best-effort notifications
-        }
+        accountEvents.notifyUser(userId, type, content, toEmail);
     }
 
     private String toJsonSafe(List<String> docs) {
@@ -224,11 +217,6 @@ public class SalaryAccountApplicationServiceImpl implements SalaryAccountApplica
     /**
      * Generate a unique 10-digit numeric account number.
      */
-    private String generateUniqueAccountNumber() {
-        long positiveNumber = Math.abs(UUID.randomUUID().getMostSignificantBits() % 10_000_000_000L);
-        return String.format("%010d", positiveNumber);
-    }
-
     @Override
     @Transactional
     public SalaryApplicationResponse submitApplicationMultipart(String userId,
@@ -0,0 +1,160 @@
+package com.accountMicroservice.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.accountMicroservice.dao.AccountRepository;
+import com.accountMicroservice.dao.AppliedTransactionRepository;
+import com.accountMicroservice.dto.DepositRequest;
+import com.accountMicroservice.dto.TransferRequest;
+import com.accountMicroservice.dto.WithdrawRequest;
+import com.accountMicroservice.model.Account;
+import com.accountMicroservice.model.AccountStatus;
+import com.accountMicroservice.model.AccountType;
+import com.accountMicroservice.model.AppliedTransaction;
+import com.accountMicroservice.proxyService.OtpServiceClient;
+import com.accountMicroservice.proxyService.UserServiceClient;
+import com.accountMicroservice.service.AccountEventPublisher;
+import com.accountMicroservice.service.AccountLocks;
+import com.accountMicroservice.service.AccountNumberAllocator;
+
+/**
+ * Hammers two accounts with concurrent deposits, withdrawals and transfers in both directions.
+ *
+ * The repository is an in-memory table that hands out copies of its rows, like a real read would, so a
+ * read-modify-write that is not serialized by AccountLocks loses updates and the totals below drift.
+ */
+class AccountServiceImplConcurrencyTest {
+
+    private static final String ACCOUNT_A = "account-a";
+    private static final String ACCOUNT_B = "account-b";
+    private static final long INITIAL_BALANCE = 1_000_000;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    // Whole rupees up to this, so every sum below is exact in double and no balance nears the SAVINGS fine
+    private static final int MAX_AMOUNT = 100;
+
+    private final Map<String, Account> table = new ConcurrentHashMap<>();
+    private AccountServiceImpl accountService;
+
+    @BeforeEach
+    void setUp() {
+        table.put(ACCOUNT_A, account(ACCOUNT_A, "1000000001"));
+        table.put(ACCOUNT_B, account(ACCOUNT_B, "1000000002"));
+
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findByIdForUpdate(anyString())).thenAnswer(inv -> {
+            Account row = table.get(inv.<String>getArgument(0));
+            Thread.yield(); // widen the read-modify-write window
+            return Optional.ofNullable(row).map(AccountServiceImplConcurrencyTest::copy);
+        });
+        when(accountRepository.findById(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(table.get(inv.<String>getArgument(0))).map(AccountServiceImplConcurrencyTest::copy));
+        when(accountRepository.save(any(Account.class))).thenAnswer(inv -> {
+            Account account = inv.getArgument(0);
+            table.put(account.getAccountId(), copy(account));
+            return account;
+        });
+
+        AppliedTransactionRepository appliedTransactionRepository = mock(AppliedTransactionRepository.class);
+        when(appliedTransactionRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(appliedTransactionRepository.saveAndFlush(any(AppliedTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+
+        AccountLocks accountLocks = new AccountLocks(256);
+        ReflectionTestUtils.setField(accountLocks, "waitMs", 30_000L);
+
+        accountService = new AccountServiceImpl(accountRepository, mock(UserServiceClient.class), mock(OtpServiceClient.class),
+                mock(AccountEventPublisher.class), appliedTransactionRepository, accountLocks,
+                mock(AccountNumberAllocator.class), transactionManager);
+    }
+
+    @Test
+    void concurrentDepositsWithdrawalsAndTransfersKeepEveryRupee() throws InterruptedException {
+        Map<String, AtomicLong> expectedChange = Map.of(ACCOUNT_A, new AtomicLong(), ACCOUNT_B, new AtomicLong());
+        AtomicLong netDeposited = new AtomicLong();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        String account = random.nextBoolean() ? ACCOUNT_A : ACCOUNT_B;
+                        String other = ACCOUNT_A.equals(account) ? ACCOUNT_B : ACCOUNT_A;
+                        long amount = 1 + random.nextInt(MAX_AMOUNT);
+                        switch (random.nextInt(3)) {
+                            case 0 -> {
+                                accountService.depositFunds(account, new DepositRequest(UUID.randomUUID().toString(), (double) amount));
+                                expectedChange.get(account).addAndGet(amount);
+                                netDeposited.addAndGet(amount);
+                            }
+                            case 1 -> {
+                                accountService.withdrawFunds(account, new WithdrawRequest(UUID.randomUUID().toString(), (double) amount));
+                                expectedChange.get(account).addAndGet(-amount);
+                                netDeposited.addAndGet(-amount);
+                            }
+                            default -> {
+                                accountService.transferFunds(new TransferRequest(UUID.randomUUID().toString(), account, other, (double) amount));
+                                expectedChange.get(account).addAndGet(-amount);
+                                expectedChange.get(other).addAndGet(amount);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(failures).isEmpty();
+        double balanceA = table.get(ACCOUNT_A).getBalance();
+        double balanceB = table.get(ACCOUNT_B).getBalance();
+        assertThat(balanceA).isEqualTo((double) (INITIAL_BALANCE + expectedChange.get(ACCOUNT_A).get()));
+        assertThat(balanceB).isEqualTo((double) (INITIAL_BALANCE + expectedChange.get(ACCOUNT_B).get()));
+        // Transfers only move money between the two; deposits and withdrawals account for the rest
+        assertThat(balanceA + balanceB).isEqualTo((double) (2 * INITIAL_BALANCE + netDeposited.get()));
+    }
+
+    private static Account account(String accountId, String accountNumber) {
+        return new Account(accountId, "user-" + accountId, accountNumber, AccountType.SAVINGS, (double) INITIAL_BALANCE,
+                AccountStatus.ACTIVE, LocalDateTime.now(), 0.0, 0L, null);
+    }
+
+    private static Account copy(Account account) {
+        return new Account(account.getAccountId(), account.getUserId(), account.getAccountNumber(), account.getAccountType(),
+                account.getBalance(), account.getStatus(), account.getCreatedAt(), account.getPendingFineAmount(),
+                account.getBalanceSequence(), account.getBalanceUpdatedAt());
+    }
+}
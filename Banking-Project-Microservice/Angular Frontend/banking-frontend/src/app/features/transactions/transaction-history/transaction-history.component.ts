@@ -270,10 +270,9 @@ export class TransactionHistoryComponent implements OnInit {
       toEmail: this.toEmail || undefined
     }).subscribe({
       next: (resp) => {
-        // Treat any 2xx as success; backend returns 202 Accepted when mail delivery fails but statement is generated.
+        // Treat any 2xx as success; backend returns 202 Accepted once the statement job is queued.
         if (resp.status >= 200 && resp.status < 300) {
-          // Use server message if present, else a generic success
-          const msg = 'Statement sent to your email. PDF password: FIRST4NAME (uppercase) + YEAR of birth (e.g., ABCD2003).';
+          const msg = 'Your statement is being generated and will be emailed shortly. PDF password: FIRST4NAME (uppercase) + YEAR of birth (e.g., ABCD2003).';
           this.statementSuccess = msg;
           this.statementError = null;
           this.statementLoading = false;
@@ -0,0 +1,20 @@
+package com.creditcardservice.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request body for Account Service's POST /accounts/batch. Any combination of the lists may be set;
+ * each is capped at 500 entries by Account Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchRequest {
+    private List<String> accountIds;
+    private List<String> accountNumbers;
+    private List<String> userIds;
+}
@@ -1,9 +1,12 @@
 package com.creditcardservice.proxyservice;
 
+import com.creditcardservice.dto.AccountBatchRequest;
 import com.creditcardservice.dto.AccountDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 
@@ -35,4 +38,15 @@ public interface AccountServiceClient {
         System.err.println("Fallback triggered for AccountService.getAccountsByUserId for user " + userId + ": " + t.getMessage());
         return Collections.emptyList(); // Return empty list gracefully
     }
+
+    // One call for many accounts; accounts that are not found are left out of the result
+    @PostMapping("/batch")
+    @CircuitBreaker(name = "accountService", fallbackMethod = "getAccountsBatchFallback")
+    @Retry(name = "accountService")
+    List<AccountDto> getAccountsBatch(@RequestBody AccountBatchRequest request);
+
+    default List<AccountDto> getAccountsBatchFallback(AccountBatchRequest request, Throwable t) {
+        System.err.println("Fallback triggered for AccountService.getAccountsBatch: " + t.getMessage());
+        return Collections.emptyList(); // Callers fall back to their defaults for missing accounts
+    }
 }
\ No newline at end of file
@@ -139,9 +139,11 @@ public class CardsServiceImpl implements CardsService {
     @Override
     public List<CardResponse> listMyCards(String userId) {
         List<Card> cards = cardRepository.findByUserId(userId);
+        // One Account Service call for all the cards' accounts instead of one per card
+        Map<String, AccountDto> accounts = accountsById(cards);
         List<CardResponse> out = new ArrayList<>();
         for (Card c : cards) {
-            out.add(toCardResponse(c));
+            out.add(toCardResponse(c, accounts));
         }
         return out;
     }
@@ -640,7 +642,23 @@ public class CardsServiceImpl implements CardsService {
         return new FeeResponse(fee, "INR", desc);
     }
 
-    private CardResponse toCardResponse(Card c) {
+    private Map<String, AccountDto> accountsById(List<Card> cards) {
+        Map<String, AccountDto> accounts = new HashMap<>();
+        List<String> accountIds = cards.stream().map(Card::getAccountId).filter(Objects::nonNull).distinct().toList();
+        if (accountIds.isEmpty()) {
+            return accounts;
+        }
+        try {
+            for (AccountDto acc : accountServiceClient.getAccountsBatch(new AccountBatchRequest(accountIds, null, null))) {
+                accounts.put(acc.getAccountId(), acc);
+            }
+        } catch (Exception ignore) {
+            // Masked CVV falls back to the default length below
+        }
+        return accounts;
+    }
+
+    private CardResponse toCardResponse(Card c, Map<String, AccountDto> accounts) {
         CardResponse resp = new CardResponse();
         resp.setCardId(c.getCardId());
         resp.setUserId(c.getUserId());
@@ -649,15 +667,11 @@ public class CardsServiceImpl implements CardsService {
         resp.setBrand(c.getBrand());
         resp.setMaskedPan(CardNumberUtil.maskPan(c.getCardNumber()));
         // Populate masked CVV length appropriately (3 for savings, 4 for corporate premium brands)
-        try {
-            AccountDto acc = accountServiceClient.getAccountById(c.getAccountId());
-            int len = (acc != null) ? cvvLengthFor(acc.getAccountType(), c.getBrand()) : 3;
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < len; i++) sb.append('*');
-            resp.setMaskedCvv(sb.toString());
-        } catch (Exception ignore) {
-            resp.setMaskedCvv("***");
-        }
+        AccountDto acc = accounts.get(c.getAccountId());
+        int len = (acc != null) ? cvvLengthFor(acc.getAccountType(), c.getBrand()) : 3;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < len; i++) sb.append('*');
+        resp.setMaskedCvv(sb.toString());
         resp.setIssueMonth(c.getIssueMonth());
         resp.setIssueYear(c.getIssueYear());
         resp.setExpiryMonth(c.getExpiryMonth());
@@ -15,7 +15,9 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import com.notification.event.AccountNotificationEvent;
 import com.notification.event.KycStatusUpdatedEvent;
+import com.notification.event.PayrollBatchCompletedEvent;
 import com.notification.event.LoanStatusUpdatedEvent;
 import com.notification.event.TransactionCompletedEvent;
 
@@ -29,6 +31,10 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    // One consumer thread per partition; records with the same key (userId) are always handled by one thread in order
+    @Value("${notification.kafka.transaction-events.concurrency:6}")
+    private int transactionConcurrency;
+
     // ✅ Generic method to build a ConsumerFactory for any type
     private <T> ConsumerFactory<String, T> buildConsumerFactory(Class<T> targetType) {
         Map<String, Object> props = new HashMap<>();
@@ -47,6 +53,7 @@ public class KafkaConsumerConfig {
     public ConcurrentKafkaListenerContainerFactory<String, TransactionCompletedEvent> transactionKafkaListenerContainerFactory() {
         var factory = new ConcurrentKafkaListenerContainerFactory<String, TransactionCompletedEvent>();
         factory.setConsumerFactory(buildConsumerFactory(TransactionCompletedEvent.class));
+        factory.setConcurrency(transactionConcurrency);
         return factory;
     }
 
@@ -58,6 +65,22 @@ public class KafkaConsumerConfig {
         return factory;
     }
 
+    // Factory for AccountNotificationEvent
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AccountNotificationEvent> accountKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, AccountNotificationEvent>();
+        factory.setConsumerFactory(buildConsumerFactory(AccountNotificationEvent.class));
+        return factory;
+    }
+
+    // Factory for PayrollBatchCompletedEvent
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PayrollBatchCompletedEvent> payrollKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, PayrollBatchCompletedEvent>();
+        factory.setConsumerFactory(buildConsumerFactory(PayrollBatchCompletedEvent.class));
+        return factory;
+    }
+
     // ✅ Factory for KycStatusUpdatedEvent
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, KycStatusUpdatedEvent> kycKafkaListenerContainerFactory() {
@@ -0,0 +1,24 @@
+package com.notification.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Event published by AccountService after an account change commits (creation, status change,
+ * minimum-balance fine, fine recovery, salary application updates).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNotificationEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String type;
+    private String content;
+    private String toEmail; // Optional explicit recipient, as in NotificationRequest
+    private LocalDateTime timestamp;
+}
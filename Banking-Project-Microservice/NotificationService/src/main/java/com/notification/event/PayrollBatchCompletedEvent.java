@@ -0,0 +1,27 @@
+package com.notification.event;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of a finished payroll batch published by TransactionService.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollBatchCompletedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String batchId;
+    private String userId;
+    private String sourceAccountId;
+    private Double totalAmount;
+    private int totalLines;
+    private int succeededLines;
+    private int failedLines;
+    private String status;
+    private String notificationMessage;
+}
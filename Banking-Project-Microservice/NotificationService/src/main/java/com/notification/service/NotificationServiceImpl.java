@@ -20,7 +20,9 @@ import com.notification.dao.NotificationRepository;
 import com.notification.dto.NotificationRequest;
 import com.notification.dto.NotificationResponse;
 import com.notification.dto.UserDto;
+import com.notification.event.AccountNotificationEvent;
 import com.notification.event.KycStatusUpdatedEvent; // Import local event DTO
+import com.notification.event.PayrollBatchCompletedEvent;
 import com.notification.event.LoanStatusUpdatedEvent; // Import local event DTO
 import com.notification.event.TransactionCompletedEvent;
 import com.notification.exceptions.NotificationProcessingException;
@@ -47,7 +49,8 @@ public class NotificationServiceImpl implements NotificationService {
     @Value("${keycloak.service-client.client-secret}")
     private String keycloakServiceClientClientSecret;
 
-    private String serviceAccessToken;
+    // Read by concurrent listener threads, replaced by the scheduled refresh
+    private volatile String serviceAccessToken;
 
     @Value("${spring.mail.username}")
     private String fromEmailAddress;
@@ -154,6 +157,51 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    /**
+     * Consumes payroll batch summaries from TransactionService; one notification to the employer per batch.
+     */
+    @KafkaListener(
+            topics = "payroll-batch-events",
+            groupId = "notification-service-group",
+            containerFactory = "payrollKafkaListenerContainerFactory"
+        )
+    public void listenPayrollBatchEvents(PayrollBatchCompletedEvent event) {
+        System.out.println("Notification Service: Received payroll batch event from Kafka: " + event.getBatchId());
+
+        NotificationRequest notificationRequest = new NotificationRequest();
+        notificationRequest.setUserId(event.getUserId());
+        notificationRequest.setContent(event.getNotificationMessage());
+        notificationRequest.setType("EMAIL");
+
+        try {
+            sendNotificationInternal(notificationRequest);
+        } catch (Exception e) {
+            System.err.println("Error processing payroll batch event " + event.getBatchId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Consumes account notifications that AccountService publishes after its changes commit.
+     */
+    @KafkaListener(
+            topics = "account-notification-events",
+            groupId = "notification-service-group",
+            containerFactory = "accountKafkaListenerContainerFactory"
+        )
+    public void listenAccountNotificationEvents(AccountNotificationEvent event) {
+        NotificationRequest notificationRequest = new NotificationRequest();
+        notificationRequest.setUserId(event.getUserId());
+        notificationRequest.setContent(event.getContent());
+        notificationRequest.setType(event.getType() != null ? event.getType() : "EMAIL");
+        notificationRequest.setToEmail(event.getToEmail());
+
+        try {
+            sendNotificationInternal(notificationRequest);
+        } catch (Exception e) {
+            System.err.println("Error processing account notification event for user " + event.getUserId() + ": " + e.getMessage());
+        }
+    }
+
     @Transactional
     private NotificationResponse sendNotificationInternal(NotificationRequest request) {
         Notification notification = new Notification();
@@ -0,0 +1,39 @@
+package com.transaction.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Declares the transaction-events and payroll-batch-events topics so KafkaAdmin creates them with the
+ * configured partition count.
+ * Events are keyed by userId, so a user's alerts always map to one partition and keep their order.
+ * KafkaAdmin only ever adds partitions; raising the count remaps existing keys, so change it during a quiet period.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${transaction.kafka.transaction-events.partitions:6}")
+    private int partitions;
+
+    @Value("${transaction.kafka.transaction-events.replicas:1}")
+    private int replicas;
+
+    @Bean
+    public NewTopic transactionEventsTopic() {
+        return TopicBuilder.name("transaction-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    @Bean
+    public NewTopic payrollBatchEventsTopic() {
+        return TopicBuilder.name("payroll-batch-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.transaction.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.transaction.dto.AccountDto;
+
+import lombok.Data;
+
+/**
+ * Per-AccountType transaction limits (transaction.limits.*).
+ * Amounts are whole INR. An account type without a policy is not limited.
+ */
+@Data
+@ConfigurationProperties(prefix = "transaction.limits")
+public class TransactionLimitsProperties {
+
+    // Usage at or above this fraction of a window limit is counted as near-limit
+    private double nearLimitRatio = 0.8;
+
+    // Resolution of the sliding windows; every window duration should be a multiple of it
+    private Duration bucketSize = Duration.ofMinutes(5);
+
+    private Map<AccountDto.AccountType, Policy> policies = new HashMap<>();
+
+    @Data
+    public static class Policy {
+        // Name used in error messages, e.g. "SALARY/CORPORATE"
+        private String label;
+        // Maximum amount of a single debit or credit
+        private Long perTransaction;
+        // Maximum balance after a credit
+        private Long balanceCap;
+        // Rolling limits on customer-initiated debits
+        private List<Window> windows = new ArrayList<>();
+    }
+
+    @Data
+    public static class Window {
+        private String name;
+        private Duration duration;
+        private Long maxAmount;
+        private Integer maxCount;
+    }
+}
@@ -4,44 +4,35 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import jakarta.mail.internet.MimeMessage;
-import java.io.ByteArrayOutputStream;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
-import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.security.access.prepost.PreAuthorize;
 import com.transaction.dto.StatementDtos.StatementInitiateRequest;
 import com.transaction.dto.StatementDtos.StatementInitiateResponse;
+import com.transaction.dto.StatementDtos.StatementJobResponse;
 import com.transaction.dto.StatementDtos.StatementVerifyRequest;
 import com.transaction.proxyService.OtpServiceClient;
 import com.transaction.dto.OtpVerifyRequest;
 import com.transaction.dto.OtpVerifyResponse;
 import com.transaction.proxyService.UserServiceClient;
-import com.transaction.proxyService.NotificationServiceClient;
-import com.transaction.proxyService.AccountServiceClient;
 import com.transaction.dto.UserDto;
-import com.transaction.dto.AccountDto;
 import com.transaction.dto.OtpGenerateRequest;
 import com.transaction.dto.OtpGenerateResponse;
-import com.transaction.dto.NotificationRequestDto;
-import org.springframework.mail.MailException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.stream.Collectors;
 
 import com.transaction.dto.DepositRequest;
 import com.transaction.dto.TransferRequest;
@@ -49,18 +40,40 @@ import com.transaction.dto.WithdrawRequest;
 import com.transaction.dto.FineRequest;
 import com.transaction.dto.InternalDebitRequest;
 import com.transaction.dto.DebitCardWithdrawRequest;
+import com.transaction.dto.TransactionHistoryPage;
+import com.transaction.dto.TransactionExportFormat;
+import com.transaction.dto.AnalyticsGranularity;
+import com.transaction.dto.AccountAnalyticsDtos.AccountAnalyticsResponse;
+import com.transaction.dto.PayrollDtos.PayrollBatchRequest;
+import com.transaction.dto.PayrollDtos.PayrollBatchResponse;
+import com.transaction.dto.TransferSagaResponse;
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionRequest;
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionResponse;
 import com.transaction.exceptions.AccountNotFoundException;
 import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
 import com.transaction.exceptions.TransactionProcessingException;
 import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.service.PayrollService;
+import com.transaction.service.StatementService;
 import com.transaction.service.TransactionService;
+import com.transaction.service.TransferSagaService;
+import com.transaction.service.StandingInstructionService;
+import com.transaction.service.TransactionExportService;
+import com.transaction.service.AccountAnalyticsService;
+import com.transaction.service.IdempotencyStore;
 
 import jakarta.validation.Valid; // For input validation
 
 @RestController // Marks this class as a REST controller, handling incoming HTTP requests
 @RequestMapping("/transactions") // Base path for all endpoints in this controller
 public class TransactionController {
+
+    // Client-chosen key that makes a money-movement request safe to retry (see IdempotencyStore)
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 	
 	@Autowired
     private final TransactionService transactionService;
@@ -73,13 +86,25 @@ public class TransactionController {
     private UserServiceClient userServiceClient;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private StatementService statementService;
+
+    @Autowired
+    private PayrollService payrollService;
 
     @Autowired
-    private NotificationServiceClient notificationServiceClient;
+    private TransferSagaService transferSagaService;
 
     @Autowired
-    private AccountServiceClient accountServiceClient;
+    private StandingInstructionService standingInstructionService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private AccountAnalyticsService accountAnalyticsService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
 
     @Autowired // Injects the TransactionService implementation
     public TransactionController(TransactionService transactionService) {
@@ -90,16 +115,19 @@ public class TransactionController {
      * Handles POST /transactions/deposit requests.
      * Facilitates depositing funds into an account.
      * @param request The DepositRequest DTO containing account ID and amount.
+     * @param idempotencyKey Optional Idempotency-Key; a retry with the same key and body gets the original response.
      * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
      * @throws AccountNotFoundException if the target account does not exist.
      * @throws TransactionProcessingException if the deposit fails.
      * (Other exceptions are handled by GlobalExceptionHandler)
      */
     @PostMapping("/deposit")
-    public ResponseEntity<Transaction> deposit(@Valid @RequestBody DepositRequest request) {
+    public ResponseEntity<Transaction> deposit(@Valid @RequestBody DepositRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         // @Valid triggers validation defined in DepositRequest DTO
         // Exceptions are thrown by the service layer and caught by GlobalExceptionHandler
-        Transaction transaction = transactionService.deposit(request);
+        Transaction transaction = idempotencyStore.execute("deposit", idempotencyKey, request, Transaction.class,
+                () -> transactionService.deposit(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
@@ -107,14 +135,18 @@ public class TransactionController {
      * Handles POST /transactions/withdraw requests.
      * Facilitates withdrawing funds from an account.
      * @param request The WithdrawRequest DTO containing account ID and amount.
+     * @param idempotencyKey Optional Idempotency-Key; a retry with the same key and body gets the original response.
      * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
      * @throws AccountNotFoundException if the source account does not exist.
      * @throws InsufficientFundsException if the account has insufficient funds.
+     * @throws OtpVerificationFailedException if OTP verification fails.
      * @throws TransactionProcessingException if the withdrawal fails.
      */
     @PostMapping("/withdraw")
-    public ResponseEntity<Transaction> withdraw(@Valid @RequestBody WithdrawRequest request) {
-        Transaction transaction = transactionService.withdraw(request);
+    public ResponseEntity<Transaction> withdraw(@Valid @RequestBody WithdrawRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = idempotencyStore.execute("withdraw", idempotencyKey, request, Transaction.class,
+                () -> transactionService.withdraw(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
@@ -122,18 +154,56 @@ public class TransactionController {
      * Handles POST /transactions/transfer requests.
      * Facilitates fund transfer between accounts.
      * @param request The TransferRequest DTO containing fromAccountId, toAccountId, and amount.
+     * @param idempotencyKey Optional Idempotency-Key; a retry with the same key and body gets the original response.
      * @return ResponseEntity with the created Transaction and HTTP status 201 (Created).
      * @throws AccountNotFoundException if source or target account does not exist.
      * @throws InsufficientFundsException if the source account has insufficient funds.
      * @throws InvalidTransactionException if attempting to transfer to the same account.
+     * @throws OtpVerificationFailedException if OTP verification fails.
      * @throws TransactionProcessingException if the transfer fails.
      */
     @PostMapping("/transfer")
-    public ResponseEntity<Transaction> transfer(@Valid @RequestBody TransferRequest request) {
-        Transaction transaction = transactionService.transfer(request);
+    public ResponseEntity<Transaction> transfer(@Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = idempotencyStore.execute("transfer", idempotencyKey, request, Transaction.class,
+                () -> transactionService.transfer(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
+    /**
+     * Handles POST /transactions/transfer/async requests.
+     * Validates and authorises the transfer, records it as PENDING and moves the money in the background;
+     * poll the status resource for the outcome.
+     * @param request The TransferRequest DTO containing the account numbers, amount and OTP.
+     * @param idempotencyKey Optional Idempotency-Key; a retry with the same key and body gets the original
+     * response instead of starting a second transfer.
+     * @return ResponseEntity with the accepted TransferSagaResponse and HTTP status 202 (Accepted).
+     * @throws AccountNotFoundException if source or target account does not exist.
+     * @throws InsufficientFundsException if the source account has insufficient funds.
+     * @throws InvalidTransactionException if attempting to transfer to the same account or a limit is exceeded.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    @PostMapping("/transfer/async")
+    public ResponseEntity<TransferSagaResponse> submitTransfer(@Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        TransferSagaResponse response = idempotencyStore.execute("transfer-async", idempotencyKey, request, TransferSagaResponse.class,
+                () -> transferSagaService.submit(request));
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Handles GET /transactions/transfer/async/{transactionId} requests.
+     * @param transactionId The ID of the transaction returned on submission.
+     * @return ResponseEntity with the TransferSagaResponse and HTTP status 200 (OK),
+     * or 404 (Not Found) if no asynchronous transfer exists with that ID.
+     */
+    @GetMapping("/transfer/async/{transactionId}")
+    public ResponseEntity<TransferSagaResponse> getTransfer(@PathVariable String transactionId) {
+        return transferSagaService.getSaga(transactionId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     /**
      * Handles POST /transactions/fine requests.
      * Internal endpoint to record a fine transaction (no OTP/KYC).
@@ -160,10 +230,13 @@ public class TransactionController {
     /**
      * Handles POST /transactions/debit-card/withdraw requests.
      * Performs withdrawal using a debit card. Validates card with CreditCardService and requires OTP.
+     * Accepts an optional Idempotency-Key like the other money-movement endpoints.
      */
     @PostMapping("/debit-card/withdraw")
-    public ResponseEntity<Transaction> debitCardWithdraw(@Valid @RequestBody DebitCardWithdrawRequest request) {
-        Transaction transaction = transactionService.debitCardWithdraw(request);
+    public ResponseEntity<Transaction> debitCardWithdraw(@Valid @RequestBody DebitCardWithdrawRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = idempotencyStore.execute("debit-card-withdraw", idempotencyKey, request, Transaction.class,
+                () -> transactionService.debitCardWithdraw(request));
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
@@ -185,6 +258,198 @@ public class TransactionController {
         return new ResponseEntity<>(transactions, HttpStatus.OK);
     }
 
+    /**
+     * Handles POST /transactions/payroll requests.
+     * Accepts a bulk payroll batch from a SALARY/CORPORATE account, authorised by a single OTP.
+     * Lines are validated and executed asynchronously; poll the status resource for progress.
+     * @param request The PayrollBatchRequest DTO containing the source account, OTP and credit lines.
+     * @param idempotencyKey Optional Idempotency-Key; a retry with the same key and body gets the original
+     * response instead of submitting the batch again.
+     * @return ResponseEntity with the accepted PayrollBatchResponse and HTTP status 202 (Accepted).
+     * @throws InvalidTransactionException if the source is not SALARY/CORPORATE or a line exceeds limits.
+     * @throws InsufficientFundsException if the batch total exceeds the source balance.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    @PostMapping("/payroll")
+    public ResponseEntity<PayrollBatchResponse> submitPayroll(@Valid @RequestBody PayrollBatchRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        PayrollBatchResponse response = idempotencyStore.execute("payroll", idempotencyKey, request, PayrollBatchResponse.class,
+                () -> payrollService.submitBatch(request));
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Handles GET /transactions/payroll/{batchId} requests.
+     * @param batchId The ID of the payroll batch.
+     * @param includeLines Whether to include per-line results.
+     * @return ResponseEntity with the PayrollBatchResponse and HTTP status 200 (OK),
+     * or 404 (Not Found) if the batch does not exist.
+     */
+    @GetMapping("/payroll/{batchId}")
+    public ResponseEntity<PayrollBatchResponse> getPayrollBatch(@PathVariable String batchId,
+                                                                @RequestParam(defaultValue = "false") boolean includeLines) {
+        return payrollService.getBatch(batchId, includeLines)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Handles POST /transactions/standing-instructions requests.
+     * Creates a scheduled or recurring transfer, authorised once by OTP; each occurrence is executed
+     * by the scheduler through the regular transfer path.
+     * @param request The StandingInstructionRequest DTO containing the accounts, amount, frequency, dates and OTP.
+     * @return ResponseEntity with the created StandingInstructionResponse and HTTP status 201 (Created).
+     * @throws AccountNotFoundException if source or target account does not exist.
+     * @throws InvalidTransactionException if the accounts are the same, the dates are invalid or a limit is exceeded.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    @PostMapping("/standing-instructions")
+    public ResponseEntity<StandingInstructionResponse> createStandingInstruction(@Valid @RequestBody StandingInstructionRequest request) {
+        StandingInstructionResponse response = standingInstructionService.createInstruction(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Handles GET /transactions/standing-instructions?accountNumber=... requests.
+     * @param accountNumber The paying account number.
+     * @return ResponseEntity with the account's standing instructions (newest first) and HTTP status 200 (OK).
+     */
+    @GetMapping("/standing-instructions")
+    public ResponseEntity<List<StandingInstructionResponse>> getStandingInstructions(@RequestParam String accountNumber) {
+        return new ResponseEntity<>(standingInstructionService.getInstructionsByAccount(accountNumber), HttpStatus.OK);
+    }
+
+    /**
+     * Handles GET /transactions/standing-instructions/{instructionId} requests.
+     * @param instructionId The ID of the standing instruction.
+     * @return ResponseEntity with the StandingInstructionResponse and HTTP status 200 (OK),
+     * or 404 (Not Found) if the instruction does not exist.
+     */
+    @GetMapping("/standing-instructions/{instructionId}")
+    public ResponseEntity<StandingInstructionResponse> getStandingInstruction(@PathVariable String instructionId) {
+        return standingInstructionService.getInstruction(instructionId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Handles POST /transactions/standing-instructions/{instructionId}/pause requests.
+     * @return ResponseEntity with the PAUSED instruction and HTTP status 200 (OK), or 404 (Not Found).
+     * @throws InvalidTransactionException if the instruction is not ACTIVE or is executing right now.
+     */
+    @PostMapping("/standing-instructions/{instructionId}/pause")
+    public ResponseEntity<StandingInstructionResponse> pauseStandingInstruction(@PathVariable String instructionId) {
+        return standingInstructionService.pauseInstruction(instructionId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Handles POST /transactions/standing-instructions/{instructionId}/resume requests.
+     * Continues a PAUSED or SUSPENDED instruction at its next occurrence due today or later.
+     * @return ResponseEntity with the updated instruction and HTTP status 200 (OK), or 404 (Not Found).
+     * @throws InvalidTransactionException if the instruction is not PAUSED or SUSPENDED.
+     */
+    @PostMapping("/standing-instructions/{instructionId}/resume")
+    public ResponseEntity<StandingInstructionResponse> resumeStandingInstruction(@PathVariable String instructionId) {
+        return standingInstructionService.resumeInstruction(instructionId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Handles POST /transactions/standing-instructions/{instructionId}/cancel requests.
+     * @return ResponseEntity with the CANCELLED instruction and HTTP status 200 (OK), or 404 (Not Found).
+     * @throws InvalidTransactionException if the instruction already ended or is executing right now.
+     */
+    @PostMapping("/standing-instructions/{instructionId}/cancel")
+    public ResponseEntity<StandingInstructionResponse> cancelStandingInstruction(@PathVariable String instructionId) {
+        return standingInstructionService.cancelInstruction(instructionId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Handles GET /transactions/account/{accountId}/history requests.
+     * Returns one page of the account's history, newest first, using a keyset cursor so that
+     * deep pages cost the same as the first one. Date range, type and status are filtered in the DB.
+     * The page carries each row's running balance and the opening/closing balance of the date range.
+     * @param accountId The ID of the account.
+     * @param cursor The nextCursor from the previous page (omit for the first page).
+     * @param limit Page size (default 50, max 200).
+     * @return ResponseEntity with a TransactionHistoryPage and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the cursor is malformed.
+     */
+    @GetMapping("/account/{accountId}/history")
+    public ResponseEntity<TransactionHistoryPage> getTransactionHistory(
+            @PathVariable String accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status) {
+        LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime to = toDate != null ? toDate.atTime(23, 59, 59, 999_999_999) : null;
+        TransactionHistoryPage page = transactionService.getTransactionHistory(accountId, from, to, type, status, cursor, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * Handles GET /transactions/account/{accountId}/analytics requests.
+     * Returns inflow/outflow totals and a per-type breakdown of the account's successful transactions,
+     * per day or per month, read from pre-aggregated rows rather than the transactions table.
+     * @param accountId The ID of the account.
+     * @param granularity DAILY (default) or MONTHLY.
+     * @param fromDate First day, inclusive (optional; defaults to 30 days or 12 months before toDate).
+     * @param toDate Last day, inclusive (optional; defaults to today).
+     * @return ResponseEntity with an AccountAnalyticsResponse and HTTP status 200 (OK).
+     * @throws InvalidTransactionException if the range is inverted or too long.
+     */
+    @GetMapping("/account/{accountId}/analytics")
+    public ResponseEntity<AccountAnalyticsResponse> getAccountAnalytics(
+            @PathVariable String accountId,
+            @RequestParam(defaultValue = "DAILY") AnalyticsGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        AccountAnalyticsResponse response = accountAnalyticsService.getActivity(accountId, granularity, fromDate, toDate);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Handles GET /transactions/export requests (ADMIN only).
+     * Streams every transaction in [from, to) as CSV or NDJSON for reconciliation, optionally gzipped.
+     * Rows are written as they are read, so large windows do not build up in memory.
+     * @param from Inclusive start of the window (ISO date-time).
+     * @param to Exclusive end of the window (ISO date-time).
+     * @param type Only transactions of this type (optional).
+     * @param status Only transactions in this status (optional).
+     * @param format CSV (default) or NDJSON.
+     * @param gzip Whether to gzip the file.
+     * @return ResponseEntity streaming the file with HTTP status 200 (OK),
+     * or 429 (Too Many Requests) if the maximum number of concurrent exports is running.
+     * @throws InvalidTransactionException if the window is empty or too long.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(defaultValue = "CSV") TransactionExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Optional<StreamingResponseBody> body = transactionExportService.openExport(format, from, to, type, status, gzip);
+        if (body.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        String fileName = "transactions_" + from.toLocalDate() + "_" + to.toLocalDate() + format.getExtension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        return new ResponseEntity<>(body.get(), headers, HttpStatus.OK);
+    }
+
     /**
      * Handles GET /transactions/{transactionId} requests.
      * Retrieves a single transaction by its ID.
@@ -228,7 +493,7 @@ public class TransactionController {
         return new ResponseEntity<>(out, HttpStatus.CREATED);
     }
 
-    // Step 2: Verify OTP, generate password-protected PDF, email to recipient
+    // Step 2: Verify OTP and queue a password-protected PDF statement for email delivery
     @PostMapping("/statements/verify")
     public ResponseEntity<?> verifyAndSendStatement(@Valid @RequestBody StatementVerifyRequest request) {
         // Resolve recipient email
@@ -252,221 +517,21 @@ public class TransactionController {
             return new ResponseEntity<>(vResp, HttpStatus.BAD_REQUEST);
         }
 
-        // Collect transactions within date range
-        List<Transaction> all = transactionService.getTransactionsByAccountId(request.getAccountId());
-        LocalDateTime start = request.getFromDate().atStartOfDay();
-        LocalDateTime end = request.getToDate().atTime(23, 59, 59);
-        List<Transaction> filtered = all.stream()
-                .filter(t -> t.getTransactionDate() != null
-                        && !t.getTransactionDate().isBefore(start)
-                        && !t.getTransactionDate().isAfter(end))
-                .collect(Collectors.toList());
-
-        // Determine password FIRST4NAME + YYYY
-        UserDto owner = userServiceClient.getUserProfileById(request.getUserId());
-        String pass = buildPassword(owner);
-
-        try {
-            AccountDto account = accountServiceClient.getAccountById(request.getAccountId());
-            byte[] pdfBytes = generateStatementPdf(filtered, request.getAccountId(), request.getFromDate(), request.getToDate(), owner, account);
-            byte[] protectedPdf = protectPdf(pdfBytes, pass);
-
-            // Email the PDF to recipient
-            sendStatementEmail(recipient, protectedPdf, request.getAccountId(), request.getFromDate(), request.getToDate());
-
-            return ResponseEntity.ok(vResp);
-        } catch (MailException mailEx) {
-            // Fallback: notify user via NotificationService and avoid 500
-            try {
-                NotificationRequestDto notificationRequest = new NotificationRequestDto(
-                        request.getUserId(),
-                        NotificationRequestDto.NotificationType.EMAIL,
-                        "Your account statement was generated but email delivery failed due to mail server configuration. " +
-                                "An administrator will resend it shortly."
-                );
-                notificationServiceClient.sendEmailNotification(notificationRequest);
-            } catch (Exception ignore) { }
-            return new ResponseEntity<>("Statement generated but email delivery failed; admin will resend.", HttpStatus.ACCEPTED);
-        } catch (Exception e) {
-            return new ResponseEntity<>("Failed to generate or send statement: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-    }
-
-    private String statementContextId(String accountId, LocalDate from, LocalDate to) {
-        return "STATEMENT:" + accountId + ":" + from + "_" + to;
-    }
-
-    private String buildPassword(UserDto user) {
-        String first = (user != null && user.getFirstName() != null) ? user.getFirstName().toUpperCase() : "USER";
-        String four = first.length() >= 4 ? first.substring(0, 4) : String.format("%-4s", first).replace(' ', 'X');
-        String yyyy = "2000";
-        if (user != null && user.getDateOfBirth() != null) {
-            try {
-                yyyy = String.valueOf(user.getDateOfBirth().getYear());
-            } catch (Exception ignore) {}
-        }
-        return four + yyyy;
-    }
-
-    private byte[] generateStatementPdf(List<Transaction> txs, String accountId, LocalDate from, LocalDate to, UserDto owner, AccountDto account) throws Exception {
-        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PDPage page = new PDPage(PDRectangle.A4);
-            doc.addPage(page);
-            PDPageContentStream cs = new PDPageContentStream(doc, page);
-            try {
-                float margin = 50;
-                float y = page.getMediaBox().getHeight() - margin;
-
-                // Title
-                cs.beginText();
-                cs.setFont(PDType1Font.HELVETICA_BOLD, 16);
-                cs.newLineAtOffset(margin, y);
-                cs.showText("Account Statement");
-                cs.endText();
-                y -= 24;
-
-                // Period
-                cs.beginText();
-                cs.setFont(PDType1Font.HELVETICA, 11);
-                cs.newLineAtOffset(margin, y);
-                cs.showText("Period: " + from + " to " + to);
-                cs.endText();
-                y -= 16;
-
-                // User details
-                if (owner != null) {
-                    String fullName = (owner.getFirstName() != null ? owner.getFirstName() : "")
-                            + " " + (owner.getLastName() != null ? owner.getLastName() : "");
-                    cs.beginText();
-                    cs.setFont(PDType1Font.HELVETICA, 10);
-                    cs.newLineAtOffset(margin, y);
-                    cs.showText("User: " + fullName.trim());
-                    cs.endText();
-                    y -= 12;
-
-                    if (owner.getEmail() != null) {
-                        cs.beginText();
-                        cs.setFont(PDType1Font.HELVETICA, 10);
-                        cs.newLineAtOffset(margin, y);
-                        cs.showText("Email: " + owner.getEmail());
-                        cs.endText();
-                        y -= 12;
-                    }
-                    try {
-                        if (owner.getDateOfBirth() != null) {
-                            cs.beginText();
-                            cs.setFont(PDType1Font.HELVETICA, 10);
-                            cs.newLineAtOffset(margin, y);
-                            cs.showText("Date of Birth: " + owner.getDateOfBirth());
-                            cs.endText();
-                            y -= 12;
-                        }
-                    } catch (Exception ignore) {}
-                }
-
-                // Account details
-                if (account != null) {
-                    cs.beginText();
-                    cs.setFont(PDType1Font.HELVETICA, 10);
-                    cs.newLineAtOffset(margin, y);
-                    cs.showText("Account Number: " + (account.getAccountNumber() != null ? account.getAccountNumber() : accountId));
-                    cs.endText();
-                    y -= 12;
-
-                    if (account.getAccountType() != null) {
-                        cs.beginText();
-                        cs.setFont(PDType1Font.HELVETICA, 10);
-                        cs.newLineAtOffset(margin, y);
-                        cs.showText("Account Type: " + account.getAccountType());
-                        cs.endText();
-                        y -= 12;
-                    }
-
-                    try {
-                        if (account.getBalance() != null) {
-                            cs.beginText();
-                            cs.setFont(PDType1Font.HELVETICA, 10);
-                            cs.newLineAtOffset(margin, y);
-                            cs.showText(String.format("Current Balance: %.2f", account.getBalance()));
-                            cs.endText();
-                            y -= 12;
-                        }
-                    } catch (Exception ignore) {}
-                }
-
-                y -= 4;
-                // Header for transaction table
-                cs.beginText();
-                cs.setFont(PDType1Font.HELVETICA_BOLD, 10);
-                cs.newLineAtOffset(margin, y);
-                cs.showText("Date/Time          Type       Amount       Status      From            To              TxnId");
-                cs.endText();
-                y -= 14;
-
-                // Rows (truncate to page height)
-                for (Transaction t : txs) {
-                    if (y < 60) break; // avoid overflow
-                    String fromId = t.getFromAccountId() != null ? t.getFromAccountId() : "-";
-                    String toId = t.getToAccountId() != null ? t.getToAccountId() : "-";
-                    String line = String.format("%-19s %-10s %-12.2f %-11s %-14s %-14s %s",
-                            t.getTransactionDate(),
-                            t.getType(),
-                            t.getAmount(),
-                            t.getStatus(),
-                            fromId.length() > 12 ? fromId.substring(0, 12) + "…" : fromId,
-                            toId.length() > 12 ? toId.substring(0, 12) + "…" : toId,
-                            t.getTransactionId());
-                    cs.beginText();
-                    cs.setFont(PDType1Font.HELVETICA, 9);
-                    cs.newLineAtOffset(margin, y);
-                    cs.showText(line);
-                    cs.endText();
-                    y -= 12;
-                }
-            } finally {
-                cs.close();
-            }
-            doc.save(baos);
-            return baos.toByteArray();
-        }
+        // Generation and delivery run asynchronously; poll the job for the outcome
+        StatementJobResponse job = statementService.submit(request.getUserId(), request.getAccountId(), recipient,
+                request.getFromDate(), request.getToDate());
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
     }
 
-    private byte[] protectPdf(byte[] rawPdf, String userPassword) throws Exception {
-        try (PDDocument doc = PDDocument.load(rawPdf); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            AccessPermission ap = new AccessPermission();
-            String ownerPassword = java.util.UUID.randomUUID().toString();
-            StandardProtectionPolicy spp = new StandardProtectionPolicy(ownerPassword, userPassword, ap);
-            spp.setEncryptionKeyLength(128);
-            spp.setPermissions(ap);
-            doc.protect(spp);
-            doc.save(out);
-            return out.toByteArray();
-        }
+    // Step 3: Poll statement generation/delivery status
+    @GetMapping("/statements/jobs/{jobId}")
+    public ResponseEntity<StatementJobResponse> getStatementJob(@PathVariable String jobId) {
+        return statementService.getJob(jobId)
+                .map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
-    private void sendStatementEmail(String toEmail, byte[] pdfBytes, String accountId, LocalDate from, LocalDate to) throws Exception {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-        // Ensure 'From' is set to the configured SMTP username (required by many providers incl. Gmail)
-        try {
-            if (mailSender instanceof org.springframework.mail.javamail.JavaMailSenderImpl senderImpl) {
-                String fromAddr = senderImpl.getUsername();
-                if (fromAddr != null && !fromAddr.isBlank()) {
-                    helper.setFrom(fromAddr);
-                }
-            }
-        } catch (Exception ignore) {}
-
-        helper.setTo(toEmail);
-        helper.setSubject("Your Account Statement (" + accountId + ")");
-        String body = "Please find your password-protected statement attached.\n"
-                + "Period: " + from + " to " + to + ".\n\n"
-                + "Password to open the PDF: FIRST 4 letters of your first name in UPPERCASE + YEAR of birth (e.g., ABCD2003).\n"
-                + "If your first name has fewer than 4 letters, remaining letters are replaced with 'X' (e.g., JO -> JOXX).";
-        helper.setText(body, false);
-        String filename = "statement_" + accountId + "_" + from + "_" + to + ".pdf";
-        helper.addAttachment(filename, new org.springframework.core.io.ByteArrayResource(pdfBytes));
-        mailSender.send(message);
+    private String statementContextId(String accountId, LocalDate from, LocalDate to) {
+        return "STATEMENT:" + accountId + ":" + from + "_" + to;
     }
 }
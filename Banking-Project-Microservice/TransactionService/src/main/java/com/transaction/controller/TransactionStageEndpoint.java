@@ -0,0 +1,95 @@
+package com.transaction.controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.transaction.dto.StageLatencyDtos.StageLatency;
+import com.transaction.dto.StageLatencyDtos.StageLatencyReport;
+import com.transaction.service.TransactionStageObserver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * GET /actuator/transactionstages[?type=TRANSFER&limit=10]
+ * Summarises the transaction.stage timers, slowest first, with the slowest stage of each
+ * transaction type on top. Percentiles cover the recent window Micrometer keeps (about two minutes);
+ * count and total are cumulative since startup.
+ */
+@Component
+@Endpoint(id = "transactionstages")
+public class TransactionStageEndpoint {
+
+    private static final Comparator<StageLatency> SLOWEST_FIRST =
+            Comparator.comparingDouble(TransactionStageEndpoint::rank).reversed();
+
+    private final MeterRegistry meterRegistry;
+
+    public TransactionStageEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public StageLatencyReport stages(@Nullable String type, @Nullable Integer limit) {
+        List<StageLatency> stages = new ArrayList<>();
+        for (Timer timer : meterRegistry.find(TransactionStageObserver.METRIC).timers()) {
+            String timerType = timer.getId().getTag("type");
+            if (type != null && !type.equalsIgnoreCase(timerType)) {
+                continue;
+            }
+            stages.add(summarise(timer));
+        }
+        stages.sort(SLOWEST_FIRST);
+
+        Map<String, StageLatency> slowestByType = new LinkedHashMap<>();
+        for (StageLatency stage : stages) {
+            slowestByType.putIfAbsent(stage.getType(), stage);
+        }
+        if (limit != null && limit > 0 && stages.size() > limit) {
+            stages = new ArrayList<>(stages.subList(0, limit));
+        }
+        return new StageLatencyReport(new ArrayList<>(slowestByType.values()), stages);
+    }
+
+    private StageLatency summarise(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Double p50 = null;
+        Double p95 = null;
+        Double p99 = null;
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            double ms = value.value(TimeUnit.MILLISECONDS);
+            if (value.percentile() == 0.5) {
+                p50 = ms;
+            } else if (value.percentile() == 0.95) {
+                p95 = ms;
+            } else if (value.percentile() == 0.99) {
+                p99 = ms;
+            }
+        }
+        return new StageLatency(
+                timer.getId().getTag("type"),
+                timer.getId().getTag("stage"),
+                timer.getId().getTag("downstream"),
+                timer.getId().getTag("outcome"),
+                timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS),
+                timer.max(TimeUnit.MILLISECONDS),
+                p50, p95, p99,
+                timer.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    private static double rank(StageLatency stage) {
+        return stage.getP95Ms() != null ? stage.getP95Ms() : stage.getMeanMs();
+    }
+}
@@ -0,0 +1,37 @@
+package com.transaction.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.AccountActivityDelta;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface AccountActivityDeltaRepository extends JpaRepository<AccountActivityDelta, String> {
+
+    /**
+     * IDs of the oldest deltas waiting to be folded.
+     */
+    @Query("SELECT d.deltaId FROM AccountActivityDelta d ORDER BY d.createdAt")
+    List<String> findOldestIds(Pageable pageable);
+
+    /**
+     * Row-locks the given deltas, skipping any another instance is folding right now.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = SKIP LOCKED
+    @Query("SELECT d FROM AccountActivityDelta d WHERE d.deltaId IN :ids")
+    List<AccountActivityDelta> lockByIds(@Param("ids") Collection<String> ids);
+
+    long deleteByTransactionId(String transactionId);
+}
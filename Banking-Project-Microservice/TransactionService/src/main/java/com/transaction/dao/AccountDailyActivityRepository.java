@@ -0,0 +1,56 @@
+package com.transaction.dao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.AccountDailyActivity;
+
+@Repository
+public interface AccountDailyActivityRepository extends JpaRepository<AccountDailyActivity, String> {
+
+    /**
+     * Adds a folded batch to an existing row.
+     * @return 0 if the row does not exist yet, in which case the caller inserts it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountDailyActivity a SET a.txnCount = a.txnCount + :count, "
+            + "a.totalAmount = a.totalAmount + :amount, a.updatedAt = :now WHERE a.activityId = :id")
+    int increment(@Param("id") String activityId, @Param("count") long count,
+                  @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Clears a day before the backfill writes its recomputed rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AccountDailyActivity a WHERE a.activityDate = :day")
+    int deleteByActivityDate(@Param("day") LocalDate day);
+
+    @Query("SELECT a FROM AccountDailyActivity a WHERE a.accountId = :accountId "
+            + "AND a.activityDate >= :fromDate AND a.activityDate <= :toDate ORDER BY a.activityDate")
+    List<AccountDailyActivity> findDaily(@Param("accountId") String accountId,
+                                         @Param("fromDate") LocalDate fromDate,
+                                         @Param("toDate") LocalDate toDate);
+
+    /**
+     * Monthly totals summed from the daily rows.
+     * @return Rows of [activityMonth, type, direction, count, amount], oldest month first.
+     */
+    @Query("SELECT a.activityMonth, a.type, a.direction, SUM(a.txnCount), SUM(a.totalAmount) "
+            + "FROM AccountDailyActivity a WHERE a.accountId = :accountId "
+            + "AND a.activityMonth >= :fromMonth AND a.activityMonth <= :toMonth "
+            + "GROUP BY a.activityMonth, a.type, a.direction ORDER BY a.activityMonth")
+    List<Object[]> sumMonthly(@Param("accountId") String accountId,
+                              @Param("fromMonth") LocalDate fromMonth,
+                              @Param("toMonth") LocalDate toMonth);
+}
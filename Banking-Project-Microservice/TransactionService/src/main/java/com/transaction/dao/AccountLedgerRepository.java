@@ -0,0 +1,65 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.AccountLedgerEntry;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface AccountLedgerRepository extends JpaRepository<AccountLedgerEntry, String> {
+
+    /**
+     * Entries AccountService applied strictly before the given time, latest movement first: by the account's
+     * balance sequence, then (entries without one) by applied time. Use a Pageable of (0, 1) for the balance
+     * an account opened a period with.
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId AND e.appliedAt < :before "
+            + "ORDER BY e.balanceSequence DESC NULLS LAST, e.appliedAt DESC, e.transactionId DESC")
+    List<AccountLedgerEntry> findLatestAppliedBefore(@Param("accountId") String accountId,
+                                                     @Param("before") LocalDateTime before,
+                                                     Pageable pageable);
+
+    /**
+     * Entries applied at or before the given time, latest movement first (the balance an account closed a
+     * period with).
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId AND e.appliedAt <= :atOrBefore "
+            + "ORDER BY e.balanceSequence DESC NULLS LAST, e.appliedAt DESC, e.transactionId DESC")
+    List<AccountLedgerEntry> findLatestAppliedAtOrBefore(@Param("accountId") String accountId,
+                                                         @Param("atOrBefore") LocalDateTime atOrBefore,
+                                                         Pageable pageable);
+
+    /**
+     * Entries applied at or after the given time, earliest movement first.
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId AND e.appliedAt >= :from "
+            + "ORDER BY e.balanceSequence ASC NULLS LAST, e.appliedAt ASC, e.transactionId ASC")
+    List<AccountLedgerEntry> findEarliestAppliedFrom(@Param("accountId") String accountId,
+                                                     @Param("from") LocalDateTime from,
+                                                     Pageable pageable);
+
+    /**
+     * Streams an account's entries dated within [fromDate, toDate] in statement order (newest first), for
+     * pairing with statement rows. Must be
+     * consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId "
+            + "AND e.transactionDate >= :fromDate AND e.transactionDate <= :toDate "
+            + "ORDER BY e.transactionDate DESC, e.transactionId DESC")
+    Stream<AccountLedgerEntry> streamPeriod(@Param("accountId") String accountId,
+                                           @Param("fromDate") LocalDateTime fromDate,
+                                           @Param("toDate") LocalDateTime toDate);
+
+    long deleteByTransactionId(String transactionId);
+}
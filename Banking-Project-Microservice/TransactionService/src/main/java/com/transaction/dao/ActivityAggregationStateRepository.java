@@ -0,0 +1,26 @@
+package com.transaction.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.ActivityAggregationState;
+
+@Repository
+public interface ActivityAggregationStateRepository extends JpaRepository<ActivityAggregationState, String> {
+
+    /**
+     * Moves the backfill watermark forward only; a slower instance finishing an older day is a no-op.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ActivityAggregationState s SET s.backfilledThrough = :day, s.updatedAt = :now "
+            + "WHERE s.stateId = :id AND (s.backfilledThrough IS NULL OR s.backfilledThrough < :day)")
+    int advanceBackfill(@Param("id") String stateId, @Param("day") LocalDate day, @Param("now") LocalDateTime now);
+}
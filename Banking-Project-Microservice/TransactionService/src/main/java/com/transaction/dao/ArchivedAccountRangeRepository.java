@@ -0,0 +1,29 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.ArchivedAccountRange;
+
+@Repository
+public interface ArchivedAccountRangeRepository extends JpaRepository<ArchivedAccountRange, String> {
+
+    /**
+     * Widens an existing range to cover a newly archived batch.
+     * @return 0 if the account has no range yet, in which case the caller inserts it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ArchivedAccountRange r SET "
+            + "r.oldestDate = CASE WHEN r.oldestDate > :oldest THEN :oldest ELSE r.oldestDate END, "
+            + "r.newestDate = CASE WHEN r.newestDate < :newest THEN :newest ELSE r.newestDate END, "
+            + "r.rowCount = r.rowCount + :count, r.updatedAt = :now WHERE r.accountId = :accountId")
+    int extend(@Param("accountId") String accountId, @Param("oldest") LocalDateTime oldest,
+               @Param("newest") LocalDateTime newest, @Param("count") long count, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,68 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.ArchivedTransaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Read side of transaction_archive. Each query mirrors the TransactionRepository query of the same
+ * name so results from both tables can be merged; history pages use TransactionHistorySpecifications.
+ */
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, String>, JpaSpecificationExecutor<ArchivedTransaction> {
+
+    List<ArchivedTransaction> findByFromAccountIdOrToAccountIdOrderByTransactionDateDesc(String accountId, String accountId2);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM ArchivedTransaction t "
+            + "WHERE (t.fromAccountId = :accountId OR t.toAccountId = :accountId) "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate <= :toDate "
+            + "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    Stream<ArchivedTransaction> streamStatement(@Param("accountId") String accountId,
+                                                @Param("fromDate") LocalDateTime fromDate,
+                                                @Param("toDate") LocalDateTime toDate);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("SELECT t.transactionId, t.transactionDate, t.type, t.status, t.amount, "
+            + "t.fromAccountId, t.toAccountId, t.reason, t.metadataJson FROM ArchivedTransaction t "
+            + "WHERE t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "AND (:status IS NULL OR t.status = :status) "
+            + "ORDER BY t.transactionDate")
+    Stream<Object[]> streamExport(@Param("fromDate") LocalDateTime fromDate,
+                                  @Param("toDate") LocalDateTime toDate,
+                                  @Param("type") TransactionType type,
+                                  @Param("status") TransactionStatus status);
+
+    @Query("SELECT t.fromAccountId, t.type, COUNT(t), SUM(t.amount) FROM ArchivedTransaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.fromAccountId IS NOT NULL "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "GROUP BY t.fromAccountId, t.type")
+    List<Object[]> sumSuccessfulByFromAccount(@Param("fromDate") LocalDateTime fromDate,
+                                              @Param("toDate") LocalDateTime toDate);
+
+    @Query("SELECT t.toAccountId, t.type, COUNT(t), SUM(t.amount) FROM ArchivedTransaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.toAccountId IS NOT NULL "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "GROUP BY t.toAccountId, t.type")
+    List<Object[]> sumSuccessfulByToAccount(@Param("fromDate") LocalDateTime fromDate,
+                                            @Param("toDate") LocalDateTime toDate);
+
+    @Query("SELECT MIN(t.transactionDate) FROM ArchivedTransaction t")
+    LocalDateTime findEarliestTransactionDate();
+}
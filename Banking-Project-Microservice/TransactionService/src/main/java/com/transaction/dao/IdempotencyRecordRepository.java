@@ -0,0 +1,61 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Re-claims a key whose record expired. An IN_PROGRESS claim is never taken over before that: its
+     * request may still be running, or may have moved money without its outcome being stored.
+     * @return 1 if this caller now owns the key.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, "
+            + "r.status = com.transaction.model.IdempotencyStatus.IN_PROGRESS, r.responseBody = NULL, "
+            + "r.lockedUntil = :lockedUntil, r.createdAt = :now, r.expiresAt = :expiresAt "
+            + "WHERE r.idempotencyId = :id AND r.expiresAt <= :now")
+    int takeOver(@Param("id") String id, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Stores the response once the request has finished; committed on its own.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.transaction.model.IdempotencyStatus.COMPLETED, "
+            + "r.responseBody = :responseBody WHERE r.idempotencyId = :id "
+            + "AND r.status = com.transaction.model.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("id") String id, @Param("responseBody") String responseBody);
+
+    /**
+     * Frees a key whose request failed without side effects, so the client may retry with it.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyId = :id "
+            + "AND r.status = com.transaction.model.IdempotencyStatus.IN_PROGRESS")
+    int release(@Param("id") String id);
+
+    @Query("SELECT r.idempotencyId FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes the given keys unless one was taken over (and so renewed) since it was selected.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyId IN :ids AND r.expiresAt <= :now")
+    int purge(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,61 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.OutboxEvent;
+import com.transaction.model.OutboxStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, String> {
+
+    /**
+     * IDs of the oldest rows that are due for (re)publishing. A row is held back while an earlier row with
+     * the same event key is still waiting for its retry, so a key's events are never published out of order.
+     */
+    @Query("SELECT o.outboxId FROM OutboxEvent o WHERE o.status = :status AND o.nextAttemptAt <= :now "
+            + "AND NOT EXISTS (SELECT e.outboxId FROM OutboxEvent e WHERE e.eventKey = o.eventKey "
+            + "AND e.status = :status AND e.createdAt < o.createdAt AND e.nextAttemptAt > :now) "
+            + "ORDER BY o.createdAt")
+    List<String> findDueIds(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Row-locks the given rows, skipping any another relay instance has already claimed.
+     * Kept separate from findDueIds because Oracle rejects FOR UPDATE combined with row limiting.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = SKIP LOCKED
+    @Query("SELECT o FROM OutboxEvent o WHERE o.outboxId IN :ids AND o.status = :status ORDER BY o.createdAt")
+    List<OutboxEvent> lockByIds(@Param("ids") Collection<String> ids, @Param("status") OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT DISTINCT o.eventKey FROM OutboxEvent o WHERE o.outboxId IN :ids AND o.eventKey IS NOT NULL")
+    List<String> findEventKeys(@Param("ids") Collection<String> ids);
+
+    /**
+     * IDs of rows in the given status published before the cutoff, oldest first.
+     */
+    @Query("SELECT o.outboxId FROM OutboxEvent o WHERE o.status = :status AND o.publishedAt < :cutoff ORDER BY o.publishedAt")
+    List<String> findPublishedBefore(@Param("status") OutboxStatus status, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Deletes the given rows if they are still in the given status.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.outboxId IN :ids AND o.status = :status")
+    int purge(@Param("ids") Collection<String> ids, @Param("status") OutboxStatus status);
+}
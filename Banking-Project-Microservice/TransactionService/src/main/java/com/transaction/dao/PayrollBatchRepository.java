@@ -0,0 +1,18 @@
+package com.transaction.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.PayrollBatch;
+import com.transaction.model.PayrollBatchStatus;
+
+@Repository
+public interface PayrollBatchRepository extends JpaRepository<PayrollBatch, String> {
+
+    /**
+     * Batches in the given status, oldest first (used to resume accepted batches after a restart).
+     */
+    List<PayrollBatch> findByStatusOrderByCreatedAtAsc(PayrollBatchStatus status);
+}
@@ -0,0 +1,17 @@
+package com.transaction.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.transaction.model.PayrollLine;
+import com.transaction.model.TransactionStatus;
+
+@Repository
+public interface PayrollLineRepository extends JpaRepository<PayrollLine, String> {
+
+    List<PayrollLine> findByBatchIdOrderByLineNumberAsc(String batchId);
+
+    List<PayrollLine> findByBatchIdAndStatusOrderByLineNumberAsc(String batchId, TransactionStatus status);
+}
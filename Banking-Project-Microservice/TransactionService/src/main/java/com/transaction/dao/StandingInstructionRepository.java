@@ -0,0 +1,123 @@
+package com.transaction.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.StandingInstruction;
+import com.transaction.model.StandingInstructionStatus;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface StandingInstructionRepository extends JpaRepository<StandingInstruction, String> {
+
+    List<StandingInstruction> findByFromAccountNumberOrderByCreatedAtDesc(String fromAccountNumber);
+
+    long countByFromAccountIdAndStatusIn(String fromAccountId, Collection<StandingInstructionStatus> statuses);
+
+    List<StandingInstruction> findByLeaseOwner(String leaseOwner);
+
+    /**
+     * Row lock held for the whole execution, so a concurrent suspend, pause or cancel waits for the
+     * outcome instead of being overwritten by it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StandingInstruction s WHERE s.instructionId = :id")
+    Optional<StandingInstruction> findByIdForUpdate(@Param("id") String instructionId);
+
+    /**
+     * Active instructions due by now and not leased by anyone, earliest bucket first.
+     * The bucket bound lets the (status, due_bucket) index do the range scan.
+     */
+    @Query("SELECT s.instructionId FROM StandingInstruction s "
+            + "WHERE s.status = com.transaction.model.StandingInstructionStatus.ACTIVE "
+            + "AND s.dueBucket <= :bucket AND s.nextRunAt <= :now AND s.executingSince IS NULL "
+            + "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now) ORDER BY s.dueBucket, s.nextRunAt")
+    List<String> findDueIds(@Param("bucket") long bucket, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Leases a batch of due instructions to one poll in a single UPDATE. Rows taken by another
+     * instance in the meantime are skipped; the caller reads back what it got with findByLeaseOwner.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.leaseOwner = :owner, s.leaseUntil = :until "
+            + "WHERE s.instructionId IN :ids AND s.status = com.transaction.model.StandingInstructionStatus.ACTIVE "
+            + "AND s.nextRunAt <= :now AND s.executingSince IS NULL AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<String> instructionIds, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Marks the start of an execution. Returns 0 if the lease was lost or the instruction was
+     * paused or cancelled since it was claimed.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.executingSince = :now, s.leaseUntil = :until "
+            + "WHERE s.instructionId = :id AND s.leaseOwner = :owner "
+            + "AND s.status = com.transaction.model.StandingInstructionStatus.ACTIVE AND s.executingSince IS NULL")
+    int start(@Param("id") String instructionId, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Gives back a lease that was never started (e.g., the worker queue was full).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.leaseOwner = NULL, s.leaseUntil = NULL "
+            + "WHERE s.instructionId IN :ids AND s.leaseOwner = :owner AND s.executingSince IS NULL")
+    int release(@Param("ids") Collection<String> instructionIds, @Param("owner") String owner);
+
+    /**
+     * Instructions whose lease expired in the middle of an execution.
+     */
+    @Query("SELECT s.instructionId FROM StandingInstruction s "
+            + "WHERE s.executingSince IS NOT NULL AND s.leaseUntil < :now")
+    List<String> findInterruptedIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Suspends an instruction interrupted mid-execution and moves it past the interrupted occurrence,
+     * so resuming never repeats a transfer that may have gone through.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.status = com.transaction.model.StandingInstructionStatus.SUSPENDED, "
+            + "s.occurrence = s.occurrence + 1, s.executingSince = NULL, s.leaseOwner = NULL, s.leaseUntil = NULL, s.lastFailureReason = :reason, s.updatedAt = :now "
+            + "WHERE s.instructionId = :id AND s.executingSince IS NOT NULL AND s.leaseUntil < :now")
+    int suspendInterrupted(@Param("id") String instructionId, @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    /**
+     * Status change requested by the customer. Refused (0) while an execution is in progress.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.status = :to, s.leaseOwner = NULL, s.leaseUntil = NULL, s.updatedAt = :now "
+            + "WHERE s.instructionId = :id AND s.status IN :from AND s.executingSince IS NULL")
+    int transition(@Param("id") String instructionId, @Param("from") Collection<StandingInstructionStatus> from,
+                   @Param("to") StandingInstructionStatus to, @Param("now") LocalDateTime now);
+
+    /**
+     * Reactivates a paused or suspended instruction at its next future occurrence.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StandingInstruction s SET s.status = com.transaction.model.StandingInstructionStatus.ACTIVE, "
+            + "s.occurrence = :occurrence, s.scheduledFor = :scheduledFor, s.nextRunAt = :nextRunAt, s.dueBucket = :bucket, "
+            + "s.attempts = 0, s.consecutiveFailures = 0, s.leaseOwner = NULL, s.leaseUntil = NULL, s.updatedAt = :now "
+            + "WHERE s.instructionId = :id AND s.status IN :from AND s.executingSince IS NULL")
+    int resume(@Param("id") String instructionId, @Param("from") Collection<StandingInstructionStatus> from,
+               @Param("occurrence") int occurrence, @Param("scheduledFor") LocalDate scheduledFor,
+               @Param("nextRunAt") LocalDateTime nextRunAt, @Param("bucket") long bucket, @Param("now") LocalDateTime now);
+}
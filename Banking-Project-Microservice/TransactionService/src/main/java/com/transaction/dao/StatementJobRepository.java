@@ -0,0 +1,43 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.StatementJob;
+import com.transaction.model.StatementJobStatus;
+
+@Repository
+public interface StatementJobRepository extends JpaRepository<StatementJob, String> {
+
+    /**
+     * Jobs in the given status, oldest first.
+     */
+    List<StatementJob> findByStatusOrderByCreatedAtAsc(StatementJobStatus status);
+
+    /**
+     * Moves a job from QUEUED to GENERATING. Returns 0 if another worker already claimed it,
+     * so a job that is submitted twice (e.g., by the requeue poll) is still generated once.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StatementJob j SET j.status = com.transaction.model.StatementJobStatus.GENERATING, j.startedAt = :now "
+            + "WHERE j.jobId = :jobId AND j.status = com.transaction.model.StatementJobStatus.QUEUED")
+    int claim(@Param("jobId") String jobId, @Param("now") LocalDateTime now);
+
+    /**
+     * Puts jobs interrupted by a restart back in the queue.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StatementJob j SET j.status = com.transaction.model.StatementJobStatus.QUEUED "
+            + "WHERE j.status IN (com.transaction.model.StatementJobStatus.GENERATING, com.transaction.model.StatementJobStatus.SENDING) "
+            + "AND j.startedAt < :startedBefore")
+    int requeueInterrupted(@Param("startedBefore") LocalDateTime startedBefore);
+}
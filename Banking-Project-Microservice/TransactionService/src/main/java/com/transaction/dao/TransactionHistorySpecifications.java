@@ -0,0 +1,67 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Keyset history seeks over Transaction and ArchivedTransaction, which share the attribute names.
+ *
+ * Each seek matches a single account column so it range-scans that column's (account, date, id) index,
+ * and only the filters actually given become predicates: a "(:x IS NULL OR ...)" or an OR across the two
+ * account columns leaves the optimizer a plan that reads the whole history of the account.
+ */
+public final class TransactionHistorySpecifications {
+
+    public static final String FROM_ACCOUNT = "fromAccountId";
+    public static final String TO_ACCOUNT = "toAccountId";
+
+    // History order: newest first, ties broken by ID (same as the keyset cursor)
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "transactionDate", "transactionId");
+
+    private TransactionHistorySpecifications() {
+    }
+
+    /**
+     * Rows where the given account column equals accountId, within the optional date range, type and status,
+     * strictly older than the (cursorDate, cursorId) position when one is given.
+     */
+    public static <T> Specification<T> seek(String accountColumn, String accountId,
+                                            LocalDateTime fromDate, LocalDateTime toDate,
+                                            TransactionType type, TransactionStatus status,
+                                            LocalDateTime cursorDate, String cursorId) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> date = root.get("transactionDate");
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get(accountColumn), accountId));
+            if (fromDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(date, fromDate));
+            }
+            if (toDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(date, toDate));
+            }
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (cursorDate != null) {
+                // date <= cursor bounds the index range; the OR only trims ties on the cursor date
+                predicates.add(cb.lessThanOrEqualTo(date, cursorDate));
+                predicates.add(cb.or(cb.lessThan(date, cursorDate),
+                        cb.lessThan(root.<String>get("transactionId"), cursorId)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,15 +1,26 @@
 package com.transaction.dao;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.transaction.model.Transaction;
 import com.transaction.model.TransactionStatus;
 import com.transaction.model.TransactionType;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository // Marks this interface as a Spring Data JPA repository component
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, JpaSpecificationExecutor<Transaction> {
     // JpaRepository provides standard CRUD operations: save, findById, findAll, delete, etc.
 
     // You can define custom query methods here. Spring Data JPA will implement them automatically
@@ -52,5 +63,110 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
      */
     List<Transaction> findByFromAccountIdOrToAccountIdOrderByTransactionDateDesc(String accountId, String accountId2);
 
+    /**
+     * Streams an account's transactions within [fromDate, toDate], newest first, for statement rendering.
+     * Rows are fetched from the driver in chunks instead of being materialised as a list; the stream must be
+     * consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Transaction t "
+            + "WHERE (t.fromAccountId = :accountId OR t.toAccountId = :accountId) "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate <= :toDate "
+            + "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    Stream<Transaction> streamStatement(@Param("accountId") String accountId,
+                                        @Param("fromDate") LocalDateTime fromDate,
+                                        @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * Streams (fromAccountId, amount, transactionDate) of successful debits since the given time, used to
+     * rebuild the in-memory rolling limit counters. Rows with the excluded reason are skipped.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.fromAccountId, t.amount, t.transactionDate FROM Transaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.fromAccountId IS NOT NULL "
+            + "AND t.type IN :types "
+            + "AND t.transactionDate >= :since "
+            + "AND (t.reason IS NULL OR t.reason <> :excludedReason)")
+    Stream<Object[]> streamDebitsSince(@Param("types") List<TransactionType> types,
+                                       @Param("since") LocalDateTime since,
+                                       @Param("excludedReason") String excludedReason);
+
+    /**
+     * Streams (fromAccountId, toAccountId, amount, transactionDate) of successful debits since the given
+     * time, oldest first, used to warm the risk scorer's per-account statistics.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.fromAccountId, t.toAccountId, t.amount, t.transactionDate FROM Transaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.fromAccountId IS NOT NULL "
+            + "AND t.type IN :types "
+            + "AND t.transactionDate >= :since "
+            + "ORDER BY t.transactionDate")
+    Stream<Object[]> streamRiskHistorySince(@Param("types") List<TransactionType> types,
+                                            @Param("since") LocalDateTime since);
+
+    /**
+     * Streams every transaction in [fromDate, toDate) as flat columns (transactionId, transactionDate, type,
+     * status, amount, fromAccountId, toAccountId, reason, metadataJson) for the admin export. Scalar rows
+     * are not managed entities, so the persistence context stays empty however many rows are read.
+     * Ordered by date only, which idx_txn_date can deliver without a sort. Must be consumed inside a
+     * transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("SELECT t.transactionId, t.transactionDate, t.type, t.status, t.amount, "
+            + "t.fromAccountId, t.toAccountId, t.reason, t.metadataJson FROM Transaction t "
+            + "WHERE t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "AND (:status IS NULL OR t.status = :status) "
+            + "ORDER BY t.transactionDate")
+    Stream<Object[]> streamExport(@Param("fromDate") LocalDateTime fromDate,
+                                  @Param("toDate") LocalDateTime toDate,
+                                  @Param("type") TransactionType type,
+                                  @Param("status") TransactionStatus status);
+
+    /**
+     * Successful transactions in [fromDate, toDate) grouped by paying account and type, used by the
+     * activity backfill. Rows of [fromAccountId, type, count, sum(amount)].
+     */
+    @Query("SELECT t.fromAccountId, t.type, COUNT(t), SUM(t.amount) FROM Transaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.fromAccountId IS NOT NULL "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "GROUP BY t.fromAccountId, t.type")
+    List<Object[]> sumSuccessfulByFromAccount(@Param("fromDate") LocalDateTime fromDate,
+                                              @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * Same as sumSuccessfulByFromAccount for the receiving side. Rows of [toAccountId, type, count, sum(amount)].
+     */
+    @Query("SELECT t.toAccountId, t.type, COUNT(t), SUM(t.amount) FROM Transaction t "
+            + "WHERE t.status = com.transaction.model.TransactionStatus.SUCCESS "
+            + "AND t.toAccountId IS NOT NULL "
+            + "AND t.transactionDate >= :fromDate AND t.transactionDate < :toDate "
+            + "GROUP BY t.toAccountId, t.type")
+    List<Object[]> sumSuccessfulByToAccount(@Param("fromDate") LocalDateTime fromDate,
+                                            @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * IDs of the oldest finished transactions dated before the archive cutoff.
+     */
+    @Query("SELECT t.transactionId FROM Transaction t WHERE t.transactionDate < :cutoff "
+            + "AND t.status IN (com.transaction.model.TransactionStatus.SUCCESS, com.transaction.model.TransactionStatus.FAILED) "
+            + "ORDER BY t.transactionDate")
+    List<String> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Row-locks the given transactions for archiving, skipping any another instance is archiving.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = SKIP LOCKED
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId IN :ids "
+            + "AND t.status IN (com.transaction.model.TransactionStatus.SUCCESS, com.transaction.model.TransactionStatus.FAILED)")
+    List<Transaction> lockForArchive(@Param("ids") List<String> ids);
+
+    @Query("SELECT MIN(t.transactionDate) FROM Transaction t")
+    LocalDateTime findEarliestTransactionDate();
+
     // You can add more custom query methods as needed for your business logic.
 }
@@ -0,0 +1,51 @@
+package com.transaction.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaStep;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, String> {
+
+    /**
+     * Sagas in one of the given steps whose lease has expired (or was never taken), oldest first.
+     */
+    @Query("SELECT s.transactionId FROM TransferSaga s WHERE s.step IN :steps "
+            + "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now) ORDER BY s.createdAt")
+    List<String> findUnleasedIds(@Param("steps") Collection<TransferSagaStep> steps, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Streams (fromAccountId, amount, createdAt) of sagas in one of the given steps accepted since the given
+     * time, used to rebuild the rolling limit counters with debits reserved by transfers still in flight.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.fromAccountId, s.amount, s.createdAt FROM TransferSaga s "
+            + "WHERE s.step IN :steps AND s.createdAt >= :since")
+    Stream<Object[]> streamDebitsSince(@Param("steps") Collection<TransferSagaStep> steps, @Param("since") LocalDateTime since);
+
+    /**
+     * Takes the lease on a saga that is still in one of the given steps. Returns 0 if another worker
+     * holds it, so a saga submitted twice (after commit and by the poll) is driven once.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TransferSaga s SET s.leaseUntil = :until WHERE s.transactionId = :id AND s.step IN :steps "
+            + "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)")
+    int claim(@Param("id") String transactionId, @Param("steps") Collection<TransferSagaStep> steps,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,54 @@
+package com.transaction.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.transaction.model.FlowDirection;
+import com.transaction.model.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTOs for the pre-aggregated account spending analytics. Only successful transactions are counted.
+ */
+public class AccountAnalyticsDtos {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountAnalyticsResponse {
+        private String accountId;
+        private AnalyticsGranularity granularity;
+        private LocalDate fromDate;
+        private LocalDate toDate;
+        // Only periods with activity, oldest first
+        private List<ActivityPeriod> periods;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActivityPeriod {
+        // The day, or the first day of the month
+        private LocalDate periodStart;
+        private BigDecimal inflowAmount;
+        private long inflowCount;
+        private BigDecimal outflowAmount;
+        private long outflowCount;
+        private BigDecimal netAmount;
+        private List<TypeActivity> byType;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeActivity {
+        private TransactionType type;
+        private FlowDirection direction;
+        private long count;
+        private BigDecimal amount;
+    }
+}
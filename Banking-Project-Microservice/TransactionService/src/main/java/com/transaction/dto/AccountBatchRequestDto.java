@@ -0,0 +1,20 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for looking up many accounts in one call to the Account Service (POST /accounts/batch).
+ * Any combination of the lists may be set; each is capped at 500 entries by the Account Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBatchRequestDto {
+    private List<String> accountIds;
+    private List<String> accountNumbers;
+    private List<String> userIds;
+}
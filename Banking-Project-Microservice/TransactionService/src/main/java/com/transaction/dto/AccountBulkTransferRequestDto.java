@@ -0,0 +1,18 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for sending many two-leg transfers to the Account Service in one call.
+ * All of them are applied by the Account Service in one local DB transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBulkTransferRequestDto {
+    private List<AccountTransferRequestDto> transfers;
+}
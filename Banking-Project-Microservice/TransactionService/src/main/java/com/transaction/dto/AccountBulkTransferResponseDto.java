@@ -0,0 +1,17 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO returned by the Account Service after a bulk transfer: one result per transfer, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBulkTransferResponseDto {
+    private List<AccountTransferLegResultDto> results;
+}
@@ -17,6 +17,9 @@ public class AccountDto {
 	    private Double balance;
 	    private AccountStatus status; // Changed to enum
 	    private LocalDateTime createdAt;
+	    // Sequence and time of the account's last balance movement, as AccountService applied it
+	    private Long balanceSequence;
+	    private LocalDateTime balanceUpdatedAt;
 
 	    // Enum definitions for AccountType
 	    public enum AccountType {
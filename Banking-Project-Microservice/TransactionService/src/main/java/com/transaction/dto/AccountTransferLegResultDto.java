@@ -0,0 +1,25 @@
+package com.transaction.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one transfer of a bulk request: applied with both balances right after it, or rejected
+ * with nothing moved.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransferLegResultDto {
+    private String transactionId;
+    private boolean applied;
+    private Double fromBalanceAfter;
+    private Double toBalanceAfter;
+    private Long fromSequence;
+    private Long toSequence;
+    private LocalDateTime appliedAt;
+    private String failureReason;
+}
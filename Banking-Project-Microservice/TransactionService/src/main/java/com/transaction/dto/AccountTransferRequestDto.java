@@ -0,0 +1,19 @@
+package com.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for sending two-leg transfer requests to the Account Service.
+ * Both legs are applied by the Account Service in one local DB transaction.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransferRequestDto {
+    private String transactionId; // Reference to the transaction that initiated this transfer
+    private String fromAccountId;
+    private String toAccountId;
+    private Double amount;
+}
@@ -0,0 +1,17 @@
+package com.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO returned by the Account Service after a two-leg transfer: both accounts after the transfer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransferResponseDto {
+    private String transactionId;
+    private AccountDto fromAccount;
+    private AccountDto toAccount;
+}
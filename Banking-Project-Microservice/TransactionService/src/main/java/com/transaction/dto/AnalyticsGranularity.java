@@ -0,0 +1,9 @@
+package com.transaction.dto;
+
+/**
+ * Period size of the account spending analytics.
+ */
+public enum AnalyticsGranularity {
+    DAILY,
+    MONTHLY
+}
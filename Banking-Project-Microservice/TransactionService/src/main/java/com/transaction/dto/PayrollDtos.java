@@ -0,0 +1,82 @@
+package com.transaction.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.transaction.model.PayrollBatchStatus;
+import com.transaction.model.TransactionStatus;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTOs for the bulk payroll API (one SALARY_CORPORATE source, many credit lines, one OTP).
+ */
+public class PayrollDtos {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PayrollBatchRequest {
+        @NotBlank(message = "From Account Number cannot be empty")
+        private String fromAccountNumber;
+
+        @NotBlank(message = "OTP code cannot be empty")
+        private String otpCode;
+
+        @NotEmpty(message = "Payroll must contain at least one line")
+        @Valid
+        private List<PayrollLineRequest> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PayrollLineRequest {
+        @NotBlank(message = "To Account Number cannot be empty")
+        private String toAccountNumber;
+
+        @NotNull(message = "Amount cannot be null")
+        @Positive(message = "Amount must be positive")
+        private Double amount;
+
+        // Optional free-text reference shown to the employee (e.g., "Salary March")
+        private String reference;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PayrollBatchResponse {
+        private String batchId;
+        private PayrollBatchStatus status;
+        private String fromAccountNumber;
+        private int totalLines;
+        private int succeededLines;
+        private int failedLines;
+        private Double totalAmount;
+        private LocalDateTime createdAt;
+        private LocalDateTime completedAt;
+        private String failureReason;
+        // Populated on the status resource only when requested
+        private List<PayrollLineResult> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PayrollLineResult {
+        private int lineNumber;
+        private String toAccountNumber;
+        private Double amount;
+        private TransactionStatus status;
+        private String transactionId;
+        private String failureReason;
+    }
+}
@@ -0,0 +1,40 @@
+package com.transaction.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTOs for the transactionstages actuator endpoint (per-stage latency summary).
+ */
+public class StageLatencyDtos {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageLatency {
+        private String type;
+        private String stage;
+        private String downstream;
+        private String outcome;
+        private long count;
+        private double meanMs;
+        private double maxMs;
+        private Double p50Ms;
+        private Double p95Ms;
+        private Double p99Ms;
+        private double totalMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageLatencyReport {
+        // Per transaction type, the stage with the highest p95 (mean when no percentile is available)
+        private List<StageLatency> slowestByType;
+        // Every stage, slowest first
+        private List<StageLatency> stages;
+    }
+}
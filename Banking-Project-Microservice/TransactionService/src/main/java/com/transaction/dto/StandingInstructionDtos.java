@@ -0,0 +1,73 @@
+package com.transaction.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.transaction.model.StandingInstructionFrequency;
+import com.transaction.model.StandingInstructionStatus;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTOs for standing instructions (scheduled and recurring transfers, authorised once by OTP).
+ */
+public class StandingInstructionDtos {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StandingInstructionRequest {
+        @NotBlank(message = "From Account Number cannot be empty")
+        private String fromAccountNumber;
+
+        @NotBlank(message = "To Account Number cannot be empty")
+        private String toAccountNumber;
+
+        @NotNull(message = "Amount cannot be null")
+        @Positive(message = "Amount must be positive")
+        private Double amount;
+
+        @NotNull(message = "Frequency cannot be null")
+        private StandingInstructionFrequency frequency;
+
+        @NotNull(message = "Start date cannot be null")
+        private LocalDate startDate;
+
+        // Optional; the last date an occurrence may fall on
+        private LocalDate endDate;
+
+        @Size(max = 255, message = "Reference must be at most 255 characters")
+        private String reference;
+
+        @NotBlank(message = "OTP code cannot be empty")
+        private String otpCode;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StandingInstructionResponse {
+        private String instructionId;
+        private StandingInstructionStatus status;
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private Double amount;
+        private StandingInstructionFrequency frequency;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private String reference;
+        private LocalDate nextScheduledFor;
+        private LocalDateTime nextRunAt;
+        private int executionCount;
+        private LocalDateTime lastRunAt;
+        private String lastTransactionId;
+        private String lastFailureReason;
+        private LocalDateTime createdAt;
+    }
+}
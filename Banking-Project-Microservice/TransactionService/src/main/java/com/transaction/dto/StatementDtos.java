@@ -2,6 +2,8 @@ package com.transaction.dto;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import com.transaction.model.StatementJobStatus;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -53,4 +55,20 @@ public class StatementDtos {
         @NotBlank
         private String code;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatementJobResponse {
+        private String jobId;
+        private StatementJobStatus status;
+        private String accountId;
+        private LocalDate fromDate;
+        private LocalDate toDate;
+        private Integer transactionCount;
+        private Integer pageCount;
+        private LocalDateTime createdAt;
+        private LocalDateTime completedAt;
+        private String failureReason;
+    }
 }
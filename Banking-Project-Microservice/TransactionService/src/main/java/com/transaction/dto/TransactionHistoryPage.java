@@ -0,0 +1,30 @@
+package com.transaction.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.transaction.model.Transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of an account's transaction history (newest first).
+ * Pass nextCursor back as the 'cursor' request parameter to fetch the following page;
+ * it is null when there are no more rows.
+ * runningBalances maps the transaction IDs of the page to the account balance right after each one;
+ * openingBalance/closingBalance are the balances at the start and end of the requested date range.
+ * Transactions completed before the running-balance ledger existed have no balance (absent / null).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPage {
+    private List<Transaction> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Map<String, Double> runningBalances;
+    private Double openingBalance;
+    private Double closingBalance;
+}
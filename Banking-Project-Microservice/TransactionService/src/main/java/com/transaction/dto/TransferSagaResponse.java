@@ -0,0 +1,27 @@
+package com.transaction.dto;
+
+import java.time.LocalDateTime;
+
+import com.transaction.model.TransferSagaStep;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of an asynchronous transfer, returned on acceptance (202) and by the status resource.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSagaResponse {
+    private String transactionId;
+    private TransferSagaStep step;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private Double amount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private String failureReason;
+}
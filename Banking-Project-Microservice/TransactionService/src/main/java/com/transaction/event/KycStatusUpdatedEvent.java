@@ -0,0 +1,27 @@
+package com.transaction.event;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event published by UserMicroservice on kyc-status-events when a user's KYC status changes.
+ * Consumed here only to invalidate the KYC cache in KycVerifier.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KycStatusUpdatedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String username;
+    private String email;
+    private String oldKycStatus;
+    private String newKycStatus;
+    private LocalDateTime timestamp;
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.transaction.event;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of a finished payroll batch, sent to the employer on payroll-batch-events. Kept apart from
+ * TransactionCompletedEvent: a batch is not a Transaction and its status is a PayrollBatchStatus.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollBatchCompletedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String batchId;
+    private String userId; // Employer (owner of the source account)
+    private String sourceAccountId;
+    private Double totalAmount;
+    private int totalLines;
+    private int succeededLines;
+    private int failedLines;
+    private String status; // PayrollBatchStatus: COMPLETED, COMPLETED_WITH_ERRORS or IN_DOUBT
+    private String notificationMessage;
+}
@@ -118,6 +118,73 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Handles StepUpRequiredException (risk scoring asked for a step-up OTP).
+     * Returns HTTP 428 Precondition Required.
+     */
+    @ExceptionHandler(StepUpRequiredException.class)
+    public ResponseEntity<ErrorResponse> handleStepUpRequiredException(
+            StepUpRequiredException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_REQUIRED.value(),
+                HttpStatus.PRECONDITION_REQUIRED.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_REQUIRED);
+    }
+
+    /**
+     * Handles OtpVerificationFailedException (the OTP was rejected).
+     * Returns HTTP 401 Unauthorized.
+     */
+    @ExceptionHandler(OtpVerificationFailedException.class)
+    public ResponseEntity<ErrorResponse> handleOtpVerificationFailedException(
+            OtpVerificationFailedException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.UNAUTHORIZED.value(),
+                HttpStatus.UNAUTHORIZED.getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    /**
+     * Handles IdempotencyConflictException (Idempotency-Key in use or reused for another request).
+     * Returns the status carried by the exception (409 or 422).
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(
+            IdempotencyConflictException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                ex.getStatus().value(),
+                ex.getStatus().getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
+
+    /**
+     * Handles PreCheckFailedException (several concurrent pre-checks failed).
+     * Returns the status of the first failing check with all failure messages combined.
+     */
+    @ExceptionHandler(PreCheckFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreCheckFailedException(
+            PreCheckFailedException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                ex.getStatus().value(),
+                ex.getStatus().getReasonPhrase(),
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
 
     /**
      * Handles HttpClientErrorException (e.g., 4xx/5xx from Feign clients).
@@ -0,0 +1,21 @@
+package com.transaction.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An Idempotency-Key cannot be honoured: the first request with it is still running or its outcome is
+ * unknown (409 Conflict), or the key was already used for a different request (422 Unprocessable Entity).
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
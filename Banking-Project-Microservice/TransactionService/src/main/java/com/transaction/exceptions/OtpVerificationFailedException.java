@@ -0,0 +1,16 @@
+package com.transaction.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The OTP supplied with a request was rejected (or the OTP service gave no answer). Raised before
+ * anything is applied, so an Idempotency-Key used with it stays free for the retry with a valid code.
+ * Maps to HTTP 401 Unauthorized.
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class OtpVerificationFailedException extends RuntimeException {
+    public OtpVerificationFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.transaction.exceptions;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when more than one concurrent remote pre-check fails (e.g., both KYC checks of a transfer).
+ * Carries every failure so the client gets one combined report instead of only the first error.
+ * The HTTP status is taken from the first failing check, in the order the checks were declared.
+ */
+public class PreCheckFailedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final List<String> failures;
+
+    public PreCheckFailedException(HttpStatus status, List<String> failures, Throwable cause) {
+        super("Pre-checks failed: " + String.join("; ", failures), cause);
+        this.status = status;
+        this.failures = List.copyOf(failures);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+}
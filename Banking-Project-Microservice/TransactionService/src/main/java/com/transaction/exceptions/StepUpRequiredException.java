@@ -0,0 +1,24 @@
+package com.transaction.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The request looks unusual for the account and needs a step-up OTP: one generated for the
+ * contextId carried here (purpose WITHDRAWAL), rather than the user's general withdrawal OTP.
+ * Maps to HTTP 428 Precondition Required; the client retries with the step-up code.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_REQUIRED)
+public class StepUpRequiredException extends RuntimeException {
+
+    private final String contextId;
+
+    public StepUpRequiredException(String message, String contextId) {
+        super(message);
+        this.contextId = contextId;
+    }
+
+    public String getContextId() {
+        return contextId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.transaction.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The Account Service transfer call failed in a way that does not tell whether the money moved
+ * (timeout, 5xx, dropped connection). Callers must not retry blindly; the transfer needs to be
+ * reconciled with Account Service first.
+ */
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class TransferOutcomeUnknownException extends TransactionProcessingException {
+    public TransferOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
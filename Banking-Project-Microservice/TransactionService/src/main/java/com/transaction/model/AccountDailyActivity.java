@@ -0,0 +1,57 @@
+package com.transaction.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Successful transactions of one account on one day, summed per type and direction. The ID is the
+ * natural key (account|date|type|direction) so increments are a single UPDATE by primary key.
+ * activityMonth (first day of the month) lets monthly totals be summed from at most 31 rows per key.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_daily_activity", indexes = {
+    @Index(name = "idx_daily_activity_account_date", columnList = "account_id, activity_date"),
+    @Index(name = "idx_daily_activity_account_month", columnList = "account_id, activity_month"),
+    @Index(name = "idx_daily_activity_date", columnList = "activity_date")
+})
+public class AccountDailyActivity {
+
+    @Id
+    @Column(name = "activity_id", updatable = false, nullable = false)
+    private String activityId;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "activity_month", nullable = false)
+    private LocalDate activityMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false)
+    private FlowDirection direction;
+
+    @Column(name = "txn_count", nullable = false)
+    private long txnCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One account leg of a successful transaction with the balance AccountService reported right after it.
+ * The ID is the natural key (account|transaction) so the balances of a history page are a single
+ * primary-key lookup. transactionDate mirrors the transaction so entries pair with statement and history
+ * rows (date, then transaction ID). appliedAt and balanceSequence are AccountService's time and per-account
+ * position of the movement; they order the balances, since a transaction can be applied well after its
+ * date (saga retries) and after later-dated ones. amount is signed: negative for the paying leg.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_ledger", indexes = {
+    @Index(name = "idx_ledger_account_date", columnList = "account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_ledger_transaction", columnList = "transaction_id"),
+    @Index(name = "idx_ledger_account_sequence", columnList = "account_id, balance_sequence, applied_at")
+})
+public class AccountLedgerEntry {
+
+    @Id
+    @Column(name = "entry_id", updatable = false, nullable = false)
+    private String entryId;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDateTime transactionDate;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Column(name = "balance_after", nullable = false)
+    private Double balanceAfter;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    // Null when AccountService did not report one; such entries sort by appliedAt after the sequenced ones
+    @Column(name = "balance_sequence")
+    private Long balanceSequence;
+
+    public static String idOf(String accountId, String transactionId) {
+        return accountId + "|" + transactionId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.transaction.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row splitting the activity aggregates between the two writers: transactions dated on or
+ * after liveFrom are aggregated incrementally as they succeed, earlier days are rebuilt from the
+ * transactions table by the backfill, which has completed every day up to backfilledThrough.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "activity_aggregation_state")
+public class ActivityAggregationState {
+
+    public static final String SINGLETON_ID = "account-activity";
+
+    @Id
+    @Column(name = "state_id", updatable = false, nullable = false)
+    private String stateId;
+
+    @Column(name = "live_from", nullable = false)
+    private LocalDate liveFrom;
+
+    @Column(name = "backfilled_through")
+    private LocalDate backfilledThrough;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,36 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-account index of the archive: the date range and number of an account's archived rows.
+ * Reads look it up by primary key to decide whether transaction_archive needs to be queried at all.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transaction_archive_account")
+public class ArchivedAccountRange {
+
+    @Id
+    @Column(name = "account_id", updatable = false, nullable = false)
+    private String accountId;
+
+    @Column(name = "oldest_date", nullable = false)
+    private LocalDateTime oldestDate;
+
+    @Column(name = "newest_date", nullable = false)
+    private LocalDateTime newestDate;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
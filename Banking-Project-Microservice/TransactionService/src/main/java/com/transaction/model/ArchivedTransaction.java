@@ -0,0 +1,69 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cold copy of a finished (SUCCESS/FAILED) Transaction older than the archive horizon, moved here by
+ * TransactionArchive so the hot table and its indexes stay bounded. Same columns and key as
+ * Transaction; rows are written once and never updated.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transaction_archive", indexes = {
+    @Index(name = "idx_txn_arch_from_acct_date", columnList = "from_account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_txn_arch_to_acct_date", columnList = "to_account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_txn_arch_date", columnList = "transaction_date")
+})
+public class ArchivedTransaction {
+
+    @Id
+    @Column(name = "transaction_id", updatable = false, nullable = false)
+    private String transactionId;
+
+    @Column(name = "from_account_id")
+    private String fromAccountId;
+
+    @Column(name = "to_account_id")
+    private String toAccountId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_status", nullable = false)
+    private TransactionStatus status;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDateTime transactionDate;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "metadata_json", length = 2000)
+    private String metadataJson;
+
+    public static ArchivedTransaction of(Transaction transaction) {
+        return new ArchivedTransaction(transaction.getTransactionId(), transaction.getFromAccountId(),
+                transaction.getToAccountId(), transaction.getAmount(), transaction.getType(), transaction.getStatus(),
+                transaction.getTransactionDate(), transaction.getReason(), transaction.getMetadataJson());
+    }
+
+    /**
+     * Detached Transaction view, so read APIs return archived rows unchanged.
+     */
+    public Transaction toTransaction() {
+        return new Transaction(transactionId, fromAccountId, toAccountId, amount, type, status,
+                transactionDate, reason, metadataJson);
+    }
+}
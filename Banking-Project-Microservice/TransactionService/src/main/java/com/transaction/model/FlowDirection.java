@@ -0,0 +1,9 @@
+package com.transaction.model;
+
+/**
+ * Direction of money relative to an account in the activity aggregates.
+ */
+public enum FlowDirection {
+    INFLOW,
+    OUTFLOW
+}
@@ -0,0 +1,50 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a money-movement request sent with an Idempotency-Key header. The ID is operation|key.
+ * IN_PROGRESS claims the key from the first request until it completes, is rejected, or expires
+ * (lockedUntil = expiresAt); COMPLETED holds the serialized response that duplicates get back.
+ * requestHash is a SHA-256 of the request body, so a key reused for a different request is rejected
+ * instead of replayed. Rows are purged after expiresAt.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_key", indexes = {
+    @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_id", updatable = false, nullable = false)
+    private String idempotencyId;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private IdempotencyStatus status;
+
+    // Response serialized as JSON; set once COMPLETED
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,6 @@
+package com.transaction.model;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
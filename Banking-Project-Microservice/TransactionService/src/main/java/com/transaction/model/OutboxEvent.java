@@ -0,0 +1,60 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transactional outbox row. Written in the same DB transaction as the Transaction it describes
+ * and drained to Kafka by OutboxRelay after commit.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transaction_outbox", indexes = {
+    @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at, created_at"),
+    @Index(name = "idx_outbox_status_published", columnList = "status, published_at"),
+    @Index(name = "idx_outbox_key_status", columnList = "event_key, status, created_at")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "outbox_id", updatable = false, nullable = false)
+    private String outboxId;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    // Kafka record key (nullable = let the producer pick the partition)
+    @Column(name = "event_key")
+    private String eventKey;
+
+    // Event serialized as JSON
+    @Column(name = "payload", length = 4000, nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Earliest time the relay may (re)try this row; pushed back on failures
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,7 @@
+package com.transaction.model;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHED,
+    FAILED
+}
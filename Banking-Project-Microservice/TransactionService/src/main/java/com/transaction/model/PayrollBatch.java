@@ -0,0 +1,64 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A bulk payroll submission: many credit lines paid from one SALARY_CORPORATE account.
+ * Lines live in PayrollLine; counters here are updated as chunks complete.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payroll_batch", indexes = {
+    @Index(name = "idx_payroll_batch_status", columnList = "status, created_at")
+})
+public class PayrollBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "batch_id", updatable = false, nullable = false)
+    private String batchId;
+
+    @Column(name = "source_account_id", nullable = false)
+    private String sourceAccountId;
+
+    @Column(name = "source_account_number", nullable = false)
+    private String sourceAccountNumber;
+
+    @Column(name = "source_user_id", nullable = false)
+    private String sourceUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private PayrollBatchStatus status;
+
+    @Column(name = "total_lines", nullable = false)
+    private int totalLines;
+
+    @Column(name = "succeeded_lines", nullable = false)
+    private int succeededLines;
+
+    @Column(name = "failed_lines", nullable = false)
+    private int failedLines;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+}
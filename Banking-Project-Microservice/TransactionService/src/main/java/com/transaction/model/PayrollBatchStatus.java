@@ -0,0 +1,10 @@
+package com.transaction.model;
+
+public enum PayrollBatchStatus {
+    ACCEPTED,
+    PROCESSING,
+    COMPLETED,
+    COMPLETED_WITH_ERRORS,
+    IN_DOUBT, // some lines have an unknown Account Service outcome and need reconciliation
+    FAILED
+}
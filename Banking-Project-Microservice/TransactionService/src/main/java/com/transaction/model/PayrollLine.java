@@ -0,0 +1,58 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One credit line of a PayrollBatch. Status reuses TransactionStatus (PENDING -> SUCCESS | FAILED);
+ * transactionId links to the TRANSFER row once the line has been executed.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payroll_line", indexes = {
+    @Index(name = "idx_payroll_line_batch", columnList = "batch_id, line_number")
+})
+public class PayrollLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "line_id", updatable = false, nullable = false)
+    private String lineId;
+
+    @Column(name = "batch_id", nullable = false)
+    private String batchId;
+
+    @Column(name = "line_number", nullable = false)
+    private int lineNumber;
+
+    @Column(name = "to_account_number", nullable = false)
+    private String toAccountNumber;
+
+    @Column(name = "to_account_id")
+    private String toAccountId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Column(name = "reference")
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private TransactionStatus status;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,115 @@
+package com.transaction.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A scheduled or recurring transfer, authorised once by OTP when it was created.
+ *
+ * nextRunAt is the occurrence's due date plus a per-instruction offset inside the daily execution
+ * window, so instructions sharing a cutoff (e.g., the 1st of the month) fire spread over the window.
+ * dueBucket is nextRunAt in coarse time buckets; the scheduler range-scans (status, due_bucket).
+ * executingSince is set, and committed, before the transfer runs and cleared in the same commit as
+ * the transfer, so a lease that expires with it set means the outcome needs manual review.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "standing_instruction", indexes = {
+    @Index(name = "idx_standing_instruction_due", columnList = "status, due_bucket"),
+    @Index(name = "idx_standing_instruction_from", columnList = "from_account_number"),
+    @Index(name = "idx_standing_instruction_lease", columnList = "lease_owner")
+})
+public class StandingInstruction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "instruction_id", updatable = false, nullable = false)
+    private String instructionId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "from_account_id", nullable = false)
+    private String fromAccountId;
+
+    @Column(name = "from_account_number", nullable = false)
+    private String fromAccountNumber;
+
+    @Column(name = "to_account_number", nullable = false)
+    private String toAccountNumber;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private StandingInstructionFrequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Optional free-text reference shown in notifications (e.g., "Rent")
+    @Column(name = "reference")
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StandingInstructionStatus status;
+
+    // 0-based index of the occurrence that runs next
+    @Column(name = "occurrence", nullable = false)
+    private int occurrence;
+
+    @Column(name = "scheduled_for")
+    private LocalDate scheduledFor;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "due_bucket")
+    private Long dueBucket;
+
+    // Attempts of the current occurrence (transient failures are retried with backoff)
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    @Column(name = "execution_count", nullable = false)
+    private int executionCount;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_transaction_id")
+    private String lastTransactionId;
+
+    @Column(name = "last_failure_reason", length = 1000)
+    private String lastFailureReason;
+
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "executing_since")
+    private LocalDateTime executingSince;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.transaction.model;
+
+import java.time.LocalDate;
+
+public enum StandingInstructionFrequency {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Due date of the given occurrence (0-based), always counted from the start date so that a
+     * monthly instruction starting on the 31st pays on the last day of shorter months without drifting.
+     */
+    public LocalDate occurrenceDate(LocalDate startDate, int occurrence) {
+        switch (this) {
+            case DAILY:
+                return startDate.plusDays(occurrence);
+            case WEEKLY:
+                return startDate.plusWeeks(occurrence);
+            case MONTHLY:
+                return startDate.plusMonths(occurrence);
+            default:
+                return occurrence == 0 ? startDate : null;
+        }
+    }
+}
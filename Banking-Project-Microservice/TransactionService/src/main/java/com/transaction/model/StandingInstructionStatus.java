@@ -0,0 +1,10 @@
+package com.transaction.model;
+
+public enum StandingInstructionStatus {
+    ACTIVE,
+    PAUSED,
+    // Stopped by the scheduler (repeated failures or an unknown transfer outcome); resumable
+    SUSPENDED,
+    CANCELLED,
+    COMPLETED
+}
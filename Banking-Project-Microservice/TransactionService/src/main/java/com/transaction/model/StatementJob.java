@@ -0,0 +1,66 @@
+package com.transaction.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An account statement request accepted after OTP verification.
+ * QUEUED -> GENERATING -> SENDING -> COMPLETED | DELIVERY_FAILED; FAILED if generation fails.
+ * The PDF itself is never stored; only the outcome and counters are kept for polling.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "statement_job", indexes = {
+    @Index(name = "idx_statement_job_status", columnList = "status, created_at")
+})
+public class StatementJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "job_id", updatable = false, nullable = false)
+    private String jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatementJobStatus status;
+
+    @Column(name = "transaction_count")
+    private Integer transactionCount;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+}
@@ -0,0 +1,10 @@
+package com.transaction.model;
+
+public enum StatementJobStatus {
+    QUEUED,
+    GENERATING,
+    SENDING,
+    COMPLETED,
+    DELIVERY_FAILED,
+    FAILED
+}
@@ -11,6 +11,13 @@ import lombok.NoArgsConstructor; // Lombok annotation for no-argument constructo
 @Data // Generates getters, setters, equals, hashCode, and toString methods
 @NoArgsConstructor // Generates a no-argument constructor (required by JPA)
 @AllArgsConstructor // Generates a constructor with all fields
+// Composite indexes back the keyset-paginated history query (account + date + id, newest first);
+// the date index backs time-range scans such as the limit counter rebuild at startup
+@Table(indexes = {
+    @Index(name = "idx_txn_from_acct_date", columnList = "from_account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_txn_to_acct_date", columnList = "to_account_id, transaction_date, transaction_id"),
+    @Index(name = "idx_txn_date", columnList = "transaction_date")
+})
 public class Transaction {
 
     @Id // Designates 'transactionId' as the primary key
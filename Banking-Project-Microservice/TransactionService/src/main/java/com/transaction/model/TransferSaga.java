@@ -0,0 +1,94 @@
+package com.transaction.model;
+
+import java.time.LocalDateTime;
+
+import com.transaction.dto.AccountDto;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of an asynchronous transfer, keyed by the Transaction it completes.
+ * The step is written after every remote call so a restarted instance resumes from the last
+ * durable step; leaseUntil keeps two workers from driving the same saga.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transfer_saga", indexes = {
+    @Index(name = "idx_transfer_saga_step", columnList = "step, lease_until")
+})
+public class TransferSaga {
+
+    @Id
+    @Column(name = "transaction_id", updatable = false, nullable = false)
+    private String transactionId;
+
+    @Column(name = "from_account_id", nullable = false)
+    private String fromAccountId;
+
+    @Column(name = "from_account_number", nullable = false)
+    private String fromAccountNumber;
+
+    @Column(name = "from_user_id", nullable = false)
+    private String fromUserId;
+
+    // Needed to re-apply the rolling limits when a saga is resumed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_account_type", nullable = false)
+    private AccountDto.AccountType fromAccountType;
+
+    @Column(name = "to_account_id", nullable = false)
+    private String toAccountId;
+
+    @Column(name = "to_account_number", nullable = false)
+    private String toAccountNumber;
+
+    @Column(name = "to_user_id", nullable = false)
+    private String toUserId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "step", nullable = false)
+    private TransferSagaStep step;
+
+    // Balances AccountService reported after the transfer, recorded with TRANSFERRED for the ledger entries
+    @Column(name = "from_balance_after")
+    private Double fromBalanceAfter;
+
+    @Column(name = "to_balance_after")
+    private Double toBalanceAfter;
+
+    // Where the transfer falls in each account's movement order, and when AccountService applied it
+    @Column(name = "from_sequence")
+    private Long fromSequence;
+
+    @Column(name = "to_sequence")
+    private Long toSequence;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+}
@@ -0,0 +1,22 @@
+package com.transaction.model;
+
+/**
+ * Durable steps of an asynchronous transfer (see TransferSaga).
+ * ACCEPTED -> TRANSFERRING -> TRANSFERRED -> COMPLETED;
+ * FAILED when a step fails before money moved, COMPENSATING -> COMPENSATED when it fails after,
+ * IN_DOUBT when the outcome of a call to Account Service stays unknown after retries and needs manual review.
+ */
+public enum TransferSagaStep {
+    ACCEPTED,
+    TRANSFERRING,
+    TRANSFERRED,
+    COMPLETED,
+    COMPENSATING,
+    COMPENSATED,
+    FAILED,
+    IN_DOUBT;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == COMPENSATED || this == FAILED || this == IN_DOUBT;
+    }
+}
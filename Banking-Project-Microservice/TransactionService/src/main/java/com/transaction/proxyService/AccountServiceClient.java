@@ -8,7 +8,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import com.transaction.dto.AccountBatchRequestDto;
+import com.transaction.dto.AccountBulkTransferRequestDto;
+import com.transaction.dto.AccountBulkTransferResponseDto;
 import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferRequestDto;
+import com.transaction.dto.AccountTransferResponseDto;
 import com.transaction.dto.DepositRequestDto;
 import com.transaction.dto.WithdrawRequestDto;
 import com.transaction.exceptions.TransactionProcessingException;
@@ -22,6 +27,12 @@ import io.github.resilience4j.retry.annotation.Retry;
 @FeignClient(name = "account-service", path = "/accounts")
 public interface AccountServiceClient {
 
+ // Account Service's cap on each list of a POST /accounts/batch request
+ int BATCH_MAX_ENTRIES = 500;
+
+ // Account Service's cap on the transfers of a POST /accounts/transfer/bulk request
+ int BULK_TRANSFER_MAX_ENTRIES = 500;
+
  /**
   * Retrieves account details by account ID from the Account Service.
   * Corresponds to GET /accounts/{accountId}
@@ -71,6 +82,21 @@ public interface AccountServiceClient {
      throw new TransactionProcessingException("Account service is unavailable or returned an error for user " + userId, t);
  }
 
+ /**
+  * Retrieves many accounts in one call, by IDs, account numbers and/or user IDs.
+  * Corresponds to POST /accounts/batch; accounts that are not found are left out of the result.
+  * At most BATCH_MAX_ENTRIES entries per list.
+  */
+ @PostMapping("/batch")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "getAccountsBatchFallback")
+ @Retry(name = "accountService")
+ List<AccountDto> getAccountsBatch(@RequestBody AccountBatchRequestDto request);
+
+ default List<AccountDto> getAccountsBatchFallback(AccountBatchRequestDto request, Throwable t) {
+     System.err.println("Fallback triggered for getAccountsBatch: " + t.getMessage());
+     throw new TransactionProcessingException("Account service is unavailable or returned an error for a batch account lookup", t);
+ }
+
 
  // You might also need methods for updating account balances if the Account Service
  // exposes such an endpoint, e.g., a PUT or POST for balance updates.
@@ -107,4 +133,41 @@ public interface AccountServiceClient {
      // Throw an exception as the withdrawal could not be processed by the real service
      throw new TransactionProcessingException("Account service is unavailable or failed to process withdrawal from account " + accountId, t);
  }
+
+ /**
+  * Moves funds between two accounts in a single call; the Account Service debits the source and
+  * credits the target in one local transaction, so a failure leaves both balances untouched.
+  * Corresponds to POST /accounts/transfer. Retried like deposits and withdrawals: Account Service applies
+  * each transactionId once and answers a repeat with the recorded result.
+  * @param requestDto The AccountTransferRequestDto containing both account IDs, amount and transaction reference.
+  * @return Both accounts after the transfer.
+  */
+ @PostMapping("/transfer")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "transferFundsFallback")
+ @Retry(name = "accountService")
+ AccountTransferResponseDto transferFunds(@RequestBody AccountTransferRequestDto requestDto);
+
+ // Fallback method for transferFunds
+ default AccountTransferResponseDto transferFundsFallback(AccountTransferRequestDto requestDto, Throwable t) {
+     System.err.println("Fallback triggered for transferFunds from account " + requestDto.getFromAccountId() + " to " + requestDto.getToAccountId() + ": " + t.getMessage());
+     throw new TransactionProcessingException("Account service is unavailable or failed to process transfer from account " + requestDto.getFromAccountId(), t);
+ }
+
+ /**
+  * Applies many transfers in one call and one Account Service transaction; each transfer is applied or
+  * rejected on its own. Corresponds to POST /accounts/transfer/bulk. Retried like single transfers: each
+  * transactionId is applied once and a repeat is answered with the recorded result.
+  * At most BULK_TRANSFER_MAX_ENTRIES transfers per call.
+  * @param requestDto The transfers to apply.
+  * @return One result per transfer, in request order.
+  */
+ @PostMapping("/transfer/bulk")
+ @CircuitBreaker(name = "accountService", fallbackMethod = "transferFundsBulkFallback")
+ @Retry(name = "accountService")
+ AccountBulkTransferResponseDto transferFundsBulk(@RequestBody AccountBulkTransferRequestDto requestDto);
+
+ default AccountBulkTransferResponseDto transferFundsBulkFallback(AccountBulkTransferRequestDto requestDto, Throwable t) {
+     System.err.println("Fallback triggered for transferFundsBulk (" + requestDto.getTransfers().size() + " transfers): " + t.getMessage());
+     throw new TransactionProcessingException("Account service is unavailable or failed to process a bulk transfer", t);
+ }
 }
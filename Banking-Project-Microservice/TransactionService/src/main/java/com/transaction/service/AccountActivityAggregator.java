@@ -0,0 +1,302 @@
+package com.transaction.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.AccountActivityDeltaRepository;
+import com.transaction.dao.AccountDailyActivityRepository;
+import com.transaction.dao.ActivityAggregationStateRepository;
+import com.transaction.dao.ArchivedTransactionRepository;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.model.AccountActivityDelta;
+import com.transaction.model.AccountDailyActivity;
+import com.transaction.model.ActivityAggregationState;
+import com.transaction.model.FlowDirection;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Maintains AccountDailyActivity, the pre-aggregated spending analytics.
+ *
+ * A transaction reaching SUCCESS inserts one delta row per account leg in the same DB transaction
+ * (record), so the aggregate can never miss or double-count a committed transaction, and money
+ * movements only ever append. A poller folds deltas into the daily rows in batches (fold), locking
+ * them with SKIP LOCKED like the outbox relay so several instances can share the work; analytics
+ * therefore trail the ledger by about one poll interval.
+ *
+ * Days before liveFrom (the day after this was first deployed) have no deltas; backfill rebuilds
+ * them one settled day at a time from the transactions table and records its progress.
+ */
+@Component
+public class AccountActivityAggregator {
+
+    private final AccountActivityDeltaRepository deltaRepository;
+    private final AccountDailyActivityRepository activityRepository;
+    private final ActivityAggregationStateRepository stateRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    // State is created outside the caller's money transaction so a creation race cannot roll it back
+    private final TransactionTemplate stateTemplate;
+
+    private final AtomicBoolean folding = new AtomicBoolean(false);
+    private final AtomicBoolean backfilling = new AtomicBoolean(false);
+    private volatile LocalDate liveFrom;
+
+    private final Counter foldedCounter;
+    private final Counter backfilledDaysCounter;
+
+    @Value("${transaction.analytics.fold-batch-size:500}")
+    private int batchSize;
+
+    @Value("${transaction.analytics.backfill-settle-minutes:30}")
+    private long settleMinutes;
+
+    public AccountActivityAggregator(AccountActivityDeltaRepository deltaRepository,
+                                     AccountDailyActivityRepository activityRepository,
+                                     ActivityAggregationStateRepository stateRepository,
+                                     TransactionRepository transactionRepository,
+                                     ArchivedTransactionRepository archiveRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.deltaRepository = deltaRepository;
+        this.activityRepository = activityRepository;
+        this.stateRepository = stateRepository;
+        this.transactionRepository = transactionRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stateTemplate = new TransactionTemplate(transactionManager);
+        this.stateTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.foldedCounter = Counter.builder("transaction.analytics.folded")
+                .description("Activity deltas folded into the daily aggregates")
+                .register(meterRegistry);
+        this.backfilledDaysCounter = Counter.builder("transaction.analytics.backfilled.days").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            liveFrom();
+        } catch (Exception e) {
+            System.err.println("Activity aggregator: could not load state, retrying on first use: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the account legs of a successful transaction for aggregation.
+     * Must run inside the transaction that sets SUCCESS.
+     */
+    public void record(Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatus.SUCCESS
+                || transaction.getTransactionDate() == null || transaction.getAmount() == null) {
+            return;
+        }
+        LocalDate day = transaction.getTransactionDate().toLocalDate();
+        if (day.isBefore(liveFrom())) {
+            return;
+        }
+        BigDecimal amount = toAmount(transaction.getAmount());
+        LocalDateTime now = LocalDateTime.now();
+        List<AccountActivityDelta> legs = new ArrayList<>(2);
+        if (transaction.getFromAccountId() != null) {
+            legs.add(new AccountActivityDelta(null, transaction.getTransactionId(), transaction.getFromAccountId(), day,
+                    transaction.getType(), FlowDirection.OUTFLOW, amount, now));
+        }
+        if (transaction.getToAccountId() != null) {
+            legs.add(new AccountActivityDelta(null, transaction.getTransactionId(), transaction.getToAccountId(), day,
+                    transaction.getType(), receivingDirection(transaction.getType()), amount, now));
+        }
+        deltaRepository.saveAll(legs);
+    }
+
+    /**
+     * Withdraws the deltas of a transaction downgraded from SUCCESS within the same DB transaction.
+     */
+    public void retract(Transaction transaction) {
+        if (transaction.getTransactionId() != null) {
+            deltaRepository.deleteByTransactionId(transaction.getTransactionId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.analytics.fold-interval-ms:5000}")
+    public void fold() {
+        if (!folding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Integer processed;
+            do {
+                processed = transactionTemplate.execute(status -> foldBatch());
+            } while (processed != null && processed >= batchSize);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the same daily row first; the batch rolled back and is retried next poll
+            System.out.println("Activity aggregator: fold raced on a new daily row, retrying: " + e.getMostSpecificCause().getMessage());
+        } catch (Exception e) {
+            System.err.println("Activity aggregator: fold failed: " + e.getMessage());
+        } finally {
+            folding.set(false);
+        }
+    }
+
+    private int foldBatch() {
+        List<String> ids = deltaRepository.findOldestIds(PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<AccountActivityDelta> batch = deltaRepository.lockByIds(ids);
+        if (batch.isEmpty()) {
+            return ids.size();
+        }
+
+        Map<String, AccountDailyActivity> sums = new HashMap<>();
+        for (AccountActivityDelta delta : batch) {
+            add(sums, delta.getAccountId(), delta.getActivityDate(), delta.getType(), delta.getDirection(), 1, delta.getAmount());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (AccountDailyActivity sum : sums.values()) {
+            if (activityRepository.increment(sum.getActivityId(), sum.getTxnCount(), sum.getTotalAmount(), now) == 0) {
+                sum.setUpdatedAt(now);
+                activityRepository.save(sum);
+            }
+        }
+        deltaRepository.deleteAllInBatch(batch);
+        foldedCounter.increment(batch.size());
+        return ids.size();
+    }
+
+    @Scheduled(initialDelayString = "${transaction.analytics.backfill-initial-delay-ms:30000}",
+               fixedDelayString = "${transaction.analytics.backfill-interval-ms:3600000}")
+    public void backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate live = liveFrom();
+            LocalDate day = nextDayToBackfill(live);
+            int rebuilt = 0;
+            while (day != null && day.isBefore(live)
+                    && !LocalDateTime.now().isBefore(day.plusDays(1).atStartOfDay().plusMinutes(settleMinutes))) {
+                LocalDate current = day;
+                transactionTemplate.executeWithoutResult(status -> rebuildDay(current));
+                backfilledDaysCounter.increment();
+                rebuilt++;
+                day = day.plusDays(1);
+            }
+            if (rebuilt > 0) {
+                System.out.println("Activity aggregator: backfilled " + rebuilt + " day(s) through " + day.minusDays(1));
+            }
+        } catch (Exception e) {
+            System.err.println("Activity aggregator: backfill failed: " + e.getMessage());
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    private LocalDate nextDayToBackfill(LocalDate live) {
+        LocalDate through = stateRepository.findById(ActivityAggregationState.SINGLETON_ID)
+                .map(ActivityAggregationState::getBackfilledThrough)
+                .orElse(null);
+        if (through != null) {
+            return through.plusDays(1);
+        }
+        LocalDateTime hot = transactionRepository.findEarliestTransactionDate();
+        LocalDateTime archived = archiveRepository.findEarliestTransactionDate();
+        LocalDateTime earliest = hot == null ? archived : archived == null || hot.isBefore(archived) ? hot : archived;
+        return earliest != null ? earliest.toLocalDate() : null;
+    }
+
+    /**
+     * Replaces one day's rows with totals recomputed from the transactions table.
+     */
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        Map<String, AccountDailyActivity> sums = new HashMap<>();
+        // Old days may already have been moved to the archive, in part or in full
+        List<Object[]> outflows = new ArrayList<>(transactionRepository.sumSuccessfulByFromAccount(start, end));
+        outflows.addAll(archiveRepository.sumSuccessfulByFromAccount(start, end));
+        List<Object[]> inflows = new ArrayList<>(transactionRepository.sumSuccessfulByToAccount(start, end));
+        inflows.addAll(archiveRepository.sumSuccessfulByToAccount(start, end));
+        for (Object[] row : outflows) {
+            add(sums, (String) row[0], day, (TransactionType) row[1], FlowDirection.OUTFLOW,
+                    ((Number) row[2]).longValue(), toAmount(((Number) row[3]).doubleValue()));
+        }
+        for (Object[] row : inflows) {
+            TransactionType type = (TransactionType) row[1];
+            add(sums, (String) row[0], day, type, receivingDirection(type),
+                    ((Number) row[2]).longValue(), toAmount(((Number) row[3]).doubleValue()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        activityRepository.deleteByActivityDate(day);
+        for (AccountDailyActivity sum : sums.values()) {
+            sum.setUpdatedAt(now);
+        }
+        activityRepository.saveAll(sums.values());
+        stateRepository.advanceBackfill(ActivityAggregationState.SINGLETON_ID, day, now);
+    }
+
+    private LocalDate liveFrom() {
+        LocalDate cached = liveFrom;
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            if (liveFrom == null) {
+                ActivityAggregationState state;
+                try {
+                    state = stateTemplate.execute(status -> stateRepository.findById(ActivityAggregationState.SINGLETON_ID)
+                            .orElseGet(() -> stateRepository.saveAndFlush(new ActivityAggregationState(
+                                    ActivityAggregationState.SINGLETON_ID, LocalDate.now().plusDays(1), null, LocalDateTime.now()))));
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance created it first
+                    state = stateTemplate.execute(status -> stateRepository.findById(ActivityAggregationState.SINGLETON_ID).orElseThrow());
+                }
+                liveFrom = state.getLiveFrom();
+                System.out.println("Activity aggregator: incremental aggregation live from " + liveFrom);
+            }
+            return liveFrom;
+        }
+    }
+
+    // A fine is recorded against toAccountId but is a charge to that account
+    private static FlowDirection receivingDirection(TransactionType type) {
+        return type == TransactionType.FINE ? FlowDirection.OUTFLOW : FlowDirection.INFLOW;
+    }
+
+    private static void add(Map<String, AccountDailyActivity> sums, String accountId, LocalDate day, TransactionType type,
+                            FlowDirection direction, long count, BigDecimal amount) {
+        String id = accountId + "|" + day + "|" + type + "|" + direction;
+        AccountDailyActivity sum = sums.computeIfAbsent(id, key -> new AccountDailyActivity(
+                key, accountId, day, day.withDayOfMonth(1), type, direction, 0, BigDecimal.ZERO, null));
+        sum.setTxnCount(sum.getTxnCount() + count);
+        sum.setTotalAmount(sum.getTotalAmount().add(amount));
+    }
+
+    private static BigDecimal toAmount(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,22 @@
+package com.transaction.service;
+
+import java.time.LocalDate;
+
+import com.transaction.dto.AccountAnalyticsDtos.AccountAnalyticsResponse;
+import com.transaction.dto.AnalyticsGranularity;
+import com.transaction.exceptions.InvalidTransactionException;
+
+public interface AccountAnalyticsService {
+
+    /**
+     * Reads the account's spending analytics from the pre-aggregated daily table; the transactions
+     * table is not scanned. Figures trail the ledger by about one aggregation poll interval.
+     * @param accountId The account ID.
+     * @param granularity DAILY or MONTHLY.
+     * @param fromDate First day (inclusive); defaults to 30 days or 12 months before toDate.
+     * @param toDate Last day (inclusive); defaults to today.
+     * @return Inflow/outflow totals and per-type breakdown for every period with activity.
+     * @throws InvalidTransactionException if the range is inverted or too long.
+     */
+    AccountAnalyticsResponse getActivity(String accountId, AnalyticsGranularity granularity, LocalDate fromDate, LocalDate toDate);
+}
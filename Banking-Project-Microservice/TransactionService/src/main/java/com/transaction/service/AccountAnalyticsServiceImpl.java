@@ -0,0 +1,91 @@
+package com.transaction.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.transaction.dao.AccountDailyActivityRepository;
+import com.transaction.dto.AccountAnalyticsDtos.AccountAnalyticsResponse;
+import com.transaction.dto.AccountAnalyticsDtos.ActivityPeriod;
+import com.transaction.dto.AccountAnalyticsDtos.TypeActivity;
+import com.transaction.dto.AnalyticsGranularity;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.AccountDailyActivity;
+import com.transaction.model.FlowDirection;
+import com.transaction.model.TransactionType;
+
+@Service
+public class AccountAnalyticsServiceImpl implements AccountAnalyticsService {
+
+    private final AccountDailyActivityRepository activityRepository;
+
+    @Value("${transaction.analytics.max-daily-range-days:366}")
+    private long maxDailyRangeDays;
+
+    @Value("${transaction.analytics.max-monthly-range-months:60}")
+    private long maxMonthlyRangeMonths;
+
+    public AccountAnalyticsServiceImpl(AccountDailyActivityRepository activityRepository) {
+        this.activityRepository = activityRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountAnalyticsResponse getActivity(String accountId, AnalyticsGranularity granularity,
+                                                LocalDate fromDate, LocalDate toDate) {
+        AnalyticsGranularity resolved = granularity != null ? granularity : AnalyticsGranularity.DAILY;
+        LocalDate to = toDate != null ? toDate : LocalDate.now();
+        Map<LocalDate, ActivityPeriod> periods = new TreeMap<>();
+
+        if (resolved == AnalyticsGranularity.DAILY) {
+            LocalDate from = fromDate != null ? fromDate : to.minusDays(29);
+            requireRange(from, to, ChronoUnit.DAYS.between(from, to) + 1 > maxDailyRangeDays,
+                    maxDailyRangeDays + " days");
+            for (AccountDailyActivity row : activityRepository.findDaily(accountId, from, to)) {
+                add(periods, row.getActivityDate(), row.getType(), row.getDirection(), row.getTxnCount(), row.getTotalAmount());
+            }
+            return new AccountAnalyticsResponse(accountId, resolved, from, to, new ArrayList<>(periods.values()));
+        }
+
+        LocalDate from = (fromDate != null ? fromDate : to.minusMonths(11)).withDayOfMonth(1);
+        requireRange(from, to, ChronoUnit.MONTHS.between(from, to.withDayOfMonth(1)) + 1 > maxMonthlyRangeMonths,
+                maxMonthlyRangeMonths + " months");
+        for (Object[] row : activityRepository.sumMonthly(accountId, from, to.withDayOfMonth(1))) {
+            add(periods, (LocalDate) row[0], (TransactionType) row[1], (FlowDirection) row[2],
+                    ((Number) row[3]).longValue(), (BigDecimal) row[4]);
+        }
+        return new AccountAnalyticsResponse(accountId, resolved, from, to, new ArrayList<>(periods.values()));
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to, boolean tooLong, String limit) {
+        if (from.isAfter(to)) {
+            throw new InvalidTransactionException("Analytics range is empty: 'fromDate' must not be after 'toDate'.");
+        }
+        if (tooLong) {
+            throw new InvalidTransactionException("Analytics range cannot exceed " + limit + ".");
+        }
+    }
+
+    private static void add(Map<LocalDate, ActivityPeriod> periods, LocalDate periodStart, TransactionType type,
+                            FlowDirection direction, long count, BigDecimal amount) {
+        ActivityPeriod period = periods.computeIfAbsent(periodStart, key -> new ActivityPeriod(
+                key, BigDecimal.ZERO, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, new ArrayList<>()));
+        if (direction == FlowDirection.INFLOW) {
+            period.setInflowAmount(period.getInflowAmount().add(amount));
+            period.setInflowCount(period.getInflowCount() + count);
+        } else {
+            period.setOutflowAmount(period.getOutflowAmount().add(amount));
+            period.setOutflowCount(period.getOutflowCount() + count);
+        }
+        period.setNetAmount(period.getInflowAmount().subtract(period.getOutflowAmount()));
+        period.getByType().add(new TypeActivity(type, direction, count, amount));
+    }
+}
@@ -0,0 +1,216 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.transaction.dao.AccountLedgerRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferResponseDto;
+import com.transaction.model.AccountLedgerEntry;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Running-balance projection: the post-transaction balance of every account leg of a SUCCESS transaction.
+ *
+ * Balances are not computed here. AccountService applies each movement under a row lock and returns the
+ * resulting account state, and that authoritative balance is written with the SUCCESS update (record), so
+ * the ledger commits or rolls back with the transaction. Statements and history then read opening,
+ * closing and per-row balances with index seeks instead of replaying the account's history.
+ *
+ * Opening and closing balances follow the order AccountService applied the movements in (its per-account
+ * balance sequence and applied time), not the transaction dates: a saga transfer is dated when it begins
+ * but may be applied after later-dated deposits. Per-row balances are each row's own balance after.
+ *
+ * Transactions completed before the ledger existed have no entries; their rows show no balance.
+ */
+@Component
+public class AccountLedger {
+
+    public record Row(Transaction transaction, Double balanceAfter) {}
+
+    /**
+     * What AccountService reported for one account after applying a movement: the balance, the account's
+     * movement sequence (null from older responses) and when it was applied (null when unknown).
+     */
+    public record Leg(Double balanceAfter, Long sequence, LocalDateTime appliedAt) {}
+
+    /**
+     * Opening and closing balance of a period; null when the ledger has nothing to derive it from.
+     */
+    public record Balances(Double opening, Double closing) {}
+
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final AccountLedgerRepository ledgerRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AccountLedger(AccountLedgerRepository ledgerRepository) {
+        this.ledgerRepository = ledgerRepository;
+    }
+
+    /**
+     * Writes the entries of a successful transaction. A leg whose balance is unknown (null) is skipped; one
+     * without an applied time is stamped now. Must run inside the transaction that sets SUCCESS.
+     */
+    public void record(Transaction transaction, Leg fromLeg, Leg toLeg) {
+        if (transaction.getStatus() != TransactionStatus.SUCCESS
+                || transaction.getTransactionDate() == null || transaction.getAmount() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (transaction.getFromAccountId() != null && fromLeg != null && fromLeg.balanceAfter() != null) {
+            entityManager.persist(entry(transaction, transaction.getFromAccountId(), -transaction.getAmount(), fromLeg, now));
+        }
+        if (transaction.getToAccountId() != null && toLeg != null && toLeg.balanceAfter() != null) {
+            entityManager.persist(entry(transaction, transaction.getToAccountId(), transaction.getAmount(), toLeg, now));
+        }
+    }
+
+    /**
+     * Removes the entries of a transaction downgraded from SUCCESS within the same DB transaction.
+     */
+    public void retract(Transaction transaction) {
+        if (transaction.getTransactionId() != null) {
+            ledgerRepository.deleteByTransactionId(transaction.getTransactionId());
+        }
+    }
+
+    /**
+     * Opening balance is the balance after the last movement applied before the period; when the ledger
+     * starts inside the period it is derived from the first movement applied in it (balance after minus its
+     * amount). Closing balance is the balance after the last movement applied at or before the end of the
+     * period. An open start (from == null) has no opening balance.
+     */
+    public Balances periodBalances(String accountId, LocalDateTime from, LocalDateTime to) {
+        Double closing = first(ledgerRepository.findLatestAppliedAtOrBefore(accountId, to, FIRST))
+                .map(AccountLedgerEntry::getBalanceAfter)
+                .orElse(null);
+        if (closing == null || from == null) {
+            return new Balances(null, closing);
+        }
+        Double opening = first(ledgerRepository.findLatestAppliedBefore(accountId, from, FIRST))
+                .map(AccountLedgerEntry::getBalanceAfter)
+                .orElseGet(() -> first(ledgerRepository.findEarliestAppliedFrom(accountId, from, FIRST))
+                        .map(earliest -> earliest.getBalanceAfter() - earliest.getAmount())
+                        .orElse(null));
+        return new Balances(opening, closing);
+    }
+
+    /**
+     * The account's entries within [from, to], newest first. Must be consumed inside a transaction and
+     * closed by the caller.
+     */
+    public Stream<AccountLedgerEntry> streamPeriod(String accountId, LocalDateTime from, LocalDateTime to) {
+        return ledgerRepository.streamPeriod(accountId, from, to);
+    }
+
+    /**
+     * Balance after each of the given transactions for the account, keyed by transaction ID.
+     * Transactions without an entry are absent from the map.
+     */
+    public Map<String, Double> runningBalances(String accountId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.SUCCESS) {
+                ids.add(AccountLedgerEntry.idOf(accountId, transaction.getTransactionId()));
+            }
+        }
+        Map<String, Double> balances = new HashMap<>();
+        for (AccountLedgerEntry entry : ledgerRepository.findAllById(ids)) {
+            balances.put(entry.getTransactionId(), entry.getBalanceAfter());
+        }
+        return balances;
+    }
+
+    /**
+     * Pairs statement rows with their ledger entries. Both iterators must be in statement order (newest
+     * first, ties by transaction ID), so each is read once and nothing is buffered.
+     */
+    public static Iterator<Row> withBalances(Iterator<Transaction> rows, Iterator<AccountLedgerEntry> entries) {
+        return new Iterator<>() {
+            private AccountLedgerEntry nextEntry = entries.hasNext() ? entries.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                if (!rows.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction transaction = rows.next();
+                // Entries newer than this row have no row of their own (cannot normally happen); skip them
+                while (nextEntry != null && compare(nextEntry, transaction) < 0) {
+                    nextEntry = entries.hasNext() ? entries.next() : null;
+                }
+                Double balance = null;
+                if (nextEntry != null && compare(nextEntry, transaction) == 0) {
+                    balance = nextEntry.getBalanceAfter();
+                    nextEntry = entries.hasNext() ? entries.next() : null;
+                }
+                return new Row(transaction, balance);
+            }
+        };
+    }
+
+    /**
+     * Leg reported by AccountService after a movement, or null when the response carried no balance.
+     */
+    public static Leg legOf(AccountDto account) {
+        return account != null ? leg(account.getBalance(), account.getBalanceSequence(), account.getBalanceUpdatedAt()) : null;
+    }
+
+    public static Leg fromLegOf(AccountTransferResponseDto response) {
+        return response != null ? legOf(response.getFromAccount()) : null;
+    }
+
+    public static Leg toLegOf(AccountTransferResponseDto response) {
+        return response != null ? legOf(response.getToAccount()) : null;
+    }
+
+    /**
+     * Leg from values stored elsewhere (saga, bulk result), or null when the balance is unknown.
+     */
+    public static Leg leg(Double balanceAfter, Long sequence, LocalDateTime appliedAt) {
+        return balanceAfter != null ? new Leg(balanceAfter, sequence, appliedAt) : null;
+    }
+
+    private static Optional<AccountLedgerEntry> first(List<AccountLedgerEntry> entries) {
+        return entries.isEmpty() ? Optional.empty() : Optional.of(entries.get(0));
+    }
+
+    // Negative when the entry sorts before (is newer than) the transaction in statement order
+    private static int compare(AccountLedgerEntry entry, Transaction transaction) {
+        int byDate = transaction.getTransactionDate().compareTo(entry.getTransactionDate());
+        return byDate != 0 ? byDate : transaction.getTransactionId().compareTo(entry.getTransactionId());
+    }
+
+    private static AccountLedgerEntry entry(Transaction transaction, String accountId, double amount,
+                                            Leg leg, LocalDateTime now) {
+        return new AccountLedgerEntry(AccountLedgerEntry.idOf(accountId, transaction.getTransactionId()), accountId,
+                transaction.getTransactionId(), transaction.getTransactionDate(), amount, leg.balanceAfter(), now,
+                leg.appliedAt() != null ? leg.appliedAt() : now, leg.sequence());
+    }
+}
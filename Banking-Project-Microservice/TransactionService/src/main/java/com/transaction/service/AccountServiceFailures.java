@@ -0,0 +1,42 @@
+package com.transaction.service;
+
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+/**
+ * Classifies failures of money-moving Account Service calls. The Feign fallbacks wrap the original
+ * error, so the cause chain is inspected: a 4xx or an open circuit means the request was not applied,
+ * anything else (timeout, 5xx, connection reset) leaves the outcome unknown.
+ */
+final class AccountServiceFailures {
+
+    private AccountServiceFailures() {
+    }
+
+    static boolean isRejection(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof CallNotPermittedException) {
+                return true;
+            }
+        }
+        return isClientError(e);
+    }
+
+    // A 4xx anywhere in the chain: the request itself was refused, so repeating it will not help
+    static boolean isClientError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof FeignException fe && fe.status() >= 400 && fe.status() < 500) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return String.valueOf(root.getMessage());
+    }
+}
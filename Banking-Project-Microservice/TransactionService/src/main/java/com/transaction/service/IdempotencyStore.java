@@ -0,0 +1,318 @@
+package com.transaction.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.IdempotencyRecordRepository;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.IdempotencyConflictException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.PreCheckFailedException;
+import com.transaction.exceptions.StepUpRequiredException;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.exceptions.TransferOutcomeUnknownException;
+import com.transaction.exceptions.UnauthorizedUserException;
+import com.transaction.model.IdempotencyRecord;
+import com.transaction.model.IdempotencyStatus;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Idempotency-Key support for the money-movement endpoints.
+ *
+ * The first request with a key claims it by inserting an IN_PROGRESS row in its own short commit, so a
+ * concurrent duplicate sees the claim and gets 409 instead of running again. The request itself runs
+ * outside any transaction of the store (the service commits its own work), and its serialized response
+ * is stored afterwards in a second short commit. Completed responses are kept in a small in-memory LRU
+ * in front of the table, so hot retries are answered without a DB round trip. Keys are scoped to the
+ * operation and the caller.
+ *
+ * A request that fails with a rejection that proves nothing was applied (validation, limits, KYC, OTP,
+ * a 4xx or open circuit from Account Service) frees its key so the client may retry it. Any other
+ * failure (outcome unknown, timeout, 5xx, a failed commit, or a response that could not be stored)
+ * leaves the claim in place until the key expires, since running the request again could move the
+ * money twice. A claim is never taken over while it is IN_PROGRESS, however long the request runs.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private record CachedResponse(String requestHash, String body, LocalDateTime expiresAt) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    // Claims and outcomes are committed on their own, never together with the request's work
+    private final TransactionTemplate claimTemplate;
+    private final Map<String, CachedResponse> recent;
+    private final AtomicBoolean purging = new AtomicBoolean(false);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transaction.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${transaction.idempotency.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${transaction.idempotency.cache-max-entries:10000}") int cacheMaxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Access-ordered LinkedHashMap: the least recently replayed response is dropped first
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+        Gauge.builder("transaction.idempotency.cache.size", this, store -> store.cacheSize()).register(meterRegistry);
+    }
+
+    /**
+     * Runs the request once per key. A duplicate with the same body gets the first response back
+     * without running again. A null key runs the request without deduplication.
+     *
+     * @throws IdempotencyConflictException if the key is in use (409) or was used for another request (422).
+     */
+    public <T> T execute(String operation, String key, Object request, Class<T> responseType, Supplier<T> work) {
+        if (key == null) {
+            return work.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransactionException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        String id = operation + "|" + caller() + "|" + key;
+        String requestHash = hash(request);
+
+        CachedResponse cached = cached(id);
+        if (cached != null) {
+            return replay(cached.requestHash(), cached.body(), requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!claim(id, requestHash, now)) {
+            IdempotencyRecord existing = repository.findById(id).orElse(null);
+            boolean expired = existing == null || !existing.getExpiresAt().isAfter(now);
+            if (!expired && !requestHash.equals(existing.getRequestHash())) {
+                count("mismatch");
+                throw new IdempotencyConflictException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used for a different request.");
+            }
+            if (!expired && existing.getStatus() == IdempotencyStatus.COMPLETED) {
+                remember(id, existing);
+                return replay(existing.getRequestHash(), existing.getResponseBody(), requestHash, responseType);
+            }
+            LocalDateTime expiresAt = now.plusNanos(ttlMs * 1_000_000L);
+            if (repository.takeOver(id, requestHash, now, expiresAt, expiresAt) == 0) {
+                count("in_progress");
+                throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed or its outcome is unknown.");
+            }
+        }
+
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            if (nothingApplied(e)) {
+                release(id);
+            } else {
+                count("in_doubt");
+            }
+            throw e;
+        }
+        try {
+            String body = write(result);
+            claimTemplate.executeWithoutResult(status -> repository.complete(id, body));
+            remember(id, new CachedResponse(requestHash, body, now.plusNanos(ttlMs * 1_000_000L)));
+            count("executed");
+        } catch (RuntimeException e) {
+            // The work is done; the claim stays IN_PROGRESS so a retry gets 409 instead of running again
+            count("in_doubt");
+            System.err.println("Idempotency store: could not store the response for " + id + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * True only for failures that show the request was refused before anything was applied. Errors wrapped
+     * with a cause (e.g. "failed unexpectedly") may come from after the money moved and do not count.
+     */
+    private static boolean nothingApplied(RuntimeException e) {
+        if (e instanceof TransferOutcomeUnknownException) {
+            return false;
+        }
+        if (e instanceof AccountNotFoundException || e instanceof InsufficientFundsException
+                || e instanceof InvalidTransactionException || e instanceof UnauthorizedUserException
+                || e instanceof PreCheckFailedException || e instanceof StepUpRequiredException
+                || e instanceof OtpVerificationFailedException || e instanceof IdempotencyConflictException) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof HttpClientErrorException) {
+                return true;
+            }
+        }
+        return AccountServiceFailures.isRejection(e);
+    }
+
+    /**
+     * Deletes expired keys in batches.
+     */
+    @Scheduled(fixedDelayString = "${transaction.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<String> ids;
+            do {
+                ids = repository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+                if (!ids.isEmpty()) {
+                    final List<String> batch = ids;
+                    transactionTemplate.executeWithoutResult(status -> repository.purge(batch, now));
+                }
+            } while (ids.size() >= purgeBatchSize);
+            synchronized (recent) {
+                recent.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+            }
+        } catch (Exception e) {
+            System.err.println("Idempotency store: purge failed: " + e.getMessage());
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    private boolean claim(String id, String requestHash, LocalDateTime now) {
+        // Locked until it expires: only completion or a proven rejection frees it earlier
+        LocalDateTime expiresAt = now.plusNanos(ttlMs * 1_000_000L);
+        IdempotencyRecord record = new IdempotencyRecord(id, requestHash, IdempotencyStatus.IN_PROGRESS, null,
+                expiresAt, now, expiresAt);
+        try {
+            claimTemplate.executeWithoutResult(status -> {
+                entityManager.persist(record);
+                entityManager.flush();
+            });
+            return true;
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            // Primary key taken: the key was used before (or is being used right now)
+            return false;
+        }
+    }
+
+    private void release(String id) {
+        try {
+            repository.release(id);
+        } catch (Exception e) {
+            // The claim stays until the key expires; the client can retry with a new key
+            System.err.println("Idempotency store: could not release " + id + ": " + e.getMessage());
+        }
+    }
+
+    private <T> T replay(String storedHash, String body, String requestHash, Class<T> responseType) {
+        if (!storedHash.equals(requestHash)) {
+            count("mismatch");
+            throw new IdempotencyConflictException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request.");
+        }
+        try {
+            T value = objectMapper.readValue(body, responseType);
+            count("replayed");
+            return value;
+        } catch (JsonProcessingException e) {
+            throw new TransactionProcessingException("Stored response for this Idempotency-Key could not be read.", e);
+        }
+    }
+
+    private CachedResponse cached(String id) {
+        synchronized (recent) {
+            CachedResponse entry = recent.get(id);
+            if (entry != null && !entry.expiresAt().isAfter(LocalDateTime.now())) {
+                recent.remove(id);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void remember(String id, IdempotencyRecord record) {
+        remember(id, new CachedResponse(record.getRequestHash(), record.getResponseBody(), record.getExpiresAt()));
+    }
+
+    private void remember(String id, CachedResponse entry) {
+        synchronized (recent) {
+            recent.put(id, entry);
+        }
+    }
+
+    private int cacheSize() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new TransactionProcessingException("Response could not be stored for the Idempotency-Key.", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    request != null ? objectMapper.writeValueAsBytes(request) : new byte[0]);
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new TransactionProcessingException("Request could not be fingerprinted for the Idempotency-Key.", e);
+        }
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "-";
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("transaction.idempotency.requests", "result", result).increment();
+    }
+}
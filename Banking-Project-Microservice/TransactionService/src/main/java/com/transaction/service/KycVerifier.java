@@ -0,0 +1,120 @@
+package com.transaction.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.transaction.dto.UserDto;
+import com.transaction.event.KycStatusUpdatedEvent;
+import com.transaction.exceptions.UnauthorizedUserException;
+import com.transaction.proxyService.UserServiceClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * KYC gate shared by every money-movement path: the user must exist and be VERIFIED.
+ *
+ * Positive results are cached for a short TTL so most money movements skip the User Service call.
+ * Only VERIFIED is cached: a denial (including the PENDING profile the Feign fallback returns while
+ * User Service is down) is always re-checked remotely, and an expired entry is a plain miss, so a
+ * stale entry can never turn into an allow without a fresh lookup. kyc-status-events evict the user
+ * immediately; the TTL bounds how long a missed event can matter.
+ */
+@Component
+public class KycVerifier {
+
+    private final UserServiceClient userServiceClient;
+    private final Map<String, Long> verifiedUntil = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a lookup that raced with one does not cache its result
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Value("${transaction.kyc-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${transaction.kyc-cache.max-entries:100000}")
+    private int maxEntries;
+
+    public KycVerifier(UserServiceClient userServiceClient, MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.hits = Counter.builder("transaction.kyc.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("transaction.kyc.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("transaction.kyc.cache.evictions")
+                .description("Entries removed by kyc-status-events")
+                .register(meterRegistry);
+        Gauge.builder("transaction.kyc.cache.size", verifiedUntil, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @throws UnauthorizedUserException if the profile is missing or KYC is not VERIFIED.
+     */
+    public void requireVerified(String userId) {
+        Long until = verifiedUntil.get(userId);
+        if (until != null && until - System.nanoTime() > 0) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+
+        long generation = invalidations.get();
+        UserDto userProfile = userServiceClient.getUserProfileById(userId);
+        if (userProfile == null) {
+            throw new UnauthorizedUserException("User profile not found for transaction. Cannot proceed.");
+        }
+        if (userProfile.getKycStatus() != UserDto.KycStatus.VERIFIED) {
+            verifiedUntil.remove(userId);
+            throw new UnauthorizedUserException("Transaction denied: User KYC status is " + userProfile.getKycStatus() + ". Must be VERIFIED.");
+        }
+        cacheVerified(userId, generation);
+    }
+
+    @KafkaListener(
+            topics = "kyc-status-events",
+            containerFactory = "kycKafkaListenerContainerFactory"
+    )
+    public void onKycStatusUpdated(KycStatusUpdatedEvent event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        if (verifiedUntil.remove(event.getUserId()) != null) {
+            evictions.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.kyc-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        verifiedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private void cacheVerified(String userId, long generation) {
+        if (verifiedUntil.size() >= maxEntries && !verifiedUntil.containsKey(userId)) {
+            evictExpired();
+            if (verifiedUntil.size() >= maxEntries) {
+                // Full of live entries: drop an arbitrary one rather than grow past the bound
+                Iterator<String> it = verifiedUntil.keySet().iterator();
+                if (it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+        verifiedUntil.put(userId, System.nanoTime() + ttlMs * 1_000_000L);
+        if (invalidations.get() != generation) {
+            // An event arrived while the profile was being fetched; the result may predate it
+            verifiedUntil.remove(userId);
+        }
+    }
+}
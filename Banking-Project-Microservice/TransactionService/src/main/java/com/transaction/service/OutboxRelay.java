@@ -0,0 +1,303 @@
+package com.transaction.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.OutboxEventRepository;
+import com.transaction.dto.NotificationRequestDto;
+import com.transaction.model.OutboxEvent;
+import com.transaction.model.OutboxStatus;
+import com.transaction.proxyService.NotificationServiceClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the transactional outbox to Kafka in batches. Payloads are sent as the JSON they were recorded
+ * with, so every event type on every topic goes out unchanged.
+ * Runs on a fixed poll and is also signalled after every commit that recorded an event.
+ * Failed sends are retried with exponential backoff up to maxAttempts; after that the row is
+ * marked FAILED and, once that is committed, the notification is sent directly through
+ * NotificationService as a last resort. PUBLISHED rows are purged after published-retention-ms.
+ *
+ * Events with the same key (userId) go to one partition and must stay in order: a row is not sent
+ * while an earlier row with its key is waiting for a retry, is locked by another relay instance, or
+ * failed earlier in the same batch.
+ */
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final NotificationServiceClient notificationServiceClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionStageObserver stageObserver;
+
+    private final ExecutorService signalExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "outbox-relay");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean signalPending = new AtomicBoolean(false);
+    private final AtomicBoolean purging = new AtomicBoolean(false);
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private final Timer publishLag;
+    private final Counter publishedCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    @Value("${transaction.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${transaction.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${transaction.outbox.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${transaction.outbox.backoff-base-ms:500}")
+    private long backoffBaseMs;
+
+    @Value("${transaction.outbox.published-retention-ms:604800000}")
+    private long publishedRetentionMs;
+
+    @Value("${transaction.outbox.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       NotificationServiceClient notificationServiceClient,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       TransactionStageObserver stageObserver) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.notificationServiceClient = notificationServiceClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stageObserver = stageObserver;
+
+        this.publishLag = Timer.builder("transaction.outbox.publish.lag")
+                .description("Time from outbox insert to Kafka acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("transaction.outbox.published").register(meterRegistry);
+        this.retryCounter = Counter.builder("transaction.outbox.retries").register(meterRegistry);
+        this.failedCounter = Counter.builder("transaction.outbox.failed").register(meterRegistry);
+        Gauge.builder("transaction.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Outbox rows waiting to be published")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Requests an asynchronous drain. Multiple signals while a drain is queued collapse into one.
+     */
+    public void signal() {
+        if (signalPending.compareAndSet(false, true)) {
+            signalExecutor.execute(() -> {
+                signalPending.set(false);
+                drain();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Publishes due rows batch by batch until a short batch shows the backlog is empty.
+     */
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Integer processed;
+            do {
+                List<OutboxEvent> gaveUp = new ArrayList<>();
+                processed = transactionTemplate.execute(status -> publishBatch(gaveUp));
+                // Only after the commit, so the row locks are not held across the remote call
+                gaveUp.forEach(this::sendDirectNotification);
+            } while (processed != null && processed >= batchSize);
+        } catch (Exception e) {
+            System.err.println("Outbox relay: drain failed: " + e.getMessage());
+        } finally {
+            draining.set(false);
+            try {
+                pendingCount.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+            } catch (Exception ignore) {}
+        }
+    }
+
+    /**
+     * Deletes PUBLISHED rows older than the retention in batches. FAILED rows are kept for inspection.
+     */
+    @Scheduled(fixedDelayString = "${transaction.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        long purged = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusNanos(publishedRetentionMs * 1_000_000L);
+            List<String> ids;
+            do {
+                ids = outboxEventRepository.findPublishedBefore(OutboxStatus.PUBLISHED, cutoff, PageRequest.of(0, purgeBatchSize));
+                if (!ids.isEmpty()) {
+                    final List<String> batch = ids;
+                    Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.purge(batch, OutboxStatus.PUBLISHED));
+                    purged += deleted != null ? deleted : 0;
+                }
+            } while (ids.size() >= purgeBatchSize);
+        } catch (Exception e) {
+            System.err.println("Outbox relay: purge failed after " + purged + " row(s): " + e.getMessage());
+        } finally {
+            purging.set(false);
+        }
+        if (purged > 0) {
+            System.out.println("Outbox relay: purged " + purged + " published row(s)");
+        }
+    }
+
+    private int publishBatch(List<OutboxEvent> gaveUp) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> dueIds = outboxEventRepository.findDueIds(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> locked = outboxEventRepository.lockByIds(dueIds, OutboxStatus.PENDING);
+
+        // Rows skipped by SKIP LOCKED belong to another instance; later rows with their keys wait for it
+        Set<String> blockedKeys = new HashSet<>();
+        if (locked.size() < dueIds.size()) {
+            Set<String> skipped = new HashSet<>(dueIds);
+            locked.forEach(row -> skipped.remove(row.getOutboxId()));
+            blockedKeys.addAll(outboxEventRepository.findEventKeys(skipped));
+        }
+        List<OutboxEvent> batch = new ArrayList<>(locked.size());
+        for (OutboxEvent row : locked) {
+            if (row.getEventKey() == null || !blockedKeys.contains(row.getEventKey())) {
+                batch.add(row);
+            }
+        }
+
+        // Send the whole batch first so the producer can pipeline, then wait for the acks
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+        Set<String> failedKeys = new HashSet<>();
+        for (OutboxEvent row : batch) {
+            if (row.getEventKey() != null && failedKeys.contains(row.getEventKey())) {
+                futures.add(null); // an earlier event for this key could not be sent; keep it in line
+                continue;
+            }
+            try {
+                JsonNode event = objectMapper.readTree(row.getPayload());
+                String type = event.hasNonNull("type") ? event.get("type").asText() : null;
+                long sentAt = System.nanoTime();
+                futures.add(kafkaTemplate.send(row.getTopic(), row.getEventKey(), event)
+                        .whenComplete((result, error) -> stageObserver.record(type,
+                                TransactionStageObserver.KAFKA_PUBLISH, TransactionStageObserver.KAFKA,
+                                Duration.ofNanos(System.nanoTime() - sentAt),
+                                error == null ? null : error.getClass().getSimpleName())));
+            } catch (Exception e) {
+                futures.add(CompletableFuture.failedFuture(e));
+                if (row.getEventKey() != null) {
+                    failedKeys.add(row.getEventKey());
+                }
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent row = batch.get(i);
+            if (futures.get(i) == null) {
+                // Not attempted; due again straight after the earlier row's retry
+                row.setNextAttemptAt(LocalDateTime.now());
+                continue;
+            }
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                LocalDateTime publishedAt = LocalDateTime.now();
+                row.setStatus(OutboxStatus.PUBLISHED);
+                row.setPublishedAt(publishedAt);
+                row.setLastError(null);
+                publishLag.record(Duration.between(row.getCreatedAt(), publishedAt));
+                publishedCounter.increment();
+            } catch (Exception e) {
+                if (handleSendFailure(row, e)) {
+                    gaveUp.add(row);
+                }
+            }
+        }
+        outboxEventRepository.saveAll(batch);
+        // Held-back rows are not counted, so a drain does not spin on rows another instance owns
+        return batch.size();
+    }
+
+    // Returns true when the row has run out of attempts and needs the direct fallback
+    private boolean handleSendFailure(OutboxEvent row, Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        String message = String.valueOf(cause.getMessage());
+        row.setAttempts(row.getAttempts() + 1);
+        row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            System.err.println("Outbox relay: giving up on outbox row " + row.getOutboxId() + " after " + row.getAttempts() + " attempts: " + message);
+            return true;
+        }
+        long backoffMs = backoffBaseMs << Math.min(row.getAttempts() - 1, 10);
+        row.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs * 1_000_000L));
+        retryCounter.increment();
+        return false;
+    }
+
+    // Last-resort delivery when Kafka stays unavailable (previously the circuit-breaker fallback)
+    private void sendDirectNotification(OutboxEvent row) {
+        try {
+            // Every event on the outbox carries the recipient and the message under the same names
+            JsonNode event = objectMapper.readTree(row.getPayload());
+            NotificationRequestDto notificationRequest = new NotificationRequestDto(
+                event.path("userId").asText(null), NotificationRequestDto.NotificationType.EMAIL,
+                "Fallback: " + event.path("notificationMessage").asText(""));
+            notificationServiceClient.sendEmailNotification(notificationRequest);
+            System.out.println("Notification sent directly via Feign client for outbox row: " + row.getOutboxId());
+        } catch (Exception feignException) {
+            System.err.println("Failed to send notification directly via Feign client for outbox row " + row.getOutboxId() + ": " + feignException.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        signalExecutor.shutdown();
+    }
+}
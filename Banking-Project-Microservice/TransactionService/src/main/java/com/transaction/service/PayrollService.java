@@ -0,0 +1,36 @@
+package com.transaction.service;
+
+import java.util.Optional;
+
+import com.transaction.dto.PayrollDtos.PayrollBatchRequest;
+import com.transaction.dto.PayrollDtos.PayrollBatchResponse;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.UnauthorizedUserException;
+
+public interface PayrollService {
+
+    /**
+     * Validates and accepts a payroll batch. The source must be a SALARY_CORPORATE account; a single
+     * OTP authorises the whole batch. Lines are executed asynchronously; poll getBatch for results.
+     * @param request The source account, OTP and credit lines.
+     * @return The accepted batch (status ACCEPTED).
+     * @throws AccountNotFoundException if the source account does not exist.
+     * @throws InvalidTransactionException if the source is not SALARY_CORPORATE, the batch is too large,
+     *         or a line exceeds the per-transaction limit.
+     * @throws InsufficientFundsException if the batch total exceeds the available balance.
+     * @throws UnauthorizedUserException if the source user's KYC is not VERIFIED.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    PayrollBatchResponse submitBatch(PayrollBatchRequest request);
+
+    /**
+     * Retrieves a batch and, optionally, its per-line results.
+     * @param batchId The batch ID returned by submitBatch.
+     * @param includeLines Whether to include line results.
+     * @return The batch, or empty if it does not exist.
+     */
+    Optional<PayrollBatchResponse> getBatch(String batchId, boolean includeLines);
+}
@@ -0,0 +1,534 @@
+package com.transaction.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.PayrollBatchRepository;
+import com.transaction.dao.PayrollLineRepository;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.AccountBatchRequestDto;
+import com.transaction.dto.AccountBulkTransferRequestDto;
+import com.transaction.dto.AccountBulkTransferResponseDto;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferRequestDto;
+import com.transaction.dto.AccountTransferLegResultDto;
+import com.transaction.dto.OtpVerifyRequest;
+import com.transaction.dto.OtpVerifyResponse;
+import com.transaction.dto.PayrollDtos.PayrollBatchRequest;
+import com.transaction.dto.PayrollDtos.PayrollBatchResponse;
+import com.transaction.dto.PayrollDtos.PayrollLineRequest;
+import com.transaction.dto.PayrollDtos.PayrollLineResult;
+import com.transaction.event.PayrollBatchCompletedEvent;
+import com.transaction.event.TransactionCompletedEvent;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.model.PayrollBatch;
+import com.transaction.model.PayrollBatchStatus;
+import com.transaction.model.PayrollLine;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.proxyService.OtpServiceClient;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk payroll: one OTP and one set of source checks for the whole batch, bulk resolution of target
+ * accounts, one validation pass over all lines, then execution in chunks of chunk-size lines. Every executed
+ * line becomes a normal TRANSFER Transaction (reason PAYROLL). Per chunk, the PENDING intents are committed
+ * together, one Account Service bulk transfer applies the whole chunk in one local transaction (outside any
+ * DB transaction here), and the outcomes are committed together. A chunk whose outcome is unknown (timeout,
+ * 5xx) leaves its lines and their Transactions PENDING and the batch IN_DOUBT.
+ * Chunks run one after another: they all debit the same source row, which Account Service serializes anyway.
+ * The employer receives one summary notification instead of one per line.
+ */
+@Service
+public class PayrollServiceImpl implements PayrollService {
+
+    private static final String PAYROLL_REASON = "PAYROLL";
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+    private static final String PAYROLL_BATCH_EVENTS_TOPIC = "payroll-batch-events";
+
+    private final PayrollBatchRepository batchRepository;
+    private final PayrollLineRepository lineRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final OtpServiceClient otpServiceClient;
+    private final KycVerifier kycVerifier;
+    private final RemotePreCheckExecutor preCheckExecutor;
+    private final TransactionStateMachine stateMachine;
+    private final TransactionMetadataCodec metadataCodec;
+    private final TransactionEventOutbox transactionEventOutbox;
+    private final TransactionLimitEngine limitEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+
+    // Lines of one chunk by status after it ran; inDoubt lines are left PENDING
+    private record ChunkResult(int succeeded, int failed, int inDoubt) {}
+
+    @Value("${transaction.payroll.max-lines:10000}")
+    private int maxLines;
+
+    @Value("${transaction.payroll.chunk-size:200}")
+    private int chunkSize;
+
+    public PayrollServiceImpl(PayrollBatchRepository batchRepository,
+                              PayrollLineRepository lineRepository,
+                              TransactionRepository transactionRepository,
+                              AccountServiceClient accountServiceClient,
+                              OtpServiceClient otpServiceClient,
+                              KycVerifier kycVerifier,
+                              RemotePreCheckExecutor preCheckExecutor,
+                              TransactionStateMachine stateMachine,
+                              TransactionMetadataCodec metadataCodec,
+                              TransactionEventOutbox transactionEventOutbox,
+                              TransactionLimitEngine limitEngine,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${transaction.payroll.workers:2}") int workerCount) {
+        this.batchRepository = batchRepository;
+        this.lineRepository = lineRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.otpServiceClient = otpServiceClient;
+        this.kycVerifier = kycVerifier;
+        this.preCheckExecutor = preCheckExecutor;
+        this.stateMachine = stateMachine;
+        this.metadataCodec = metadataCodec;
+        this.transactionEventOutbox = transactionEventOutbox;
+        this.limitEngine = limitEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "payroll-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @Override
+    public PayrollBatchResponse submitBatch(PayrollBatchRequest request) {
+        List<PayrollLineRequest> lineRequests = request.getLines();
+        if (lineRequests.size() > maxLines) {
+            throw new InvalidTransactionException("Payroll batch exceeds the maximum of " + maxLines + " lines.");
+        }
+
+        AccountDto source = accountServiceClient.getAccountByAccountNumber(request.getFromAccountNumber());
+        if (source == null) {
+            throw new AccountNotFoundException("Source account not found with number: " + request.getFromAccountNumber());
+        }
+        if (source.getAccountType() != AccountDto.AccountType.SALARY_CORPORATE) {
+            throw new InvalidTransactionException("Payroll batches can only be paid from a SALARY/CORPORATE account.");
+        }
+        kycVerifier.requireVerified(source.getUserId());
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineRequests.size(); i++) {
+            PayrollLineRequest line = lineRequests.get(i);
+            limitEngine.checkPerTransaction(source, line.getAmount(), "Payroll line " + (i + 1), false);
+            total = total.add(BigDecimal.valueOf(line.getAmount()));
+        }
+        if (source.getBalance() == null || BigDecimal.valueOf(source.getBalance()).compareTo(total) < 0) {
+            throw new InsufficientFundsException("Insufficient funds in source account " + request.getFromAccountNumber()
+                    + " for payroll total of " + total.toPlainString());
+        }
+
+        // One OTP authorises the whole batch
+        OtpVerifyResponse otpRes = otpServiceClient.verify(new OtpVerifyRequest(
+            source.getUserId(),
+            "WITHDRAWAL",
+            null,
+            request.getOtpCode()
+        ));
+        if (otpRes == null || !otpRes.isVerified()) {
+            throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+        }
+
+        final double batchTotal = total.doubleValue();
+        PayrollBatch batch = transactionTemplate.execute(status -> {
+            PayrollBatch b = new PayrollBatch();
+            b.setSourceAccountId(source.getAccountId());
+            b.setSourceAccountNumber(source.getAccountNumber());
+            b.setSourceUserId(source.getUserId());
+            b.setStatus(PayrollBatchStatus.ACCEPTED);
+            b.setTotalLines(lineRequests.size());
+            b.setTotalAmount(batchTotal);
+            b.setCreatedAt(LocalDateTime.now());
+            b = batchRepository.save(b);
+
+            List<PayrollLine> lines = new ArrayList<>(lineRequests.size());
+            for (int i = 0; i < lineRequests.size(); i++) {
+                PayrollLineRequest lr = lineRequests.get(i);
+                PayrollLine line = new PayrollLine();
+                line.setBatchId(b.getBatchId());
+                line.setLineNumber(i + 1);
+                line.setToAccountNumber(lr.getToAccountNumber());
+                line.setAmount(lr.getAmount());
+                line.setReference(lr.getReference());
+                line.setStatus(TransactionStatus.PENDING);
+                lines.add(line);
+            }
+            lineRepository.saveAll(lines);
+            return b;
+        });
+
+        String batchId = batch.getBatchId();
+        workers.execute(() -> processBatch(batchId));
+        return toResponse(batch, null);
+    }
+
+    @Override
+    public Optional<PayrollBatchResponse> getBatch(String batchId, boolean includeLines) {
+        return batchRepository.findById(batchId).map(batch -> toResponse(batch,
+                includeLines ? lineRepository.findByBatchIdOrderByLineNumberAsc(batchId) : null));
+    }
+
+    /**
+     * Re-queues batches that were accepted but never started (e.g., the service restarted).
+     * Batches left in PROCESSING are not resumed automatically: a leg may already have moved money.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeAcceptedBatches() {
+        try {
+            for (PayrollBatch batch : batchRepository.findByStatusOrderByCreatedAtAsc(PayrollBatchStatus.ACCEPTED)) {
+                String batchId = batch.getBatchId();
+                workers.execute(() -> processBatch(batchId));
+            }
+            int interrupted = batchRepository.findByStatusOrderByCreatedAtAsc(PayrollBatchStatus.PROCESSING).size();
+            if (interrupted > 0) {
+                System.err.println("Payroll: " + interrupted + " batch(es) were interrupted while PROCESSING and need manual review.");
+            }
+        } catch (Exception e) {
+            System.err.println("Payroll: failed to resume accepted batches: " + e.getMessage());
+        }
+    }
+
+    void processBatch(String batchId) {
+        PayrollBatch batch = transactionTemplate.execute(status -> {
+            PayrollBatch b = batchRepository.findById(batchId).orElse(null);
+            if (b == null || b.getStatus() != PayrollBatchStatus.ACCEPTED) {
+                return null;
+            }
+            b.setStatus(PayrollBatchStatus.PROCESSING);
+            b.setStartedAt(LocalDateTime.now());
+            return batchRepository.save(b);
+        });
+        if (batch == null) {
+            return;
+        }
+
+        try {
+            List<PayrollLine> lines = lineRepository.findByBatchIdAndStatusOrderByLineNumberAsc(batchId, TransactionStatus.PENDING);
+            AccountDto source = accountServiceClient.getAccountByAccountNumber(batch.getSourceAccountNumber());
+            if (source == null) {
+                throw new AccountNotFoundException("Source account not found with number: " + batch.getSourceAccountNumber());
+            }
+
+            Map<String, AccountDto> targets = resolveTargets(lines);
+            Map<String, Boolean> targetKyc = verifyTargetKyc(targets);
+            List<PayrollLine> executable = validateLines(lines, source, targets, targetKyc);
+
+            int failed = lines.size() - executable.size();
+            if (failed > 0) {
+                List<PayrollLine> rejected = new ArrayList<>(lines);
+                rejected.removeAll(executable);
+                transactionTemplate.executeWithoutResult(status -> lineRepository.saveAll(rejected));
+            }
+
+            int succeeded = 0;
+            int inDoubt = 0;
+            int size = Math.min(Math.max(1, chunkSize), AccountServiceClient.BULK_TRANSFER_MAX_ENTRIES);
+            for (int start = 0; start < executable.size(); start += size) {
+                ChunkResult result = executeChunk(batch, source, targets,
+                        executable.subList(start, Math.min(start + size, executable.size())));
+                succeeded += result.succeeded();
+                failed += result.failed();
+                inDoubt += result.inDoubt();
+                updateProgress(batch, succeeded, failed);
+            }
+
+            if (inDoubt > 0) {
+                batch.setStatus(PayrollBatchStatus.IN_DOUBT);
+                batch.setFailureReason(inDoubt + " line(s) have an unknown Account Service outcome and are left PENDING for reconciliation.");
+            } else {
+                batch.setStatus(failed == 0 ? PayrollBatchStatus.COMPLETED : PayrollBatchStatus.COMPLETED_WITH_ERRORS);
+            }
+            batch.setCompletedAt(LocalDateTime.now());
+            final int totalSucceeded = succeeded;
+            transactionTemplate.executeWithoutResult(status -> {
+                batchRepository.save(batch);
+                publishSummary(batch, totalSucceeded);
+            });
+        } catch (Exception e) {
+            System.err.println("Payroll: batch " + batchId + " failed: " + e.getMessage());
+            batch.setStatus(PayrollBatchStatus.FAILED);
+            batch.setCompletedAt(LocalDateTime.now());
+            String message = String.valueOf(e.getMessage());
+            batch.setFailureReason(truncate(message));
+            try {
+                transactionTemplate.executeWithoutResult(status -> batchRepository.save(batch));
+            } catch (Exception ignore) {}
+        }
+    }
+
+    // Resolves the distinct target account numbers with batch lookups (chunks run concurrently);
+    // unresolvable numbers, or numbers whose chunk failed, map to nothing
+    private Map<String, AccountDto> resolveTargets(List<PayrollLine> lines) {
+        List<String> numbers = lines.stream().map(PayrollLine::getToAccountNumber).distinct().toList();
+        RemotePreCheckExecutor.Stage stage = preCheckExecutor.newStage();
+        List<CompletableFuture<List<AccountDto>>> lookups = new ArrayList<>();
+        for (int start = 0; start < numbers.size(); start += AccountServiceClient.BATCH_MAX_ENTRIES) {
+            List<String> chunk = numbers.subList(start, Math.min(start + AccountServiceClient.BATCH_MAX_ENTRIES, numbers.size()));
+            lookups.add(stage.call("target account lookup (" + chunk.size() + " numbers)",
+                    () -> accountServiceClient.getAccountsBatch(new AccountBatchRequestDto(null, chunk, null))));
+        }
+        Map<String, AccountDto> resolved = new HashMap<>();
+        for (CompletableFuture<List<AccountDto>> lookup : lookups) {
+            List<AccountDto> accounts = lookup.handle((value, ex) -> ex == null ? value : null).join();
+            if (accounts != null) {
+                accounts.forEach(account -> resolved.put(account.getAccountNumber(), account));
+            }
+        }
+        return resolved;
+    }
+
+    // KYC once per distinct target user; a failed or unavailable check counts as not verified
+    private Map<String, Boolean> verifyTargetKyc(Map<String, AccountDto> targets) {
+        RemotePreCheckExecutor.Stage stage = preCheckExecutor.newStage();
+        Map<String, CompletableFuture<Void>> checks = new LinkedHashMap<>();
+        for (AccountDto target : targets.values()) {
+            checks.computeIfAbsent(target.getUserId(), userId ->
+                    stage.run("target KYC check " + userId, () -> kycVerifier.requireVerified(userId)));
+        }
+        Map<String, Boolean> verified = new HashMap<>();
+        checks.forEach((userId, future) -> verified.put(userId, future.handle((value, ex) -> ex == null).join()));
+        return verified;
+    }
+
+    /**
+     * Single pass over all lines: target checks, account-type limits (TransactionLimitEngine), projected
+     * balance caps and the running source balance. Payroll lines are exempt from rolling debit limits.
+     * Rejected lines are marked FAILED in memory; the rest are returned in order.
+     */
+    private List<PayrollLine> validateLines(List<PayrollLine> lines, AccountDto source,
+                                            Map<String, AccountDto> targets, Map<String, Boolean> targetKyc) {
+        BigDecimal remaining = BigDecimal.valueOf(source.getBalance() != null ? source.getBalance() : 0.0);
+        Map<String, BigDecimal> projectedBalances = new HashMap<>();
+        List<PayrollLine> executable = new ArrayList<>(lines.size());
+
+        for (PayrollLine line : lines) {
+            AccountDto target = targets.get(line.getToAccountNumber());
+            BigDecimal amount = BigDecimal.valueOf(line.getAmount());
+            String reason = null;
+
+            if (target == null) {
+                reason = "Target account not found with number: " + line.getToAccountNumber();
+            } else if (target.getAccountId().equals(source.getAccountId())) {
+                reason = "Cannot transfer funds to the same account.";
+            } else if (!Boolean.TRUE.equals(targetKyc.get(target.getUserId()))) {
+                reason = "Transaction denied: target user KYC is not VERIFIED.";
+            } else {
+                // Limits per account type; the balance cap is checked against the target's projected balance
+                BigDecimal projected = projectedBalances.computeIfAbsent(target.getAccountId(),
+                        id -> BigDecimal.valueOf(target.getBalance() != null ? target.getBalance() : 0.0));
+                AccountDto projectedTarget = new AccountDto(target.getAccountId(), target.getUserId(), target.getAccountNumber(),
+                        target.getAccountType(), projected.doubleValue(), target.getStatus(), target.getCreatedAt(), null, null);
+                try {
+                    limitEngine.checkPerTransaction(source, line.getAmount(), "Transfer", false);
+                    limitEngine.checkCredit(projectedTarget, line.getAmount(), "Transfer", true);
+                } catch (InvalidTransactionException e) {
+                    reason = e.getMessage();
+                }
+                if (reason == null && amount.compareTo(remaining) > 0) {
+                    reason = "Insufficient funds in source account for this line.";
+                }
+            }
+
+            if (reason != null) {
+                line.setStatus(TransactionStatus.FAILED);
+                line.setFailureReason(reason);
+                line.setProcessedAt(LocalDateTime.now());
+                continue;
+            }
+            remaining = remaining.subtract(amount);
+            projectedBalances.computeIfPresent(target.getAccountId(), (id, balance) -> balance.add(amount));
+            line.setToAccountId(target.getAccountId());
+            executable.add(line);
+        }
+        return executable;
+    }
+
+    /**
+     * Executes one chunk with three round trips: one commit of the PENDING intents, one Account Service bulk
+     * transfer, one commit of the outcomes. No DB transaction is open during the Account Service call, so a
+     * failed outcome write never erases transfers that Account Service already applied.
+     */
+    private ChunkResult executeChunk(PayrollBatch batch, AccountDto source, Map<String, AccountDto> targets, List<PayrollLine> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PayrollLine line : chunk) {
+                AccountDto target = targets.get(line.getToAccountNumber());
+                Map<String, String> meta = metadataCodec.accountMetadata(source.getAccountNumber(), target.getAccountNumber());
+                meta.put("method", "PAYROLL");
+                meta.put("batchId", batch.getBatchId());
+                if (line.getReference() != null) {
+                    meta.put("reference", line.getReference());
+                }
+                Transaction transaction = stateMachine.begin(TransactionType.TRANSFER, line.getAmount(),
+                        source.getAccountId(), target.getAccountId(), PAYROLL_REASON, meta);
+                line.setTransactionId(transaction.getTransactionId());
+            }
+            lineRepository.saveAll(chunk);
+        });
+
+        List<AccountTransferRequestDto> transfers = new ArrayList<>(chunk.size());
+        for (PayrollLine line : chunk) {
+            transfers.add(new AccountTransferRequestDto(line.getTransactionId(), source.getAccountId(), line.getToAccountId(), line.getAmount()));
+        }
+        Map<String, AccountTransferLegResultDto> results = new HashMap<>();
+        try {
+            AccountBulkTransferResponseDto response = accountServiceClient.transferFundsBulk(new AccountBulkTransferRequestDto(transfers));
+            if (response != null && response.getResults() != null) {
+                response.getResults().forEach(result -> results.put(result.getTransactionId(), result));
+            }
+        } catch (RuntimeException e) {
+            if (AccountServiceFailures.isRejection(e)) {
+                // The whole request was refused, so nothing in it was applied
+                String reason = "Transfer rejected by Account Service: " + AccountServiceFailures.rootMessage(e);
+                chunk.forEach(line -> results.put(line.getTransactionId(),
+                        new AccountTransferLegResultDto(line.getTransactionId(), false, null, null, reason)));
+            } else {
+                return recordInDoubt(chunk, "Transfer outcome unknown, Account Service did not confirm: "
+                        + AccountServiceFailures.rootMessage(e));
+            }
+        }
+        try {
+            return recordOutcomes(chunk, results, source, targets);
+        } catch (RuntimeException e) {
+            // Some transfers moved money; their Transactions stay PENDING and are settled by reconciliation
+            System.err.println("Payroll: could not record the outcome of lines " + chunk.get(0).getLineNumber() + "-"
+                    + chunk.get(chunk.size() - 1).getLineNumber() + " of batch " + batch.getBatchId() + ": " + e.getMessage());
+            return recordInDoubt(chunk, "Transfer result received from Account Service but could not be recorded: " + e.getMessage());
+        }
+    }
+
+    // One commit for the whole chunk; a line without a result (cannot normally happen) stays PENDING
+    private ChunkResult recordOutcomes(List<PayrollLine> chunk, Map<String, AccountTransferLegResultDto> results,
+                                       AccountDto source, Map<String, AccountDto> targets) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Transaction> transactions = new HashMap<>();
+            transactionRepository.findAllById(chunk.stream().map(PayrollLine::getTransactionId).toList())
+                    .forEach(transaction -> transactions.put(transaction.getTransactionId(), transaction));
+            int succeeded = 0;
+            int failed = 0;
+            int inDoubt = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (PayrollLine line : chunk) {
+                AccountTransferLegResultDto result = results.get(line.getTransactionId());
+                Transaction transaction = transactions.get(line.getTransactionId());
+                if (result == null || transaction == null) {
+                    line.setFailureReason("Account Service returned no result for this line.");
+                    inDoubt++;
+                } else if (result.isApplied()) {
+                    transaction = stateMachine.succeed(transaction,
+                            AccountLedger.leg(result.getFromBalanceAfter(), result.getFromSequence(), result.getAppliedAt()),
+                            AccountLedger.leg(result.getToBalanceAfter(), result.getToSequence(), result.getAppliedAt()));
+                    AccountDto target = targets.get(line.getToAccountNumber());
+                    String receiverMessage = "You have received " + line.getAmount() + " in your account " + target.getAccountNumber()
+                            + " from " + source.getAccountNumber()
+                            + (line.getReference() != null ? " (" + line.getReference() + ")" : "")
+                            + ". Transaction ID: " + transaction.getTransactionId();
+                    transactionEventOutbox.record(TRANSACTION_EVENTS_TOPIC, target.getUserId(), new TransactionCompletedEvent(
+                            transaction.getTransactionId(), target.getUserId(), target.getAccountId(), line.getAmount(),
+                            transaction.getType().name(), transaction.getStatus().name(), receiverMessage));
+                    line.setStatus(TransactionStatus.SUCCESS);
+                    line.setFailureReason(null);
+                    succeeded++;
+                } else {
+                    stateMachine.fail(transaction);
+                    line.setStatus(TransactionStatus.FAILED);
+                    line.setFailureReason(truncate(result.getFailureReason()));
+                    failed++;
+                }
+                line.setProcessedAt(now);
+            }
+            lineRepository.saveAll(chunk);
+            return new ChunkResult(succeeded, failed, inDoubt);
+        });
+    }
+
+    private ChunkResult recordInDoubt(List<PayrollLine> chunk, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        for (PayrollLine line : chunk) {
+            line.setFailureReason(truncate(reason));
+            line.setProcessedAt(now);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> lineRepository.saveAll(chunk));
+        } catch (RuntimeException e) {
+            System.err.println("Payroll: could not record " + chunk.size() + " in-doubt line(s): " + e.getMessage());
+        }
+        return new ChunkResult(0, 0, chunk.size());
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private void updateProgress(PayrollBatch batch, int succeeded, int failed) {
+        batch.setSucceededLines(succeeded);
+        batch.setFailedLines(failed);
+        transactionTemplate.executeWithoutResult(status -> batchRepository.save(batch));
+    }
+
+    private void publishSummary(PayrollBatch batch, int succeeded) {
+        int inDoubt = batch.getTotalLines() - succeeded - batch.getFailedLines();
+        String message = "Payroll batch " + batch.getBatchId() + " from account " + batch.getSourceAccountNumber()
+                + " completed: " + succeeded + " of " + batch.getTotalLines() + " payments succeeded"
+                + (batch.getFailedLines() > 0 ? ", " + batch.getFailedLines() + " failed" : "")
+                + (inDoubt > 0 ? ", " + inDoubt + " pending confirmation" : "") + ".";
+        transactionEventOutbox.record(PAYROLL_BATCH_EVENTS_TOPIC, batch.getSourceUserId(), new PayrollBatchCompletedEvent(
+                batch.getBatchId(), batch.getSourceUserId(), batch.getSourceAccountId(), batch.getTotalAmount(),
+                batch.getTotalLines(), succeeded, batch.getFailedLines(), batch.getStatus().name(), message));
+    }
+
+    private PayrollBatchResponse toResponse(PayrollBatch batch, List<PayrollLine> lines) {
+        List<PayrollLineResult> lineResults = null;
+        if (lines != null) {
+            lineResults = new ArrayList<>(lines.size());
+            for (PayrollLine line : lines) {
+                lineResults.add(new PayrollLineResult(line.getLineNumber(), line.getToAccountNumber(), line.getAmount(),
+                        line.getStatus(), line.getTransactionId(), line.getFailureReason()));
+            }
+        }
+        return new PayrollBatchResponse(batch.getBatchId(), batch.getStatus(), batch.getSourceAccountNumber(),
+                batch.getTotalLines(), batch.getSucceededLines(), batch.getFailedLines(), batch.getTotalAmount(),
+                batch.getCreatedAt(), batch.getCompletedAt(), batch.getFailureReason(), lineResults);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,174 @@
+package com.transaction.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.PreCheckFailedException;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.exceptions.UnauthorizedUserException;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs independent remote pre-checks (account lookups, KYC, OTP) concurrently on a bounded pool.
+ *
+ * Each call still goes through its Feign client, so Resilience4j retry/circuit-breaker behaviour is
+ * unchanged. The caller's request attributes and security context are copied onto the worker thread
+ * so FeignClientConfiguration forwards the user's JWT exactly as it does on the request thread; the
+ * current observation is carried over too, so stage spans stay in the caller's trace.
+ * When the pool is saturated the calling thread runs the check itself (back-pressure, never rejection).
+ */
+@Component
+public class RemotePreCheckExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final ObservationRegistry observationRegistry;
+
+    public RemotePreCheckExecutor(@Value("${transaction.precheck.pool-size:32}") int poolSize,
+                                  @Value("${transaction.precheck.queue-capacity:256}") int queueCapacity,
+                                  @Value("${transaction.precheck.timeout-ms:5000}") long timeoutMs,
+                                  ObservationRegistry observationRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "precheck-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMs = timeoutMs;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Starts a new group of checks that are awaited together.
+     */
+    public Stage newStage() {
+        return new Stage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public class Stage {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        /**
+         * Submits a check that produces a value. The returned future is safe to join() after await().
+         */
+        public <T> CompletableFuture<T> call(String name, Supplier<T> check) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            Observation parentObservation = observationRegistry.getCurrentObservation();
+            CompletableFuture<T> future = CompletableFuture
+                    .supplyAsync(() -> {
+                        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                        SecurityContext previousContext = SecurityContextHolder.getContext();
+                        RequestContextHolder.setRequestAttributes(requestAttributes);
+                        SecurityContextHolder.setContext(securityContext);
+                        try {
+                            return parentObservation != null ? parentObservation.scoped(check) : check.get();
+                        } finally {
+                            RequestContextHolder.setRequestAttributes(previousAttributes);
+                            SecurityContextHolder.setContext(previousContext);
+                        }
+                    }, executor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+            names.add(name);
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Submits a check that only validates (throws on failure).
+         */
+        public CompletableFuture<Void> run(String name, Runnable check) {
+            return call(name, () -> {
+                check.run();
+                return null;
+            });
+        }
+
+        /**
+         * Waits for every check in this stage. A single failure is rethrown unchanged so existing
+         * error contracts hold; several failures are combined into one PreCheckFailedException.
+         */
+        public void await() {
+            List<String> failures = new ArrayList<>();
+            RuntimeException first = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransactionProcessingException("Interrupted while waiting for " + names.get(i), e);
+                } catch (ExecutionException | CompletionException e) {
+                    RuntimeException failure = toRuntime(names.get(i), e.getCause() != null ? e.getCause() : e);
+                    failures.add(failure.getMessage());
+                    if (first == null) {
+                        first = failure;
+                    }
+                }
+            }
+            if (first == null) {
+                return;
+            }
+            if (failures.size() == 1) {
+                throw first;
+            }
+            throw new PreCheckFailedException(statusOf(first), failures, first);
+        }
+
+        private RuntimeException toRuntime(String name, Throwable cause) {
+            if (cause instanceof TimeoutException) {
+                return new TransactionProcessingException(name + " timed out after " + timeoutMs + " ms", cause);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            return new TransactionProcessingException(name + " failed: " + cause.getMessage(), cause);
+        }
+
+        private HttpStatus statusOf(RuntimeException e) {
+            if (e instanceof AccountNotFoundException) {
+                return HttpStatus.NOT_FOUND;
+            }
+            if (e instanceof UnauthorizedUserException) {
+                return HttpStatus.FORBIDDEN;
+            }
+            if (e instanceof InvalidTransactionException || e instanceof InsufficientFundsException) {
+                return HttpStatus.BAD_REQUEST;
+            }
+            return HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    }
+}
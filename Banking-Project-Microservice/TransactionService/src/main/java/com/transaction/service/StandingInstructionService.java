@@ -0,0 +1,61 @@
+package com.transaction.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionRequest;
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionResponse;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.UnauthorizedUserException;
+
+public interface StandingInstructionService {
+
+    /**
+     * Validates and stores a scheduled or recurring transfer. A single OTP authorises every occurrence;
+     * each occurrence is executed by the scheduler through the regular transfer path.
+     * @param request The accounts, amount, frequency, date range and OTP.
+     * @return The created instruction (status ACTIVE) with its first run time.
+     * @throws AccountNotFoundException if either account does not exist.
+     * @throws InvalidTransactionException if both accounts are the same, the dates are invalid, the amount
+     *         exceeds the per-transaction limit, or the source account has too many instructions.
+     * @throws UnauthorizedUserException if either user's KYC is not VERIFIED.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    StandingInstructionResponse createInstruction(StandingInstructionRequest request);
+
+    /**
+     * @param instructionId The instruction ID returned by createInstruction.
+     * @return The instruction, or empty if it does not exist.
+     */
+    Optional<StandingInstructionResponse> getInstruction(String instructionId);
+
+    /**
+     * @param fromAccountNumber The paying account.
+     * @return Every instruction paid from the account, newest first.
+     */
+    List<StandingInstructionResponse> getInstructionsByAccount(String fromAccountNumber);
+
+    /**
+     * ACTIVE -> PAUSED.
+     * @return The updated instruction, or empty if it does not exist.
+     * @throws InvalidTransactionException if it is not ACTIVE or an occurrence is executing right now.
+     */
+    Optional<StandingInstructionResponse> pauseInstruction(String instructionId);
+
+    /**
+     * PAUSED or SUSPENDED -> ACTIVE, continuing at the next occurrence due today or later.
+     * Occurrences missed while paused are not made up.
+     * @return The updated instruction, or empty if it does not exist.
+     * @throws InvalidTransactionException if it is not PAUSED or SUSPENDED.
+     */
+    Optional<StandingInstructionResponse> resumeInstruction(String instructionId);
+
+    /**
+     * Cancels the instruction for good.
+     * @return The updated instruction, or empty if it does not exist.
+     * @throws InvalidTransactionException if it already ended or an occurrence is executing right now.
+     */
+    Optional<StandingInstructionResponse> cancelInstruction(String instructionId);
+}
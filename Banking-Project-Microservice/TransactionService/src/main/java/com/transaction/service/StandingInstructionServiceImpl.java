@@ -0,0 +1,594 @@
+package com.transaction.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.StandingInstructionRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.OtpVerifyRequest;
+import com.transaction.dto.OtpVerifyResponse;
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionRequest;
+import com.transaction.dto.StandingInstructionDtos.StandingInstructionResponse;
+import com.transaction.dto.TransferRequest;
+import com.transaction.event.TransactionCompletedEvent;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.PreCheckFailedException;
+import com.transaction.exceptions.TransferOutcomeUnknownException;
+import com.transaction.exceptions.UnauthorizedUserException;
+import com.transaction.model.StandingInstruction;
+import com.transaction.model.StandingInstructionStatus;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.proxyService.OtpServiceClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Standing instructions: validated and OTP-authorised once, then executed occurrence by occurrence
+ * through TransactionService.standingInstructionTransfer.
+ *
+ * The poll pulls due instructions in batches (one index range scan and one leasing UPDATE per batch),
+ * and only as many as the workers can take (max-in-flight), so a month-start cutoff becomes a steady
+ * backlog instead of a burst. Occurrences are also spread over the execution window per instruction.
+ * Claimed instructions are queued in one lane per paying account and each lane is drained by a single
+ * worker, so one account's instructions never run concurrently on this instance (balance and rolling
+ * limits are checked in order). Transient failures are retried with exponential backoff and jitter;
+ * business rejections skip the occurrence; an unknown transfer outcome suspends the instruction.
+ */
+@Service
+public class StandingInstructionServiceImpl implements StandingInstructionService {
+
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+    private static final List<StandingInstructionStatus> OPEN =
+            List.of(StandingInstructionStatus.ACTIVE, StandingInstructionStatus.PAUSED, StandingInstructionStatus.SUSPENDED);
+    private static final List<StandingInstructionStatus> RESUMABLE =
+            List.of(StandingInstructionStatus.PAUSED, StandingInstructionStatus.SUSPENDED);
+
+    private final StandingInstructionRepository instructionRepository;
+    private final TransactionService transactionService;
+    private final AccountServiceClient accountServiceClient;
+    private final OtpServiceClient otpServiceClient;
+    private final KycVerifier kycVerifier;
+    private final RemotePreCheckExecutor preCheckExecutor;
+    private final TransactionLimitEngine limitEngine;
+    private final TransactionEventOutbox transactionEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+
+    // Claimed instructions waiting per paying account; a lane exists while a worker is draining it
+    private final Map<String, Deque<StandingInstruction>> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${transaction.standing.max-in-flight:2000}")
+    private int maxInFlight;
+
+    @Value("${transaction.standing.batch-size:200}")
+    private int batchSize;
+
+    @Value("${transaction.standing.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${transaction.standing.bucket-minutes:5}")
+    private int bucketMinutes;
+
+    @Value("${transaction.standing.window-start-hour:1}")
+    private int windowStartHour;
+
+    @Value("${transaction.standing.spread-minutes:240}")
+    private int spreadMinutes;
+
+    @Value("${transaction.standing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${transaction.standing.backoff-base-ms:60000}")
+    private long backoffBaseMs;
+
+    @Value("${transaction.standing.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${transaction.standing.max-consecutive-failures:3}")
+    private int maxConsecutiveFailures;
+
+    @Value("${transaction.standing.max-per-account:50}")
+    private int maxPerAccount;
+
+    public StandingInstructionServiceImpl(StandingInstructionRepository instructionRepository,
+                                          TransactionService transactionService,
+                                          AccountServiceClient accountServiceClient,
+                                          OtpServiceClient otpServiceClient,
+                                          KycVerifier kycVerifier,
+                                          RemotePreCheckExecutor preCheckExecutor,
+                                          TransactionLimitEngine limitEngine,
+                                          TransactionEventOutbox transactionEventOutbox,
+                                          PlatformTransactionManager transactionManager,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${transaction.standing.workers:8}") int workerCount,
+                                          @Value("${transaction.standing.queue-capacity:2000}") int queueCapacity) {
+        this.instructionRepository = instructionRepository;
+        this.transactionService = transactionService;
+        this.accountServiceClient = accountServiceClient;
+        this.otpServiceClient = otpServiceClient;
+        this.kycVerifier = kycVerifier;
+        this.preCheckExecutor = preCheckExecutor;
+        this.limitEngine = limitEngine;
+        this.transactionEventOutbox = transactionEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "standing-instruction-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        Gauge.builder("transaction.standing.in-flight", inFlight, AtomicInteger::get)
+                .description("Claimed standing instructions not yet executed on this instance")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Override
+    public StandingInstructionResponse createInstruction(StandingInstructionRequest request) {
+        LocalDate today = LocalDate.now();
+        if (request.getStartDate().isBefore(today)) {
+            throw new InvalidTransactionException("Start date cannot be in the past.");
+        }
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new InvalidTransactionException("End date cannot be before the start date.");
+        }
+
+        RemotePreCheckExecutor.Stage lookups = preCheckExecutor.newStage();
+        CompletableFuture<AccountDto> sourceLookup = lookups.call("source account lookup", () -> {
+            AccountDto account = accountServiceClient.getAccountByAccountNumber(request.getFromAccountNumber());
+            if (account == null) {
+                throw new AccountNotFoundException("Source account not found with number: " + request.getFromAccountNumber());
+            }
+            return account;
+        });
+        CompletableFuture<AccountDto> targetLookup = lookups.call("target account lookup", () -> {
+            AccountDto account = accountServiceClient.getAccountByAccountNumber(request.getToAccountNumber());
+            if (account == null) {
+                throw new AccountNotFoundException("Target account not found with number: " + request.getToAccountNumber());
+            }
+            return account;
+        });
+        lookups.await();
+        final AccountDto source = sourceLookup.join();
+        final AccountDto target = targetLookup.join();
+
+        if (source.getAccountId().equals(target.getAccountId())) {
+            throw new InvalidTransactionException("Cannot transfer funds to the same account.");
+        }
+        if (instructionRepository.countByFromAccountIdAndStatusIn(source.getAccountId(), OPEN) >= maxPerAccount) {
+            throw new InvalidTransactionException("Account " + request.getFromAccountNumber() + " already has the maximum of "
+                    + maxPerAccount + " standing instructions.");
+        }
+        // Rolling limits and balances are checked per occurrence; the static cap can be rejected up front
+        limitEngine.checkPerTransaction(source, request.getAmount(), "Standing instruction", false);
+
+        // One OTP authorises every occurrence
+        OtpVerifyRequest otpReq = new OtpVerifyRequest(source.getUserId(), "WITHDRAWAL", null, request.getOtpCode());
+        RemotePreCheckExecutor.Stage verifications = preCheckExecutor.newStage();
+        verifications.run("source KYC check", () -> kycVerifier.requireVerified(source.getUserId()));
+        verifications.run("target KYC check", () -> kycVerifier.requireVerified(target.getUserId()));
+        CompletableFuture<OtpVerifyResponse> otpVerification = verifications.call("OTP verification", () -> otpServiceClient.verify(otpReq));
+        verifications.await();
+        OtpVerifyResponse otpRes = otpVerification.join();
+        if (otpRes == null || !otpRes.isVerified()) {
+            throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+        }
+
+        StandingInstruction instruction = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            StandingInstruction s = new StandingInstruction();
+            s.setUserId(source.getUserId());
+            s.setFromAccountId(source.getAccountId());
+            s.setFromAccountNumber(source.getAccountNumber());
+            s.setToAccountNumber(target.getAccountNumber());
+            s.setAmount(request.getAmount());
+            s.setFrequency(request.getFrequency());
+            s.setStartDate(request.getStartDate());
+            s.setEndDate(request.getEndDate());
+            s.setReference(request.getReference());
+            s.setStatus(StandingInstructionStatus.ACTIVE);
+            s.setCreatedAt(now);
+            s.setUpdatedAt(now);
+            // Saved first: the spread offset is derived from the generated ID
+            s = instructionRepository.save(s);
+            scheduleOccurrence(s, 0);
+            return instructionRepository.save(s);
+        });
+        return toResponse(instruction);
+    }
+
+    @Override
+    public Optional<StandingInstructionResponse> getInstruction(String instructionId) {
+        return instructionRepository.findById(instructionId).map(this::toResponse);
+    }
+
+    @Override
+    public List<StandingInstructionResponse> getInstructionsByAccount(String fromAccountNumber) {
+        List<StandingInstructionResponse> responses = new ArrayList<>();
+        for (StandingInstruction s : instructionRepository.findByFromAccountNumberOrderByCreatedAtDesc(fromAccountNumber)) {
+            responses.add(toResponse(s));
+        }
+        return responses;
+    }
+
+    @Override
+    public Optional<StandingInstructionResponse> pauseInstruction(String instructionId) {
+        return changeStatus(instructionId, List.of(StandingInstructionStatus.ACTIVE), StandingInstructionStatus.PAUSED);
+    }
+
+    @Override
+    public Optional<StandingInstructionResponse> cancelInstruction(String instructionId) {
+        return changeStatus(instructionId, OPEN, StandingInstructionStatus.CANCELLED);
+    }
+
+    @Override
+    public Optional<StandingInstructionResponse> resumeInstruction(String instructionId) {
+        StandingInstruction s = instructionRepository.findById(instructionId).orElse(null);
+        if (s == null) {
+            return Optional.empty();
+        }
+        if (!RESUMABLE.contains(s.getStatus())) {
+            throw new InvalidTransactionException("Standing instruction " + instructionId + " is " + s.getStatus() + " and cannot be resumed.");
+        }
+
+        // First occurrence not yet attempted that is due today or later
+        LocalDate today = LocalDate.now();
+        int occurrence = s.getOccurrence();
+        LocalDate date = s.getFrequency().occurrenceDate(s.getStartDate(), occurrence);
+        while (date != null && date.isBefore(today)) {
+            occurrence++;
+            date = s.getFrequency().occurrenceDate(s.getStartDate(), occurrence);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        if (date == null || (s.getEndDate() != null && date.isAfter(s.getEndDate()))) {
+            updated = instructionRepository.transition(instructionId, RESUMABLE, StandingInstructionStatus.COMPLETED, now);
+        } else {
+            LocalDateTime runAt = runTimeFor(instructionId, date);
+            updated = instructionRepository.resume(instructionId, RESUMABLE, occurrence, date, runAt, bucketOf(runAt), now);
+        }
+        if (updated == 0) {
+            throw new InvalidTransactionException("Standing instruction " + instructionId + " changed concurrently; try again.");
+        }
+        return instructionRepository.findById(instructionId).map(this::toResponse);
+    }
+
+    private Optional<StandingInstructionResponse> changeStatus(String instructionId, List<StandingInstructionStatus> from,
+                                                               StandingInstructionStatus to) {
+        StandingInstruction s = instructionRepository.findById(instructionId).orElse(null);
+        if (s == null) {
+            return Optional.empty();
+        }
+        if (instructionRepository.transition(instructionId, from, to, LocalDateTime.now()) == 0) {
+            StandingInstruction current = instructionRepository.findById(instructionId).orElse(s);
+            throw new InvalidTransactionException("Standing instruction " + instructionId + " is " + current.getStatus()
+                    + (current.getExecutingSince() != null ? " and executing right now" : "")
+                    + "; it cannot be moved to " + to + ".");
+        }
+        return instructionRepository.findById(instructionId).map(this::toResponse);
+    }
+
+    /**
+     * Leases due instructions in batches while this instance has room for them, then hands them to
+     * the per-account lanes. Also suspends instructions whose execution was interrupted.
+     */
+    @Scheduled(fixedDelayString = "${transaction.standing.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            suspendInterrupted(now);
+
+            long bucket = bucketOf(now);
+            int room = maxInFlight - inFlight.get();
+            while (room > 0) {
+                int pageSize = Math.min(room, batchSize);
+                List<String> due = instructionRepository.findDueIds(bucket, now, PageRequest.of(0, pageSize));
+                if (due.isEmpty()) {
+                    break;
+                }
+                String owner = UUID.randomUUID().toString();
+                instructionRepository.claim(due, owner, now, now.plusNanos(leaseMs * 1_000_000L));
+                List<StandingInstruction> claimed = instructionRepository.findByLeaseOwner(owner);
+                if (!claimed.isEmpty()) {
+                    dispatch(claimed, owner);
+                    room -= claimed.size();
+                }
+                if (due.size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Standing instructions: poll failed: " + e.getMessage());
+        }
+    }
+
+    private void suspendInterrupted(LocalDateTime now) {
+        for (String instructionId : instructionRepository.findInterruptedIds(now, PageRequest.of(0, batchSize))) {
+            transactionTemplate.executeWithoutResult(status -> {
+                String reason = "Interrupted while executing; the transfer outcome needs manual review.";
+                if (instructionRepository.suspendInterrupted(instructionId, reason, now) == 1) {
+                    instructionRepository.findById(instructionId).ifPresent(s -> notifyFailure(s,
+                            "Your standing instruction " + describe(s) + " has been suspended while we confirm its last payment."));
+                    countExecution("suspended");
+                }
+            });
+        }
+    }
+
+    private void dispatch(List<StandingInstruction> claimed, String owner) {
+        Map<String, List<StandingInstruction>> byAccount = new LinkedHashMap<>();
+        for (StandingInstruction s : claimed) {
+            byAccount.computeIfAbsent(s.getFromAccountId(), id -> new ArrayList<>()).add(s);
+        }
+        // Only the poll thread adds to lanes, so a lane found here always has a worker draining it
+        byAccount.forEach((accountId, instructions) -> {
+            inFlight.addAndGet(instructions.size());
+            boolean[] newLane = {false};
+            lanes.compute(accountId, (id, lane) -> {
+                if (lane == null) {
+                    lane = new ArrayDeque<>();
+                    newLane[0] = true;
+                }
+                lane.addAll(instructions);
+                return lane;
+            });
+            if (!newLane[0]) {
+                return;
+            }
+            try {
+                workers.execute(() -> drain(accountId));
+            } catch (RejectedExecutionException e) {
+                Deque<StandingInstruction> lane = lanes.remove(accountId);
+                int dropped = lane != null ? lane.size() : 0;
+                inFlight.addAndGet(-dropped);
+                if (lane != null) {
+                    List<String> ids = new ArrayList<>();
+                    lane.forEach(s -> ids.add(s.getInstructionId()));
+                    instructionRepository.release(ids, owner);
+                }
+                System.err.println("Standing instructions: worker queue full, released " + dropped + " instruction(s) for the next poll.");
+            }
+        });
+    }
+
+    private void drain(String accountId) {
+        while (true) {
+            StandingInstruction[] next = new StandingInstruction[1];
+            lanes.computeIfPresent(accountId, (id, lane) -> {
+                next[0] = lane.poll();
+                return next[0] == null ? null : lane;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            try {
+                execute(next[0]);
+            } catch (RuntimeException e) {
+                System.err.println("Standing instructions: " + next[0].getInstructionId() + " failed unexpectedly: " + e.getMessage());
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    void execute(StandingInstruction claimed) {
+        String instructionId = claimed.getInstructionId();
+        String owner = claimed.getLeaseOwner();
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Committed before the transfer: from here on an expired lease means "outcome unknown"
+        if (instructionRepository.start(instructionId, owner, startedAt, startedAt.plusNanos(leaseMs * 1_000_000L)) == 0) {
+            return;
+        }
+
+        try {
+            // The transfer joins this transaction, so the occurrence is advanced in the same commit as its Transaction
+            Boolean executed = transactionTemplate.execute(status -> {
+                StandingInstruction s = instructionRepository.findByIdForUpdate(instructionId).orElse(null);
+                if (s == null || s.getExecutingSince() == null || !owner.equals(s.getLeaseOwner())) {
+                    return false;
+                }
+                TransferRequest request = new TransferRequest(s.getFromAccountNumber(), s.getToAccountNumber(), s.getAmount(), null);
+                Transaction transaction = transactionService.standingInstructionTransfer(request, instructionId, s.getOccurrence());
+
+                LocalDateTime now = LocalDateTime.now();
+                s.setExecutionCount(s.getExecutionCount() + 1);
+                s.setConsecutiveFailures(0);
+                s.setLastRunAt(now);
+                s.setLastTransactionId(transaction.getTransactionId());
+                s.setLastFailureReason(null);
+                clearLease(s, now);
+                scheduleOccurrence(s, s.getOccurrence() + 1);
+                instructionRepository.save(s);
+                return true;
+            });
+            if (Boolean.TRUE.equals(executed)) {
+                countExecution("success");
+            }
+        } catch (RuntimeException e) {
+            recordFailure(instructionId, owner, e);
+        }
+    }
+
+    private void recordFailure(String instructionId, String owner, RuntimeException error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                StandingInstruction s = instructionRepository.findByIdForUpdate(instructionId).orElse(null);
+                if (s == null || s.getExecutingSince() == null || !owner.equals(s.getLeaseOwner())) {
+                    return; // already settled by the interrupted-execution sweep
+                }
+                LocalDateTime now = LocalDateTime.now();
+                String message = String.valueOf(error.getMessage());
+                s.setLastRunAt(now);
+                s.setLastFailureReason(message.length() > 1000 ? message.substring(0, 1000) : message);
+                clearLease(s, now);
+
+                if (error instanceof TransferOutcomeUnknownException) {
+                    // Never retried: the money may have moved. Resuming continues with the next occurrence.
+                    s.setStatus(StandingInstructionStatus.SUSPENDED);
+                    s.setOccurrence(s.getOccurrence() + 1);
+                    s.setNextRunAt(null);
+                    s.setDueBucket(null);
+                    notifyFailure(s, "Your standing instruction " + describe(s) + " has been suspended while we confirm its last payment.");
+                    countExecution("suspended");
+                } else if (isTransient(error) && s.getAttempts() + 1 < maxAttempts) {
+                    s.setAttempts(s.getAttempts() + 1);
+                    LocalDateTime retryAt = now.plusNanos(backoffMs(s.getAttempts()) * 1_000_000L);
+                    s.setNextRunAt(retryAt);
+                    s.setDueBucket(bucketOf(retryAt));
+                    countExecution("retry");
+                } else {
+                    s.setConsecutiveFailures(s.getConsecutiveFailures() + 1);
+                    String notice = "The payment of " + s.getAmount() + " for your standing instruction " + describe(s)
+                            + " scheduled for " + s.getScheduledFor() + " could not be made: " + message;
+                    if (s.getConsecutiveFailures() >= maxConsecutiveFailures) {
+                        s.setStatus(StandingInstructionStatus.SUSPENDED);
+                        s.setOccurrence(s.getOccurrence() + 1);
+                        s.setNextRunAt(null);
+                        s.setDueBucket(null);
+                        notice += " The instruction has been suspended after " + s.getConsecutiveFailures() + " failed payments.";
+                    } else {
+                        scheduleOccurrence(s, s.getOccurrence() + 1);
+                    }
+                    notifyFailure(s, notice);
+                    countExecution("skipped");
+                }
+                instructionRepository.save(s);
+            });
+        } catch (RuntimeException e) {
+            // executingSince stays set, so the interrupted-execution sweep suspends it once the lease expires
+            System.err.println("Standing instructions: could not record the failure of " + instructionId + ": " + e.getMessage());
+        }
+    }
+
+    // Rejections by the business rules or a 4xx from a downstream service will fail the same way again
+    private boolean isTransient(RuntimeException e) {
+        if (e instanceof AccountNotFoundException || e instanceof InsufficientFundsException
+                || e instanceof InvalidTransactionException || e instanceof UnauthorizedUserException) {
+            return false;
+        }
+        if (e instanceof PreCheckFailedException preCheck) {
+            return preCheck.getStatus().is5xxServerError();
+        }
+        return !AccountServiceFailures.isClientError(e);
+    }
+
+    // Exponential with jitter over the upper half, so retries of a failed burst do not line up again
+    private long backoffMs(int attempt) {
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Points the instruction at the given occurrence, or marks it COMPLETED if there is none left.
+     */
+    private void scheduleOccurrence(StandingInstruction s, int occurrence) {
+        LocalDate date = s.getFrequency().occurrenceDate(s.getStartDate(), occurrence);
+        s.setOccurrence(occurrence);
+        s.setAttempts(0);
+        if (date == null || (s.getEndDate() != null && date.isAfter(s.getEndDate()))) {
+            s.setStatus(StandingInstructionStatus.COMPLETED);
+            s.setScheduledFor(null);
+            s.setNextRunAt(null);
+            s.setDueBucket(null);
+            return;
+        }
+        LocalDateTime runAt = runTimeFor(s.getInstructionId(), date);
+        s.setScheduledFor(date);
+        s.setNextRunAt(runAt);
+        s.setDueBucket(bucketOf(runAt));
+    }
+
+    // Stable per-instruction offset inside the daily execution window
+    private LocalDateTime runTimeFor(String instructionId, LocalDate date) {
+        long offsetSeconds = Math.floorMod(instructionId.hashCode(), Math.max(1, spreadMinutes * 60));
+        return date.atTime(windowStartHour, 0).plusSeconds(offsetSeconds);
+    }
+
+    private long bucketOf(LocalDateTime at) {
+        return at.toEpochSecond(ZoneOffset.UTC) / (bucketMinutes * 60L);
+    }
+
+    private void clearLease(StandingInstruction s, LocalDateTime now) {
+        s.setExecutingSince(null);
+        s.setLeaseOwner(null);
+        s.setLeaseUntil(null);
+        s.setUpdatedAt(now);
+    }
+
+    private void notifyFailure(StandingInstruction s, String message) {
+        transactionEventOutbox.record(TRANSACTION_EVENTS_TOPIC, s.getUserId(), new TransactionCompletedEvent(
+                s.getInstructionId(), s.getUserId(), s.getFromAccountId(), s.getAmount(),
+                TransactionType.TRANSFER.name(), TransactionStatus.FAILED.name(), message));
+    }
+
+    private String describe(StandingInstruction s) {
+        return "from " + s.getFromAccountNumber() + " to " + s.getToAccountNumber()
+                + (s.getReference() != null ? " (" + s.getReference() + ")" : "");
+    }
+
+    private void countExecution(String outcome) {
+        meterRegistry.counter("transaction.standing.executions", "outcome", outcome).increment();
+    }
+
+    private StandingInstructionResponse toResponse(StandingInstruction s) {
+        return new StandingInstructionResponse(
+                s.getInstructionId(),
+                s.getStatus(),
+                s.getFromAccountNumber(),
+                s.getToAccountNumber(),
+                s.getAmount(),
+                s.getFrequency(),
+                s.getStartDate(),
+                s.getEndDate(),
+                s.getReference(),
+                s.getScheduledFor(),
+                s.getNextRunAt(),
+                s.getExecutionCount(),
+                s.getLastRunAt(),
+                s.getLastTransactionId(),
+                s.getLastFailureReason(),
+                s.getCreatedAt());
+    }
+}
@@ -0,0 +1,160 @@
+package com.transaction.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.stereotype.Component;
+
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.UserDto;
+import com.transaction.model.Transaction;
+
+/**
+ * Renders an account statement as a password-protected, multi-page A4 PDF.
+ * Rows are consumed from an iterator and written page by page; the table header is repeated on
+ * every page. Each row carries the account balance after it when the ledger has one. Encryption is applied when the document is saved, so the PDF is never re-parsed.
+ */
+@Component
+public class StatementPdfRenderer {
+
+    private static final float MARGIN = 50;
+    private static final float BOTTOM = 60;
+    private static final float ROW_HEIGHT = 12;
+    // PDFBox keeps page content in memory up to this size, then spills to a temp file
+    private static final long MAX_MAIN_MEMORY_BYTES = 16L * 1024 * 1024;
+    private static final String TABLE_HEADER =
+            "Date/Time          Type       Amount       Balance      Status      From            To              TxnId";
+
+    public record Result(int transactionCount, int pageCount) {}
+
+    public Result render(Iterator<AccountLedger.Row> rows, String accountId, LocalDate from, LocalDate to,
+                         UserDto owner, AccountDto account, AccountLedger.Balances balances,
+                         String userPassword, OutputStream out) throws IOException {
+        try (PDDocument doc = new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES))) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            doc.addPage(page);
+            PDPageContentStream cs = new PDPageContentStream(doc, page);
+            int count = 0;
+            try {
+                float y = page.getMediaBox().getHeight() - MARGIN;
+                y = writeHeader(cs, y, accountId, from, to, owner, account, balances);
+                y = writeTableHeader(cs, y);
+
+                while (rows.hasNext()) {
+                    if (y < BOTTOM) {
+                        writeFooter(cs, doc.getNumberOfPages());
+                        cs.close();
+                        page = new PDPage(PDRectangle.A4);
+                        doc.addPage(page);
+                        cs = new PDPageContentStream(doc, page);
+                        y = page.getMediaBox().getHeight() - MARGIN;
+                        y = writeLine(cs, y, PDType1Font.HELVETICA_BOLD, 11, "Account Statement (continued) - Period: " + from + " to " + to, 16);
+                        y = writeTableHeader(cs, y);
+                    }
+                    y = writeLine(cs, y, PDType1Font.HELVETICA, 9, formatRow(rows.next()), ROW_HEIGHT);
+                    count++;
+                }
+                if (count == 0) {
+                    y = writeLine(cs, y, PDType1Font.HELVETICA, 9, "No transactions in this period.", ROW_HEIGHT);
+                }
+                writeFooter(cs, doc.getNumberOfPages());
+            } finally {
+                cs.close();
+            }
+
+            AccessPermission ap = new AccessPermission();
+            String ownerPassword = UUID.randomUUID().toString();
+            StandardProtectionPolicy spp = new StandardProtectionPolicy(ownerPassword, userPassword, ap);
+            spp.setEncryptionKeyLength(128);
+            spp.setPermissions(ap);
+            doc.protect(spp);
+            doc.save(out);
+            return new Result(count, doc.getNumberOfPages());
+        }
+    }
+
+    private float writeHeader(PDPageContentStream cs, float y, String accountId, LocalDate from, LocalDate to,
+                              UserDto owner, AccountDto account, AccountLedger.Balances balances) throws IOException {
+        y = writeLine(cs, y, PDType1Font.HELVETICA_BOLD, 16, "Account Statement", 24);
+        y = writeLine(cs, y, PDType1Font.HELVETICA, 11, "Period: " + from + " to " + to, 16);
+
+        // User details
+        if (owner != null) {
+            String fullName = (owner.getFirstName() != null ? owner.getFirstName() : "")
+                    + " " + (owner.getLastName() != null ? owner.getLastName() : "");
+            y = writeLine(cs, y, PDType1Font.HELVETICA, 10, "User: " + fullName.trim(), ROW_HEIGHT);
+            if (owner.getEmail() != null) {
+                y = writeLine(cs, y, PDType1Font.HELVETICA, 10, "Email: " + owner.getEmail(), ROW_HEIGHT);
+            }
+            if (owner.getDateOfBirth() != null) {
+                y = writeLine(cs, y, PDType1Font.HELVETICA, 10, "Date of Birth: " + owner.getDateOfBirth(), ROW_HEIGHT);
+            }
+        }
+
+        // Account details
+        if (account != null) {
+            y = writeLine(cs, y, PDType1Font.HELVETICA, 10,
+                    "Account Number: " + (account.getAccountNumber() != null ? account.getAccountNumber() : accountId), ROW_HEIGHT);
+            if (account.getAccountType() != null) {
+                y = writeLine(cs, y, PDType1Font.HELVETICA, 10, "Account Type: " + account.getAccountType(), ROW_HEIGHT);
+            }
+            if (account.getBalance() != null) {
+                y = writeLine(cs, y, PDType1Font.HELVETICA, 10, String.format("Current Balance: %.2f", account.getBalance()), ROW_HEIGHT);
+            }
+        }
+
+        // Period balances from the ledger (absent for periods before it was introduced)
+        if (balances.opening() != null) {
+            y = writeLine(cs, y, PDType1Font.HELVETICA, 10, String.format("Opening Balance (%s): %.2f", from, balances.opening()), ROW_HEIGHT);
+        }
+        if (balances.closing() != null) {
+            y = writeLine(cs, y, PDType1Font.HELVETICA, 10, String.format("Closing Balance (%s): %.2f", to, balances.closing()), ROW_HEIGHT);
+        }
+        return y - 4;
+    }
+
+    private float writeTableHeader(PDPageContentStream cs, float y) throws IOException {
+        return writeLine(cs, y, PDType1Font.HELVETICA_BOLD, 10, TABLE_HEADER, 14);
+    }
+
+    private void writeFooter(PDPageContentStream cs, int pageNumber) throws IOException {
+        writeLine(cs, 30, PDType1Font.HELVETICA, 8, "Page " + pageNumber, 0);
+    }
+
+    private float writeLine(PDPageContentStream cs, float y, PDFont font, float size, String text, float advance) throws IOException {
+        cs.beginText();
+        cs.setFont(font, size);
+        cs.newLineAtOffset(MARGIN, y);
+        cs.showText(text);
+        cs.endText();
+        return y - advance;
+    }
+
+    private String formatRow(AccountLedger.Row row) {
+        Transaction t = row.transaction();
+        String fromId = t.getFromAccountId() != null ? t.getFromAccountId() : "-";
+        String toId = t.getToAccountId() != null ? t.getToAccountId() : "-";
+        String balance = row.balanceAfter() != null ? String.format("%.2f", row.balanceAfter()) : "-";
+        return String.format("%-19s %-10s %-12.2f %-12s %-11s %-14s %-14s %s",
+                t.getTransactionDate(),
+                t.getType(),
+                t.getAmount(),
+                balance,
+                t.getStatus(),
+                fromId.length() > 12 ? fromId.substring(0, 12) + "…" : fromId,
+                toId.length() > 12 ? toId.substring(0, 12) + "…" : toId,
+                t.getTransactionId());
+    }
+}
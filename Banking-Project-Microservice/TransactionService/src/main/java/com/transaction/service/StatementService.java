@@ -0,0 +1,30 @@
+package com.transaction.service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.transaction.dto.StatementDtos.StatementJobResponse;
+import com.transaction.exceptions.InvalidTransactionException;
+
+public interface StatementService {
+
+    /**
+     * Queues a statement for an OTP-verified request. Generation and email delivery run on a
+     * bounded worker pool; poll getJob for the outcome.
+     * @param userId The account owner (used for the PDF password and fallback notifications).
+     * @param accountId The account to report on.
+     * @param recipientEmail The verified address the statement is sent to.
+     * @param fromDate First day of the period (inclusive).
+     * @param toDate Last day of the period (inclusive).
+     * @return The queued job.
+     * @throws InvalidTransactionException if the period is invalid.
+     */
+    StatementJobResponse submit(String userId, String accountId, String recipientEmail, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Retrieves the current state of a statement job.
+     * @param jobId The job ID returned by submit.
+     * @return The job, or empty if it does not exist.
+     */
+    Optional<StatementJobResponse> getJob(String jobId);
+}
@@ -0,0 +1,353 @@
+package com.transaction.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.StatementJobRepository;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.StatementDtos.StatementJobResponse;
+import com.transaction.dto.UserDto;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.AccountLedgerEntry;
+import com.transaction.model.ArchivedTransaction;
+import com.transaction.model.StatementJob;
+import com.transaction.model.StatementJobStatus;
+import com.transaction.model.Transaction;
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.proxyService.NotificationServiceClient;
+import com.transaction.proxyService.UserServiceClient;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Statement job engine. Requests are persisted as QUEUED jobs and picked up by a bounded pool of
+ * generator threads: rows are streamed from the DB for the requested period straight into the PDF
+ * renderer, each paired with its running balance from the AccountLedger, and the encrypted result is
+ * spooled to a temp file. Email delivery runs on a separate pool so slow SMTP servers never hold a
+ * generator thread.
+ * Jobs that do not fit in the queue stay QUEUED and are picked up by the requeue poll.
+ */
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    private final StatementJobRepository jobRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final AccountLedger ledger;
+    private final StatementPdfRenderer renderer;
+    private final UserServiceClient userServiceClient;
+    private final AccountServiceClient accountServiceClient;
+    private final NotificationServiceClient notificationServiceClient;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor generators;
+    private final ThreadPoolExecutor mailers;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transaction.statement.max-period-days:366}")
+    private long maxPeriodDays;
+
+    public StatementServiceImpl(StatementJobRepository jobRepository,
+                                TransactionRepository transactionRepository,
+                                TransactionArchive transactionArchive,
+                                AccountLedger ledger,
+                                StatementPdfRenderer renderer,
+                                UserServiceClient userServiceClient,
+                                AccountServiceClient accountServiceClient,
+                                NotificationServiceClient notificationServiceClient,
+                                JavaMailSender mailSender,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${transaction.statement.workers:2}") int workerCount,
+                                @Value("${transaction.statement.queue-capacity:50}") int queueCapacity,
+                                @Value("${transaction.statement.mail-workers:2}") int mailWorkerCount) {
+        this.jobRepository = jobRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionArchive = transactionArchive;
+        this.ledger = ledger;
+        this.renderer = renderer;
+        this.userServiceClient = userServiceClient;
+        this.accountServiceClient = accountServiceClient;
+        this.notificationServiceClient = notificationServiceClient;
+        this.mailSender = mailSender;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.generators = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("statement-generator-"));
+        this.mailers = new ThreadPoolExecutor(mailWorkerCount, mailWorkerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("statement-mailer-"));
+    }
+
+    @Override
+    public StatementJobResponse submit(String userId, String accountId, String recipientEmail, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new InvalidTransactionException("Statement fromDate must not be after toDate.");
+        }
+        if (fromDate.plusDays(maxPeriodDays).isBefore(toDate)) {
+            throw new InvalidTransactionException("Statement period cannot exceed " + maxPeriodDays + " days.");
+        }
+
+        StatementJob job = new StatementJob();
+        job.setUserId(userId);
+        job.setAccountId(accountId);
+        job.setRecipientEmail(recipientEmail);
+        job.setFromDate(fromDate);
+        job.setToDate(toDate);
+        job.setStatus(StatementJobStatus.QUEUED);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+
+        dispatch(job.getJobId());
+        return toResponse(job);
+    }
+
+    @Override
+    public Optional<StatementJobResponse> getJob(String jobId) {
+        return jobRepository.findById(jobId).map(this::toResponse);
+    }
+
+    /**
+     * Picks up jobs that were not dispatched because the queue was full.
+     */
+    @Scheduled(fixedDelayString = "${transaction.statement.requeue-interval-ms:30000}")
+    public void dispatchQueued() {
+        try {
+            for (StatementJob job : jobRepository.findByStatusOrderByCreatedAtAsc(StatementJobStatus.QUEUED)) {
+                if (generators.getQueue().remainingCapacity() == 0) {
+                    return;
+                }
+                dispatch(job.getJobId());
+            }
+        } catch (Exception e) {
+            System.err.println("Statement jobs: requeue poll failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Jobs that were generating or sending when the service stopped are queued again; their temp files are gone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueInterrupted() {
+        try {
+            int requeued = jobRepository.requeueInterrupted(LocalDateTime.now());
+            if (requeued > 0) {
+                System.out.println("Statement jobs: re-queued " + requeued + " interrupted job(s).");
+            }
+        } catch (Exception e) {
+            System.err.println("Statement jobs: failed to re-queue interrupted jobs: " + e.getMessage());
+        }
+    }
+
+    private void dispatch(String jobId) {
+        try {
+            generators.execute(() -> generate(jobId));
+        } catch (RejectedExecutionException e) {
+            // Stays QUEUED; dispatchQueued will retry
+            System.out.println("Statement jobs: queue full, job " + jobId + " deferred.");
+        }
+    }
+
+    void generate(String jobId) {
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        StatementJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Path pdf = null;
+        try {
+            UserDto owner = userServiceClient.getUserProfileById(job.getUserId());
+            AccountDto account = null;
+            try {
+                account = accountServiceClient.getAccountById(job.getAccountId());
+            } catch (Exception e) {
+                System.err.println("Statement jobs: account details unavailable for " + job.getAccountId() + ": " + e.getMessage());
+            }
+
+            pdf = Files.createTempFile("statement_" + jobId + "_", ".pdf");
+            StatementPdfRenderer.Result result = render(job, owner, account, pdf);
+
+            job.setTransactionCount(result.transactionCount());
+            job.setPageCount(result.pageCount());
+            job.setStatus(StatementJobStatus.SENDING);
+            job = jobRepository.save(job);
+
+            final StatementJob generated = job;
+            final Path attachment = pdf;
+            mailers.execute(() -> deliver(generated, attachment));
+            pdf = null; // owned by the mail task from here on
+        } catch (Exception e) {
+            System.err.println("Statement jobs: generation failed for job " + jobId + ": " + e.getMessage());
+            finish(job, StatementJobStatus.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(pdf);
+        }
+    }
+
+    // Streams the period's rows (hot and archived, merged newest first) and their ledger balances into the
+    // renderer inside one read-only transaction; opening and closing balances are two index seeks
+    private StatementPdfRenderer.Result render(StatementJob job, UserDto owner, AccountDto account, Path target) throws IOException {
+        LocalDateTime start = job.getFromDate().atStartOfDay();
+        LocalDateTime end = job.getToDate().atTime(23, 59, 59, 999_999_999);
+        String password = buildPassword(owner);
+
+        try (OutputStream out = Files.newOutputStream(target)) {
+            return readOnlyTransaction.execute(status -> {
+                AccountLedger.Balances balances = ledger.periodBalances(job.getAccountId(), start, end);
+                try (Stream<Transaction> rows = transactionRepository.streamStatement(job.getAccountId(), start, end);
+                     Stream<ArchivedTransaction> archived = transactionArchive.streamStatement(job.getAccountId(), start, end);
+                     Stream<AccountLedgerEntry> entries = ledger.streamPeriod(job.getAccountId(), start, end)) {
+                    // Detach each row once read so the persistence context does not grow with the statement
+                    Iterator<Transaction> merged = TransactionArchive.merge(
+                            rows.peek(entityManager::detach).iterator(),
+                            archived.peek(entityManager::detach).map(ArchivedTransaction::toTransaction).iterator(),
+                            TransactionArchive.NEWEST_FIRST);
+                    Iterator<AccountLedger.Row> withBalances = AccountLedger.withBalances(
+                            merged, entries.peek(entityManager::detach).iterator());
+                    return renderer.render(withBalances, job.getAccountId(),
+                            job.getFromDate(), job.getToDate(), owner, account, balances, password, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void deliver(StatementJob job, Path pdf) {
+        try {
+            sendStatementEmail(job, pdf);
+            finish(job, StatementJobStatus.COMPLETED, null);
+        } catch (MailException mailEx) {
+            System.err.println("Statement jobs: email delivery failed for job " + job.getJobId() + ": " + mailEx.getMessage());
+            // Fallback: notify user via NotificationService
+            try {
+                NotificationRequestDto notificationRequest = new NotificationRequestDto(
+                        job.getUserId(),
+                        NotificationRequestDto.NotificationType.EMAIL,
+                        "Your account statement was generated but email delivery failed due to mail server configuration. " +
+                                "An administrator will resend it shortly."
+                );
+                notificationServiceClient.sendEmailNotification(notificationRequest);
+            } catch (Exception ignore) { }
+            finish(job, StatementJobStatus.DELIVERY_FAILED, mailEx.getMessage());
+        } catch (Exception e) {
+            System.err.println("Statement jobs: delivery failed for job " + job.getJobId() + ": " + e.getMessage());
+            finish(job, StatementJobStatus.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(pdf);
+        }
+    }
+
+    private void sendStatementEmail(StatementJob job, Path pdf) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+        // Ensure 'From' is set to the configured SMTP username (required by many providers incl. Gmail)
+        try {
+            if (mailSender instanceof JavaMailSenderImpl senderImpl) {
+                String fromAddr = senderImpl.getUsername();
+                if (fromAddr != null && !fromAddr.isBlank()) {
+                    helper.setFrom(fromAddr);
+                }
+            }
+        } catch (Exception ignore) {}
+
+        helper.setTo(job.getRecipientEmail());
+        helper.setSubject("Your Account Statement (" + job.getAccountId() + ")");
+        String body = "Please find your password-protected statement attached.\n"
+                + "Period: " + job.getFromDate() + " to " + job.getToDate() + ".\n\n"
+                + "Password to open the PDF: FIRST 4 letters of your first name in UPPERCASE + YEAR of birth (e.g., ABCD2003).\n"
+                + "If your first name has fewer than 4 letters, remaining letters are replaced with 'X' (e.g., JO -> JOXX).";
+        helper.setText(body, false);
+        String filename = "statement_" + job.getAccountId() + "_" + job.getFromDate() + "_" + job.getToDate() + ".pdf";
+        helper.addAttachment(filename, new FileSystemResource(pdf));
+        mailSender.send(message);
+    }
+
+    private String buildPassword(UserDto user) {
+        String first = (user != null && user.getFirstName() != null) ? user.getFirstName().toUpperCase() : "USER";
+        String four = first.length() >= 4 ? first.substring(0, 4) : String.format("%-4s", first).replace(' ', 'X');
+        String yyyy = "2000";
+        if (user != null && user.getDateOfBirth() != null) {
+            yyyy = String.valueOf(user.getDateOfBirth().getYear());
+        }
+        return four + yyyy;
+    }
+
+    private void finish(StatementJob job, StatementJobStatus status, String reason) {
+        try {
+            job.setStatus(status);
+            job.setCompletedAt(LocalDateTime.now());
+            if (reason != null) {
+                job.setFailureReason(reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+            }
+            jobRepository.save(job);
+        } catch (Exception e) {
+            System.err.println("Statement jobs: failed to record status " + status + " for job " + job.getJobId() + ": " + e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignore) {}
+    }
+
+    private StatementJobResponse toResponse(StatementJob job) {
+        return new StatementJobResponse(job.getJobId(), job.getStatus(), job.getAccountId(), job.getFromDate(), job.getToDate(),
+                job.getTransactionCount(), job.getPageCount(), job.getCreatedAt(), job.getCompletedAt(), job.getFailureReason());
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generators.shutdown();
+        mailers.shutdown();
+    }
+}
@@ -0,0 +1,327 @@
+package com.transaction.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.ArchivedAccountRangeRepository;
+import com.transaction.dao.ArchivedTransactionRepository;
+import com.transaction.dao.TransactionHistorySpecifications;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.model.ArchivedAccountRange;
+import com.transaction.model.ArchivedTransaction;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Cold tier of the Transaction table.
+ *
+ * A nightly job moves finished (SUCCESS/FAILED) transactions older than horizon-days into
+ * transaction_archive in batches: rows are locked with SKIP LOCKED, copied, deleted from the hot table
+ * and recorded in the per-account range index, all in one DB transaction per batch. PENDING rows are
+ * never moved.
+ *
+ * The read helpers let history, statements, lookups and exports stay unaware of the split. Each one
+ * checks the account's archived range first (one primary-key read) and only queries the archive when
+ * the requested range reaches into it, merging both sorted results.
+ */
+@Component
+public class TransactionArchive {
+
+    // History order: newest first, ties broken by ID (same as the keyset cursor)
+    static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archiveRepository;
+    private final ArchivedAccountRangeRepository rangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean archiving = new AtomicBoolean(false);
+    private final Counter archivedCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transaction.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.archive.horizon-days:400}")
+    private int horizonDays;
+
+    @Value("${transaction.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${transaction.archive.max-batches-per-run:2000}")
+    private int maxBatchesPerRun;
+
+    public TransactionArchive(TransactionRepository transactionRepository,
+                              ArchivedTransactionRepository archiveRepository,
+                              ArchivedAccountRangeRepository rangeRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.archiveRepository = archiveRepository;
+        this.rangeRepository = rangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("transaction.archive.moved")
+                .description("Transactions moved from the hot table to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${transaction.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!enabled || !archiving.compareAndSet(false, true)) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+        long moved = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer processed = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                if (processed == null || processed == 0) {
+                    break;
+                }
+                moved += processed;
+            }
+        } catch (Exception e) {
+            System.err.println("Transaction archive: run failed after " + moved + " row(s): " + e.getMessage());
+        } finally {
+            archiving.set(false);
+        }
+        if (moved > 0) {
+            System.out.println("Transaction archive: moved " + moved + " transaction(s) dated before " + cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<String> ids = transactionRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Transaction> batch = transactionRepository.lockForArchive(ids);
+        if (batch.isEmpty()) {
+            // All taken by another instance; let it finish rather than spin on the same IDs
+            return 0;
+        }
+
+        Map<String, ArchivedAccountRange> ranges = new HashMap<>();
+        List<String> movedIds = new ArrayList<>(batch.size());
+        for (Transaction transaction : batch) {
+            entityManager.persist(ArchivedTransaction.of(transaction));
+            widen(ranges, transaction.getFromAccountId(), transaction.getTransactionDate());
+            widen(ranges, transaction.getToAccountId(), transaction.getTransactionDate());
+            movedIds.add(transaction.getTransactionId());
+        }
+        entityManager.flush();
+        transactionRepository.deleteAllByIdInBatch(movedIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (ArchivedAccountRange range : ranges.values()) {
+            if (rangeRepository.extend(range.getAccountId(), range.getOldestDate(), range.getNewestDate(),
+                    range.getRowCount(), now) == 0) {
+                range.setUpdatedAt(now);
+                entityManager.persist(range);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        archivedCounter.increment(movedIds.size());
+        return movedIds.size();
+    }
+
+    private static void widen(Map<String, ArchivedAccountRange> ranges, String accountId, LocalDateTime date) {
+        if (accountId == null) {
+            return;
+        }
+        ArchivedAccountRange range = ranges.computeIfAbsent(accountId,
+                id -> new ArchivedAccountRange(id, date, date, 0, null));
+        if (date.isBefore(range.getOldestDate())) {
+            range.setOldestDate(date);
+        }
+        if (date.isAfter(range.getNewestDate())) {
+            range.setNewestDate(date);
+        }
+        range.setRowCount(range.getRowCount() + 1);
+    }
+
+    // ===== Reads =====
+
+    /**
+     * Falls back to the archive for IDs no longer in the hot table.
+     */
+    public Optional<Transaction> findById(String transactionId) {
+        Optional<Transaction> hot = transactionRepository.findById(transactionId);
+        return hot.isPresent() ? hot : archiveRepository.findById(transactionId).map(ArchivedTransaction::toTransaction);
+    }
+
+    /**
+     * Adds the account's archived transactions to its full hot history, newest first.
+     */
+    public List<Transaction> completeAccountHistory(String accountId, List<Transaction> hot) {
+        if (!rangeRepository.existsById(accountId)) {
+            return hot;
+        }
+        List<Transaction> all = new ArrayList<>(hot);
+        for (ArchivedTransaction archived : archiveRepository.findByFromAccountIdOrToAccountIdOrderByTransactionDateDesc(accountId, accountId)) {
+            all.add(archived.toTransaction());
+        }
+        all.sort(NEWEST_FIRST);
+        return all;
+    }
+
+    /**
+     * Keyset page of an account's history, newest first, at most limit rows strictly older than the
+     * (cursorDate, cursorId) position. The hot table is read with one seek per account column, merged;
+     * archived rows are added only when the page reaches into the account's archived range.
+     */
+    public List<Transaction> historyPage(String accountId, LocalDateTime from, LocalDateTime to,
+                                         TransactionType type, TransactionStatus status,
+                                         LocalDateTime cursorDate, String cursorId, int limit) {
+        List<Transaction> hot = seekHistory(transactionRepository, Function.identity(),
+                accountId, from, to, type, status, cursorDate, cursorId, limit);
+        return completeHistoryPage(hot, accountId, from, to, type, status, cursorDate, cursorId, limit);
+    }
+
+    /**
+     * Completes a keyset history page read from the hot table (hot holds up to limit rows) with archived
+     * rows that sort before its last row. The archive is only queried when its range for the account
+     * overlaps the filters and the hot page does not already end after the newest archived row.
+     */
+    private List<Transaction> completeHistoryPage(List<Transaction> hot, String accountId, LocalDateTime from, LocalDateTime to,
+                                                  TransactionType type, TransactionStatus status,
+                                                  LocalDateTime cursorDate, String cursorId, int limit) {
+        ArchivedAccountRange range = rangeRepository.findById(accountId).orElse(null);
+        if (range == null
+                || (hot.size() >= limit && hot.get(limit - 1).getTransactionDate().isAfter(range.getNewestDate()))
+                || (from != null && range.getNewestDate().isBefore(from))
+                || (to != null && range.getOldestDate().isAfter(to))
+                || (cursorDate != null && range.getOldestDate().isAfter(cursorDate))) {
+            return hot;
+        }
+        List<Transaction> cold = seekHistory(archiveRepository, ArchivedTransaction::toTransaction,
+                accountId, from, to, type, status, cursorDate, cursorId, limit);
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        return firstDistinct(merge(hot.iterator(), cold.iterator(), NEWEST_FIRST), limit);
+    }
+
+    /**
+     * Up to limit rows of an account's history from one table: a keyset seek on the from-account column
+     * and one on the to-account column, each served by its (account, date, id) index and bounded to
+     * limit rows, merged newest first.
+     */
+    private static <T> List<Transaction> seekHistory(JpaSpecificationExecutor<T> repository, Function<T, Transaction> toTransaction,
+                                                     String accountId, LocalDateTime from, LocalDateTime to,
+                                                     TransactionType type, TransactionStatus status,
+                                                     LocalDateTime cursorDate, String cursorId, int limit) {
+        List<Transaction> sent = seek(repository, toTransaction, TransactionHistorySpecifications.seek(
+                TransactionHistorySpecifications.FROM_ACCOUNT, accountId, from, to, type, status, cursorDate, cursorId), limit);
+        List<Transaction> received = seek(repository, toTransaction, TransactionHistorySpecifications.seek(
+                TransactionHistorySpecifications.TO_ACCOUNT, accountId, from, to, type, status, cursorDate, cursorId), limit);
+        return firstDistinct(merge(sent.iterator(), received.iterator(), NEWEST_FIRST), limit);
+    }
+
+    private static <T> List<Transaction> seek(JpaSpecificationExecutor<T> repository, Function<T, Transaction> toTransaction,
+                                              Specification<T> specification, int limit) {
+        // A limited fluent query, not findAll(spec, Pageable): a Page would also run a COUNT over the history
+        List<T> rows = repository.findBy(specification,
+                query -> query.sortBy(TransactionHistorySpecifications.NEWEST_FIRST).limit(limit).all());
+        List<Transaction> transactions = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            transactions.add(toTransaction.apply(row));
+        }
+        return transactions;
+    }
+
+    // A row with the account on both sides comes back from both seeks; equal rows are adjacent once merged
+    private static List<Transaction> firstDistinct(Iterator<Transaction> merged, int limit) {
+        List<Transaction> page = new ArrayList<>(limit);
+        String previousId = null;
+        while (merged.hasNext() && page.size() < limit) {
+            Transaction transaction = merged.next();
+            if (!transaction.getTransactionId().equals(previousId)) {
+                page.add(transaction);
+            }
+            previousId = transaction.getTransactionId();
+        }
+        return page;
+    }
+
+    /**
+     * Archived part of a statement period, newest first (empty when the account has nothing archived
+     * in the period). Must be consumed inside a transaction and closed by the caller.
+     */
+    public Stream<ArchivedTransaction> streamStatement(String accountId, LocalDateTime from, LocalDateTime to) {
+        ArchivedAccountRange range = rangeRepository.findById(accountId).orElse(null);
+        if (range == null || range.getNewestDate().isBefore(from) || range.getOldestDate().isAfter(to)) {
+            return Stream.empty();
+        }
+        return archiveRepository.streamStatement(accountId, from, to);
+    }
+
+    /**
+     * Archived part of an export window in the flat export column layout, oldest first.
+     */
+    public Stream<Object[]> streamExport(LocalDateTime from, LocalDateTime to, TransactionType type, TransactionStatus status) {
+        return archiveRepository.streamExport(from, to, type, status);
+    }
+
+    /**
+     * Lazily merges two iterators that are each sorted by the comparator.
+     */
+    public static <T> Iterator<T> merge(Iterator<T> first, Iterator<T> second, Comparator<? super T> order) {
+        return new Iterator<>() {
+            private T nextFirst = first.hasNext() ? first.next() : null;
+            private T nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result;
+                if (nextSecond == null || (nextFirst != null && order.compare(nextFirst, nextSecond) <= 0)) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+}
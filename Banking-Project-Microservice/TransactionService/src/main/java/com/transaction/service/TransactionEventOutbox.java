@@ -0,0 +1,68 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.OutboxEventRepository;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.model.OutboxEvent;
+import com.transaction.model.OutboxStatus;
+
+/**
+ * Records events into the transactional outbox.
+ * The insert joins the caller's DB transaction, so an event exists if and only if the
+ * Transaction row it describes was committed. Kafka is never called on the request thread;
+ * OutboxRelay is nudged after commit and publishes asynchronously.
+ */
+@Component
+public class TransactionEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    public TransactionEventOutbox(OutboxEventRepository outboxEventRepository,
+                                  ObjectMapper objectMapper,
+                                  OutboxRelay outboxRelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Transactional
+    public void record(String topic, String key, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new TransactionProcessingException("Failed to serialize outbox event for topic " + topic, e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent row = new OutboxEvent();
+        row.setTopic(topic);
+        row.setEventKey(key);
+        row.setPayload(payload);
+        row.setStatus(OutboxStatus.PENDING);
+        row.setAttempts(0);
+        row.setCreatedAt(now);
+        row.setNextAttemptAt(now);
+        outboxEventRepository.save(row);
+
+        // Publish as soon as the surrounding transaction commits instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.signal();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.transaction.dto.TransactionExportFormat;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+public interface TransactionExportService {
+
+    /**
+     * Prepares a streaming export of every transaction in [from, to), optionally filtered by type and status.
+     * Rows are read from the database and written to the response as they arrive, so memory use does not
+     * depend on the number of rows.
+     * @param format CSV (with a header row) or NDJSON (one JSON object per line).
+     * @param gzip Whether to gzip the output.
+     * @return The response body, or empty if the maximum number of concurrent exports is already running.
+     * @throws InvalidTransactionException if the window is empty or longer than the configured maximum.
+     */
+    Optional<StreamingResponseBody> openExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to,
+                                               TransactionType type, TransactionStatus status, boolean gzip);
+}
@@ -0,0 +1,213 @@
+package com.transaction.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dto.TransactionExportFormat;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admin export of the transactions table for reconciliation. One read-only transaction per export
+ * streams flat rows from TransactionRepository.streamExport (driver fetch size set on the query),
+ * merged by date with the archived rows of the window, straight into a buffered writer on the
+ * response, optionally through gzip. Nothing is collected,
+ * so a nightly export of millions of rows runs in constant memory. A semaphore caps concurrent
+ * exports, since each one holds a DB connection for its whole duration.
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] COLUMNS = {
+        "transactionId", "transactionDate", "type", "status", "amount",
+        "fromAccountId", "toAccountId", "reason", "metadataJson"
+    };
+    private static final Comparator<Object[]> BY_DATE = Comparator.comparing(row -> (LocalDateTime) row[1]);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+
+    @Value("${transaction.export.max-window-days:93}")
+    private int maxWindowDays;
+
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository,
+                                        TransactionArchive transactionArchive,
+                                        PlatformTransactionManager transactionManager,
+                                        ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${transaction.export.max-concurrent:2}") int maxConcurrent) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchive = transactionArchive;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public Optional<StreamingResponseBody> openExport(TransactionExportFormat format, LocalDateTime from, LocalDateTime to,
+                                                      TransactionType type, TransactionStatus status, boolean gzip) {
+        if (!from.isBefore(to)) {
+            throw new InvalidTransactionException("Export window is empty: 'from' must be before 'to'.");
+        }
+        if (Duration.between(from, to).compareTo(Duration.ofDays(maxWindowDays)) > 0) {
+            throw new InvalidTransactionException("Export window cannot exceed " + maxWindowDays + " days.");
+        }
+        if (!permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> {
+            try {
+                export(format, from, to, type, status, gzip, out);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private void export(TransactionExportFormat format, LocalDateTime from, LocalDateTime to,
+                        TransactionType type, TransactionStatus status, boolean gzip, OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(tx -> {
+                try (Stream<Object[]> hot = transactionRepository.streamExport(from, to, type, status);
+                     Stream<Object[]> archived = transactionArchive.streamExport(from, to, type, status)) {
+                    Iterator<Object[]> merged = TransactionArchive.merge(hot.iterator(), archived.iterator(), BY_DATE);
+                    return format == TransactionExportFormat.CSV
+                            ? writeCsv(merged, writer)
+                            : writeNdjson(merged, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the read transaction is already closed
+            System.err.println("Transaction export aborted: " + e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        long count = rows != null ? rows : 0;
+        meterRegistry.counter("transaction.export.rows", "format", format.name()).increment(count);
+        System.out.println("Transaction export: " + count + " rows (" + format + (gzip ? ", gzip" : "") + ") for ["
+                + from + ", " + to + ") in " + Duration.ofNanos(System.nanoTime() - startedAt).toMillis() + " ms");
+    }
+
+    private long writeCsv(Iterator<Object[]> rows, Writer writer) throws IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(COLUMNS[i]);
+        }
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvField(writer, format(row[i]));
+            }
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Object[]> rows, Writer writer) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] instanceof Double amount) {
+                    generator.writeNumberField(COLUMNS[i], BigDecimal.valueOf(amount));
+                } else {
+                    generator.writeStringField(COLUMNS[i], format(row[i]));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.flush();
+        return count;
+    }
+
+    // Plain decimal amounts (no exponent) and ISO dates, identical in both formats
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Double amount) {
+            return BigDecimal.valueOf(amount).toPlainString();
+        }
+        if (value instanceof Enum<?> e) {
+            return e.name();
+        }
+        return value.toString();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
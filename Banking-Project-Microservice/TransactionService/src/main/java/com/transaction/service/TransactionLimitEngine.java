@@ -0,0 +1,356 @@
+package com.transaction.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.config.TransactionLimitsProperties;
+import com.transaction.config.TransactionLimitsProperties.Policy;
+import com.transaction.config.TransactionLimitsProperties.Window;
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dao.TransferSagaRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.model.TransactionType;
+import com.transaction.model.TransferSagaStep;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-account transaction limits: per-transaction caps, balance caps and rolling (sliding-window)
+ * debit totals, configured per AccountType under transaction.limits.
+ *
+ * Rolling totals live in memory: one ring of time buckets per account, held in a ConcurrentHashMap
+ * and updated with compare-and-set, so a check is a few dozen array reads and never touches the DB.
+ * The rings are rebuilt at startup from the Transaction table and from asynchronous transfers that had
+ * reserved their debit but not finished. A debit is reserved before it runs and released again if the
+ * surrounding DB transaction does not commit.
+ * Counters are per instance; with several instances each one enforces the limits on its own traffic.
+ */
+@Component
+@EnableConfigurationProperties(TransactionLimitsProperties.class)
+public class TransactionLimitEngine {
+
+    // Payroll lines are authorised per batch and do not count towards customer velocity limits
+    private static final String PAYROLL_REASON = "PAYROLL";
+    private static final List<TransactionType> VELOCITY_TYPES = List.of(TransactionType.WITHDRAW, TransactionType.TRANSFER);
+    // Saga steps that hold a reservation while their Transaction is still PENDING (see TransferSagaServiceImpl.drive).
+    // A saga resumed after a restart cannot release the rebuilt count if it then fails; it stays counted until it ages out.
+    private static final List<TransferSagaStep> RESERVED_SAGA_STEPS = List.of(TransferSagaStep.TRANSFERRING,
+            TransferSagaStep.TRANSFERRED, TransferSagaStep.COMPENSATING, TransferSagaStep.IN_DOUBT);
+
+    private final TransactionLimitsProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final TransferSagaRepository sagaRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, DebitRing> rings = new ConcurrentHashMap<>();
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final Duration longestWindow;
+
+    public TransactionLimitEngine(TransactionLimitsProperties properties,
+                                  TransactionRepository transactionRepository,
+                                  TransferSagaRepository sagaRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionRepository = transactionRepository;
+        this.sagaRepository = sagaRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+
+        this.bucketMillis = properties.getBucketSize().toMillis();
+        Duration longest = Duration.ZERO;
+        for (Policy policy : properties.getPolicies().values()) {
+            for (Window window : policy.getWindows()) {
+                if (window.getDuration().compareTo(longest) > 0) {
+                    longest = window.getDuration();
+                }
+            }
+        }
+        this.longestWindow = longest;
+        this.bucketCount = (int) Math.max(1, ceilDiv(longest.toMillis(), bucketMillis) + 1);
+
+        Gauge.builder("transaction.limits.tracked.accounts", rings, ConcurrentHashMap::size)
+                .description("Accounts with rolling debit counters in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the debits of the longest window: successful ones from the Transaction table, plus transfers
+     * whose saga reserved the debit and is still PENDING (it may be resumed, or already moved the money).
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (longestWindow.isZero()) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(longestWindow);
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<Object[]> rows = transactionRepository.streamDebitsSince(VELOCITY_TYPES, since, PAYROLL_REASON)) {
+                count += load(rows);
+            }
+            try (Stream<Object[]> rows = sagaRepository.streamDebitsSince(RESERVED_SAGA_STEPS, since)) {
+                count += load(rows);
+            }
+            return count;
+        });
+        System.out.println("Transaction limits: rebuilt rolling counters from " + loaded + " debit(s) across " + rings.size() + " account(s).");
+    }
+
+    // Rows of (accountId, amount, time)
+    private int load(Stream<Object[]> rows) {
+        int count = 0;
+        for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+            String accountId = (String) row[0];
+            long epoch = epochOf((LocalDateTime) row[2]);
+            rings.computeIfAbsent(accountId, id -> new DebitRing(bucketCount))
+                    .add(epoch, toMinor((Double) row[1]), 1);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Per-transaction cap for either side of a movement. Used where rolling limits do not apply.
+     * @param operation "Deposit", "Withdrawal" or "Transfer" (used in the error message)
+     * @param counterparty true when the account is the receiving side of a transfer
+     */
+    public void checkPerTransaction(AccountDto account, double amount, String operation, boolean counterparty) {
+        Policy policy = policyFor(account);
+        if (policy == null || policy.getPerTransaction() == null || amount <= policy.getPerTransaction()) {
+            return;
+        }
+        reject(account, "per_transaction");
+        throw new InvalidTransactionException(operation + " exceeds maximum per-transaction " + (counterparty ? "deposit " : "")
+                + "limit of " + policy.getPerTransaction() + " INR for " + (counterparty ? "target " : "") + policy.getLabel() + " account.");
+    }
+
+    /**
+     * Per-transaction cap and balance cap for the receiving account.
+     */
+    public void checkCredit(AccountDto target, double amount, String operation, boolean counterparty) {
+        checkPerTransaction(target, amount, operation, counterparty);
+        Policy policy = policyFor(target);
+        if (policy == null || policy.getBalanceCap() == null) {
+            return;
+        }
+        double balance = target.getBalance() != null ? target.getBalance() : 0.0;
+        if (balance + amount > policy.getBalanceCap()) {
+            reject(target, "balance_cap");
+            throw new InvalidTransactionException(operation + " would exceed the maximum balance cap of " + policy.getBalanceCap()
+                    + " INR for " + (counterparty ? "target " : "") + policy.getLabel() + " account.");
+        }
+    }
+
+    /**
+     * Checks the per-transaction cap and every rolling window for the paying account and, if all pass,
+     * counts the debit immediately so concurrent requests see it. Inside a DB transaction the debit is
+     * released automatically on rollback; otherwise callers release it themselves on failure.
+     */
+    public Reservation reserveDebit(AccountDto source, double amount, String operation) {
+        checkPerTransaction(source, amount, operation, false);
+        Policy policy = policyFor(source);
+        if (policy == null || policy.getWindows().isEmpty()) {
+            return Reservation.NONE;
+        }
+
+        long epoch = currentEpoch();
+        long minor = toMinor(amount);
+        DebitRing ring = rings.computeIfAbsent(source.getAccountId(), id -> new DebitRing(bucketCount));
+        // Count first, then check: two concurrent debits can both be rejected, never both accepted over the limit
+        ring.add(epoch, minor, 1);
+
+        for (Window window : policy.getWindows()) {
+            int windowBuckets = (int) ceilDiv(window.getDuration().toMillis(), bucketMillis);
+            long usedMinor = ring.sumAmount(epoch, windowBuckets);
+            int usedCount = ring.sumCount(epoch, windowBuckets);
+
+            if (window.getMaxAmount() != null && usedMinor > window.getMaxAmount() * 100) {
+                ring.add(epoch, -minor, -1);
+                reject(source, window.getName());
+                throw new InvalidTransactionException(operation + " would exceed the " + window.getName() + " limit of "
+                        + window.getMaxAmount() + " INR for " + policy.getLabel() + " account.");
+            }
+            if (window.getMaxCount() != null && usedCount > window.getMaxCount()) {
+                ring.add(epoch, -minor, -1);
+                reject(source, window.getName());
+                throw new InvalidTransactionException(operation + " would exceed the " + window.getName() + " limit of "
+                        + window.getMaxCount() + " transactions for " + policy.getLabel() + " account.");
+            }
+            if ((window.getMaxAmount() != null && usedMinor >= properties.getNearLimitRatio() * window.getMaxAmount() * 100)
+                    || (window.getMaxCount() != null && usedCount >= properties.getNearLimitRatio() * window.getMaxCount())) {
+                nearLimit(source, window.getName());
+            }
+        }
+
+        Reservation reservation = new Reservation(ring, epoch, minor);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reservation.release();
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    /**
+     * Drops counters of accounts with no debit inside the longest window.
+     */
+    @Scheduled(fixedDelayString = "${transaction.limits.sweep-interval-ms:600000}")
+    public void evictIdle() {
+        long oldestLive = currentEpoch() - bucketCount;
+        rings.entrySet().removeIf(e -> e.getValue().lastEpoch() < oldestLive);
+    }
+
+    private Policy policyFor(AccountDto account) {
+        return account.getAccountType() != null ? properties.getPolicies().get(account.getAccountType()) : null;
+    }
+
+    private void reject(AccountDto account, String rule) {
+        Counter.builder("transaction.limits.rejections")
+                .tag("accountType", String.valueOf(account.getAccountType()))
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void nearLimit(AccountDto account, String rule) {
+        Counter.builder("transaction.limits.near")
+                .tag("accountType", String.valueOf(account.getAccountType()))
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private long epochOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / bucketMillis;
+    }
+
+    private static long toMinor(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0L;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return (x + y - 1) / y;
+    }
+
+    /**
+     * A debit counted by reserveDebit. release() is idempotent.
+     */
+    public static final class Reservation {
+
+        static final Reservation NONE = new Reservation(null, 0, 0);
+
+        private final DebitRing ring;
+        private final long epoch;
+        private final long minor;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(DebitRing ring, long epoch, long minor) {
+            this.ring = ring;
+            this.epoch = epoch;
+            this.minor = minor;
+        }
+
+        public void release() {
+            if (ring != null && released.compareAndSet(false, true)) {
+                ring.add(epoch, -minor, -1);
+            }
+        }
+    }
+
+    private record Bucket(long epoch, long amountMinor, int count) {}
+
+    /**
+     * Fixed ring of time buckets; slot = epoch mod size. A slot holding an older epoch is stale and is
+     * replaced on the next write. Buckets are immutable and swapped with CAS, so there are no locks.
+     */
+    private static final class DebitRing {
+
+        private final AtomicReferenceArray<Bucket> buckets;
+        private volatile long lastEpoch;
+
+        DebitRing(int size) {
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        void add(long epoch, long amountMinor, int count) {
+            int slot = (int) Math.floorMod(epoch, (long) buckets.length());
+            while (true) {
+                Bucket current = buckets.get(slot);
+                Bucket next;
+                if (current == null || current.epoch() < epoch) {
+                    if (count < 0) {
+                        return; // releasing into an expired bucket: nothing left to undo
+                    }
+                    next = new Bucket(epoch, amountMinor, count);
+                } else if (current.epoch() == epoch) {
+                    next = new Bucket(epoch, current.amountMinor() + amountMinor, current.count() + count);
+                } else {
+                    return; // slot already reused by a newer bucket; this epoch is out of every window
+                }
+                if (buckets.compareAndSet(slot, current, next)) {
+                    if (epoch > lastEpoch) {
+                        lastEpoch = epoch;
+                    }
+                    return;
+                }
+            }
+        }
+
+        long sumAmount(long epoch, int windowBuckets) {
+            long sum = 0;
+            for (int k = 0; k < windowBuckets; k++) {
+                Bucket b = buckets.get((int) Math.floorMod(epoch - k, (long) buckets.length()));
+                if (b != null && b.epoch() == epoch - k) {
+                    sum += b.amountMinor();
+                }
+            }
+            return sum;
+        }
+
+        int sumCount(long epoch, int windowBuckets) {
+            int sum = 0;
+            for (int k = 0; k < windowBuckets; k++) {
+                Bucket b = buckets.get((int) Math.floorMod(epoch - k, (long) buckets.length()));
+                if (b != null && b.epoch() == epoch - k) {
+                    sum += b.count();
+                }
+            }
+            return sum;
+        }
+
+        long lastEpoch() {
+            return lastEpoch;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.transaction.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Shared, thread-safe codec for Transaction.metadataJson.
+ * Replaces the per-call "new ObjectMapper()" in the transaction paths; ObjectMapper is expensive to
+ * build but safe to share once configured.
+ */
+@Component
+public class TransactionMetadataCodec {
+
+    private static final TypeReference<LinkedHashMap<String, String>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public TransactionMetadataCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serializes metadata to JSON. Returns null for empty input or if serialization fails,
+     * matching the previous best-effort behaviour (metadata never fails a transaction).
+     */
+    public String encode(Map<String, String> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses metadataJson back into a map; returns an empty map for null or malformed input.
+     */
+    public Map<String, String> decode(String json) {
+        if (json == null || json.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (Exception e) {
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Metadata for account-based operations: method=ACCOUNT plus plain and masked account numbers
+     * for whichever side is present.
+     */
+    public Map<String, String> accountMetadata(String fromAccountNumber, String toAccountNumber) {
+        Map<String, String> meta = new LinkedHashMap<>();
+        meta.put("method", "ACCOUNT");
+        if (fromAccountNumber != null) {
+            meta.put("fromAccountNumber", fromAccountNumber);
+            meta.put("fromAccountMasked", maskAccount(fromAccountNumber));
+        }
+        if (toAccountNumber != null) {
+            meta.put("toAccountNumber", toAccountNumber);
+            meta.put("toAccountMasked", maskAccount(toAccountNumber));
+        }
+        return meta;
+    }
+
+    // Mask an account number, showing only last 4 digits
+    public String maskAccount(String acc) {
+        if (acc == null) return null;
+        String digits = acc.replaceAll("\\s", "");
+        int n = digits.length();
+        if (n <= 4) return digits;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n - 4; i++) sb.append('•');
+        sb.append(digits.substring(n - 4));
+        return sb.toString();
+    }
+}
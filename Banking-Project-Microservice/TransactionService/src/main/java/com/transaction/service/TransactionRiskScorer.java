@@ -0,0 +1,338 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.exceptions.StepUpRequiredException;
+import com.transaction.model.TransactionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Behavioural risk score (0-100) for customer-initiated debits: transfers and debit-card withdrawals.
+ *
+ * Each account has a small profile of primitives: an EWMA of log(amount) and its variance, an EWMA of
+ * log(seconds between debits), the times of the last few debits, and a fixed set of 64-bit fingerprints
+ * of recent counterparties. Scoring reads one profile under its monitor and does a few dozen
+ * arithmetic operations, so it adds microseconds and never touches the DB. Signals:
+ * AMOUNT_SPIKE (amount far above the usual), NEW_COUNTERPARTY, RAPID_REPEAT (burst of debits) and
+ * UNUSUAL_FREQUENCY (much sooner than the usual gap). Profiles learn from committed debits only and
+ * are warmed from the Transaction table at startup. Like the limit counters they are per instance.
+ */
+@Component
+public class TransactionRiskScorer {
+
+    public enum Decision { ALLOW, FLAG, STEP_UP }
+
+    public record Assessment(int score, Decision decision, String signals) {}
+
+    private static final List<TransactionType> SCORED_TYPES = List.of(TransactionType.TRANSFER, TransactionType.WITHDRAW);
+    private static final int RECENT_SLOTS = 8;
+    // Floor on the log-amount variance so an account that always pays the same amount is not flagged for 2x
+    private static final double MIN_LOG_VARIANCE = 0.25;
+    private static final double AMOUNT_Z_THRESHOLD = 3.0;
+    private static final int AMOUNT_WEIGHT_MAX = 50;
+    private static final int NEW_COUNTERPARTY_WEIGHT = 25;
+    private static final int RAPID_REPEAT_WEIGHT_MAX = 40;
+    private static final int UNUSUAL_FREQUENCY_WEIGHT = 10;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentHashMap<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final Map<TransactionType, DistributionSummary> scores = new EnumMap<>(TransactionType.class);
+    private final Map<Decision, Counter> decisions = new EnumMap<>(Decision.class);
+
+    @Value("${transaction.risk.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.risk.flag-score:30}")
+    private int flagScore;
+
+    @Value("${transaction.risk.step-up-score:60}")
+    private int stepUpScore;
+
+    @Value("${transaction.risk.min-history:5}")
+    private int minHistory;
+
+    @Value("${transaction.risk.ewma-alpha:0.1}")
+    private double alpha;
+
+    @Value("${transaction.risk.burst-window-ms:60000}")
+    private long burstWindowMs;
+
+    @Value("${transaction.risk.burst-count:3}")
+    private int burstCount;
+
+    @Value("${transaction.risk.counterparty-slots:32}")
+    private int counterpartySlots;
+
+    @Value("${transaction.risk.history-days:30}")
+    private int historyDays;
+
+    public TransactionRiskScorer(TransactionRepository transactionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        for (TransactionType type : SCORED_TYPES) {
+            scores.put(type, DistributionSummary.builder("transaction.risk.score")
+                    .description("Risk score of scored debits (0-100)")
+                    .tag("type", type.name())
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(100.0)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (Decision decision : Decision.values()) {
+            decisions.put(decision, Counter.builder("transaction.risk.decisions")
+                    .tag("decision", decision.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("transaction.risk.tracked.accounts", profiles, ConcurrentHashMap::size)
+                .description("Accounts with a behavioural profile in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays the successful debits of the last history-days, oldest first.
+     */
+    @PostConstruct
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusDays(historyDays);
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<Object[]> rows = transactionRepository.streamRiskHistorySince(SCORED_TYPES, since)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    Double amount = (Double) row[2];
+                    if (amount != null) {
+                        learnNow((String) row[0], (String) row[1], amount, epochMillis((LocalDateTime) row[3]));
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        System.out.println("Transaction risk: warmed profiles from " + loaded + " debit(s) across " + profiles.size() + " account(s).");
+    }
+
+    /**
+     * Scores a debit against the paying account's profile. Accounts with less than min-history debits
+     * are only checked for bursts.
+     * @param counterpartyId The receiving account for transfers, null for withdrawals.
+     */
+    public Assessment assess(TransactionType type, String accountId, String counterpartyId, double amount) {
+        if (!enabled) {
+            return new Assessment(0, Decision.ALLOW, "");
+        }
+        int score = 0;
+        StringJoiner signals = new StringJoiner(",");
+        Profile profile = profiles.get(accountId);
+        if (profile != null) {
+            long now = System.currentTimeMillis();
+            synchronized (profile) {
+                boolean established = profile.samples >= minHistory;
+                if (established && amount > 0) {
+                    double z = (Math.log(amount) - profile.meanLogAmount)
+                            / Math.sqrt(Math.max(profile.varLogAmount, MIN_LOG_VARIANCE));
+                    if (z > AMOUNT_Z_THRESHOLD) {
+                        // 20 at the threshold, the maximum three standard deviations above it
+                        score += (int) Math.min(AMOUNT_WEIGHT_MAX, 20 + (z - AMOUNT_Z_THRESHOLD) * 10);
+                        signals.add("AMOUNT_SPIKE");
+                    }
+                }
+                if (established && counterpartyId != null && !profile.knowsCounterparty(fingerprint(counterpartyId))) {
+                    score += NEW_COUNTERPARTY_WEIGHT;
+                    signals.add("NEW_COUNTERPARTY");
+                }
+                // This debit plus the recent ones inside the burst window
+                int burst = profile.countSince(now - burstWindowMs) + 1;
+                if (burst >= burstCount) {
+                    score += Math.min(RAPID_REPEAT_WEIGHT_MAX, 15 + (burst - burstCount) * 10);
+                    signals.add("RAPID_REPEAT");
+                } else if (established && profile.gapSamples >= minHistory && profile.lastAtMillis > 0) {
+                    double logGap = Math.log(Math.max(1.0, (now - profile.lastAtMillis) / 1000.0));
+                    // Less than a twentieth of the usual gap
+                    if (logGap < profile.meanLogGap - Math.log(20)) {
+                        score += UNUSUAL_FREQUENCY_WEIGHT;
+                        signals.add("UNUSUAL_FREQUENCY");
+                    }
+                }
+            }
+        }
+        score = Math.min(100, score);
+        Decision decision = score >= stepUpScore ? Decision.STEP_UP : score >= flagScore ? Decision.FLAG : Decision.ALLOW;
+
+        DistributionSummary summary = scores.get(type);
+        if (summary != null) {
+            summary.record(score);
+        }
+        decisions.get(decision).increment();
+        return new Assessment(score, decision, signals.toString());
+    }
+
+    /**
+     * Adds a debit to the account's profile once the surrounding DB transaction commits
+     * (immediately when there is none), so rejected and rolled-back debits are not learned.
+     */
+    public void learn(String accountId, String counterpartyId, double amount) {
+        if (!enabled || accountId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    learnNow(accountId, counterpartyId, amount, System.currentTimeMillis());
+                }
+            });
+        } else {
+            learnNow(accountId, counterpartyId, amount, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Copies a flagged assessment into the transaction metadata.
+     * @return The OTP contextId the request must be verified against when a step-up is required, else null.
+     */
+    static String applyAssessment(Assessment risk, Map<String, String> meta, String accountId) {
+        if (risk.decision() == Decision.ALLOW) {
+            return null;
+        }
+        meta.put("riskScore", String.valueOf(risk.score()));
+        meta.put("riskDecision", risk.decision().name());
+        meta.put("riskSignals", risk.signals());
+        return risk.decision() == Decision.STEP_UP ? "STEP_UP:" + accountId : null;
+    }
+
+    static StepUpRequiredException stepUpRequired(String operation, String contextId) {
+        return new StepUpRequiredException("This " + operation + " needs additional verification. Generate an OTP with purpose "
+            + "WITHDRAWAL and contextId " + contextId + ", then retry with that code.", contextId);
+    }
+
+    /**
+     * Drops profiles with no debit inside the history window.
+     */
+    @Scheduled(fixedDelayString = "${transaction.risk.sweep-interval-ms:3600000}")
+    public void evictIdle() {
+        long oldestLive = System.currentTimeMillis() - historyDays * 86_400_000L;
+        profiles.values().removeIf(profile -> profile.lastAtMillis < oldestLive);
+    }
+
+    private void learnNow(String accountId, String counterpartyId, double amount, long atMillis) {
+        Profile profile = profiles.computeIfAbsent(accountId, id -> new Profile(counterpartySlots));
+        synchronized (profile) {
+            profile.add(amount, counterpartyId != null ? fingerprint(counterpartyId) : 0L, atMillis, alpha);
+        }
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // 64-bit FNV-1a; 0 is reserved for "no counterparty"
+    private static long fingerprint(String accountId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < accountId.length(); i++) {
+            hash ^= accountId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Rolling statistics of one account. Guarded by its own monitor.
+     */
+    private static final class Profile {
+
+        double meanLogAmount;
+        double varLogAmount;
+        double meanLogGap;
+        int samples;
+        int gapSamples;
+        long lastAtMillis;
+
+        final long[] recentAt = new long[RECENT_SLOTS];
+        int recentNext;
+
+        // Fingerprints of recent counterparties, oldest overwritten first
+        final long[] counterparties;
+        int counterpartyNext;
+        int counterpartyCount;
+
+        Profile(int counterpartySlots) {
+            this.counterparties = new long[counterpartySlots];
+        }
+
+        void add(double amount, long counterparty, long atMillis, double alpha) {
+            double x = Math.log(Math.max(amount, 0.01));
+            if (samples == 0) {
+                meanLogAmount = x;
+            } else {
+                double diff = x - meanLogAmount;
+                double increment = alpha * diff;
+                meanLogAmount += increment;
+                varLogAmount = (1 - alpha) * (varLogAmount + diff * increment);
+            }
+            samples++;
+
+            if (lastAtMillis > 0 && atMillis > lastAtMillis) {
+                double logGap = Math.log(Math.max(1.0, (atMillis - lastAtMillis) / 1000.0));
+                meanLogGap = gapSamples == 0 ? logGap : meanLogGap + alpha * (logGap - meanLogGap);
+                gapSamples++;
+            }
+            lastAtMillis = Math.max(lastAtMillis, atMillis);
+
+            recentAt[recentNext] = atMillis;
+            recentNext = (recentNext + 1) % recentAt.length;
+
+            if (counterparty != 0 && !knowsCounterparty(counterparty)) {
+                counterparties[counterpartyNext] = counterparty;
+                counterpartyNext = (counterpartyNext + 1) % counterparties.length;
+                counterpartyCount = Math.min(counterpartyCount + 1, counterparties.length);
+            }
+        }
+
+        boolean knowsCounterparty(long counterparty) {
+            for (int i = 0; i < counterpartyCount; i++) {
+                if (counterparties[i] == counterparty) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int countSince(long sinceMillis) {
+            int count = 0;
+            for (long at : recentAt) {
+                if (at > sinceMillis) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.transaction.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import com.transaction.dto.DepositRequest;
+import com.transaction.dto.TransactionHistoryPage;
 import com.transaction.dto.TransferRequest;
 import com.transaction.dto.WithdrawRequest;
 import com.transaction.dto.FineRequest;
@@ -11,7 +13,10 @@ import com.transaction.exceptions.AccountNotFoundException;
 import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
 import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.exceptions.TransferOutcomeUnknownException;
 import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
 import com.transaction.dto.InternalDebitRequest;
 import com.transaction.dto.DebitCardWithdrawRequest;
 
@@ -47,6 +52,17 @@ public interface TransactionService {
      */
     Transaction transfer(TransferRequest request);
 
+    /**
+     * Executes one occurrence of a standing instruction through the transfer path. No OTP is checked:
+     * the instruction was OTP-authorised when it was created. Recorded with reason STANDING_INSTRUCTION.
+     * @param request The transfer to make; otpCode is ignored.
+     * @param instructionId The standing instruction this occurrence belongs to.
+     * @param occurrence The occurrence number, recorded in the transaction metadata.
+     * @return The created Transaction entity.
+     * @throws TransferOutcomeUnknownException if Account Service may or may not have applied the transfer.
+     */
+    Transaction standingInstructionTransfer(TransferRequest request, String instructionId, int occurrence);
+
     /**
      * Records a fine transaction for an account (no OTP/KYC).
      * Used by Account Service to persist fines applied or recovered.
@@ -70,4 +86,21 @@ public interface TransactionService {
      * @return A list of transactions related to the account.
      */
     List<Transaction> getTransactionsByAccountId(String accountId);
+
+    /**
+     * Retrieves one keyset-paginated page of an account's history, newest first.
+     * All filters are optional (null means "any").
+     * @param accountId The account ID (matched as either fromAccountId or toAccountId).
+     * @param from Inclusive lower bound on transactionDate.
+     * @param to Inclusive upper bound on transactionDate.
+     * @param type Only transactions of this type.
+     * @param status Only transactions in this status.
+     * @param cursor Opaque cursor returned as nextCursor by the previous page, or null for the first page.
+     * @param limit Maximum number of rows to return (clamped to a server-side maximum).
+     * @return The page of transactions plus the cursor for the next page.
+     * @throws InvalidTransactionException if the cursor cannot be decoded.
+     */
+    TransactionHistoryPage getTransactionHistory(String accountId, LocalDateTime from, LocalDateTime to,
+                                                 TransactionType type, TransactionStatus status,
+                                                 String cursor, int limit);
 }
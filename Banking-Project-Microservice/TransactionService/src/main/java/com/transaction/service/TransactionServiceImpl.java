@@ -1,22 +1,27 @@
 package com.transaction.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
 import com.transaction.dao.TransactionRepository;
 import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferRequestDto;
+import com.transaction.dto.AccountTransferResponseDto;
 import com.transaction.dto.DepositRequest;
 import com.transaction.dto.DepositRequestDto;
-import com.transaction.dto.NotificationRequestDto;
+import com.transaction.dto.TransactionHistoryPage;
 import com.transaction.dto.TransferRequest; // Updated DTO
-import com.transaction.dto.UserDto;
 import com.transaction.dto.WithdrawRequest;
 import com.transaction.dto.WithdrawRequestDto;
 import com.transaction.dto.FineRequest;
@@ -24,35 +29,41 @@ import com.transaction.event.TransactionCompletedEvent;
 import com.transaction.exceptions.AccountNotFoundException;
 import com.transaction.exceptions.InsufficientFundsException;
 import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.PreCheckFailedException;
+import com.transaction.exceptions.StepUpRequiredException;
 import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.exceptions.TransferOutcomeUnknownException;
 import com.transaction.exceptions.UnauthorizedUserException;
 import com.transaction.model.Transaction;
 import com.transaction.model.TransactionStatus;
 import com.transaction.model.TransactionType;
 import com.transaction.proxyService.AccountServiceClient;
 import com.transaction.proxyService.LoanServiceClient;
-import com.transaction.proxyService.NotificationServiceClient;
 import com.transaction.proxyService.UserServiceClient;
 import com.transaction.proxyService.OtpServiceClient;
 import com.transaction.dto.OtpVerifyRequest;
 import com.transaction.dto.OtpVerifyResponse;
 import com.transaction.dto.InternalDebitRequest;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.transaction.dto.DebitCardWithdrawRequest;
 import com.transaction.dto.DebitCardValidationRequest;
 import com.transaction.dto.DebitCardValidationResponse;
 import com.transaction.proxyService.CreditCardServiceClient;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import static com.transaction.service.TransactionStageObserver.*;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+    private static final String STANDING_INSTRUCTION_REASON = "STANDING_INSTRUCTION";
+
     private final TransactionRepository transactionRepository;
     private final AccountServiceClient accountServiceClient;
     private final LoanServiceClient loanServiceClient;
-    private final KafkaTemplate<String, TransactionCompletedEvent> kafkaTemplate;
-    private final NotificationServiceClient notificationServiceClient;
+    private final TransactionEventOutbox transactionEventOutbox;
     private final UserServiceClient userServiceClient;
     
     @Autowired
@@ -61,32 +72,54 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     private CreditCardServiceClient creditCardServiceClient;
 
+    @Autowired
+    private RemotePreCheckExecutor preCheckExecutor;
+
+    @Autowired
+    private TransactionStateMachine stateMachine;
+
+    @Autowired
+    private TransactionMetadataCodec metadataCodec;
+
+    @Autowired
+    private KycVerifier kycVerifier;
+
+    @Autowired
+    private TransactionLimitEngine limitEngine;
+
+    @Autowired
+    private TransactionStageObserver stageObserver;
+
+    @Autowired
+    private AccountActivityAggregator activityAggregator;
+
+    @Autowired
+    private TransactionRiskScorer riskScorer;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Autowired
+    private AccountLedger ledger;
+
     @Autowired
     public TransactionServiceImpl(TransactionRepository transactionRepository,
                               AccountServiceClient accountServiceClient,
                               LoanServiceClient loanServiceClient,
-                              KafkaTemplate<String, TransactionCompletedEvent> kafkaTemplate,
-                              NotificationServiceClient notificationServiceClient,
+                              TransactionEventOutbox transactionEventOutbox,
                               UserServiceClient userServiceClient) {
         this.transactionRepository = transactionRepository;
         this.accountServiceClient = accountServiceClient;
         this.loanServiceClient = loanServiceClient;
-        this.kafkaTemplate = kafkaTemplate;
-        this.notificationServiceClient = notificationServiceClient;
+        this.transactionEventOutbox = transactionEventOutbox;
         this.userServiceClient = userServiceClient;
     }
 
     /**
      * Helper method for KYC check.
      */
-    private void checkKycStatus(String userId) {
-        UserDto userProfile = userServiceClient.getUserProfileById(userId);
-        if (userProfile == null) {
-            throw new UnauthorizedUserException("User profile not found for transaction. Cannot proceed.");
-        }
-        if (userProfile.getKycStatus() != UserDto.KycStatus.VERIFIED) {
-            throw new UnauthorizedUserException("Transaction denied: User KYC status is " + userProfile.getKycStatus() + ". Must be VERIFIED.");
-        }
+    private void checkKycStatus(TransactionType type, String userId) {
+        stageObserver.run(type, KYC_CHECK, USER_SERVICE, () -> kycVerifier.requireVerified(userId));
     }
 
     /**
@@ -95,52 +128,28 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction deposit(DepositRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setFromAccountId(null);
-        transaction.setToAccountId(request.getAccountId());
-        transaction.setAmount(request.getAmount());
-        transaction.setType(TransactionType.DEPOSIT);
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction = transactionRepository.save(transaction);
+        Transaction transaction = stateMachine.begin(TransactionType.DEPOSIT, request.getAmount(), null, request.getAccountId(), null, null);
 
         try {
-            AccountDto targetAccount = accountServiceClient.getAccountById(request.getAccountId());
+            AccountDto targetAccount = stageObserver.observe(TransactionType.DEPOSIT, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                () -> accountServiceClient.getAccountById(request.getAccountId()));
             if (targetAccount == null) {
                 throw new AccountNotFoundException("Target account not found with ID: " + request.getAccountId());
             }
             // Add metadata: account-based operation (deposit into target)
-            try {
-                java.util.Map<String, String> meta = new java.util.HashMap<>();
-                meta.put("method", "ACCOUNT");
-                if (targetAccount.getAccountNumber() != null) {
-                    meta.put("toAccountNumber", targetAccount.getAccountNumber());
-                    meta.put("toAccountMasked", maskAccount(targetAccount.getAccountNumber()));
-                }
-                transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta));
-            } catch (Exception ignore) {}
+            stateMachine.describe(transaction, metadataCodec.accountMetadata(null, targetAccount.getAccountNumber()));
 
-            checkKycStatus(targetAccount.getUserId());
+            checkKycStatus(TransactionType.DEPOSIT, targetAccount.getUserId());
 
-            // Enforce per-transaction limits and balance cap by account type
-            if (targetAccount.getAccountType() == AccountDto.AccountType.SAVINGS) {
-                if (request.getAmount() > 200000) {
-                    throw new InvalidTransactionException("Deposit exceeds maximum per-transaction limit of 200000 INR for SAVINGS account.");
-                }
-            } else if (targetAccount.getAccountType() == AccountDto.AccountType.SALARY_CORPORATE) {
-                if (request.getAmount() > 500000) {
-                    throw new InvalidTransactionException("Deposit exceeds maximum per-transaction limit of 500000 INR for SALARY/CORPORATE account.");
-                }
-                if (targetAccount.getBalance() + request.getAmount() > 10000000) {
-                    throw new InvalidTransactionException("Deposit would exceed the maximum balance cap of 10000000 INR for SALARY/CORPORATE account.");
-                }
-            }
+            // Enforce per-transaction limit and balance cap for the account type
+            stageObserver.run(TransactionType.DEPOSIT, LIMIT_EVALUATION, LOCAL,
+                () -> limitEngine.checkCredit(targetAccount, request.getAmount(), "Deposit", false));
 
             DepositRequestDto depositRequestDto = new DepositRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.depositFunds(request.getAccountId(), depositRequestDto);
+            AccountDto credited = stageObserver.observe(TransactionType.DEPOSIT, DEPOSIT_LEG, ACCOUNT_SERVICE,
+                () -> accountServiceClient.depositFunds(request.getAccountId(), depositRequestDto));
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction = transactionRepository.save(transaction);
+            transaction = stateMachine.succeed(transaction, null, AccountLedger.legOf(credited));
 
             String notificationMessage = "A deposit of " + request.getAmount() + " has been made to your account " + targetAccount.getAccountNumber() + ". Transaction ID: " + transaction.getTransactionId();
             publishTransactionCompletedEvent(
@@ -154,16 +163,13 @@ public class TransactionServiceImpl implements TransactionService {
             );
 
         } catch (HttpClientErrorException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Deposit failed due to Account Service error: " + e.getResponseBodyAsString(), e);
         } catch (AccountNotFoundException | UnauthorizedUserException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw e;
         } catch (Exception e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Deposit failed unexpectedly: " + e.getMessage(), e);
         }
         return transaction;
@@ -175,43 +181,22 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction withdraw(WithdrawRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setFromAccountId(request.getAccountId());
-        transaction.setToAccountId(null);
-        transaction.setAmount(request.getAmount());
-        transaction.setType(TransactionType.WITHDRAW);
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction = transactionRepository.save(transaction);
+        Transaction transaction = stateMachine.begin(TransactionType.WITHDRAW, request.getAmount(), request.getAccountId(), null, null, null);
 
         try {
-            AccountDto sourceAccount = accountServiceClient.getAccountById(request.getAccountId());
+            AccountDto sourceAccount = stageObserver.observe(TransactionType.WITHDRAW, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                () -> accountServiceClient.getAccountById(request.getAccountId()));
             if (sourceAccount == null) {
                 throw new AccountNotFoundException("Source account not found with ID: " + request.getAccountId());
             }
             // Add metadata: account-based operation (withdraw from source)
-            try {
-                java.util.Map<String, String> meta = new java.util.HashMap<>();
-                meta.put("method", "ACCOUNT");
-                if (sourceAccount.getAccountNumber() != null) {
-                    meta.put("fromAccountNumber", sourceAccount.getAccountNumber());
-                    meta.put("fromAccountMasked", maskAccount(sourceAccount.getAccountNumber()));
-                }
-                transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta));
-            } catch (Exception ignore) {}
+            stateMachine.describe(transaction, metadataCodec.accountMetadata(sourceAccount.getAccountNumber(), null));
 
-            checkKycStatus(sourceAccount.getUserId());
+            checkKycStatus(TransactionType.WITHDRAW, sourceAccount.getUserId());
 
-            // Enforce per-transaction limits by account type
-            if (sourceAccount.getAccountType() == AccountDto.AccountType.SAVINGS) {
-                if (request.getAmount() > 200000) {
-                    throw new InvalidTransactionException("Withdrawal exceeds maximum per-transaction limit of 200000 INR for SAVINGS account.");
-                }
-            } else if (sourceAccount.getAccountType() == AccountDto.AccountType.SALARY_CORPORATE) {
-                if (request.getAmount() > 500000) {
-                    throw new InvalidTransactionException("Withdrawal exceeds maximum per-transaction limit of 500000 INR for SALARY/CORPORATE account.");
-                }
-            }
+            // Per-transaction and rolling limits; the debit is counted now and released on rollback
+            stageObserver.observe(TransactionType.WITHDRAW, LIMIT_EVALUATION, LOCAL,
+                () -> limitEngine.reserveDebit(sourceAccount, request.getAmount(), "Withdrawal"));
 
             if (sourceAccount.getBalance() < request.getAmount()) {
                 throw new InsufficientFundsException("Insufficient funds in account: " + request.getAccountId());
@@ -224,18 +209,18 @@ public class TransactionServiceImpl implements TransactionService {
                 null,
                 request.getOtpCode()
             );
-            OtpVerifyResponse otpRes = otpServiceClient.verify(otpReq);
+            OtpVerifyResponse otpRes = stageObserver.observe(TransactionType.WITHDRAW, OTP_VERIFY, OTP_SERVICE,
+                () -> otpServiceClient.verify(otpReq));
             if (otpRes == null || !otpRes.isVerified()) {
-                transaction.setStatus(TransactionStatus.FAILED);
-                transactionRepository.save(transaction);
-                throw new TransactionProcessingException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+                stateMachine.fail(transaction);
+                throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
             }
 
             WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.withdrawFunds(request.getAccountId(), withdrawRequestDto);
+            AccountDto debited = stageObserver.observe(TransactionType.WITHDRAW, WITHDRAW_LEG, ACCOUNT_SERVICE,
+                () -> accountServiceClient.withdrawFunds(request.getAccountId(), withdrawRequestDto));
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction = transactionRepository.save(transaction);
+            transaction = stateMachine.succeed(transaction, AccountLedger.legOf(debited), null);
 
             String notificationMessage = "A withdrawal of " + request.getAmount() + " has been made from your account " + sourceAccount.getAccountNumber() + ". Transaction ID: " + transaction.getTransactionId();
             publishTransactionCompletedEvent(
@@ -249,16 +234,14 @@ public class TransactionServiceImpl implements TransactionService {
             );
 
         } catch (HttpClientErrorException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Withdrawal failed due to Account Service error: " + e.getResponseBodyAsString(), e);
-        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException | UnauthorizedUserException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException | UnauthorizedUserException
+                 | OtpVerificationFailedException e) {
+            stateMachine.fail(transaction);
             throw e;
         } catch (Exception e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Withdrawal failed unexpectedly: " + e.getMessage(), e);
         }
         return transaction;
@@ -271,107 +254,132 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction transfer(TransferRequest request) {
-        Transaction transaction = new Transaction();
-        // Set initial account IDs to null, they will be resolved
-        transaction.setFromAccountId(null);
-        transaction.setToAccountId(null);
-        transaction.setAmount(request.getAmount());
-        transaction.setType(TransactionType.TRANSFER);
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction = transactionRepository.save(transaction);
-
-        try {
-            // Resolve account numbers to account IDs
-            AccountDto sourceAccount = accountServiceClient.getAccountByAccountNumber(request.getFromAccountNumber());
-            AccountDto targetAccount = accountServiceClient.getAccountByAccountNumber(request.getToAccountNumber());
-
-            if (sourceAccount == null) {
-                throw new AccountNotFoundException("Source account not found with number: " + request.getFromAccountNumber());
-            }
-            if (targetAccount == null) {
-                throw new AccountNotFoundException("Target account not found with number: " + request.getToAccountNumber());
-            }
-
-            // Set resolved account IDs to the transaction entity
-            transaction.setFromAccountId(sourceAccount.getAccountId());
-            transaction.setToAccountId(targetAccount.getAccountId());
-            transaction = transactionRepository.save(transaction); // Save again with resolved IDs
+        return executeTransfer(request, true, null, null);
+    }
 
-            // Add metadata: account-based transfer (from -> to)
-            try {
-                java.util.Map<String, String> meta = new java.util.HashMap<>();
-                meta.put("method", "ACCOUNT");
-                if (sourceAccount.getAccountNumber() != null) {
-                    meta.put("fromAccountNumber", sourceAccount.getAccountNumber());
-                    meta.put("fromAccountMasked", maskAccount(sourceAccount.getAccountNumber()));
-                }
-                if (targetAccount.getAccountNumber() != null) {
-                    meta.put("toAccountNumber", targetAccount.getAccountNumber());
-                    meta.put("toAccountMasked", maskAccount(targetAccount.getAccountNumber()));
-                }
-                transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta));
-            } catch (Exception ignore) {}
+    /**
+     * Executes one occurrence of a standing instruction through the transfer path, without an OTP.
+     */
+    @Override
+    @Transactional
+    public Transaction standingInstructionTransfer(TransferRequest request, String instructionId, int occurrence) {
+        Map<String, String> meta = new LinkedHashMap<>();
+        meta.put("method", "STANDING_INSTRUCTION");
+        meta.put("instructionId", instructionId);
+        meta.put("occurrence", String.valueOf(occurrence));
+        return executeTransfer(request, false, STANDING_INSTRUCTION_REASON, meta);
+    }
 
-            // Perform KYC check for both source and target users
-            checkKycStatus(sourceAccount.getUserId());
-            checkKycStatus(targetAccount.getUserId());
+    /**
+     * Shared transfer path. The OTP is skipped only for transfers authorised up front (standing instructions);
+     * extraMetadata is merged over the account metadata.
+     */
+    private Transaction executeTransfer(TransferRequest request, boolean otpRequired, String reason, Map<String, String> extraMetadata) {
+        // Account IDs start null; they are resolved from the account numbers below
+        Transaction transaction = stateMachine.begin(TransactionType.TRANSFER, request.getAmount(), null, null, reason, null);
 
-            // Enforce per-transaction limits on source (withdraw side)
-            if (sourceAccount.getAccountType() == AccountDto.AccountType.SAVINGS) {
-                if (request.getAmount() > 200000) {
-                    throw new InvalidTransactionException("Transfer exceeds maximum per-transaction limit of 200000 INR for SAVINGS account.");
+        try {
+            // Resolve account numbers to account IDs (both lookups in parallel)
+            RemotePreCheckExecutor.Stage lookups = preCheckExecutor.newStage();
+            CompletableFuture<AccountDto> sourceLookup = lookups.call("source account lookup", () -> {
+                AccountDto account = stageObserver.observe(TransactionType.TRANSFER, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                    () -> accountServiceClient.getAccountByAccountNumber(request.getFromAccountNumber()));
+                if (account == null) {
+                    throw new AccountNotFoundException("Source account not found with number: " + request.getFromAccountNumber());
                 }
-            } else if (sourceAccount.getAccountType() == AccountDto.AccountType.SALARY_CORPORATE) {
-                if (request.getAmount() > 500000) {
-                    throw new InvalidTransactionException("Transfer exceeds maximum per-transaction limit of 500000 INR for SALARY/CORPORATE account.");
+                return account;
+            });
+            CompletableFuture<AccountDto> targetLookup = lookups.call("target account lookup", () -> {
+                AccountDto account = stageObserver.observe(TransactionType.TRANSFER, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                    () -> accountServiceClient.getAccountByAccountNumber(request.getToAccountNumber()));
+                if (account == null) {
+                    throw new AccountNotFoundException("Target account not found with number: " + request.getToAccountNumber());
                 }
+                return account;
+            });
+            lookups.await();
+            final AccountDto sourceAccount = sourceLookup.join();
+            final AccountDto targetAccount = targetLookup.join();
+
+            // Set resolved account IDs and metadata (account-based transfer, from -> to); written with the outcome
+            stateMachine.resolveAccounts(transaction, sourceAccount.getAccountId(), targetAccount.getAccountId());
+            Map<String, String> meta = metadataCodec.accountMetadata(sourceAccount.getAccountNumber(), targetAccount.getAccountNumber());
+            if (extraMetadata != null) {
+                meta.putAll(extraMetadata);
+            }
+            // Customer-initiated transfers are scored; a flagged score is kept in the metadata
+            String stepUpContext = null;
+            if (otpRequired) {
+                TransactionRiskScorer.Assessment risk = stageObserver.observe(TransactionType.TRANSFER, RISK_SCORING, LOCAL,
+                    () -> riskScorer.assess(TransactionType.TRANSFER, sourceAccount.getAccountId(), targetAccount.getAccountId(), request.getAmount()));
+                stepUpContext = TransactionRiskScorer.applyAssessment(risk, meta, sourceAccount.getAccountId());
             }
+            stateMachine.describe(transaction, meta);
 
-            // Enforce deposit-side limits on target and salary cap
-            if (targetAccount.getAccountType() == AccountDto.AccountType.SAVINGS) {
-                if (request.getAmount() > 200000) {
-                    throw new InvalidTransactionException("Transfer exceeds maximum per-transaction deposit limit of 200000 INR for target SAVINGS account.");
-                }
-            } else if (targetAccount.getAccountType() == AccountDto.AccountType.SALARY_CORPORATE) {
-                if (request.getAmount() > 500000) {
-                    throw new InvalidTransactionException("Transfer exceeds maximum per-transaction deposit limit of 500000 INR for target SALARY/CORPORATE account.");
-                }
-                if (targetAccount.getBalance() + request.getAmount() > 10000000) {
-                    throw new InvalidTransactionException("Transfer would exceed the maximum balance cap of 10000000 INR for target SALARY/CORPORATE account.");
-                }
+            if (sourceAccount.getAccountId().equals(targetAccount.getAccountId())) { // Compare resolved IDs
+                throw new InvalidTransactionException("Cannot transfer funds to the same account.");
             }
 
+            // Local checks run before any remote verification so a rejected transfer never consumes the OTP
+
+            stageObserver.run(TransactionType.TRANSFER, LIMIT_EVALUATION, LOCAL, () -> {
+                // Per-transaction and rolling limits on source (withdraw side); the debit is counted now and released on rollback
+                limitEngine.reserveDebit(sourceAccount, request.getAmount(), "Transfer");
+
+                // Enforce deposit-side limit on target and salary cap
+                limitEngine.checkCredit(targetAccount, request.getAmount(), "Transfer", true);
+            });
+
             if (sourceAccount.getBalance() < request.getAmount()) {
                 throw new InsufficientFundsException("Insufficient funds in source account: " + request.getFromAccountNumber());
             }
 
-            // OTP verification before proceeding
-            OtpVerifyRequest otpReq = new OtpVerifyRequest(
-                sourceAccount.getUserId(),
-                "WITHDRAWAL",
-                null,
-                request.getOtpCode()
-            );
-            OtpVerifyResponse otpRes = otpServiceClient.verify(otpReq);
-            if (otpRes == null || !otpRes.isVerified()) {
-                transaction.setStatus(TransactionStatus.FAILED);
-                transactionRepository.save(transaction);
-                throw new TransactionProcessingException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+            // KYC check for both source and target users and OTP verification, all in parallel
+            RemotePreCheckExecutor.Stage verifications = preCheckExecutor.newStage();
+            verifications.run("source KYC check", () -> checkKycStatus(TransactionType.TRANSFER, sourceAccount.getUserId()));
+            verifications.run("target KYC check", () -> checkKycStatus(TransactionType.TRANSFER, targetAccount.getUserId()));
+            CompletableFuture<OtpVerifyResponse> otpVerification = null;
+            if (otpRequired) {
+                OtpVerifyRequest otpReq = new OtpVerifyRequest(
+                    sourceAccount.getUserId(),
+                    "WITHDRAWAL",
+                    stepUpContext,
+                    request.getOtpCode()
+                );
+                otpVerification = verifications.call("OTP verification",
+                    () -> stageObserver.observe(TransactionType.TRANSFER, OTP_VERIFY, OTP_SERVICE, () -> otpServiceClient.verify(otpReq)));
             }
-
-            if (sourceAccount.getAccountId().equals(targetAccount.getAccountId())) { // Compare resolved IDs
-                throw new InvalidTransactionException("Cannot transfer funds to the same account.");
+            verifications.await();
+
+            if (otpVerification != null) {
+                OtpVerifyResponse otpRes = otpVerification.join();
+                if (otpRes == null || !otpRes.isVerified()) {
+                    stateMachine.fail(transaction);
+                    if (otpRes != null && stepUpContext != null) {
+                        throw TransactionRiskScorer.stepUpRequired("transfer", stepUpContext);
+                    }
+                    throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+                }
             }
 
-            WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.withdrawFunds(sourceAccount.getAccountId(), withdrawRequestDto); // Use resolved ID
-
-            DepositRequestDto depositRequestDto = new DepositRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.depositFunds(targetAccount.getAccountId(), depositRequestDto); // Use resolved ID
+            // Both legs in one call; Account Service debits and credits in a single local transaction
+            AccountTransferRequestDto transferRequestDto = new AccountTransferRequestDto(
+                transaction.getTransactionId(), sourceAccount.getAccountId(), targetAccount.getAccountId(), request.getAmount());
+            AccountTransferResponseDto transferred;
+            try {
+                transferred = stageObserver.observe(TransactionType.TRANSFER, TRANSFER_LEGS, ACCOUNT_SERVICE,
+                    () -> accountServiceClient.transferFunds(transferRequestDto));
+            } catch (RuntimeException e) {
+                if (AccountServiceFailures.isRejection(e)) {
+                    throw e;
+                }
+                throw new TransferOutcomeUnknownException("Transfer outcome unknown, Account Service did not confirm: "
+                    + AccountServiceFailures.rootMessage(e), e);
+            }
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction = transactionRepository.save(transaction);
+            transaction = stateMachine.succeed(transaction,
+                AccountLedger.fromLegOf(transferred), AccountLedger.toLegOf(transferred));
+            riskScorer.learn(sourceAccount.getAccountId(), targetAccount.getAccountId(), request.getAmount());
 
             String senderNotificationMessage = "A transfer of " + request.getAmount() + " has been made from your account " + sourceAccount.getAccountNumber() + " to " + targetAccount.getAccountNumber() + ". Transaction ID: " + transaction.getTransactionId();
             publishTransactionCompletedEvent(
@@ -396,16 +404,15 @@ public class TransactionServiceImpl implements TransactionService {
             );
 
         } catch (HttpClientErrorException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Transfer failed due to Account Service error: " + e.getResponseBodyAsString(), e);
-        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException | UnauthorizedUserException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException | UnauthorizedUserException
+                 | PreCheckFailedException | TransferOutcomeUnknownException | StepUpRequiredException
+                 | OtpVerificationFailedException e) {
+            stateMachine.fail(transaction);
             throw e;
         } catch (Exception e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Transfer failed unexpectedly: " + e.getMessage(), e);
         }
         return transaction;
@@ -416,7 +423,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public Optional<Transaction> getTransactionById(String transactionId) {
-        return transactionRepository.findById(transactionId);
+        return transactionArchive.findById(transactionId);
     }
 
     /**
@@ -425,7 +432,62 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     public List<Transaction> getTransactionsByAccountId(String accountId) {
         // Ensure latest transactions appear first
-        return transactionRepository.findByFromAccountIdOrToAccountIdOrderByTransactionDateDesc(accountId, accountId);
+        List<Transaction> hot = transactionRepository.findByFromAccountIdOrToAccountIdOrderByTransactionDateDesc(accountId, accountId);
+        return transactionArchive.completeAccountHistory(accountId, hot);
+    }
+
+    /**
+     * Retrieves one keyset-paginated page of an account's history.
+     * Fetches limit + 1 rows to learn whether another page exists without a COUNT query.
+     * Running balances of the page and the opening/closing balance of the date range come from the ledger.
+     */
+    @Override
+    public TransactionHistoryPage getTransactionHistory(String accountId, LocalDateTime from, LocalDateTime to,
+                                                        TransactionType type, TransactionStatus status,
+                                                        String cursor, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(limit, MAX_HISTORY_PAGE_SIZE);
+        LocalDateTime cursorDate = null;
+        String cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeHistoryCursor(cursor);
+            cursorDate = LocalDateTime.parse(position[0]);
+            cursorId = position[1];
+        }
+
+        // Older rows may have moved to the archive; merged in only when the page reaches them
+        List<Transaction> rows = transactionArchive.historyPage(
+            accountId, from, to, type, status, cursorDate, cursorId, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = items.get(items.size() - 1);
+            nextCursor = encodeHistoryCursor(last.getTransactionDate(), last.getTransactionId());
+        }
+        AccountLedger.Balances balances = ledger.periodBalances(accountId, from, to != null ? to : LocalDateTime.now());
+        return new TransactionHistoryPage(items, nextCursor, hasMore, ledger.runningBalances(accountId, items),
+            balances.opening(), balances.closing());
+    }
+
+    // Cursor = base64url("<transactionDate ISO>|<transactionId>"); opaque to clients
+    private String encodeHistoryCursor(LocalDateTime date, String transactionId) {
+        String raw = date + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeHistoryCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2 || parts[1].isBlank()) {
+                throw new IllegalArgumentException("malformed cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (Exception e) {
+            throw new InvalidTransactionException("Invalid history cursor: " + cursor);
+        }
     }
 
     @Override
@@ -438,9 +500,12 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setType(TransactionType.FINE);
         transaction.setStatus(TransactionStatus.SUCCESS);
         transaction.setTransactionDate(LocalDateTime.now());
+        stageObserver.timeCommit(TransactionType.FINE);
         transaction = transactionRepository.save(transaction);
+        activityAggregator.record(transaction);
         try {
-            AccountDto account = accountServiceClient.getAccountById(request.getAccountId());
+            AccountDto account = stageObserver.observe(TransactionType.FINE, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                () -> accountServiceClient.getAccountById(request.getAccountId()));
             String notificationMessage = (request.getMessage() != null && !request.getMessage().isBlank())
                 ? request.getMessage()
                 : ("A fine of INR " + request.getAmount() + " has been recorded for account " + (account != null ? account.getAccountNumber() : request.getAccountId()) + ". Transaction ID: " + transaction.getTransactionId());
@@ -465,52 +530,32 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction internalDebit(InternalDebitRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setFromAccountId(request.getAccountId());
-        transaction.setToAccountId(null);
-        transaction.setAmount(request.getAmount());
-        transaction.setType(TransactionType.INTERNAL_DEBIT);
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction.setReason(request.getReason());
-        try {
-            if (request.getMetadata() != null) {
-                transaction.setMetadataJson(new ObjectMapper().writeValueAsString(request.getMetadata()));
-            }
-        } catch (Exception e) {
-            transaction.setMetadataJson(null);
-        }
-        transaction = transactionRepository.save(transaction);
+        Transaction transaction = stateMachine.begin(TransactionType.INTERNAL_DEBIT, request.getAmount(), request.getAccountId(), null,
+                request.getReason(), request.getMetadata());
 
         try {
-            AccountDto account = accountServiceClient.getAccountById(request.getAccountId());
+            AccountDto account = stageObserver.observe(TransactionType.INTERNAL_DEBIT, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                () -> accountServiceClient.getAccountById(request.getAccountId()));
             if (account == null) {
                 throw new AccountNotFoundException("Account not found with ID: " + request.getAccountId());
             }
             // Ensure metadata for account-based internal debit if not provided
             if (transaction.getMetadataJson() == null || transaction.getMetadataJson().isBlank()) {
-                try {
-                    java.util.Map<String, String> meta = new java.util.HashMap<>();
-                    meta.put("method", "ACCOUNT");
-                    if (account.getAccountNumber() != null) {
-                        meta.put("fromAccountNumber", account.getAccountNumber());
-                        meta.put("fromAccountMasked", maskAccount(account.getAccountNumber()));
-                    }
-                    if (request.getReason() != null) {
-                        meta.put("reason", request.getReason());
-                    }
-                    transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta));
-                } catch (Exception ignore) {}
+                java.util.Map<String, String> meta = metadataCodec.accountMetadata(account.getAccountNumber(), null);
+                if (request.getReason() != null) {
+                    meta.put("reason", request.getReason());
+                }
+                stateMachine.describe(transaction, meta);
             }
             if (account.getBalance() < request.getAmount()) {
                 throw new InsufficientFundsException("Insufficient funds in account: " + request.getAccountId());
             }
 
             WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.withdrawFunds(request.getAccountId(), withdrawRequestDto);
+            AccountDto debited = stageObserver.observe(TransactionType.INTERNAL_DEBIT, WITHDRAW_LEG, ACCOUNT_SERVICE,
+                () -> accountServiceClient.withdrawFunds(request.getAccountId(), withdrawRequestDto));
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction = transactionRepository.save(transaction);
+            transaction = stateMachine.succeed(transaction, AccountLedger.legOf(debited), null);
 
             String brand = request.getMetadata() != null ? request.getMetadata().get("brand") : null;
             String cardType = request.getMetadata() != null ? request.getMetadata().get("type") : null;
@@ -532,16 +577,13 @@ public class TransactionServiceImpl implements TransactionService {
             );
 
         } catch (HttpClientErrorException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Internal debit failed due to Account Service error: " + e.getResponseBodyAsString(), e);
         } catch (AccountNotFoundException | InsufficientFundsException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw e;
         } catch (Exception e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Internal debit failed unexpectedly: " + e.getMessage(), e);
         }
         return transaction;
@@ -550,60 +592,38 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional
     public Transaction debitCardWithdraw(DebitCardWithdrawRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setFromAccountId(null);
-        transaction.setToAccountId(null);
-        transaction.setAmount(request.getAmount());
-        transaction.setType(TransactionType.WITHDRAW);
-        transaction.setStatus(TransactionStatus.PENDING);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction.setReason("DEBIT_CARD_WITHDRAW");
-        try {
-            java.util.Map<String, String> meta = new java.util.HashMap<>();
-            meta.put("method", "DEBIT_CARD");
-            transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta));
-        } catch (Exception e) {
-            transaction.setMetadataJson(null);
-        }
-        transaction = transactionRepository.save(transaction);
+        Transaction transaction = stateMachine.begin(TransactionType.WITHDRAW, request.getAmount(), null, null,
+                "DEBIT_CARD_WITHDRAW", java.util.Map.of("method", "DEBIT_CARD"));
 
         try {
             // Validate card with CreditCardService
-            DebitCardValidationResponse validation = creditCardServiceClient.validateDebitTransaction(
-                new DebitCardValidationRequest(request.getCardNumber(), request.getCvv())
-            );
+            DebitCardValidationResponse validation = stageObserver.observe(TransactionType.WITHDRAW, CARD_VALIDATION, CREDIT_CARD_SERVICE,
+                () -> creditCardServiceClient.validateDebitTransaction(new DebitCardValidationRequest(request.getCardNumber(), request.getCvv())));
             if (validation == null || !validation.isValid()) {
-                transaction.setStatus(TransactionStatus.FAILED);
-                transactionRepository.save(transaction);
+                stateMachine.fail(transaction);
                 throw new TransactionProcessingException("Debit card validation failed: " + (validation != null ? validation.getMessage() : "no response"));
             }
 
-            // Update transaction with resolved account and metadata
-            transaction.setFromAccountId(validation.getAccountId());
-            try {
-                java.util.Map<String, String> meta2 = new java.util.HashMap<>();
-                meta2.put("method", "DEBIT_CARD");
-                if (validation.getBrand() != null) meta2.put("brand", validation.getBrand());
-                if (validation.getMaskedPan() != null) meta2.put("panMasked", validation.getMaskedPan());
-                transaction.setMetadataJson(new ObjectMapper().writeValueAsString(meta2));
-            } catch (Exception ignore) {}
-            transaction = transactionRepository.save(transaction);
-
-            AccountDto sourceAccount = accountServiceClient.getAccountById(validation.getAccountId());
+            // Update transaction with resolved account and metadata (in memory; written with the outcome)
+            stateMachine.resolveAccounts(transaction, validation.getAccountId(), null);
+            java.util.Map<String, String> meta = new java.util.LinkedHashMap<>();
+            meta.put("method", "DEBIT_CARD");
+            if (validation.getBrand() != null) meta.put("brand", validation.getBrand());
+            if (validation.getMaskedPan() != null) meta.put("panMasked", validation.getMaskedPan());
+            TransactionRiskScorer.Assessment risk = stageObserver.observe(TransactionType.WITHDRAW, RISK_SCORING, LOCAL,
+                () -> riskScorer.assess(TransactionType.WITHDRAW, validation.getAccountId(), null, request.getAmount()));
+            String stepUpContext = TransactionRiskScorer.applyAssessment(risk, meta, validation.getAccountId());
+            stateMachine.describe(transaction, meta);
+
+            AccountDto sourceAccount = stageObserver.observe(TransactionType.WITHDRAW, ACCOUNT_RESOLUTION, ACCOUNT_SERVICE,
+                () -> accountServiceClient.getAccountById(validation.getAccountId()));
             if (sourceAccount == null) {
                 throw new AccountNotFoundException("Source account not found: " + validation.getAccountId());
             }
 
-            // Enforce per-transaction limits by account type
-            if (sourceAccount.getAccountType() == AccountDto.AccountType.SAVINGS) {
-                if (request.getAmount() > 200000) {
-                    throw new InvalidTransactionException("Withdrawal exceeds maximum per-transaction limit of 200000 INR for SAVINGS account.");
-                }
-            } else if (sourceAccount.getAccountType() == AccountDto.AccountType.SALARY_CORPORATE) {
-                if (request.getAmount() > 500000) {
-                    throw new InvalidTransactionException("Withdrawal exceeds maximum per-transaction limit of 500000 INR for SALARY/CORPORATE account.");
-                }
-            }
+            // Per-transaction and rolling limits; the debit is counted now and released on rollback
+            stageObserver.observe(TransactionType.WITHDRAW, LIMIT_EVALUATION, LOCAL,
+                () -> limitEngine.reserveDebit(sourceAccount, request.getAmount(), "Withdrawal"));
 
             if (sourceAccount.getBalance() < request.getAmount()) {
                 throw new InsufficientFundsException("Insufficient funds in account: " + validation.getAccountId());
@@ -613,21 +633,25 @@ public class TransactionServiceImpl implements TransactionService {
             OtpVerifyRequest otpReq = new OtpVerifyRequest(
                 validation.getUserId(),
                 "WITHDRAWAL",
-                null,
+                stepUpContext,
                 request.getOtpCode()
             );
-            OtpVerifyResponse otpRes = otpServiceClient.verify(otpReq);
+            OtpVerifyResponse otpRes = stageObserver.observe(TransactionType.WITHDRAW, OTP_VERIFY, OTP_SERVICE,
+                () -> otpServiceClient.verify(otpReq));
             if (otpRes == null || !otpRes.isVerified()) {
-                transaction.setStatus(TransactionStatus.FAILED);
-                transactionRepository.save(transaction);
-                throw new TransactionProcessingException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+                stateMachine.fail(transaction);
+                if (otpRes != null && stepUpContext != null) {
+                    throw TransactionRiskScorer.stepUpRequired("debit-card withdrawal", stepUpContext);
+                }
+                throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
             }
 
             WithdrawRequestDto withdrawRequestDto = new WithdrawRequestDto(transaction.getTransactionId(), request.getAmount());
-            accountServiceClient.withdrawFunds(validation.getAccountId(), withdrawRequestDto);
+            AccountDto debited = stageObserver.observe(TransactionType.WITHDRAW, WITHDRAW_LEG, ACCOUNT_SERVICE,
+                () -> accountServiceClient.withdrawFunds(validation.getAccountId(), withdrawRequestDto));
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction = transactionRepository.save(transaction);
+            transaction = stateMachine.succeed(transaction, AccountLedger.legOf(debited), null);
+            riskScorer.learn(validation.getAccountId(), null, request.getAmount());
 
             String brand = validation.getBrand();
             String maskedPan = validation.getMaskedPan();
@@ -659,35 +683,24 @@ public class TransactionServiceImpl implements TransactionService {
             );
 
         } catch (HttpClientErrorException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Debit-card withdrawal failed due to Account Service error: " + e.getResponseBodyAsString(), e);
-        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+        } catch (AccountNotFoundException | InsufficientFundsException | InvalidTransactionException | StepUpRequiredException
+                 | OtpVerificationFailedException e) {
+            stateMachine.fail(transaction);
             throw e;
         } catch (Exception e) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            stateMachine.fail(transaction);
             throw new TransactionProcessingException("Debit-card withdrawal failed unexpectedly: " + e.getMessage(), e);
         }
 
         return transaction;
     }
 
-    // Helper to mask an account number, showing only last 4 digits
-    private String maskAccount(String acc) {
-        if (acc == null) return null;
-        String digits = acc.replaceAll("\\s", "");
-        int n = digits.length();
-        if (n <= 4) return digits;
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < n - 4; i++) sb.append('•');
-        sb.append(digits.substring(n - 4));
-        return sb.toString();
-    }
-
-    @CircuitBreaker(name = "kafkaNotificationPublisher", fallbackMethod = "publishTransactionCompletedEventFallback")
+    /**
+     * Records a TransactionCompletedEvent in the outbox as part of the current DB transaction.
+     * OutboxRelay publishes it to Kafka after commit, so a slow broker never stalls the money path.
+     */
     private void publishTransactionCompletedEvent(String transactionId, String userId, String accountId, Double amount, String type, String status, String notificationMessage) {
         TransactionCompletedEvent event = new TransactionCompletedEvent(
             transactionId,
@@ -698,20 +711,8 @@ public class TransactionServiceImpl implements TransactionService {
             status,
             notificationMessage
         );
-        kafkaTemplate.send("transaction-events", event);
-        System.out.println("Published transaction event to Kafka: " + event.getTransactionId());
-    }
-
-    private void publishTransactionCompletedEventFallback(String transactionId, String userId, String accountId, Double amount, String type, String status, String notificationMessage, Throwable t) {
-        System.err.println("Fallback triggered for Kafka publishing for transaction " + transactionId + " due to: " + t.getMessage());
-        System.err.println("Attempting to send notification directly via Notification Service Feign client.");
-
-        try {
-            NotificationRequestDto notificationRequest = new NotificationRequestDto(userId, NotificationRequestDto.NotificationType.EMAIL, "Fallback: " + notificationMessage);
-            notificationServiceClient.sendEmailNotification(notificationRequest);
-            System.out.println("Notification sent directly via Feign client for transaction: " + transactionId);
-        } catch (Exception feignException) {
-            System.err.println("Failed to send notification directly via Feign client for transaction " + transactionId + ": " + feignException.getMessage());
-        }
+        // Keyed by the recipient so all of one user's alerts share a partition and stay in order
+        stageObserver.run(TransactionType.valueOf(type), EVENT_RECORD, DATABASE,
+            () -> transactionEventOutbox.record(TRANSACTION_EVENTS_TOPIC, userId != null ? userId : accountId, event));
     }
 }
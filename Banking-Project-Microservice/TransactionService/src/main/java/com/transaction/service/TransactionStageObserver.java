@@ -0,0 +1,128 @@
+package com.transaction.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.transaction.model.TransactionType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Times the stages of the money paths as "transaction.stage" observations, tagged with the
+ * transaction type, stage, downstream dependency and outcome. Each observation becomes a timer
+ * (with histogram, see application.yaml) and a child span of the current trace, so a slow
+ * transfer shows which stage it spent its time in.
+ */
+@Component
+public class TransactionStageObserver {
+
+    public static final String METRIC = "transaction.stage";
+
+    // Stages
+    public static final String ACCOUNT_RESOLUTION = "account-resolution";
+    public static final String CARD_VALIDATION = "card-validation";
+    public static final String KYC_CHECK = "kyc-check";
+    public static final String LIMIT_EVALUATION = "limit-evaluation";
+    public static final String RISK_SCORING = "risk-scoring";
+    public static final String OTP_VERIFY = "otp-verify";
+    public static final String WITHDRAW_LEG = "withdraw-leg";
+    public static final String DEPOSIT_LEG = "deposit-leg";
+    public static final String TRANSFER_LEGS = "transfer-legs";
+    public static final String PERSIST_INTENT = "persist-intent";
+    public static final String EVENT_RECORD = "event-record";
+    public static final String COMMIT = "commit";
+    public static final String KAFKA_PUBLISH = "kafka-publish";
+
+    // Downstream dependencies
+    public static final String ACCOUNT_SERVICE = "account-service";
+    public static final String USER_SERVICE = "user-service";
+    public static final String OTP_SERVICE = "otp-service";
+    public static final String CREDIT_CARD_SERVICE = "credit-card-service";
+    public static final String DATABASE = "database";
+    public static final String KAFKA = "kafka";
+    public static final String LOCAL = "none";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public TransactionStageObserver(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T observe(TransactionType type, String stage, String downstream, Supplier<T> work) {
+        Observation observation = Observation.createNotStarted(METRIC, observationRegistry)
+                .contextualName(type.name().toLowerCase() + " " + stage)
+                .lowCardinalityKeyValue("type", type.name())
+                .lowCardinalityKeyValue("stage", stage)
+                .lowCardinalityKeyValue("downstream", downstream)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = work.get();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "failure");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    public void run(TransactionType type, String stage, String downstream, Runnable work) {
+        observe(type, stage, downstream, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times the commit of the surrounding DB transaction: the deferred outcome UPDATE, the outbox
+     * INSERT and the commit itself. A no-op outside a transaction.
+     */
+    public void timeCommit(TransactionType type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long startedAt;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                startedAt = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (startedAt == 0) {
+                    return; // rolled back before the commit started
+                }
+                record(type.name(), COMMIT, DATABASE, Duration.ofNanos(System.nanoTime() - startedAt),
+                        status == STATUS_COMMITTED ? null : "RollbackOnCommit");
+            }
+        });
+    }
+
+    /**
+     * Records a stage measured outside an observation (e.g. an asynchronous Kafka acknowledgement),
+     * with the same tags the observation handler produces so both land in one metric.
+     */
+    public void record(String type, String stage, String downstream, Duration duration, String error) {
+        Timer.builder(METRIC)
+                .tag("type", type != null ? type : "UNKNOWN")
+                .tag("stage", stage)
+                .tag("downstream", downstream)
+                .tag("outcome", error == null ? "success" : "failure")
+                .tag("error", error == null ? "none" : error)
+                .register(meterRegistry)
+                .record(duration);
+    }
+}
@@ -0,0 +1,116 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+
+/**
+ * Explicit lifecycle for money-movement transactions: PENDING -> SUCCESS | FAILED.
+ *
+ * Only two writes reach the database per transaction: the PENDING intent (flushed once by begin,
+ * which also assigns the transactionId sent to AccountService) and the final outcome. Everything
+ * learned in between (resolved account IDs, metadata) is applied to the managed entity in memory
+ * and goes out with the final UPDATE. Callers must run inside a transaction.
+ */
+@Component
+public class TransactionStateMachine {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMetadataCodec metadataCodec;
+    private final TransactionStageObserver stageObserver;
+    private final AccountActivityAggregator activityAggregator;
+    private final AccountLedger ledger;
+
+    public TransactionStateMachine(TransactionRepository transactionRepository, TransactionMetadataCodec metadataCodec,
+                                   TransactionStageObserver stageObserver, AccountActivityAggregator activityAggregator,
+                                   AccountLedger ledger) {
+        this.transactionRepository = transactionRepository;
+        this.metadataCodec = metadataCodec;
+        this.stageObserver = stageObserver;
+        this.activityAggregator = activityAggregator;
+        this.ledger = ledger;
+    }
+
+    /**
+     * Persists the PENDING intent. This is the only INSERT for the transaction.
+     */
+    public Transaction begin(TransactionType type, Double amount, String fromAccountId, String toAccountId,
+                             String reason, Map<String, String> metadata) {
+        Transaction transaction = new Transaction();
+        transaction.setFromAccountId(fromAccountId);
+        transaction.setToAccountId(toAccountId);
+        transaction.setAmount(amount);
+        transaction.setType(type);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setReason(reason);
+        transaction.setMetadataJson(metadataCodec.encode(metadata));
+        // The outcome UPDATE is deferred to commit, so that is what the commit stage measures
+        stageObserver.timeCommit(type);
+        return stageObserver.observe(type, TransactionStageObserver.PERSIST_INTENT, TransactionStageObserver.DATABASE,
+                () -> transactionRepository.saveAndFlush(transaction));
+    }
+
+    /**
+     * Records the resolved account IDs in memory; persisted with the final outcome.
+     */
+    public void resolveAccounts(Transaction transaction, String fromAccountId, String toAccountId) {
+        requirePending(transaction);
+        transaction.setFromAccountId(fromAccountId);
+        transaction.setToAccountId(toAccountId);
+    }
+
+    /**
+     * Replaces the metadata in memory; persisted with the final outcome.
+     */
+    public void describe(Transaction transaction, Map<String, String> metadata) {
+        requirePending(transaction);
+        String json = metadataCodec.encode(metadata);
+        if (json != null) {
+            transaction.setMetadataJson(json);
+        }
+    }
+
+    /**
+     * PENDING -> SUCCESS. Written once, together with the analytics deltas and the ledger entries for
+     * the transaction. The legs are what AccountService returned for the from/to account after applying
+     * the movement; a null leg (or balance) leaves that leg out of the ledger.
+     */
+    public Transaction succeed(Transaction transaction, AccountLedger.Leg fromLeg, AccountLedger.Leg toLeg) {
+        requirePending(transaction);
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        activityAggregator.record(transaction);
+        ledger.record(transaction, fromLeg, toLeg);
+        return transactionRepository.save(transaction);
+    }
+
+    /**
+     * Any state -> FAILED. Idempotent, so error paths can call it without tracking whether an
+     * earlier branch already did. A failure after SUCCESS (e.g., the event could not be recorded)
+     * downgrades the outcome; the surrounding rollback discards it in that case anyway.
+     */
+    public void fail(Transaction transaction) {
+        if (transaction == null || transaction.getStatus() == TransactionStatus.FAILED) {
+            return;
+        }
+        if (transaction.getStatus() == TransactionStatus.SUCCESS) {
+            activityAggregator.retract(transaction);
+            ledger.retract(transaction);
+        }
+        transaction.setStatus(TransactionStatus.FAILED);
+        transactionRepository.save(transaction);
+    }
+
+    private void requirePending(Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            throw new IllegalStateException("Transaction " + transaction.getTransactionId()
+                    + " is " + transaction.getStatus() + ", expected PENDING");
+        }
+    }
+}
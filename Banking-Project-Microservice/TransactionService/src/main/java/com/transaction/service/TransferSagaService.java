@@ -0,0 +1,33 @@
+package com.transaction.service;
+
+import java.util.Optional;
+
+import com.transaction.dto.TransferRequest;
+import com.transaction.dto.TransferSagaResponse;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.UnauthorizedUserException;
+
+public interface TransferSagaService {
+
+    /**
+     * Validates and authorises a transfer on the calling thread (accounts, per-transaction limits,
+     * balance, KYC, OTP), records it as PENDING and hands the money movement to the saga workers.
+     * @param request The same body as the synchronous transfer.
+     * @return The accepted saga (step ACCEPTED) carrying the transaction ID to poll.
+     * @throws AccountNotFoundException if either account does not exist.
+     * @throws InvalidTransactionException if both accounts are the same or a limit is exceeded.
+     * @throws InsufficientFundsException if the source balance is too low.
+     * @throws UnauthorizedUserException if either user's KYC is not VERIFIED.
+     * @throws OtpVerificationFailedException if OTP verification fails.
+     */
+    TransferSagaResponse submit(TransferRequest request);
+
+    /**
+     * @param transactionId The transaction ID returned by submit.
+     * @return The saga, or empty if it does not exist.
+     */
+    Optional<TransferSagaResponse> getSaga(String transactionId);
+}
@@ -0,0 +1,492 @@
+package com.transaction.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dao.TransactionRepository;
+import com.transaction.dao.TransferSagaRepository;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferRequestDto;
+import com.transaction.dto.AccountTransferResponseDto;
+import com.transaction.dto.OtpVerifyRequest;
+import com.transaction.dto.OtpVerifyResponse;
+import com.transaction.dto.TransferRequest;
+import com.transaction.dto.TransferSagaResponse;
+import com.transaction.event.TransactionCompletedEvent;
+import com.transaction.exceptions.AccountNotFoundException;
+import com.transaction.exceptions.InsufficientFundsException;
+import com.transaction.exceptions.InvalidTransactionException;
+import com.transaction.exceptions.OtpVerificationFailedException;
+import com.transaction.exceptions.TransactionProcessingException;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionStatus;
+import com.transaction.model.TransactionType;
+import com.transaction.model.TransferSaga;
+import com.transaction.model.TransferSagaStep;
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.proxyService.OtpServiceClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous transfers. The request thread only validates and authorises (no DB transaction is
+ * held across those remote calls), then records the PENDING Transaction and its TransferSaga in one
+ * local commit and returns 202. A bounded worker pool drives the money movement:
+ *
+ *   reserve rolling limits -> TRANSFERRING -> Account Service transfer (both legs, atomic) -> TRANSFERRED
+ *   -> SUCCESS + notifications in one commit -> COMPLETED
+ *
+ * A rejection by Account Service leaves no money moved and ends in FAILED. If completion keeps failing
+ * after the money moved, the transfer is reversed (COMPENSATED). Account Service applies each
+ * transactionId once, so a transfer call whose outcome is unknown (timeout, 5xx, or a restart mid-call)
+ * stays TRANSFERRING and is sent again by the poll with backoff; only after transfer-attempts calls
+ * does it end in IN_DOUBT for manual review. An interrupted reversal still ends in IN_DOUBT.
+ * Sagas that do not fit the queue, or were interrupted, are picked up by the poll.
+ */
+@Service
+public class TransferSagaServiceImpl implements TransferSagaService {
+
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+    private static final List<TransferSagaStep> RUNNABLE =
+            List.of(TransferSagaStep.ACCEPTED, TransferSagaStep.TRANSFERRING, TransferSagaStep.TRANSFERRED);
+    private static final List<TransferSagaStep> INTERRUPTED = List.of(TransferSagaStep.COMPENSATING);
+
+    private final TransferSagaRepository sagaRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final OtpServiceClient otpServiceClient;
+    private final KycVerifier kycVerifier;
+    private final RemotePreCheckExecutor preCheckExecutor;
+    private final TransactionStateMachine stateMachine;
+    private final TransactionMetadataCodec metadataCodec;
+    private final TransactionEventOutbox transactionEventOutbox;
+    private final TransactionLimitEngine limitEngine;
+    private final TransactionStageObserver stageObserver;
+    private final TransactionRiskScorer riskScorer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+
+    @Value("${transaction.saga.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${transaction.saga.complete-attempts:3}")
+    private int completeAttempts;
+
+    @Value("${transaction.saga.transfer-attempts:5}")
+    private int transferAttempts;
+
+    @Value("${transaction.saga.transfer-backoff-ms:30000}")
+    private long transferBackoffMs;
+
+    @Value("${transaction.saga.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    public TransferSagaServiceImpl(TransferSagaRepository sagaRepository,
+                                   TransactionRepository transactionRepository,
+                                   AccountServiceClient accountServiceClient,
+                                   OtpServiceClient otpServiceClient,
+                                   KycVerifier kycVerifier,
+                                   RemotePreCheckExecutor preCheckExecutor,
+                                   TransactionStateMachine stateMachine,
+                                   TransactionMetadataCodec metadataCodec,
+                                   TransactionEventOutbox transactionEventOutbox,
+                                   TransactionLimitEngine limitEngine,
+                                   TransactionStageObserver stageObserver,
+                                   TransactionRiskScorer riskScorer,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${transaction.saga.workers:4}") int workerCount,
+                                   @Value("${transaction.saga.queue-capacity:500}") int queueCapacity) {
+        this.sagaRepository = sagaRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.otpServiceClient = otpServiceClient;
+        this.kycVerifier = kycVerifier;
+        this.preCheckExecutor = preCheckExecutor;
+        this.stateMachine = stateMachine;
+        this.metadataCodec = metadataCodec;
+        this.transactionEventOutbox = transactionEventOutbox;
+        this.limitEngine = limitEngine;
+        this.stageObserver = stageObserver;
+        this.riskScorer = riskScorer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "transfer-saga-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        meterRegistry.gauge("transaction.saga.queue", workers.getQueue(), java.util.Queue::size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Override
+    public TransferSagaResponse submit(TransferRequest request) {
+        RemotePreCheckExecutor.Stage lookups = preCheckExecutor.newStage();
+        CompletableFuture<AccountDto> sourceLookup = lookups.call("source account lookup", () -> {
+            AccountDto account = accountServiceClient.getAccountByAccountNumber(request.getFromAccountNumber());
+            if (account == null) {
+                throw new AccountNotFoundException("Source account not found with number: " + request.getFromAccountNumber());
+            }
+            return account;
+        });
+        CompletableFuture<AccountDto> targetLookup = lookups.call("target account lookup", () -> {
+            AccountDto account = accountServiceClient.getAccountByAccountNumber(request.getToAccountNumber());
+            if (account == null) {
+                throw new AccountNotFoundException("Target account not found with number: " + request.getToAccountNumber());
+            }
+            return account;
+        });
+        lookups.await();
+        final AccountDto source = sourceLookup.join();
+        final AccountDto target = targetLookup.join();
+
+        if (source.getAccountId().equals(target.getAccountId())) {
+            throw new InvalidTransactionException("Cannot transfer funds to the same account.");
+        }
+        // Rolling windows are reserved by the worker; the static caps are checked before the OTP is consumed
+        limitEngine.checkPerTransaction(source, request.getAmount(), "Transfer", false);
+        limitEngine.checkCredit(target, request.getAmount(), "Transfer", true);
+        if (source.getBalance() < request.getAmount()) {
+            throw new InsufficientFundsException("Insufficient funds in source account: " + request.getFromAccountNumber());
+        }
+
+        // Scored like a synchronous transfer; a flagged score is kept in the metadata
+        Map<String, String> meta = metadataCodec.accountMetadata(source.getAccountNumber(), target.getAccountNumber());
+        TransactionRiskScorer.Assessment risk = stageObserver.observe(TransactionType.TRANSFER, TransactionStageObserver.RISK_SCORING,
+                TransactionStageObserver.LOCAL,
+                () -> riskScorer.assess(TransactionType.TRANSFER, source.getAccountId(), target.getAccountId(), request.getAmount()));
+        String stepUpContext = TransactionRiskScorer.applyAssessment(risk, meta, source.getAccountId());
+
+        OtpVerifyRequest otpReq = new OtpVerifyRequest(source.getUserId(), "WITHDRAWAL", stepUpContext, request.getOtpCode());
+        RemotePreCheckExecutor.Stage verifications = preCheckExecutor.newStage();
+        verifications.run("source KYC check", () -> kycVerifier.requireVerified(source.getUserId()));
+        verifications.run("target KYC check", () -> kycVerifier.requireVerified(target.getUserId()));
+        CompletableFuture<OtpVerifyResponse> otpVerification = verifications.call("OTP verification", () -> otpServiceClient.verify(otpReq));
+        verifications.await();
+        OtpVerifyResponse otpRes = otpVerification.join();
+        if (otpRes == null || !otpRes.isVerified()) {
+            if (otpRes != null && stepUpContext != null) {
+                throw TransactionRiskScorer.stepUpRequired("transfer", stepUpContext);
+            }
+            throw new OtpVerificationFailedException("OTP verification failed: " + (otpRes != null ? otpRes.getMessage() : "no response"));
+        }
+
+        TransferSaga saga = transactionTemplate.execute(status -> {
+            Transaction transaction = stateMachine.begin(TransactionType.TRANSFER, request.getAmount(),
+                    source.getAccountId(), target.getAccountId(), null, meta);
+
+            LocalDateTime now = LocalDateTime.now();
+            TransferSaga s = new TransferSaga();
+            s.setTransactionId(transaction.getTransactionId());
+            s.setFromAccountId(source.getAccountId());
+            s.setFromAccountNumber(source.getAccountNumber());
+            s.setFromUserId(source.getUserId());
+            s.setFromAccountType(source.getAccountType());
+            s.setToAccountId(target.getAccountId());
+            s.setToAccountNumber(target.getAccountNumber());
+            s.setToUserId(target.getUserId());
+            s.setAmount(request.getAmount());
+            s.setStep(TransferSagaStep.ACCEPTED);
+            s.setAttempts(0);
+            s.setCreatedAt(now);
+            s.setUpdatedAt(now);
+            TransferSaga saved = sagaRepository.save(s);
+
+            String transactionId = saved.getTransactionId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(transactionId);
+                }
+            });
+            return saved;
+        });
+        return toResponse(saga);
+    }
+
+    @Override
+    public Optional<TransferSagaResponse> getSaga(String transactionId) {
+        return sagaRepository.findById(transactionId).map(this::toResponse);
+    }
+
+    /**
+     * Picks up sagas that were not queued (queue full, restart) and closes sagas interrupted mid-call.
+     */
+    @Scheduled(fixedDelayString = "${transaction.saga.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String transactionId : sagaRepository.findUnleasedIds(RUNNABLE, now, PageRequest.of(0, pollBatchSize))) {
+                if (workers.getQueue().remainingCapacity() == 0) {
+                    break;
+                }
+                dispatch(transactionId);
+            }
+            for (String transactionId : sagaRepository.findUnleasedIds(INTERRUPTED, now, PageRequest.of(0, pollBatchSize))) {
+                if (sagaRepository.claim(transactionId, INTERRUPTED, now, now.plusNanos(leaseMs * 1_000_000L)) == 1) {
+                    sagaRepository.findById(transactionId).ifPresent(saga -> finish(saga, TransferSagaStep.IN_DOUBT,
+                            "Interrupted during " + saga.getStep() + "; the Account Service outcome needs manual review."));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Transfer saga: poll failed: " + e.getMessage());
+        }
+    }
+
+    private void dispatch(String transactionId) {
+        try {
+            workers.execute(() -> drive(transactionId));
+        } catch (RejectedExecutionException e) {
+            // Still ACCEPTED in the DB; the poll will submit it once the queue drains
+            System.err.println("Transfer saga: queue full, deferring " + transactionId + " to the poll.");
+        }
+    }
+
+    void drive(String transactionId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (sagaRepository.claim(transactionId, RUNNABLE, now, now.plusNanos(leaseMs * 1_000_000L)) == 0) {
+            return;
+        }
+        TransferSaga saga = sagaRepository.findById(transactionId).orElse(null);
+        if (saga == null) {
+            return;
+        }
+
+        TransactionLimitEngine.Reservation reservation = TransactionLimitEngine.Reservation.NONE;
+        try {
+            if (saga.getStep() == TransferSagaStep.ACCEPTED) {
+                AccountDto source = new AccountDto(saga.getFromAccountId(), saga.getFromUserId(), saga.getFromAccountNumber(),
+                        saga.getFromAccountType(), null, AccountDto.AccountStatus.ACTIVE, null, null, null);
+                double amount = saga.getAmount();
+                try {
+                    reservation = stageObserver.observe(TransactionType.TRANSFER, TransactionStageObserver.LIMIT_EVALUATION,
+                            TransactionStageObserver.LOCAL, () -> limitEngine.reserveDebit(source, amount, "Transfer"));
+                } catch (InvalidTransactionException e) {
+                    finish(saga, TransferSagaStep.FAILED, e.getMessage());
+                    return;
+                }
+
+                try {
+                    saga = moveTo(saga, TransferSagaStep.TRANSFERRING);
+                } catch (RuntimeException e) {
+                    reservation.release(); // nothing moved; the poll retries from ACCEPTED
+                    throw e;
+                }
+            }
+            if (saga.getStep() == TransferSagaStep.TRANSFERRING) {
+                // On a re-drive the transfer is sent again under the same transactionId; Account Service
+                // answers with the recorded result if the earlier call did go through
+                final TransferSaga transferring = saga;
+                AccountTransferResponseDto transferred;
+                try {
+                    transferred = stageObserver.observe(TransactionType.TRANSFER, TransactionStageObserver.TRANSFER_LEGS,
+                            TransactionStageObserver.ACCOUNT_SERVICE,
+                            () -> accountServiceClient.transferFunds(new AccountTransferRequestDto(transferring.getTransactionId(),
+                                    transferring.getFromAccountId(), transferring.getToAccountId(), transferring.getAmount())));
+                } catch (RuntimeException e) {
+                    if (AccountServiceFailures.isRejection(e)) {
+                        reservation.release();
+                        finish(saga, TransferSagaStep.FAILED, "Transfer rejected by Account Service: " + AccountServiceFailures.rootMessage(e));
+                    } else {
+                        // The debit may have happened, so the reservation stays counted
+                        retryTransferLater(saga, "Account Service transfer outcome unknown: " + AccountServiceFailures.rootMessage(e));
+                    }
+                    return;
+                }
+                AccountLedger.Leg fromLeg = AccountLedger.fromLegOf(transferred);
+                AccountLedger.Leg toLeg = AccountLedger.toLegOf(transferred);
+                saga.setFromBalanceAfter(fromLeg != null ? fromLeg.balanceAfter() : null);
+                saga.setFromSequence(fromLeg != null ? fromLeg.sequence() : null);
+                saga.setToBalanceAfter(toLeg != null ? toLeg.balanceAfter() : null);
+                saga.setToSequence(toLeg != null ? toLeg.sequence() : null);
+                saga.setAppliedAt(toLeg != null ? toLeg.appliedAt() : fromLeg != null ? fromLeg.appliedAt() : null);
+                try {
+                    saga = moveTo(saga, TransferSagaStep.TRANSFERRED);
+                } catch (RuntimeException e) {
+                    // Completion below writes the final step anyway; keep going with what we know
+                    System.err.println("Transfer saga: could not record TRANSFERRED for " + transactionId + ": " + e.getMessage());
+                }
+            }
+            complete(saga, reservation);
+        } catch (RuntimeException e) {
+            System.err.println("Transfer saga: " + transactionId + " stopped at " + saga.getStep() + ", will be retried by the poll: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Leaves the saga in TRANSFERRING with its lease pushed out by a growing backoff, so the poll sends the
+     * transfer again later. Ends in IN_DOUBT once transfer-attempts calls have had an unknown outcome.
+     */
+    private void retryTransferLater(TransferSaga saga, String reason) {
+        int attempts = saga.getAttempts() + 1;
+        if (attempts >= transferAttempts) {
+            finish(saga, TransferSagaStep.IN_DOUBT, reason + " (after " + attempts + " attempts)");
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                saga.setAttempts(attempts);
+                saga.setFailureReason(reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+                saga.setUpdatedAt(now);
+                saga.setLeaseUntil(now.plusNanos(transferBackoffMs * attempts * 1_000_000L));
+                sagaRepository.save(saga);
+            });
+            meterRegistry.counter("transaction.saga.transfer.retries").increment();
+        } catch (RuntimeException e) {
+            // The current lease expires and the poll re-drives it anyway
+            System.err.println("Transfer saga: could not schedule a retry for " + saga.getTransactionId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the Transaction SUCCESS, notifies both users and closes the saga, all in one commit; the
+     * risk profile learns the transfer once that commits. Retried a few times; if it still fails, the money is sent back.
+     */
+    private void complete(TransferSaga saga, TransactionLimitEngine.Reservation reservation) {
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= completeAttempts; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Transaction transaction = transactionRepository.findById(saga.getTransactionId())
+                            .orElseThrow(() -> new TransactionProcessingException("Transaction " + saga.getTransactionId() + " not found"));
+                    transaction = stateMachine.succeed(transaction,
+                            AccountLedger.leg(saga.getFromBalanceAfter(), saga.getFromSequence(), saga.getAppliedAt()),
+                            AccountLedger.leg(saga.getToBalanceAfter(), saga.getToSequence(), saga.getAppliedAt()));
+                    riskScorer.learn(saga.getFromAccountId(), saga.getToAccountId(), saga.getAmount());
+
+                    String senderMessage = "A transfer of " + saga.getAmount() + " has been made from your account " + saga.getFromAccountNumber()
+                            + " to " + saga.getToAccountNumber() + ". Transaction ID: " + transaction.getTransactionId();
+                    publish(transaction, saga.getFromUserId(), saga.getFromAccountId(), saga.getAmount(), senderMessage);
+                    String receiverMessage = "You have received " + saga.getAmount() + " in your account " + saga.getToAccountNumber()
+                            + " from " + saga.getFromAccountNumber() + ". Transaction ID: " + transaction.getTransactionId();
+                    publish(transaction, saga.getToUserId(), saga.getToAccountId(), saga.getAmount(), receiverMessage);
+
+                    close(saga, TransferSagaStep.COMPLETED, null, attempt);
+                });
+                meterRegistry.counter("transaction.saga.finished", "step", TransferSagaStep.COMPLETED.name()).increment();
+                return;
+            } catch (RuntimeException e) {
+                lastError = e;
+                System.err.println("Transfer saga: completing " + saga.getTransactionId() + " failed (attempt " + attempt + "): " + e.getMessage());
+            }
+        }
+        compensate(saga, reservation, lastError);
+    }
+
+    /**
+     * Sends the amount back from the target to the source under a derived reference.
+     */
+    private void compensate(TransferSaga saga, TransactionLimitEngine.Reservation reservation, RuntimeException cause) {
+        try {
+            saga = moveTo(saga, TransferSagaStep.COMPENSATING);
+        } catch (RuntimeException e) {
+            System.err.println("Transfer saga: could not record COMPENSATING for " + saga.getTransactionId() + ": " + e.getMessage());
+        }
+        try {
+            accountServiceClient.transferFunds(new AccountTransferRequestDto(saga.getTransactionId() + "-REVERSAL",
+                    saga.getToAccountId(), saga.getFromAccountId(), saga.getAmount()));
+        } catch (RuntimeException e) {
+            finish(saga, TransferSagaStep.IN_DOUBT, "Completion failed (" + AccountServiceFailures.rootMessage(cause)
+                    + ") and the reversal did not go through: " + AccountServiceFailures.rootMessage(e));
+            return;
+        }
+        reservation.release();
+        finish(saga, TransferSagaStep.COMPENSATED, "Reversed after completion failed: " + AccountServiceFailures.rootMessage(cause));
+    }
+
+    /**
+     * Ends a saga that did not complete. FAILED and COMPENSATED mark the Transaction FAILED and tell the
+     * sender; IN_DOUBT leaves it PENDING until someone reconciles it with Account Service.
+     */
+    private void finish(TransferSaga saga, TransferSagaStep step, String reason) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (step != TransferSagaStep.IN_DOUBT) {
+                    Transaction transaction = transactionRepository.findById(saga.getTransactionId()).orElse(null);
+                    if (transaction != null && transaction.getStatus() == TransactionStatus.PENDING) {
+                        stateMachine.fail(transaction);
+                        String message = "Your transfer of " + saga.getAmount() + " from " + saga.getFromAccountNumber()
+                                + " to " + saga.getToAccountNumber() + " could not be completed"
+                                + (step == TransferSagaStep.COMPENSATED ? " and has been reversed" : "")
+                                + ". Transaction ID: " + saga.getTransactionId();
+                        publish(transaction, saga.getFromUserId(), saga.getFromAccountId(), saga.getAmount(), message);
+                    }
+                }
+                close(saga, step, reason, saga.getAttempts() + 1);
+            });
+            meterRegistry.counter("transaction.saga.finished", "step", step.name()).increment();
+        } catch (RuntimeException e) {
+            // The lease expires and the poll settles it from the last durable step
+            System.err.println("Transfer saga: could not record " + step + " for " + saga.getTransactionId() + ": " + e.getMessage());
+        }
+    }
+
+    private void close(TransferSaga saga, TransferSagaStep step, String reason, int attempts) {
+        LocalDateTime now = LocalDateTime.now();
+        TransferSaga current = sagaRepository.findById(saga.getTransactionId()).orElse(saga);
+        current.setStep(step);
+        current.setAttempts(attempts);
+        current.setFailureReason(reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+        current.setUpdatedAt(now);
+        current.setCompletedAt(now);
+        current.setLeaseUntil(null);
+        sagaRepository.save(current);
+    }
+
+    private TransferSaga moveTo(TransferSaga saga, TransferSagaStep step) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            saga.setStep(step);
+            saga.setUpdatedAt(now);
+            saga.setLeaseUntil(now.plusNanos(leaseMs * 1_000_000L));
+            return sagaRepository.save(saga);
+        });
+    }
+
+    private void publish(Transaction transaction, String userId, String accountId, Double amount, String message) {
+        transactionEventOutbox.record(TRANSACTION_EVENTS_TOPIC, userId, new TransactionCompletedEvent(
+                transaction.getTransactionId(), userId, accountId, amount,
+                transaction.getType().name(), transaction.getStatus().name(), message));
+    }
+
+    private TransferSagaResponse toResponse(TransferSaga saga) {
+        return new TransferSagaResponse(
+                saga.getTransactionId(),
+                saga.getStep(),
+                saga.getFromAccountNumber(),
+                saga.getToAccountNumber(),
+                saga.getAmount(),
+                saga.getCreatedAt(),
+                saga.getUpdatedAt(),
+                saga.getCompletedAt(),
+                saga.getFailureReason());
+    }
+}
@@ -197,11 +197,24 @@ public class UserServiceImpl implements UserService {
         Optional.ofNullable(request.getDateOfBirth()).ifPresent(existingUser::setDateOfBirth);
         Optional.ofNullable(request.getAddress()).ifPresent(existingUser::setAddress);
         Optional.ofNullable(request.getPhoneNumber()).ifPresent(existingUser::setPhoneNumber);
+        KycStatus oldKycStatus = existingUser.getKycStatus();
         Optional.ofNullable(request.getKycStatus()).ifPresent(existingUser::setKycStatus);
 
         try {
             User updatedUser = userRepository.save(existingUser);
             // Optional: Update user in Keycloak if username/email/role changed
+
+            // Consumers cache KYC state (e.g. TransactionService), so a change here must be announced too
+            if (updatedUser.getKycStatus() != oldKycStatus) {
+                publishKycStatusUpdatedEvent(
+                    updatedUser.getUserId(),
+                    updatedUser.getUsername(),
+                    updatedUser.getEmail(),
+                    oldKycStatus != null ? oldKycStatus.name() : null,
+                    updatedUser.getKycStatus() != null ? updatedUser.getKycStatus().name() : null,
+                    "User KYC status changed from " + oldKycStatus + " to " + updatedUser.getKycStatus() + "."
+                );
+            }
             return mapToUserResponse(updatedUser);
         } catch (DataIntegrityViolationException e) {
             throw new UserProfileUpdateException("Failed to update user profile due to data integrity violation.", e);
@@ -371,7 +384,7 @@ public class UserServiceImpl implements UserService {
             message
         );
         try {
-            kafkaTemplate.send("kyc-status-events", event); // 'kyc-status-events' is the Kafka topic name
+            kafkaTemplate.send("kyc-status-events", userId, event); // keyed by user so a user's status changes stay in order
             System.out.println("Published KYC status updated event to Kafka: User " + userId + ", Status: " + newKycStatus);
         } catch (Exception e) {
             System.err.println("Failed to publish KYC status updated event to Kafka for user " + userId + ": " + e.getMessage());
@@ -1,13 +1,20 @@
 package com.bank.aiorchestrator.integrations.account;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.bank.aiorchestrator.config.FeignOAuth2Config;
+import com.bank.aiorchestrator.integrations.account.dto.AccountBatchRequest;
 import com.bank.aiorchestrator.integrations.account.dto.AccountResponse;
 
 /**
@@ -23,4 +30,28 @@ public interface AccountAdminClient {
 
     @GetMapping(value = "/accounts/user/{userId}", consumes = MediaType.ALL_VALUE)
     List<AccountResponse> getAccountsByUser(@PathVariable("userId") String userId);
+
+    /**
+     * Accounts matching any of the given IDs/numbers/user IDs; unknown ones are left out.
+     */
+    @PostMapping("/accounts/batch")
+    List<AccountResponse> getAccountsBatch(@RequestBody AccountBatchRequest request);
+
+    /**
+     * Accounts of many users grouped by userId, one batch call per 500 users.
+     * Users without accounts are absent from the map.
+     */
+    default Map<String, List<AccountResponse>> getAccountsByUsers(Collection<String> userIds) {
+        List<String> ids = new ArrayList<>(userIds);
+        Map<String, List<AccountResponse>> byUser = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += 500) {
+            List<AccountResponse> accounts = getAccountsBatch(
+                    AccountBatchRequest.byUserIds(ids.subList(start, Math.min(start + 500, ids.size()))));
+            if (accounts == null) continue;
+            for (AccountResponse account : accounts) {
+                byUser.computeIfAbsent(account.getUserId(), k -> new ArrayList<>()).add(account);
+            }
+        }
+        return byUser;
+    }
 }
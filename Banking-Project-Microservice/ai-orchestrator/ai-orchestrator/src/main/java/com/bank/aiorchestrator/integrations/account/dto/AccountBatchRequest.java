@@ -0,0 +1,45 @@
+package com.bank.aiorchestrator.integrations.account.dto;
+
+import java.util.List;
+
+/**
+ * Mirror of AccountMicroservice's AccountBatchRequest (POST /accounts/batch).
+ * Any combination of the lists may be set; each is capped at 500 entries.
+ */
+public class AccountBatchRequest {
+    private List<String> accountIds;
+    private List<String> accountNumbers;
+    private List<String> userIds;
+
+    public AccountBatchRequest() {}
+
+    public static AccountBatchRequest byUserIds(List<String> userIds) {
+        AccountBatchRequest request = new AccountBatchRequest();
+        request.setUserIds(userIds);
+        return request;
+    }
+
+    public List<String> getAccountIds() {
+        return accountIds;
+    }
+
+    public void setAccountIds(List<String> accountIds) {
+        this.accountIds = accountIds;
+    }
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    public void setAccountNumbers(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<String> userIds) {
+        this.userIds = userIds;
+    }
+}
@@ -1,8 +1,10 @@
 package com.bank.aiorchestrator.workflow;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,12 +77,15 @@ public class CardWorkflow {
             return;
         }
 
+        // Accounts of every credit applicant in one batch call instead of one call per application
+        Map<String, List<AccountResponse>> accountsByUser = loadAccounts(apps);
+
         int pending = 0;
         for (CardApplicationResponse app : apps) {
             if (!"SUBMITTED".equalsIgnoreCase(s(app.getStatus()))) continue;
             pending++;
 
-            Decision d = decide(app);
+            Decision d = decide(app, accountsByUser);
             if (agentStateService.getMode() == AgentMode.DRY_RUN) {
                 log.info("Cards[DRY_RUN]: appId={} user={} type={} decision={} limit={} comment='{}'",
                         app.getApplicationId(), app.getUserId(), s(app.getType()), d.action, d.approvedLimit, d.comment);
@@ -118,7 +123,27 @@ public class CardWorkflow {
         queueMetricsService.setQueueSize("cards", pending);
     }
 
-    private Decision decide(CardApplicationResponse app) {
+    // Null when the lookup failed, so each credit application is rejected conservatively
+    private Map<String, List<AccountResponse>> loadAccounts(List<CardApplicationResponse> apps) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (CardApplicationResponse app : apps) {
+            if ("SUBMITTED".equalsIgnoreCase(s(app.getStatus())) && TYPE_CREDIT.equalsIgnoreCase(s(app.getType()))
+                    && app.getUserId() != null) {
+                userIds.add(app.getUserId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return accountClient.getAccountsByUsers(userIds);
+        } catch (Exception ex) {
+            log.warn("Cards: batch account lookup for {} user(s) failed: {}", userIds.size(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private Decision decide(CardApplicationResponse app, Map<String, List<AccountResponse>> accountsByUser) {
         String type = s(app.getType());
         if (TYPE_DEBIT.equalsIgnoreCase(type)) {
             return approve(null, "Auto-approved DEBIT card with default expiry.");
@@ -127,14 +152,12 @@ public class CardWorkflow {
             return reject("Unknown card type. Rejecting conservatively.");
         }
 
-        List<AccountResponse> accounts = null;
-        try {
-            accounts = accountClient.getAccountsByUser(app.getUserId());
-        } catch (Exception ex) {
+        if (accountsByUser == null) {
             String msg = "Could not retrieve accounts to evaluate credit card. Rejecting conservatively.";
-            log.warn("Cards: {} user={} error={}", msg, app.getUserId(), ex.getMessage());
+            log.warn("Cards: {} user={}", msg, app.getUserId());
             return reject(msg);
         }
+        List<AccountResponse> accounts = accountsByUser.getOrDefault(app.getUserId(), List.of());
         long joined = sumBalances(accounts);
         boolean hasSalary = hasCorporateAccount(accounts);
 
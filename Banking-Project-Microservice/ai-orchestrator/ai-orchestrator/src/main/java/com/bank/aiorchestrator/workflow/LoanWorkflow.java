@@ -1,9 +1,11 @@
 package com.bank.aiorchestrator.workflow;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,6 +82,9 @@ public class LoanWorkflow {
             return;
         }
 
+        // Accounts of every applicant in one batch call instead of one call per application
+        Map<String, List<AccountResponse>> accountsByUser = loadAccounts(all);
+
         int pendingCount = 0;
         for (LoanResponseDto loan : all) {
             if (!"PENDING".equalsIgnoreCase(s(loan.getStatus()))) {
@@ -87,7 +92,7 @@ public class LoanWorkflow {
             }
             pendingCount++;
 
-            Decision decision = decide(loan);
+            Decision decision = decide(loan, accountsByUser);
 
             // Simple idempotency: skip if we already processed same evidence for this loan
             String evidenceHash = auditService.evidenceHash(Map.of(
@@ -130,16 +135,33 @@ public class LoanWorkflow {
         queueMetricsService.setQueueSize("loans", pendingCount);
     }
 
-    private Decision decide(LoanResponseDto loan) {
-        String userId = loan.getUserId();
-        List<AccountResponse> accounts = null;
+    // Null when the lookup failed, so each pending loan is rejected conservatively
+    private Map<String, List<AccountResponse>> loadAccounts(List<LoanResponseDto> loans) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (LoanResponseDto loan : loans) {
+            if ("PENDING".equalsIgnoreCase(s(loan.getStatus())) && loan.getUserId() != null) {
+                userIds.add(loan.getUserId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
         try {
-            accounts = accountClient.getAccountsByUser(userId);
+            return accountClient.getAccountsByUsers(userIds);
         } catch (Exception ex) {
+            log.warn("Loans: batch account lookup for {} user(s) failed: {}", userIds.size(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private Decision decide(LoanResponseDto loan, Map<String, List<AccountResponse>> accountsByUser) {
+        String userId = loan.getUserId();
+        if (accountsByUser == null) {
             String msg = "Could not retrieve accounts to evaluate loan. Rejecting conservatively.";
-            log.warn("Loans: {} user={} error={}", msg, userId, ex.getMessage());
+            log.warn("Loans: {} user={}", msg, userId);
             return reject(msg);
         }
+        List<AccountResponse> accounts = accountsByUser.getOrDefault(userId, List.of());
         long joinedBalance = sumBalances(accounts);
         boolean hasCorporate = hasCorporateAccount(accounts);
         long requested = toLong(loan.getAmount());
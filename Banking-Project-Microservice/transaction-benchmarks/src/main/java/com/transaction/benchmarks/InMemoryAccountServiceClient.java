@@ -0,0 +1,115 @@
+package com.transaction.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.transaction.dto.AccountBatchRequestDto;
+import com.transaction.dto.AccountDto;
+import com.transaction.dto.AccountTransferRequestDto;
+import com.transaction.dto.AccountTransferResponseDto;
+import com.transaction.dto.DepositRequestDto;
+import com.transaction.dto.WithdrawRequestDto;
+import com.transaction.proxyService.AccountServiceClient;
+
+/**
+ * Fixed pool of ACTIVE SAVINGS accounts, one per user, answered without any I/O.
+ * Balances are large and never move, so withdrawals and transfers can run indefinitely.
+ * Every call returns a fresh copy, like a deserialized Feign response would.
+ */
+public class InMemoryAccountServiceClient implements AccountServiceClient {
+
+    public static final int ACCOUNTS = 1024;
+    private static final double BALANCE = 1_000_000_000_000d;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static String accountId(int index) {
+        return "bench-acc-" + index;
+    }
+
+    public static String accountNumber(int index) {
+        return "BENCH" + String.format("%06d", index);
+    }
+
+    public static String userId(int index) {
+        return "bench-user-" + index;
+    }
+
+    @Override
+    public AccountDto getAccountById(String accountId) {
+        return account(parseIndex(accountId, "bench-acc-"));
+    }
+
+    @Override
+    public AccountDto getAccountByAccountNumber(String accountNumber) {
+        return account(parseIndex(accountNumber, "BENCH"));
+    }
+
+    @Override
+    public List<AccountDto> getAccountsByUserId(String userId) {
+        List<AccountDto> accounts = new ArrayList<>(1);
+        AccountDto account = account(parseIndex(userId, "bench-user-"));
+        if (account != null) {
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    @Override
+    public List<AccountDto> getAccountsBatch(AccountBatchRequestDto request) {
+        Map<String, AccountDto> accounts = new LinkedHashMap<>();
+        if (request.getAccountIds() != null) {
+            request.getAccountIds().forEach(id -> add(accounts, getAccountById(id)));
+        }
+        if (request.getAccountNumbers() != null) {
+            request.getAccountNumbers().forEach(number -> add(accounts, getAccountByAccountNumber(number)));
+        }
+        if (request.getUserIds() != null) {
+            request.getUserIds().forEach(userId -> getAccountsByUserId(userId).forEach(account -> add(accounts, account)));
+        }
+        return new ArrayList<>(accounts.values());
+    }
+
+    private static void add(Map<String, AccountDto> accounts, AccountDto account) {
+        if (account != null) {
+            accounts.putIfAbsent(account.getAccountId(), account);
+        }
+    }
+
+    @Override
+    public AccountDto depositFunds(String accountId, DepositRequestDto requestDto) {
+        return getAccountById(accountId);
+    }
+
+    @Override
+    public AccountDto withdrawFunds(String accountId, WithdrawRequestDto requestDto) {
+        return getAccountById(accountId);
+    }
+
+    @Override
+    public AccountTransferResponseDto transferFunds(AccountTransferRequestDto requestDto) {
+        return new AccountTransferResponseDto(requestDto.getTransactionId(),
+                getAccountById(requestDto.getFromAccountId()), getAccountById(requestDto.getToAccountId()));
+    }
+
+    private AccountDto account(int index) {
+        if (index < 0 || index >= ACCOUNTS) {
+            return null;
+        }
+        return new AccountDto(accountId(index), userId(index), accountNumber(index), AccountDto.AccountType.SAVINGS,
+                BALANCE, AccountDto.AccountStatus.ACTIVE, CREATED_AT);
+    }
+
+    private int parseIndex(String value, String prefix) {
+        if (value == null || !value.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.transaction.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.transaction.dto.OtpGenerateRequest;
+import com.transaction.dto.OtpGenerateResponse;
+import com.transaction.dto.OtpVerifyRequest;
+import com.transaction.dto.OtpVerifyResponse;
+import com.transaction.proxyService.OtpServiceClient;
+
+/**
+ * Accepts every OTP code.
+ */
+public class InMemoryOtpServiceClient implements OtpServiceClient {
+
+    @Override
+    public OtpVerifyResponse verify(OtpVerifyRequest request) {
+        return new OtpVerifyResponse(true, UUID.randomUUID().toString(), LocalDateTime.now(), null, "verified");
+    }
+
+    @Override
+    public OtpGenerateResponse generatePublic(OtpGenerateRequest request) {
+        return new OtpGenerateResponse(UUID.randomUUID().toString(), LocalDateTime.now().plusMinutes(5));
+    }
+
+    @Override
+    public OtpVerifyResponse verifyPublic(OtpVerifyRequest request) {
+        return verify(request);
+    }
+}
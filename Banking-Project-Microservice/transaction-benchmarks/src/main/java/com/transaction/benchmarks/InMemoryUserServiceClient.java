@@ -0,0 +1,21 @@
+package com.transaction.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.transaction.dto.UserDto;
+import com.transaction.proxyService.UserServiceClient;
+
+/**
+ * Every user exists and is KYC VERIFIED.
+ */
+public class InMemoryUserServiceClient implements UserServiceClient {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Override
+    public UserDto getUserProfileById(String userId) {
+        return new UserDto(userId, userId, userId + "@bench.local", UserDto.UserRole.CUSTOMER, CREATED_AT,
+                "Bench", "User", LocalDate.of(1990, 1, 1), "Bench Street", "0000000000", UserDto.KycStatus.VERIFIED);
+    }
+}
@@ -0,0 +1,48 @@
+package com.transaction.benchmarks;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.proxyService.OtpServiceClient;
+import com.transaction.proxyService.UserServiceClient;
+
+/**
+ * Swaps the Feign clients on the hot paths and the KafkaTemplate for in-memory stubs.
+ * Runs after configuration classes are parsed, so the Feign and Kafka auto-configuration
+ * bean definitions already exist and are replaced rather than competing as a second primary.
+ */
+public class RemoteServiceStubs implements BeanDefinitionRegistryPostProcessor {
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        replace(registry, AccountServiceClient.class, AccountServiceClient.class.getName(), InMemoryAccountServiceClient::new);
+        replace(registry, UserServiceClient.class, UserServiceClient.class.getName(), InMemoryUserServiceClient::new);
+        replace(registry, OtpServiceClient.class, OtpServiceClient.class.getName(), InMemoryOtpServiceClient::new);
+        replace(registry, KafkaTemplate.class, "kafkaTemplate", NoOpKafkaTemplate::new);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void replace(BeanDefinitionRegistry registry, Class<?> type, String beanName, Supplier<?> stub) {
+        for (String name : registry.getBeanDefinitionNames()) {
+            BeanDefinition definition = registry.getBeanDefinition(name);
+            if (name.equals(beanName) || type.getName().equals(definition.getBeanClassName())) {
+                registry.removeBeanDefinition(name);
+            }
+        }
+        RootBeanDefinition stubDefinition = new RootBeanDefinition((Class) type, (Supplier) stub);
+        stubDefinition.setPrimary(true);
+        registry.registerBeanDefinition(beanName, stubDefinition);
+    }
+}
@@ -0,0 +1,126 @@
+package com.transaction.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.transaction.dto.AccountDto;
+import com.transaction.event.TransactionCompletedEvent;
+import com.transaction.model.Transaction;
+import com.transaction.model.TransactionType;
+import com.transaction.proxyService.AccountServiceClient;
+import com.transaction.service.KycVerifier;
+import com.transaction.service.RemotePreCheckExecutor;
+import com.transaction.service.TransactionEventOutbox;
+import com.transaction.service.TransactionLimitEngine;
+import com.transaction.service.TransactionMetadataCodec;
+import com.transaction.service.TransactionStateMachine;
+
+/**
+ * Latency distribution of the individual stages a deposit, withdrawal or transfer is made of,
+ * so a change to one stage can be measured without the noise of the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class StageBenchmark {
+
+    private static final double AMOUNT = 100.0;
+
+    private TransactionStateMachine stateMachine;
+    private TransactionMetadataCodec metadataCodec;
+    private TransactionLimitEngine limitEngine;
+    private KycVerifier kycVerifier;
+    private TransactionEventOutbox transactionEventOutbox;
+    private RemotePreCheckExecutor preCheckExecutor;
+    private AccountServiceClient accountServiceClient;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp(ServiceContext context) {
+        stateMachine = context.bean(TransactionStateMachine.class);
+        metadataCodec = context.bean(TransactionMetadataCodec.class);
+        limitEngine = context.bean(TransactionLimitEngine.class);
+        kycVerifier = context.bean(KycVerifier.class);
+        transactionEventOutbox = context.bean(TransactionEventOutbox.class);
+        preCheckExecutor = context.bean(RemotePreCheckExecutor.class);
+        accountServiceClient = context.bean(AccountServiceClient.class);
+        transactionTemplate = new TransactionTemplate(context.bean(PlatformTransactionManager.class));
+    }
+
+    /** PENDING insert plus the single outcome update (with its ledger entry), in one transaction. */
+    @Benchmark
+    public Transaction stateMachineWrites() {
+        int account = randomAccount();
+        return transactionTemplate.execute(status -> {
+            Transaction transaction = stateMachine.begin(TransactionType.DEPOSIT, AMOUNT, null,
+                    InMemoryAccountServiceClient.accountId(account), null, null);
+            stateMachine.describe(transaction, metadataCodec.accountMetadata(null, InMemoryAccountServiceClient.accountNumber(account)));
+            return stateMachine.succeed(transaction, null, AMOUNT);
+        });
+    }
+
+    @Benchmark
+    public String metadataEncoding() {
+        int account = randomAccount();
+        return metadataCodec.encode(metadataCodec.accountMetadata(
+                InMemoryAccountServiceClient.accountNumber(account), InMemoryAccountServiceClient.accountNumber(account + 1)));
+    }
+
+    /** Debit reservation against the rolling windows; released straight away to keep the rings steady. */
+    @Benchmark
+    public void limitReservation() {
+        AccountDto source = accountServiceClient.getAccountById(InMemoryAccountServiceClient.accountId(randomAccount()));
+        limitEngine.reserveDebit(source, AMOUNT, "Withdrawal").release();
+    }
+
+    @Benchmark
+    public void kycCheck() {
+        kycVerifier.requireVerified(InMemoryAccountServiceClient.userId(randomAccount()));
+    }
+
+    /** Outbox insert in its own transaction; the relay drains it to the no-op KafkaTemplate after commit. */
+    @Benchmark
+    public void outboxRecord() {
+        int account = randomAccount();
+        String userId = InMemoryAccountServiceClient.userId(account);
+        transactionEventOutbox.record("transaction-events", userId, new TransactionCompletedEvent(
+                "bench", userId, InMemoryAccountServiceClient.accountId(account), AMOUNT, "DEPOSIT", "SUCCESS", "benchmark"));
+    }
+
+    /** Two account lookups handed to the pre-check pool and joined, as transfer does. */
+    @Benchmark
+    public AccountDto preCheckFanOut() {
+        int account = randomAccount();
+        RemotePreCheckExecutor.Stage stage = preCheckExecutor.newStage();
+        CompletableFuture<AccountDto> source = stage.call("source account lookup",
+                () -> accountServiceClient.getAccountByAccountNumber(InMemoryAccountServiceClient.accountNumber(account)));
+        CompletableFuture<AccountDto> target = stage.call("target account lookup",
+                () -> accountServiceClient.getAccountByAccountNumber(InMemoryAccountServiceClient.accountNumber(account + 1)));
+        stage.await();
+        source.join();
+        return target.join();
+    }
+
+    private int randomAccount() {
+        return ThreadLocalRandom.current().nextInt(InMemoryAccountServiceClient.ACCOUNTS - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.transaction.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.transaction.dto.DepositRequest;
+import com.transaction.dto.TransferRequest;
+import com.transaction.dto.WithdrawRequest;
+import com.transaction.model.Transaction;
+import com.transaction.service.TransactionService;
+
+/**
+ * End-to-end cost of the money paths inside the service: state machine writes, limit checks,
+ * pre-check fan-out and the outbox, with every remote call answered in memory.
+ * Accounts are picked at random from the stub pool so concurrent threads rarely share one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class TransactionServiceBenchmark {
+
+    private static final double AMOUNT = 100.0;
+    private static final String OTP = "123456";
+
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp(ServiceContext context) {
+        transactionService = context.bean(TransactionService.class);
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        int account = ThreadLocalRandom.current().nextInt(InMemoryAccountServiceClient.ACCOUNTS);
+        return transactionService.deposit(new DepositRequest(InMemoryAccountServiceClient.accountId(account), AMOUNT));
+    }
+
+    @Benchmark
+    public Transaction withdraw() {
+        int account = ThreadLocalRandom.current().nextInt(InMemoryAccountServiceClient.ACCOUNTS);
+        return transactionService.withdraw(new WithdrawRequest(InMemoryAccountServiceClient.accountId(account), AMOUNT, OTP));
+    }
+
+    @Benchmark
+    public Transaction transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(InMemoryAccountServiceClient.ACCOUNTS);
+        int to = (from + 1 + random.nextInt(InMemoryAccountServiceClient.ACCOUNTS - 1)) % InMemoryAccountServiceClient.ACCOUNTS;
+        return transactionService.transfer(new TransferRequest(
+                InMemoryAccountServiceClient.accountNumber(from), InMemoryAccountServiceClient.accountNumber(to), AMOUNT, OTP));
+    }
+}